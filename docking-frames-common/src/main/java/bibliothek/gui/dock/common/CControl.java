@@ -47,6 +47,7 @@
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import javax.swing.FocusManager;
 import javax.swing.Icon;
@@ -96,6 +97,7 @@
 import bibliothek.gui.dock.common.intern.CommonSingleDockableFactory;
 import bibliothek.gui.dock.common.intern.ControlVetoClosingListener;
 import bibliothek.gui.dock.common.intern.ControlVetoFocusListener;
+import bibliothek.gui.dock.common.intern.DefaultCControlRegister;
 import bibliothek.gui.dock.common.intern.EfficientControlFactory;
 import bibliothek.gui.dock.common.intern.MutableCControlRegister;
 import bibliothek.gui.dock.common.intern.action.CActionImportanceOrder;
@@ -133,9 +135,12 @@
 import bibliothek.gui.dock.control.DockableSelector;
 import bibliothek.gui.dock.control.focus.DefaultFocusStrategy;
 import bibliothek.gui.dock.control.focus.FocusStrategyRequest;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.displayer.SingleTabDecider;
 import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
+import bibliothek.gui.dock.event.DockFrontendSettingsListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
@@ -147,6 +152,9 @@
 import bibliothek.gui.dock.focus.DockableSelection;
 import bibliothek.gui.dock.frontend.FrontendEntry;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
+import bibliothek.gui.dock.frontend.SettingSource;
+import bibliothek.gui.dock.frontend.SettingsBlop;
+import bibliothek.gui.dock.frontend.SettingsBlopWriter;
 import bibliothek.gui.dock.layout.DockSituationIgnore;
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.perspective.PerspectiveDockable;
@@ -166,6 +174,11 @@
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.support.util.ApplicationResource;
 import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.ApplicationResourceSnapshot;
+import bibliothek.gui.dock.support.util.SegmentListener;
+import bibliothek.gui.dock.support.util.SegmentSource;
+import bibliothek.gui.dock.support.util.SegmentedApplicationResource;
+import bibliothek.gui.dock.support.util.SnapshotApplicationResource;
 import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.ColorScheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
@@ -669,6 +682,7 @@ public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
 		    					CDockable cdockable = ((CommonDockable)next).getDockable();
 		    					if( cdockable.getExtendedMode() != ExtendedMode.MINIMIZED ){
 		    						getController().setFocusedDockable( cdockable.intern(), true );
+		    						break;
 		    					}
 		    				}
 		    			}
@@ -866,26 +880,7 @@ protected void initPersistentStorage(){
         try{
         	addMultipleDockableFactory( "", NullMultipleCDockableFactory.NULL, false );
         	
-            resources.put( "ccontrol.frontend", new ApplicationResource(){
-                public void write( DataOutputStream out ) throws IOException {
-                    Version.write( out, Version.VERSION_1_1_1 );
-                    frontend.write( out );
-                }
-                public void read( DataInputStream in ) throws IOException {
-                    Version version = Version.read( in );
-                    version.checkCurrent();
-                    if( Version.VERSION_1_0_4.compareTo( version ) <= 0 ){
-                    	readWorkingAreas( in );
-                    }
-                    frontend.read( in );
-                }
-                public void writeXML( XElement element ) {
-                    frontend.writeXML( element.addElement( "frontend" ) );
-                }
-                public void readXML( XElement element ) {
-                    frontend.readXML( element.getElement( "frontend" ) );
-                }
-            });
+            resources.put( "ccontrol.frontend", new FrontendResource() );
 
             resources.put( "ccontrol.preferences", new ApplicationResource(){
                 public void read( DataInputStream in ) throws IOException {
@@ -1708,12 +1703,7 @@ private void checkValidUniqueId( String id ){
      * @return the element with that identifier or <code>null</code>
      */
     public SingleCDockable getSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getSingleDockable( id );
     }
 
     /**
@@ -1910,8 +1900,6 @@ public void removeSingleDockableFactory( String id ){
      * @return <code>dockable</code>
      */
     public <M extends MultipleCDockable> M addDockable( M dockable) {
-        Set<String> ids = new HashSet<String>();
-
         String factoryId;
         MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
         if( factory == null ){
@@ -1924,15 +1912,9 @@ public <M extends MultipleCDockable> M addDockable( M dockable) {
         }        	
         
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( factoryId.equals( access.getFactoryId( multi.getFactory() ))){
-                ids.add( accesses.get( multi ).getUniqueId() );
-            }
-        }
-
         int count = 0;
         String id = count + " " + factoryId;
-        while( ids.contains( register.toMultiId( id ) ) ){
+        while( getMultipleDockableByMultiId( register.toMultiId( id ) ) != null ){
             count++;
             id = count + " " + factoryId;
         }
@@ -1970,11 +1952,8 @@ public <M extends MultipleCDockable> M addDockable( String uniqueId, M dockable
 
         uniqueId = register.toMultiId( uniqueId );
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            String id = accesses.get( multi ).getUniqueId();
-            if( uniqueId.equals( id )){
-                throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
-            }
+        if( getMultipleDockableByMultiId( uniqueId ) != null ){
+            throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
         }
 
         dockable.setControlAccess( access );
@@ -2042,13 +2021,24 @@ public void replace( MultipleCDockable oldDockable, MultipleCDockable newDockabl
      * was found
      */
     public MultipleCDockable getMultipleDockable( String id ){
-        id = register.toMultiId( id );
-        for( MultipleCDockable dockable : register.getMultipleDockables() ){
-            if( accesses.get( dockable ).getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return getMultipleDockableByMultiId( register.toMultiId( id ) );
+    }
+    
+    /**
+     * Searches the {@link MultipleCDockable} which uses the unique identifier <code>multiId</code>.
+     * @param multiId an identifier created by {@link MutableCControlRegister#toMultiId(String)}
+     * @return the element using <code>multiId</code> or <code>null</code>
+     */
+    private MultipleCDockable getMultipleDockableByMultiId( String multiId ){
+    	if( register instanceof DefaultCControlRegister ){
+    		return ((DefaultCControlRegister)register).getMultipleDockable( multiId );
+    	}
+    	for( MultipleCDockable dockable : register.getMultipleDockables() ){
+    		if( accesses.get( dockable ).getUniqueId().equals( multiId )){
+    			return dockable;
+    		}
+    	}
+    	return null;
     }
 
     private boolean shouldStore( String id ){
@@ -2093,10 +2083,8 @@ private boolean shouldCreate( MultipleCDockableFactory<?, ?> factory, CommonMult
 
         String multiId = register.toMultiId( uniqueId );
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( accesses.get( multi ).getUniqueId().equals( multiId )){
-                return false;
-            }
+        if( getMultipleDockableByMultiId( multiId ) != null ){
+            return false;
         }
 
         String factoryId = access.getFactoryId( factory );
@@ -2434,6 +2422,28 @@ public void setMissingStrategy( MissingCDockableStrategy missingStrategy ) {
     public MissingCDockableStrategy getMissingStrategy() {
         return missingStrategy;
     }
+    
+    /**
+     * Sets the {@link Executor} which runs the first phase of loading a layout. During this phase
+     * {@link PreparableMultipleCDockableFactory#prepare(MultipleCDockableLayout)} is called for
+     * all the {@link MultipleCDockable}s that are about to be created. Factories can use this phase to 
+     * load their models in parallel, while the {@link MultipleCDockable}s themselves are still created
+     * on the EventDispatchThread.
+     * @param executor the executor, for example a thread pool, or <code>null</code> to prepare the layouts
+     * on the thread that loads the layout
+     */
+    public void setLayoutPreparationExecutor( Executor executor ){
+        frontend.setLayoutPreparationExecutor( executor );
+    }
+    
+    /**
+     * Gets the {@link Executor} which runs the first phase of loading a layout.
+     * @return the executor, can be <code>null</code>
+     * @see #setLayoutPreparationExecutor(Executor)
+     */
+    public Executor getLayoutPreparationExecutor(){
+        return frontend.getLayoutPreparationExecutor();
+    }
 
     /**
      * Adds a {@link ResizeRequestListener} to this {@link CControl}. The listener
@@ -2558,6 +2568,17 @@ public void write( File file ) throws IOException{
         getResources().writeFile( file );
     }
 
+    /**
+     * Writes the current and all known layouts into <code>directory</code>, each layout is stored in its
+     * own file and only layouts that changed are actually written.<br>
+     * This is the same as calling <code>getResources().writeDirectory( directory )</code>.
+     * @param directory the directory to write into
+     * @throws IOException if the directory can't be written
+     */
+    public void writeDirectory( File directory ) throws IOException{
+    	getResources().writeDirectory( directory );
+    }
+
     /**
      * Writes the current and all known layouts into <code>out</code>.<br>
      * This is the same as calling <code>getResources().writeStream( out )</code>.
@@ -2565,7 +2586,14 @@ public void write( File file ) throws IOException{
      * @throws IOException if the stream is not writable
      */
     public void write( DataOutputStream out ) throws IOException{
-        getResources().writeStream( out );
+        DockInstrumentation instrumentation = getController().getInstrumentation();
+        long begin = instrumentation.begin( DockOperation.LAYOUT_WRITE );
+        try{
+            getResources().writeStream( out );
+        }
+        finally{
+            instrumentation.end( DockOperation.LAYOUT_WRITE, begin );
+        }
     }
 
     /**
@@ -2574,7 +2602,14 @@ public void write( DataOutputStream out ) throws IOException{
      * @param element the element to write into
      */
     public void writeXML( XElement element ){
-        getResources().writeXML( element );
+        DockInstrumentation instrumentation = getController().getInstrumentation();
+        long begin = instrumentation.begin( DockOperation.LAYOUT_WRITE );
+        try{
+            getResources().writeXML( element );
+        }
+        finally{
+            instrumentation.end( DockOperation.LAYOUT_WRITE, begin );
+        }
     }
 
     /**
@@ -2584,7 +2619,7 @@ public void writeXML( XElement element ){
      */
     public void writeXML( File file ) throws IOException{
         XElement root = new XElement( "root" );
-        getResources().writeXML( root );
+        writeXML( root );
         BufferedOutputStream out = new BufferedOutputStream( new FileOutputStream( file ));
         XIO.writeUTF( root, out );
         out.close();
@@ -2600,6 +2635,18 @@ public void read( File file ) throws IOException{
         getResources().readFile( file );
     }
 
+    /**
+     * Reads the current and other known layouts from <code>directory</code>, which was written
+     * by {@link #writeDirectory(File)}. The layouts stored with {@link #save(String)} are only
+     * read once they are {@link #load(String) loaded}.<br>
+     * This is the same as calling <code>getResources().readDirectory( directory )</code>.
+     * @param directory the directory to read from
+     * @throws IOException if the directory can't be read
+     */
+    public void readDirectory( File directory ) throws IOException{
+    	getResources().readDirectory( directory );
+    }
+
     /**
      * Reads the current and other known layouts from <code>in</code>.<br>
      * This is the same as calling <code>getResources().readStream( in )</code>.
@@ -2607,7 +2654,14 @@ public void read( File file ) throws IOException{
      * @throws IOException if the stream can't be read
      */
     public void read( DataInputStream in ) throws IOException{
-        getResources().readStream( in );
+        DockInstrumentation instrumentation = getController().getInstrumentation();
+        long begin = instrumentation.begin( DockOperation.LAYOUT_READ );
+        try{
+            getResources().readStream( in );
+        }
+        finally{
+            instrumentation.end( DockOperation.LAYOUT_READ, begin );
+        }
     }
     
     /**
@@ -2617,7 +2671,14 @@ public void read( DataInputStream in ) throws IOException{
      * @throws XException if the xml file has the wrong structure
      */
     public void readXML( XElement element ){
-        getResources().readXML( element );
+        DockInstrumentation instrumentation = getController().getInstrumentation();
+        long begin = instrumentation.begin( DockOperation.LAYOUT_READ );
+        try{
+            getResources().readXML( element );
+        }
+        finally{
+            instrumentation.end( DockOperation.LAYOUT_READ, begin );
+        }
     }
     
     /**
@@ -2666,6 +2727,158 @@ public String[] layouts(){
         return settings.toArray( new String[ settings.size() ] );
     }
 
+    /**
+     * The {@link ApplicationResource} that stores the layouts of the {@link #frontend}. Each
+     * layout is a segment of its own, as is the current layout.
+     * @author Benjamin Sigg
+     */
+    private class FrontendResource implements DockFrontendSettingsListener, SegmentedApplicationResource, SnapshotApplicationResource{
+    	/** the segment containing the current layout */
+    	private static final String CURRENT_SEGMENT = "current";
+    	/** prefix of the segments containing the layouts stored with {@link CControl#save(String)} */
+    	private static final String LAYOUT_SEGMENT = "layout:";
+    	
+    	/** observers of the segments */
+    	private List<SegmentListener> listeners = new ArrayList<SegmentListener>();
+    	
+    	/**
+    	 * Creates a new resource.
+    	 */
+    	public FrontendResource(){
+    		frontend.addSettingsListener( this );
+    	}
+    	
+        public void write( DataOutputStream out ) throws IOException {
+            Version.write( out, Version.VERSION_1_1_1 );
+            frontend.write( out );
+        }
+        
+        public ApplicationResourceSnapshot snapshot(){
+        	final SettingsBlopWriter writer = frontend.createBlopWriter( frontend.writeBlop() );
+        	return new ApplicationResourceSnapshot(){
+        		public void write( DataOutputStream out ) throws IOException{
+        			Version.write( out, Version.VERSION_1_1_1 );
+        			writer.write( out );
+        		}
+        	};
+        }
+        
+        public void read( DataInputStream in ) throws IOException {
+            Version version = Version.read( in );
+            version.checkCurrent();
+            if( Version.VERSION_1_0_4.compareTo( version ) <= 0 && Version.VERSION_1_1_1.compareTo( version ) > 0 ){
+            	// since 1.1.1 the working areas are no longer written
+            	readWorkingAreas( in );
+            }
+            frontend.read( in );
+        }
+        
+        public void writeXML( XElement element ) {
+            frontend.writeXML( element.addElement( "frontend" ) );
+        }
+        
+        public void readXML( XElement element ) {
+            frontend.readXML( element.getElement( "frontend" ) );
+        }
+        
+        public String[] getSegments(){
+        	Set<String> settings = frontend.getSettings();
+        	String[] segments = new String[ settings.size()+1 ];
+        	int index = 0;
+        	for( String setting : settings ){
+        		segments[ index++ ] = LAYOUT_SEGMENT + setting;
+        	}
+        	segments[ index ] = CURRENT_SEGMENT;
+        	return segments;
+        }
+        
+        public boolean isTracked( String segment ){
+        	// the current layout changes all the time, without any event
+        	return !CURRENT_SEGMENT.equals( segment );
+        }
+        
+        public void writeSegment( String segment, DataOutputStream out ) throws IOException{
+        	Version.write( out, Version.VERSION_1_1_1 );
+        	if( CURRENT_SEGMENT.equals( segment )){
+        		frontend.writeCurrent( out );
+        	}
+        	else if( segment.startsWith( LAYOUT_SEGMENT )){
+        		frontend.writeSetting( segment.substring( LAYOUT_SEGMENT.length() ), out );
+        	}
+        	else{
+        		throw new IllegalArgumentException( "unknown segment: " + segment );
+        	}
+        }
+        
+        public void readSegments( final SegmentSource source ) throws IOException{
+        	SettingsBlop blop = new SettingsBlop();
+        	
+        	boolean current = false;
+        	for( final String segment : source.getSegments() ){
+        		if( CURRENT_SEGMENT.equals( segment )){
+        			current = true;
+        		}
+        		else if( segment.startsWith( LAYOUT_SEGMENT )){
+        			blop.put( segment.substring( LAYOUT_SEGMENT.length() ), new SettingSource(){
+        				public DataInputStream open() throws IOException{
+        					return openSegment( source, segment );
+        				}
+        			});
+        		}
+        	}
+        	
+        	if( !current ){
+        		throw new IOException( "missing segment: " + CURRENT_SEGMENT );
+        	}
+        	
+        	DataInputStream in = openSegment( source, CURRENT_SEGMENT );
+        	try{
+        		frontend.readCurrent( in, blop );
+        	}
+        	finally{
+        		in.close();
+        	}
+        	
+        	frontend.readBlop( blop, false );
+        }
+        
+        /**
+         * Opens <code>segment</code> and reads its version.
+         * @param source the source of the segment
+         * @param segment the name of the segment
+         * @return the stream, positioned after the version
+         * @throws IOException if the segment cannot be read
+         */
+        private DataInputStream openSegment( SegmentSource source, String segment ) throws IOException{
+        	DataInputStream in = source.open( segment );
+        	Version version = Version.read( in );
+        	version.checkCurrent();
+        	return in;
+        }
+        
+        public void addSegmentListener( SegmentListener listener ){
+        	listeners.add( listener );
+        }
+        
+        public void removeSegmentListener( SegmentListener listener ){
+        	listeners.remove( listener );
+        }
+        
+        /**
+         * Informs all {@link SegmentListener}s that the layout <code>name</code> changed.
+         * @param name the name of the layout
+         */
+        private void fireChanged( String name ){
+        	for( SegmentListener listener : listeners.toArray( new SegmentListener[ listeners.size() ] )){
+        		listener.segmentChanged( this, LAYOUT_SEGMENT + name );
+        	}
+        }
+        
+        public void settingChanged( DockFrontend frontend, String name ){
+        	fireChanged( name );
+        }
+    }
+    
     /**
      * A class giving access to the internal methods of the enclosing
      * {@link CControl}.
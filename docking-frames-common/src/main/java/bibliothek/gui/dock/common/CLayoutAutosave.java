@@ -0,0 +1,546 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common;
+
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.swing.Timer;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.common.event.CControlListener;
+import bibliothek.gui.dock.common.event.CDockableStateListener;
+import bibliothek.gui.dock.common.event.CLayoutAutosaveListener;
+import bibliothek.gui.dock.common.intern.CDockable;
+import bibliothek.gui.dock.common.mode.ExtendedMode;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.ApplicationResourceSnapshot;
+
+/**
+ * Automatically stores the layout of a {@link CControl} in a file whenever the layout changes.<br>
+ * Changes are detected with a {@link CControlListener}, a {@link CDockableStateListener} and a
+ * {@link bibliothek.gui.dock.event.DockRegisterListener}. Bursts of changes are collected and only
+ * after no change happened for {@link #getDelay() some time} a snapshot of the layout is taken.
+ * The {@link ApplicationResourceManager#snapshot() snapshot} of the {@link CControl#getResources() resources}
+ * is taken on the EventDispatchThread, it only captures the layouts. Serializing and compressing the snapshot,
+ * and writing it into the file, happens on a background thread. The file is never left in a half written state,
+ * the data is first written into a temporary file which then replaces the old file. Failures are reported
+ * to the {@link CLayoutAutosaveListener}s.<br>
+ * Clients should call {@link #flush()} before the application shuts down. The autosave is
+ * {@link #stop() stopped} when the {@link CControl} is {@link CControl#destroy() destroyed}, changes
+ * that were not yet written at that time are lost.
+ * @author Benjamin Sigg
+ */
+public class CLayoutAutosave {
+	/** the control whose layout is stored */
+	private CControl control;
+
+	/** the file to write into */
+	private File file;
+
+	/** whether the file is compressed */
+	private boolean compressed = true;
+
+	/** collects bursts of events */
+	private Timer timer;
+
+	/** whether this autosave currently listens to changes */
+	private boolean started = false;
+
+	/** if set, then events are ignored */
+	private int suppressed = 0;
+
+	/** the newest snapshot that was not yet written */
+	private ApplicationResourceSnapshot pending;
+
+	/** the thread writing the snapshots */
+	private ExecutorService executor;
+
+	/** the last job that was submitted to {@link #executor} */
+	private Future<?> lastJob;
+
+	/** the number of snapshots that were written */
+	private int writeCount = 0;
+
+	/** the listener added to {@link #control} */
+	private Listener listener = new Listener();
+	
+	/** the observers of this autosave */
+	private List<CLayoutAutosaveListener> listeners = new ArrayList<CLayoutAutosaveListener>();
+
+	/** stops this autosave when {@link #control} is destroyed */
+	private DestroyHook hook = new DestroyHook(){
+		public void destroy(){
+			timer.stop();
+			stop( false );
+		}
+	};
+
+	/**
+	 * Creates a new autosave. The autosave needs to be {@link #start() started}.
+	 * @param control the control whose layout is stored
+	 * @param file the file into which the layout is written
+	 */
+	public CLayoutAutosave( CControl control, File file ){
+		if( control == null ){
+			throw new IllegalArgumentException( "control must not be null" );
+		}
+		if( file == null ){
+			throw new IllegalArgumentException( "file must not be null" );
+		}
+		this.control = control;
+		this.file = file;
+
+		timer = new Timer( 2000, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				saveNow();
+			}
+		});
+		timer.setRepeats( false );
+	}
+
+	/**
+	 * Gets the file into which the layout is written.
+	 * @return the file, not <code>null</code>
+	 */
+	public File getFile(){
+		return file;
+	}
+
+	/**
+	 * Sets the time this autosave waits after a change before the layout is stored. Any
+	 * change happening during that time resets the timer.
+	 * @param delay the delay in milliseconds, default is 2000
+	 */
+	public void setDelay( int delay ){
+		if( delay < 0 ){
+			throw new IllegalArgumentException( "delay must not be negative: " + delay );
+		}
+		timer.setInitialDelay( delay );
+	}
+
+	/**
+	 * Gets the time this autosave waits until the layout is stored.
+	 * @return the delay in milliseconds
+	 * @see #setDelay(int)
+	 */
+	public int getDelay(){
+		return timer.getInitialDelay();
+	}
+
+	/**
+	 * Sets whether the file is compressed using the gzip format. {@link #read()} detects
+	 * automatically whether the file is compressed.
+	 * @param compressed whether to compress the file
+	 */
+	public void setCompressed( boolean compressed ){
+		this.compressed = compressed;
+	}
+
+	/**
+	 * Tells whether the file is compressed.
+	 * @return whether the file is compressed
+	 * @see #setCompressed(boolean)
+	 */
+	public boolean isCompressed(){
+		return compressed;
+	}
+
+	/**
+	 * Gets the number of snapshots that have been written to the file so far.
+	 * @return the number of writes
+	 */
+	public synchronized int getWriteCount(){
+		return writeCount;
+	}
+
+	/**
+	 * Adds a listener to this autosave, the listener is informed whenever the layout was written
+	 * or could not be written.
+	 * @param listener the new listener, not <code>null</code>
+	 */
+	public void addAutosaveListener( CLayoutAutosaveListener listener ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		listeners.add( listener );
+	}
+	
+	/**
+	 * Removes a listener from this autosave.
+	 * @param listener the listener to remove
+	 */
+	public void removeAutosaveListener( CLayoutAutosaveListener listener ){
+		listeners.remove( listener );
+	}
+	
+	/**
+	 * Tells whether this autosave currently observes the {@link CControl}.
+	 * @return whether this autosave is running
+	 */
+	public boolean isStarted(){
+		return started;
+	}
+
+	/**
+	 * Starts observing the {@link CControl}, any change of the layout will lead to the
+	 * layout being written. This method must be called on the EventDispatchThread.
+	 */
+	public void start(){
+		if( !started ){
+			started = true;
+			control.addControlListener( listener );
+			control.addStateListener( listener );
+			control.getController().getRegister().addDockRegisterListener( listener );
+			control.addDestroyHook( hook );
+		}
+	}
+
+	/**
+	 * Stops observing the {@link CControl}. Changes that were not yet stored are written
+	 * now, but this method does not wait until they are written. This method must be called on the
+	 * EventDispatchThread.
+	 * @see #flush()
+	 */
+	public void stop(){
+		stop( true );
+	}
+	
+	private void stop( boolean removeHook ){
+		if( started ){
+			started = false;
+			control.removeControlListener( listener );
+			control.removeStateListener( listener );
+			control.getController().getRegister().removeDockRegisterListener( listener );
+			if( removeHook ){
+				control.removeDestroyHook( hook );
+			}
+			if( timer.isRunning() ){
+				saveNow();
+			}
+			synchronized( this ){
+				if( executor != null ){
+					executor.shutdown();
+					executor = null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Informs this autosave that the layout changed. The layout will be written after
+	 * {@link #getDelay() some time} passed without further changes. Clients can call this method
+	 * for changes this autosave cannot detect by itself, e.g. a {@link DockStation} that was resized.
+	 * This method must be called on the EventDispatchThread.
+	 */
+	public void changed(){
+		if( started && suppressed == 0 ){
+			timer.restart();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the layout and stores it in the file. The snapshot is taken
+	 * immediately, the snapshot is serialized and the file is written by a background thread. 
+	 * This method must be called on the EventDispatchThread.
+	 * @see #flush()
+	 */
+	public void saveNow(){
+		timer.stop();
+
+		ApplicationResourceSnapshot snapshot;
+		try{
+			snapshot = control.getResources().snapshot();
+		}
+		catch( IOException e ){
+			failed( e );
+			return;
+		}
+
+		synchronized( this ){
+			boolean submit = pending == null;
+			pending = snapshot;
+			if( submit ){
+				lastJob = getExecutor().submit( new Runnable(){
+					public void run(){
+						writePending();
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Writes all pending changes and waits until they are stored in the file. This method
+	 * is intended to be called when the application shuts down.
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public void flush() throws InterruptedException{
+		if( timer.isRunning() ){
+			saveNow();
+		}
+		Future<?> job;
+		synchronized( this ){
+			job = lastJob;
+		}
+		if( job != null ){
+			try{
+				job.get();
+			}
+			catch( ExecutionException e ){
+				// the exception was already reported by the job
+			}
+		}
+	}
+
+	/**
+	 * Reads the layout that was stored by this autosave and applies it to the {@link CControl}.
+	 * Reading the layout is not treated as a change of the layout. This method must be
+	 * called on the EventDispatchThread.
+	 * @return <code>true</code> if the file existed and was read, <code>false</code> if there was no file
+	 * @throws IOException if the file cannot be read
+	 */
+	public boolean read() throws IOException{
+		if( !file.exists() ){
+			return false;
+		}
+
+		InputStream in = new BufferedInputStream( new FileInputStream( file ));
+		byte[] content;
+		try{
+			in.mark( 2 );
+			int magic = in.read() | (in.read() << 8);
+			in.reset();
+			if( magic == GZIPInputStream.GZIP_MAGIC ){
+				in = new GZIPInputStream( in );
+			}
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[ 4096 ];
+			int read;
+			while( (read = in.read( buffer )) > 0 ){
+				out.write( buffer, 0, read );
+			}
+			content = out.toByteArray();
+		}
+		finally{
+			in.close();
+		}
+
+		try{
+			suppressed++;
+			control.getResources().readArray( content );
+		}
+		finally{
+			suppressed--;
+		}
+		return true;
+	}
+
+	/**
+	 * Informs all {@link CLayoutAutosaveListener}s that the layout was written. This method may
+	 * be called by any thread, the listeners are called on the EventDispatchThread.
+	 */
+	protected void saved(){
+		EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				for( CLayoutAutosaveListener listener : listeners.toArray( new CLayoutAutosaveListener[ listeners.size() ] )){
+					listener.saved( CLayoutAutosave.this );
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Informs all {@link CLayoutAutosaveListener}s that the layout could not be stored. If there
+	 * are no listeners, then the stack trace of <code>e</code> is printed, so the failure does not
+	 * go unnoticed. This method may be called by any thread, the listeners are called on the
+	 * EventDispatchThread.
+	 * @param e the cause of the failure
+	 */
+	protected void failed( final IOException e ){
+		EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				if( listeners.isEmpty() ){
+					e.printStackTrace();
+				}
+				for( CLayoutAutosaveListener listener : listeners.toArray( new CLayoutAutosaveListener[ listeners.size() ] )){
+					listener.failed( CLayoutAutosave.this, e );
+				}
+			}
+		});
+	}
+
+	private synchronized ExecutorService getExecutor(){
+		if( executor == null ){
+			executor = Executors.newSingleThreadExecutor( new ThreadFactory(){
+				public Thread newThread( Runnable r ){
+					Thread thread = new Thread( r, "CLayoutAutosave" );
+					thread.setDaemon( true );
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Writes the newest snapshot into {@link #file}. Called by the background thread.
+	 */
+	private void writePending(){
+		ApplicationResourceSnapshot snapshot;
+		synchronized( this ){
+			snapshot = pending;
+			pending = null;
+		}
+		if( snapshot == null ){
+			return;
+		}
+
+		try{
+			write( snapshot );
+			synchronized( this ){
+				writeCount++;
+			}
+			saved();
+		}
+		catch( IOException e ){
+			failed( e );
+		}
+	}
+
+	/**
+	 * Writes <code>snapshot</code> first into a temporary file, and then replaces
+	 * {@link #file} with the temporary file.
+	 * @param snapshot the layout to write
+	 * @throws IOException if the file cannot be written
+	 */
+	private void write( ApplicationResourceSnapshot snapshot ) throws IOException{
+		File directory = file.getAbsoluteFile().getParentFile();
+		if( directory != null && !directory.isDirectory() && !directory.mkdirs() ){
+			throw new IOException( "cannot create directory: " + directory );
+		}
+
+		File temp = File.createTempFile( "autosave", ".tmp", directory );
+		try{
+			OutputStream out = new BufferedOutputStream( new FileOutputStream( temp ));
+			try{
+				if( compressed ){
+					out = new GZIPOutputStream( out );
+				}
+				DataOutputStream data = new DataOutputStream( out );
+				out = data;
+				snapshot.write( data );
+			}
+			finally{
+				out.close();
+			}
+
+			try{
+				Files.move( temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+			}
+			catch( AtomicMoveNotSupportedException e ){
+				Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+			}
+		}
+		finally{
+			if( temp.exists() ){
+				temp.delete();
+			}
+		}
+	}
+
+	/**
+	 * Listens to all the changes of the layout.
+	 * @author Benjamin Sigg
+	 */
+	private class Listener extends DockRegisterAdapter implements CControlListener, CDockableStateListener{
+		public void added( CControl control, CDockable dockable ){
+			changed();
+		}
+
+		public void removed( CControl control, CDockable dockable ){
+			changed();
+		}
+
+		public void opened( CControl control, CDockable dockable ){
+			changed();
+		}
+
+		public void closed( CControl control, CDockable dockable ){
+			changed();
+		}
+
+		public void visibilityChanged( CDockable dockable ){
+			changed();
+		}
+
+		public void extendedModeChanged( CDockable dockable, ExtendedMode mode ){
+			changed();
+		}
+
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			changed();
+		}
+
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			changed();
+		}
+
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			changed();
+		}
+	}
+}
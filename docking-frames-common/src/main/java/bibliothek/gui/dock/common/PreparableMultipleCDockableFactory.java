@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common;
+
+import bibliothek.gui.dock.layout.PreparableDockFactory;
+
+/**
+ * A {@link MultipleCDockableFactory} that restores its {@link MultipleCDockable}s in two phases. While a
+ * layout is loaded, {@link #prepare(MultipleCDockableLayout)} is called for all the layouts of this
+ * factory, possibly in parallel on the threads of the {@link CControl#setLayoutPreparationExecutor(java.util.concurrent.Executor) executor}.
+ * Afterwards {@link #read(MultipleCDockableLayout) read} is called on the EventDispatchThread for each layout.<br>
+ * Expensive work that does not require Swing, like loading models from a file, should be done in 
+ * {@link #prepare(MultipleCDockableLayout) prepare}, while {@link #read(MultipleCDockableLayout) read} should
+ * only create the {@link MultipleCDockable}s.
+ * @author Benjamin Sigg
+ * @param <F> the kind of dockable that is managed by this factory
+ * @param <L> the kind of meta-data this factory reads and writes about <code>F</code>
+ * @see PreparableDockFactory
+ */
+public interface PreparableMultipleCDockableFactory<F extends MultipleCDockable, L extends MultipleCDockableLayout> extends MultipleCDockableFactory<F, L>{
+	/**
+	 * Prepares <code>layout</code> for a later call to {@link #read(MultipleCDockableLayout)}. This method
+	 * may be called on any thread and concurrently for different layouts, it must not access any Swing
+	 * {@link java.awt.Component}. The results of the preparation should be stored in <code>layout</code>.<br>
+	 * There is no guarantee that this method is called at all before {@link #read(MultipleCDockableLayout) read}.
+	 * @param layout the layout that is going to be read
+	 */
+	public void prepare( L layout );
+}
@@ -0,0 +1,50 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.common.event;
+
+import java.io.IOException;
+
+import bibliothek.gui.dock.common.CLayoutAutosave;
+
+/**
+ * A listener added to a {@link CLayoutAutosave}, gets informed whenever the autosave wrote the layout
+ * or failed to write the layout. All methods are called on the EventDispatchThread.
+ * @author Benjamin Sigg
+ */
+public interface CLayoutAutosaveListener {
+	/**
+	 * Called after the layout was written into the {@link CLayoutAutosave#getFile() file}.
+	 * @param autosave the source of the event
+	 */
+	public void saved( CLayoutAutosave autosave );
+	
+	/**
+	 * Called if the layout could not be written. 
+	 * @param autosave the source of the event
+	 * @param cause the reason why the layout was not written
+	 */
+	public void failed( CLayoutAutosave autosave, IOException cause );
+}
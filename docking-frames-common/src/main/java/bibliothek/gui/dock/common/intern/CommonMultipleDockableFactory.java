@@ -31,18 +31,19 @@
 import java.util.Map;
 
 import bibliothek.gui.Dockable;
-import bibliothek.gui.dock.DockFactory;
 import bibliothek.gui.dock.common.CControl;
 import bibliothek.gui.dock.common.CStation;
 import bibliothek.gui.dock.common.MultipleCDockable;
 import bibliothek.gui.dock.common.MultipleCDockableFactory;
 import bibliothek.gui.dock.common.MultipleCDockableLayout;
+import bibliothek.gui.dock.common.PreparableMultipleCDockableFactory;
 import bibliothek.gui.dock.common.SingleCDockable;
 import bibliothek.gui.dock.common.perspective.CPerspective;
 import bibliothek.gui.dock.common.perspective.CPerspectiveMultipleIdentifierCollection;
 import bibliothek.gui.dock.common.perspective.CommonElementPerspective;
 import bibliothek.gui.dock.common.perspective.MultipleCDockablePerspective;
 import bibliothek.gui.dock.layout.LocationEstimationMap;
+import bibliothek.gui.dock.layout.PreparableDockFactory;
 import bibliothek.gui.dock.perspective.PerspectiveDockable;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.util.Version;
@@ -54,7 +55,7 @@
  * are stored by the client. 
  * @author Benjamin Sigg
  */
-public class CommonMultipleDockableFactory implements DockFactory<CommonDockable, CommonElementPerspective, CommonMultipleDockableLayout> {
+public class CommonMultipleDockableFactory implements PreparableDockFactory<CommonDockable, CommonElementPerspective, CommonMultipleDockableLayout> {
     /** the unique identifier of this factory */
     private String id;
     /** the factory used to read and write {@link MultipleCDockable}s */
@@ -158,6 +159,12 @@ public CommonElementPerspective layoutPerspective( CommonMultipleDockableLayout
     	return perspective.intern();
     }
     
+    public void prepare( CommonMultipleDockableLayout layout ){
+    	if( delegate instanceof PreparableMultipleCDockableFactory<?, ?> ){
+    		((PreparableMultipleCDockableFactory<MultipleCDockable, MultipleCDockableLayout>)delegate).prepare( layout.getLayout() );
+    	}
+    }
+    
     public CommonDockable layout( CommonMultipleDockableLayout layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ) {
         return layout( layout, placeholders );
     }
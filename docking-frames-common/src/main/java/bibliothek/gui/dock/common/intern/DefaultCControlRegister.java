@@ -29,6 +29,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -82,6 +83,18 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     private List<MultipleCDockable> multiDockables = 
         new ArrayList<MultipleCDockable>();
     
+    /** fast access to the {@link SingleCDockable}s by their unique id, in the order they were added */
+    private Map<String, List<SingleCDockable>> singleDockablesById =
+        new HashMap<String, List<SingleCDockable>>();
+    
+    /** fast access to the {@link MultipleCDockable}s by their unique id, in the order they were added */
+    private Map<String, List<MultipleCDockable>> multiDockablesById =
+        new HashMap<String, List<MultipleCDockable>>();
+    
+    /** the unique ids under which the {@link MultipleCDockable}s were registered */
+    private Map<MultipleCDockable, String> multiDockableIds =
+        new IdentityHashMap<MultipleCDockable, String>();
+    
     /** the stations known  */
     private List<CStation<?>> stations = new ArrayList<CStation<?>>();
     
@@ -267,20 +280,85 @@ public String multiToNormalId( String id ){
     public void addMultipleDockable( MultipleCDockable dockable ) {
         dockables.add( dockable );
         multiDockables.add( dockable );
+        
+        CControlAccess controlAccess = dockable.getControlAccess();
+        CDockableAccess access = controlAccess == null ? null : controlAccess.access( dockable );
+        String id = access == null ? null : access.getUniqueId();
+        if( id != null ){
+        	multiDockableIds.put( dockable, id );
+        	putById( multiDockablesById, id, dockable );
+        }
+    }
+    
+    /**
+     * Searches the {@link MultipleCDockable} whose unique id equals <code>id</code>. If
+     * there are several such dockables, the one that was added first is returned.
+     * @param id some id created by {@link #toMultiId(String)}
+     * @return the dockable with that id or <code>null</code>
+     */
+    public MultipleCDockable getMultipleDockable( String id ){
+    	return getById( multiDockablesById, id );
+    }
+    
+    /**
+     * Adds <code>dockable</code> to the list of elements stored under <code>id</code>.
+     * @param map the map to modify
+     * @param id the unique id of <code>dockable</code>
+     * @param dockable the new element
+     */
+    private <D> void putById( Map<String, List<D>> map, String id, D dockable ){
+    	List<D> list = map.get( id );
+    	if( list == null ){
+    		list = new ArrayList<D>( 1 );
+    		map.put( id, list );
+    	}
+    	list.add( dockable );
+    }
+    
+    /**
+     * Gets the first element stored under <code>id</code>.
+     * @param map the map to search
+     * @param id the unique id
+     * @return the first element or <code>null</code>
+     */
+    private <D> D getById( Map<String, List<D>> map, String id ){
+    	List<D> list = map.get( id );
+    	if( list == null ){
+    		return null;
+    	}
+    	return list.get( 0 );
+    }
+    
+    /**
+     * Removes <code>dockable</code> from the list of elements stored under <code>id</code>.
+     * @param map the map to modify
+     * @param id the unique id of <code>dockable</code>
+     * @param dockable the element to remove
+     */
+    private <D> void removeById( Map<String, List<D>> map, String id, D dockable ){
+    	List<D> list = map.get( id );
+    	if( list != null ){
+    		for( int i = 0, n = list.size(); i<n; i++ ){
+    			if( list.get( i ) == dockable ){
+    				list.remove( i );
+    				break;
+    			}
+    		}
+    		if( list.isEmpty() ){
+    			map.remove( id );
+    		}
+    	}
     }
 
     public void addSingleDockable( SingleCDockable dockable ) {
         dockables.add( dockable );
         singleDockables.add( dockable );
+        
+        putById( singleDockablesById, dockable.getUniqueId(), dockable );
     }
     
     public SingleCDockable getSingleDockable( String id ){
-	    for( SingleCDockable dockable : singleDockables ){
-	    	if( dockable.getUniqueId().equals( id )){
-	    		return dockable;
-	    	}
-	    }
-	    return null;
+    	return getById( singleDockablesById, id );
     }
 
     public void addStation( CStation<?> station ) {
@@ -358,6 +436,10 @@ public boolean removeStationContainer( CStationContainer container ){
     public boolean removeMultipleDockable( MultipleCDockable dockable ) {
         if( dockables.remove( dockable ) ){
             multiDockables.remove( dockable );
+            String id = multiDockableIds.remove( dockable );
+            if( id != null ){
+            	removeById( multiDockablesById, id, dockable );
+            }
             return true;
         }
         return false;
@@ -366,6 +448,7 @@ public boolean removeMultipleDockable( MultipleCDockable dockable ) {
     public boolean removeSingleDockable( SingleCDockable dockable ) {
         if( dockables.remove( dockable )){
             singleDockables.remove( dockable );
+            removeById( singleDockablesById, dockable.getUniqueId(), dockable );
             return true;
         }
         return false;
@@ -45,6 +45,8 @@
 import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.action.MultiDockActionSource;
 import bibliothek.gui.dock.control.DockRegister;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.Path;
 
@@ -503,6 +505,12 @@ public void runTransaction( Runnable run ){
      * afterwards. 
      */
     public void runTransaction( Runnable run, boolean continuous ){
+    	DockInstrumentation instrumentation = null;
+    	long begin = DockInstrumentation.NOT_RECORDING;
+    	if( onTransaction == 0 ){
+    		instrumentation = controller.getInstrumentation();
+    		begin = instrumentation.begin( DockOperation.MODE_TRANSACTION );
+    	}
     	try{
     		controller.getRegister().setStalled( true );
     		onTransaction++;
@@ -517,6 +525,9 @@ public void runTransaction( Runnable run, boolean continuous ){
     		if( continuous ){
     			onContinuous--;
     		}
+    		if( instrumentation != null ){
+    			instrumentation.end( DockOperation.MODE_TRANSACTION, begin );
+    		}
     	}
     }
 
@@ -26,8 +26,17 @@
 package bibliothek.gui.dock.support.util;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.prefs.Preferences;
 
 import bibliothek.util.Version;
@@ -41,7 +50,11 @@
  * stream of bytes belongs to which resource. If data is loaded, the byte-streams
  * for missing resources will be stored in a buffer that is read as soon as
  * a missing resource is registered. Additional resources are ignored.<br>
- * Note that there is no order how the resources are stored in the file. 
+ * Note that there is no order how the resources are stored in the file.<br>
+ * With {@link #writeDirectory(File)} and {@link #readDirectory(File)} each resource
+ * is stored in its own segment file. A {@link SegmentedApplicationResource} is split up further,
+ * each of its segments gets its own file. Segments are only written if their content changed,
+ * and segments of missing resources are only read once the resource is registered.
  * @author Benjamin Sigg
  *
  */
@@ -52,6 +65,21 @@ public class ApplicationResourceManager {
     /** buffer for streams which are not yet read */
     private Map<String, Object> buffer = new HashMap<String, Object>();
     
+    /** the segment files that were last read or written by this manager */
+    private Map<File, Segment> segments = new HashMap<File, Segment>();
+    
+    /** observers of the {@link SegmentedApplicationResource}s, used to find out which segments changed */
+    private Map<String, SegmentTracker> trackers = new HashMap<String, SegmentTracker>();
+    
+    /** the file extension used for segment files */
+    private static final String SEGMENT_EXTENSION = ".segment";
+    
+    /** the file extension used for the directories of {@link SegmentedApplicationResource}s */
+    private static final String SEGMENTS_EXTENSION = ".segments";
+    
+    /** the digits used to encode the names of segment files */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
     /**
      * Stores a resource that might be read or written at any time. If a stream
      * was already read by this manager, and if there was an entry in that stream
@@ -70,7 +98,14 @@ public void put( String name, ApplicationResource resource ) throws IOException{
         if( resource == null )
             throw new NullPointerException( "resource must not be null" );
         
+        remove( name );
         resources.put( name, resource );
+        if( resource instanceof SegmentedApplicationResource ){
+        	SegmentTracker tracker = new SegmentTracker( (SegmentedApplicationResource)resource );
+        	trackers.put( name, tracker );
+        	tracker.getResource().addSegmentListener( tracker );
+        }
+        
         Object buffered = buffer.get( name );
         if( buffered != null ){
             if( buffered instanceof byte[] ){
@@ -82,6 +117,17 @@ public void put( String name, ApplicationResource resource ) throws IOException{
             if( buffered instanceof XElement ){
                 resource.readXML( (XElement)buffered );
             }
+            if( buffered instanceof File ){
+            	File file = (File)buffered;
+            	if( file.isDirectory() ){
+            		if( resource instanceof SegmentedApplicationResource ){
+            			readSegments( file, name );
+            		}
+            	}
+            	else{
+            		readSegment( file, name, resource );
+            	}
+            }
         }
     }
     
@@ -91,6 +137,10 @@ public void put( String name, ApplicationResource resource ) throws IOException{
      */
     public void remove( String name ){
         resources.remove( name );
+        SegmentTracker tracker = trackers.remove( name );
+        if( tracker != null ){
+        	tracker.getResource().removeSegmentListener( tracker );
+        }
     }
     
     /**
@@ -208,6 +258,409 @@ public void readFile( File file ) throws IOException{
         }
     }
     
+    /**
+     * Writes the contents of this manager into <code>directory</code>. Each resource is written
+     * into its own segment file, a {@link SegmentedApplicationResource} gets a directory with one file
+     * for each of its segments. A segment is not written again if it did not change since it was
+     * last read or written by this manager: for {@link SegmentedApplicationResource#isTracked(String) tracked}
+     * segments this is known through {@link SegmentListener}s, all other segments are written into
+     * memory and compared with a fingerprint of the stored version. Each segment is first written into 
+     * a temporary file, which then replaces the old segment. Segments which are no longer part of
+     * a {@link SegmentedApplicationResource} are deleted, segments of resources that are no longer known
+     * to this manager are not deleted.
+     * @param directory the directory to write into, will be created if it does not exist
+     * @return the number of segments that actually had to be written
+     * @throws IOException if the operation can't be completed
+     */
+    public int writeDirectory( File directory ) throws IOException{
+    	if( !directory.isDirectory() && !directory.mkdirs() ){
+    		throw new IOException( "cannot create directory: " + directory );
+    	}
+    	
+    	int count = 0;
+    	for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+    		SegmentTracker tracker = trackers.get( resource.getKey() );
+    		if( tracker == null ){
+    			File file = toSegmentFile( directory, resource.getKey(), SEGMENT_EXTENSION );
+    			if( writeSegment( directory, file, resource.getKey(), resource.getValue(), null, false )){
+    				count++;
+    			}
+    		}
+    		else{
+    			count += writeSegments( toSegmentFile( directory, resource.getKey(), SEGMENTS_EXTENSION ), tracker );
+    		}
+    	}
+    	return count;
+    }
+    
+    /**
+     * Writes all the segments of a {@link SegmentedApplicationResource} that changed, and deletes
+     * all the segments that no longer exist.
+     * @param directory the directory into which to write the segments
+     * @param tracker the observer of the resource to write
+     * @return the number of segments that were written
+     * @throws IOException if the operation can't be completed
+     */
+    private int writeSegments( File directory, SegmentTracker tracker ) throws IOException{
+    	if( !directory.isDirectory() && !directory.mkdirs() ){
+    		throw new IOException( "cannot create directory: " + directory );
+    	}
+    	tracker.getDirectories().add( directory );
+    	
+    	SegmentedApplicationResource resource = tracker.getResource();
+    	Set<File> files = new HashSet<File>();
+    	int count = 0;
+    	for( String segment : resource.getSegments() ){
+    		File file = toSegmentFile( directory, segment, SEGMENT_EXTENSION );
+    		files.add( file );
+    		if( writeSegment( directory, file, segment, null, resource, resource.isTracked( segment ) )){
+    			count++;
+    		}
+    	}
+    	
+    	File[] existing = directory.listFiles();
+    	if( existing != null ){
+    		for( File file : existing ){
+    			if( file.isFile() && file.getName().endsWith( SEGMENT_EXTENSION ) && !files.contains( file )){
+    				segments.remove( file );
+    				if( !file.delete() ){
+    					throw new IOException( "cannot delete file: " + file );
+    				}
+    			}
+    		}
+    	}
+    	return count;
+    }
+    
+    /**
+     * Writes a single segment if its content changed.
+     * @param directory the directory in which to create the temporary file
+     * @param file the file to write
+     * @param name the name of the segment
+     * @param resource the resource to write, can be <code>null</code> if <code>segmented</code> is set
+     * @param segmented the resource whose segment <code>name</code> is written, can be <code>null</code>
+     * @param tracked whether the segment reports its changes, if so, then the segment is only written 
+     * if there was a change or if the file was modified
+     * @return whether the segment was written
+     * @throws IOException if the operation can't be completed
+     */
+    private boolean writeSegment( File directory, File file, String name, ApplicationResource resource, SegmentedApplicationResource segmented, boolean tracked ) throws IOException{
+    	Segment segment = segments.get( file );
+    	if( tracked && segment != null && segment.matches( file, null )){
+    		return false;
+    	}
+    	
+		ByteArrayOutputStream array = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( array );
+		if( segmented == null ){
+			resource.write( data );
+		}
+		else{
+			segmented.writeSegment( name, data );
+		}
+		data.close();
+		
+		byte[] content = array.toByteArray();
+		byte[] digest = tracked ? null : digest( content );
+		if( !tracked && segment != null && segment.matches( file, digest )){
+			return false;
+		}
+		
+		writeSegment( directory, file, name, content );
+		segments.put( file, new Segment( file, digest ));
+		return true;
+    }
+    
+    /**
+     * Reads the contents of this manager from <code>directory</code>, which was written by
+     * {@link #writeDirectory(File)}. Only the segments of the resources that are currently known
+     * to this manager are read immediately, all other segments are read when their resource is
+     * {@link #put(String, ApplicationResource) registered}. A {@link SegmentedApplicationResource} 
+     * decides by itself which of its segments are read immediately, and which are read once they
+     * are needed.
+     * @param directory the directory to read
+     * @throws IOException if the operation can't be completed
+     */
+    public void readDirectory( File directory ) throws IOException{
+    	File[] files = directory.listFiles();
+    	if( files == null ){
+    		throw new IOException( "not a directory: " + directory );
+    	}
+    	
+    	for( File file : files ){
+    		String fileName = file.getName();
+    		String name = null;
+    		if( file.isFile() && fileName.endsWith( SEGMENT_EXTENSION )){
+    			name = toSegmentName( file, SEGMENT_EXTENSION );
+    		}
+    		else if( file.isDirectory() && fileName.endsWith( SEGMENTS_EXTENSION )){
+    			name = toSegmentName( file, SEGMENTS_EXTENSION );
+    		}
+    		
+    		if( name != null ){
+    			ApplicationResource resource = resources.get( name );
+    			if( resource == null ){
+    				buffer.put( name, file );
+    			}
+    			else if( file.isFile() ){
+    				readSegment( file, name, resource );
+    			}
+    			else if( resource instanceof SegmentedApplicationResource ){
+    				readSegments( file, name );
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Forwards the segments stored in <code>directory</code> to the {@link SegmentedApplicationResource} <code>name</code>.
+     * The segments that are not read immediately are marked as unchanged.
+     * @param directory the directory containing the segments
+     * @param name the name of the resource
+     * @throws IOException if the operation can't be completed
+     */
+    private void readSegments( File directory, String name ) throws IOException{
+    	final SegmentTracker tracker = trackers.get( name );
+    	final Map<String, File> files = new HashMap<String, File>();
+    	
+    	File[] content = directory.listFiles();
+    	if( content == null ){
+    		throw new IOException( "not a directory: " + directory );
+    	}
+    	for( File file : content ){
+    		if( file.isFile() && file.getName().endsWith( SEGMENT_EXTENSION )){
+    			String segment = toSegmentName( file, SEGMENT_EXTENSION );
+    			if( segment != null ){
+    				files.put( segment, file );
+    			}
+    		}
+    	}
+    	
+    	tracker.getResource().readSegments( new SegmentSource(){
+    		public String[] getSegments(){
+    			return files.keySet().toArray( new String[ files.size() ] );
+    		}
+    		
+    		public DataInputStream open( String segment ) throws IOException{
+    			File file = files.get( segment );
+    			if( file == null ){
+    				throw new IOException( "unknown segment: " + segment );
+    			}
+    			byte[] content = readSegmentContent( file, segment );
+    			if( !tracker.getResource().isTracked( segment )){
+    				segments.put( file, new Segment( file, digest( content ) ) );
+    			}
+    			return new DataInputStream( new ByteArrayInputStream( content ) );
+    		}
+    	});
+    	
+    	// only now, reading the resource may have triggered events
+    	tracker.getDirectories().add( directory );
+    	for( Map.Entry<String, File> file : files.entrySet() ){
+    		if( tracker.getResource().isTracked( file.getKey() )){
+    			segments.put( file.getValue(), new Segment( file.getValue(), null ));
+    		}
+    	}
+    }
+    
+    /**
+     * Gets the file in which the resource or segment <code>name</code> is stored. The name is
+     * encoded as the hexadecimal representation of its UTF-8 bytes, hence names that differ
+     * only in case are stored in different files even on a case insensitive file system.
+     * @param directory the directory containing all the segments
+     * @param name the name of the resource or of the segment
+     * @param extension the extension of the file
+     * @return the segment file
+     */
+    private File toSegmentFile( File directory, String name, String extension ){
+    	try{
+    		byte[] bytes = name.getBytes( "UTF-8" );
+    		StringBuilder encoded = new StringBuilder( bytes.length * 2 + extension.length() );
+    		for( byte b : bytes ){
+    			encoded.append( HEX[ (b >> 4) & 0xF ] );
+    			encoded.append( HEX[ b & 0xF ] );
+    		}
+    		encoded.append( extension );
+    		return new File( directory, encoded.toString() );
+    	}
+    	catch( UnsupportedEncodingException e ){
+    		// every Java platform has to support UTF-8
+    		throw new IllegalStateException( e );
+    	}
+    }
+    
+    /**
+     * Gets the name of the resource or segment that is stored in <code>file</code>.
+     * @param file a file created by {@link #toSegmentFile(File, String, String)}
+     * @param extension the extension of <code>file</code>
+     * @return the name of the resource or segment, <code>null</code> if <code>file</code> was
+     * not created by {@link #toSegmentFile(File, String, String)}
+     * @throws IOException if the name cannot be decoded
+     */
+    private String toSegmentName( File file, String extension ) throws IOException{
+    	String fileName = file.getName();
+    	int length = fileName.length() - extension.length();
+    	if( length % 2 != 0 ){
+    		return null;
+    	}
+    	byte[] bytes = new byte[ length / 2 ];
+    	for( int i = 0; i < bytes.length; i++ ){
+    		int high = Character.digit( fileName.charAt( 2*i ), 16 );
+    		int low = Character.digit( fileName.charAt( 2*i+1 ), 16 );
+    		if( high < 0 || low < 0 ){
+    			return null;
+    		}
+    		bytes[i] = (byte)((high << 4) | low);
+    	}
+    	return new String( bytes, "UTF-8" );
+    }
+    
+    /**
+     * Writes a single segment. The data is first written into a temporary file, which is 
+     * then renamed to <code>file</code>.
+     * @param directory the directory in which to create the temporary file
+     * @param file the file to replace
+     * @param name the name of the resource or segment
+     * @param content the content of the resource
+     * @throws IOException if the operation can't be completed
+     */
+    private void writeSegment( File directory, File file, String name, byte[] content ) throws IOException{
+    	File temp = File.createTempFile( "resource", ".tmp", directory );
+    	try{
+	    	DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( temp )));
+	    	try{
+	    		Version.write( out, Version.VERSION_1_0_4 );
+	    		out.writeUTF( name );
+	    		out.write( content );
+	    	}
+	    	finally{
+	    		out.close();
+	    	}
+	    	
+	    	try{
+	    		Files.move( temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+	    	}
+	    	catch( AtomicMoveNotSupportedException e ){
+	    		Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+	    	}
+    	}
+    	finally{
+    		if( temp.exists() ){
+    			temp.delete();
+    		}
+    	}
+    }
+    
+    /**
+     * Reads the segment <code>file</code> and forwards its content to <code>resource</code>.
+     * @param file the file to read
+     * @param name the name of the resource
+     * @param resource the resource that reads the content
+     * @throws IOException if the operation can't be completed
+     */
+    private void readSegment( File file, String name, ApplicationResource resource ) throws IOException{
+    	byte[] content = readSegmentContent( file, name );
+    	segments.put( file, new Segment( file, digest( content ) ));
+    	
+    	DataInputStream data = new DataInputStream( new ByteArrayInputStream( content ) );
+    	resource.read( data );
+    	data.close();
+    }
+    
+    /**
+     * Reads the content of the segment <code>file</code>.
+     * @param file the file to read
+     * @param name the name of the resource or segment stored in <code>file</code>
+     * @return the content that was written by the resource
+     * @throws IOException if the operation can't be completed
+     */
+    private byte[] readSegmentContent( File file, String name ) throws IOException{
+    	DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file )));
+    	try{
+    		Version version = Version.read( in );
+    		version.checkCurrent();
+    		
+    		String key = in.readUTF();
+    		if( !key.equals( name )){
+    			throw new IOException( "segment " + file + " belongs to '" + key + "' and not to '" + name + "'" );
+    		}
+    		
+    		ByteArrayOutputStream array = new ByteArrayOutputStream();
+    		byte[] chunk = new byte[ 4096 ];
+    		int read;
+    		while( (read = in.read( chunk )) > 0 ){
+    			array.write( chunk, 0, read );
+    		}
+    		return array.toByteArray();
+    	}
+    	finally{
+    		in.close();
+    	}
+    }
+    
+    /**
+     * Calculates a fingerprint of <code>content</code>.
+     * @param content some data
+     * @return the fingerprint of <code>content</code>
+     */
+    private byte[] digest( byte[] content ){
+    	try{
+    		return MessageDigest.getInstance( "SHA-1" ).digest( content );
+    	}
+    	catch( NoSuchAlgorithmException e ){
+    		// every Java platform has to support SHA-1
+    		throw new IllegalStateException( e );
+    	}
+    }
+    
+    /**
+     * Captures the current state of all resources. {@link SnapshotApplicationResource}s are
+     * asked for a {@link SnapshotApplicationResource#snapshot() snapshot}, all other resources
+     * are written into an array of bytes immediately. The result writes the same data as
+     * {@link #writeStream(DataOutputStream)} would have written at the time this method was called,
+     * but it can be written by any thread. This method must be called on the EventDispatchThread.
+     * @return the state of all resources
+     * @throws IOException if a resource cannot be written
+     */
+    public ApplicationResourceSnapshot snapshot() throws IOException{
+    	final Map<String, ApplicationResourceSnapshot> snapshots = new LinkedHashMap<String, ApplicationResourceSnapshot>();
+    	for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+    		if( resource.getValue() instanceof SnapshotApplicationResource ){
+    			snapshots.put( resource.getKey(), ((SnapshotApplicationResource)resource.getValue()).snapshot() );
+    		}
+    		else{
+    			ByteArrayOutputStream array = new ByteArrayOutputStream();
+    			DataOutputStream data = new DataOutputStream( array );
+    			resource.getValue().write( data );
+    			data.close();
+    			final byte[] content = array.toByteArray();
+    			snapshots.put( resource.getKey(), new ApplicationResourceSnapshot(){
+    				public void write( DataOutputStream out ) throws IOException{
+    					out.write( content );
+    				}
+    			});
+    		}
+    	}
+    	
+    	return new ApplicationResourceSnapshot(){
+    		public void write( DataOutputStream out ) throws IOException{
+    			Version.write( out, Version.VERSION_1_0_4 );
+    			out.writeInt( snapshots.size() );
+    			for( Map.Entry<String, ApplicationResourceSnapshot> snapshot : snapshots.entrySet() ){
+    				out.writeUTF( snapshot.getKey() );
+    				
+    				ByteArrayOutputStream array = new ByteArrayOutputStream();
+    				DataOutputStream data = new DataOutputStream( array );
+    				snapshot.getValue().write( data );
+    				data.close();
+    				
+    				out.writeInt( array.size() );
+    				array.writeTo( out );
+    			}
+    		}
+    	};
+    }
+    
     /**
      * Writes the contents of this manager into an array of bytes.
      * @return the contents as stream of bytes
@@ -254,6 +707,83 @@ public void readPreferences() throws IOException{
         if( array != null )
             readArray( array );
     }
+    
+    /**
+     * Observes a {@link SegmentedApplicationResource} and forgets about the stored version
+     * of each segment that changes.
+     * @author Benjamin Sigg
+     */
+    private class SegmentTracker implements SegmentListener{
+    	/** the observed resource */
+    	private final SegmentedApplicationResource resource;
+    	/** all the directories into which {@link #resource} was written, or from which it was read */
+    	private final Set<File> directories = new HashSet<File>();
+    	
+    	/**
+    	 * Creates a new tracker.
+    	 * @param resource the resource to observe
+    	 */
+    	public SegmentTracker( SegmentedApplicationResource resource ){
+    		this.resource = resource;
+    	}
+    	
+    	/**
+    	 * Gets the observed resource.
+    	 * @return the resource
+    	 */
+    	public SegmentedApplicationResource getResource(){
+			return resource;
+		}
+    	
+    	/**
+    	 * Gets the directories into which the resource was written, or from which it was read.
+    	 * @return the directories, can be modified
+    	 */
+    	public Set<File> getDirectories(){
+			return directories;
+		}
+    	
+    	public void segmentChanged( SegmentedApplicationResource resource, String segment ){
+    		for( File directory : directories ){
+    			segments.remove( toSegmentFile( directory, segment, SEGMENT_EXTENSION ));
+    		}
+    	}
+    }
+    
+    /**
+     * Describes the state of a segment file as it was last seen by this manager.
+     * @author Benjamin Sigg
+     */
+    private static class Segment{
+    	/** the length of the file */
+    	private final long length;
+    	/** the time when the file was last modified */
+    	private final long lastModified;
+    	/** the fingerprint of the content of the resource, <code>null</code> for tracked segments */
+    	private final byte[] digest;
+    	
+    	/**
+    	 * Creates a new segment.
+    	 * @param file the file that was just read or written
+    	 * @param digest the fingerprint of the content of the resource, <code>null</code> if changes of
+    	 * the segment are reported through a {@link SegmentListener}
+    	 */
+    	public Segment( File file, byte[] digest ){
+    		this.length = file.length();
+    		this.lastModified = file.lastModified();
+    		this.digest = digest;
+    	}
+    	
+    	/**
+    	 * Tells whether <code>file</code> is unchanged and contains a resource with fingerprint <code>digest</code>.
+    	 * @param file the file to check
+    	 * @param digest the fingerprint of the new content
+    	 * @return <code>true</code> if <code>file</code> does not need to be written
+    	 */
+    	public boolean matches( File file, byte[] digest ){
+    		return file.isFile() && file.length() == length && file.lastModified() == lastModified && Arrays.equals( this.digest, digest );
+    	}
+    }
 }
 
 
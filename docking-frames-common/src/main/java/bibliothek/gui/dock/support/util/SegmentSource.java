@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Gives a {@link SegmentedApplicationResource} access to the segments that were stored 
+ * by an {@link ApplicationResourceManager}.
+ * @author Benjamin Sigg
+ */
+public interface SegmentSource {
+	/**
+	 * Gets the names of all the segments that are stored.
+	 * @return the names, not <code>null</code>
+	 */
+	public String[] getSegments();
+	
+	/**
+	 * Opens the segment <code>segment</code>. The stream contains the data that was written by
+	 * {@link SegmentedApplicationResource#writeSegment(String, java.io.DataOutputStream)}. The caller
+	 * has to close the stream.
+	 * @param segment the name of the segment
+	 * @return the content of the segment
+	 * @throws IOException if the segment does not exist or cannot be read
+	 */
+	public DataInputStream open( String segment ) throws IOException;
+}
@@ -0,0 +1,83 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * An {@link ApplicationResource} that consists of many independent segments, e.g. one segment for
+ * each layout of an application. When the {@link ApplicationResourceManager} writes a
+ * {@link ApplicationResourceManager#writeDirectory(java.io.File) directory}, each segment is stored
+ * in its own file, and only the segments that changed are written again. The resource reports
+ * changes through {@link SegmentListener}s. 
+ * @author Benjamin Sigg
+ */
+public interface SegmentedApplicationResource extends ApplicationResource {
+	/**
+	 * Gets the names of all the segments this resource currently consists of.
+	 * @return the names, not <code>null</code>
+	 */
+	public String[] getSegments();
+	
+	/**
+	 * Tells whether every change of <code>segment</code> is reported to the {@link SegmentListener}s. Segments
+	 * that are not tracked are written and compared with the stored version every time the resource is written.
+	 * @param segment the name of a segment
+	 * @return whether changes of <code>segment</code> are reported
+	 */
+	public boolean isTracked( String segment );
+	
+	/**
+	 * Writes the content of a single segment.
+	 * @param segment the name of the segment
+	 * @param out the stream to write into
+	 * @throws IOException if the operation can't be completed
+	 */
+	public void writeSegment( String segment, DataOutputStream out ) throws IOException;
+	
+	/**
+	 * Replaces the content of this resource by the segments of <code>source</code>. The resource
+	 * does not need to read all the segments immediately, it can keep <code>source</code> and read
+	 * segments once they are needed.
+	 * @param source access to the stored segments
+	 * @throws IOException if the operation can't be completed
+	 */
+	public void readSegments( SegmentSource source ) throws IOException;
+	
+	/**
+	 * Adds a listener to this resource, the listener has to be informed about any change
+	 * of a {@link #isTracked(String) tracked} segment.
+	 * @param listener the new listener
+	 */
+	public void addSegmentListener( SegmentListener listener );
+	
+	/**
+	 * Removes a listener from this resource.
+	 * @param listener the listener to remove
+	 */
+	public void removeSegmentListener( SegmentListener listener );
+}
@@ -0,0 +1,41 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+/**
+ * An {@link ApplicationResource} whose state can be captured cheaply, and written later by
+ * another thread. Resources that do not implement this interface are written into an array
+ * of bytes when a {@link ApplicationResourceManager#snapshot() snapshot} is taken.
+ * @author Benjamin Sigg
+ */
+public interface SnapshotApplicationResource extends ApplicationResource {
+	/**
+	 * Captures the current state of this resource. This method is called on the EventDispatchThread,
+	 * it should only copy the state and leave the expensive serialization to the snapshot.
+	 * @return the captured state, not <code>null</code>
+	 */
+	public ApplicationResourceSnapshot snapshot();
+}
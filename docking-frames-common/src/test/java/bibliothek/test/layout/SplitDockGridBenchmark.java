@@ -0,0 +1,222 @@
+package bibliothek.test.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import bibliothek.gui.dock.station.split.AbstractSplitDockGrid;
+
+/**
+ * Compares the time {@link AbstractSplitDockGrid} needs to build a tree using guillotine cuts
+ * with the time the old pairwise merging algorithm needs. Also verifies that the trees
+ * reproduce the bounds of the cells, and fails if they do not.
+ */
+public class SplitDockGridBenchmark {
+	private static final int ROUNDS = 5;
+	
+	/** the largest difference between the bounds of a cell in the grid and in the tree that is accepted */
+	private static final double EPSILON = 1E-6;
+	
+	private enum Layout{
+		RANDOM, REGULAR, STAIRCASE
+	}
+	
+	public static void main( String[] args ){
+		int[] sizes = { 50, 100, 250, 500, 1000 };
+		
+		// warm up
+		for( int i = 0; i < 3; i++ ){
+			for( Layout layout : Layout.values() ){
+				run( 200, layout, false );
+			}
+		}
+		
+		System.out.println( "cells\tlayout\t\tsweep [ms]\tmerge [ms]\tsweep error\tmerge error" );
+		boolean failed = false;
+		for( int size : sizes ){
+			for( Layout layout : Layout.values() ){
+				failed |= !run( size, layout, true );
+			}
+		}
+		
+		if( failed ){
+			System.err.println( "the tree does not reproduce the grid" );
+			System.exit( 1 );
+		}
+	}
+	
+	/**
+	 * Builds trees for grids of the given size and layout.
+	 * @return <code>true</code> if the tree built with guillotine cuts reproduces the grid
+	 */
+	private static boolean run( int size, Layout layout, boolean print ){
+		long sweepTime = Long.MAX_VALUE;
+		long mergeTime = Long.MAX_VALUE;
+		double sweepError = 0;
+		double mergeError = 0;
+		
+		for( int round = 0; round < ROUNDS; round++ ){
+			Grid grid;
+			switch( layout ){
+				case REGULAR:
+					grid = regular( size );
+					break;
+				case STAIRCASE:
+					grid = staircase( size );
+					break;
+				default:
+					grid = random( size, new Random( round ) );
+					break;
+			}
+			
+			long start = System.nanoTime();
+			TreeNode sweep = grid.sweep();
+			sweepTime = Math.min( sweepTime, System.nanoTime() - start );
+			
+			start = System.nanoTime();
+			TreeNode merge = grid.merge();
+			mergeTime = Math.min( mergeTime, System.nanoTime() - start );
+			
+			sweepError = Math.max( sweepError, error( sweep, 0, 0, 1000, 1000 ));
+			mergeError = Math.max( mergeError, error( merge, 0, 0, 1000, 1000 ));
+		}
+		
+		if( print ){
+			System.out.println( String.format( "%d\t%-9s\t%.2f\t\t%.2f\t\t%.4f\t\t%.4f", size, layout.name().toLowerCase(),
+					sweepTime / 1000000.0, mergeTime / 1000000.0, sweepError, mergeError ) );
+		}
+		
+		return sweepError < EPSILON;
+	}
+	
+	/**
+	 * Creates a grid with rows and columns of equal size.
+	 */
+	private static Grid regular( int size ){
+		int columns = (int)Math.ceil( Math.sqrt( size ) );
+		int rows = (size + columns - 1) / columns;
+		Grid grid = new Grid();
+		int count = 0;
+		for( int r = 0; r < rows; r++ ){
+			// the last row gets wider cells to keep the area filled
+			int cells = Math.min( columns, size - count );
+			for( int c = 0; c < cells; c++ ){
+				double w = 1000.0 / cells;
+				grid.addDockable( c*w, r*1000.0/rows, w, 1000.0/rows, "c" + count++ );
+			}
+		}
+		return grid;
+	}
+	
+	/**
+	 * Creates a grid by cutting off one strip after the other, alternating between the left and
+	 * the top side. This leads to a tree whose depth is the number of cells.
+	 */
+	private static Grid staircase( int size ){
+		Grid grid = new Grid();
+		double x = 0, y = 0, w = 1000, h = 1000;
+		for( int i = 0; i < size-1; i++ ){
+			if( i % 2 == 0 ){
+				double strip = w / (size - i);
+				grid.addDockable( x, y, strip, h, "c" + i );
+				x += strip;
+				w -= strip;
+			}
+			else{
+				double strip = h / (size - i);
+				grid.addDockable( x, y, w, strip, "c" + i );
+				y += strip;
+				h -= strip;
+			}
+		}
+		grid.addDockable( x, y, w, h, "c" + (size-1) );
+		return grid;
+	}
+	
+	/**
+	 * Creates a grid by randomly dividing rectangles until there are <code>size</code> cells.
+	 */
+	private static Grid random( int size, Random random ){
+		List<double[]> cells = new ArrayList<double[]>();
+		cells.add( new double[]{ 0, 0, 1000, 1000 } );
+		while( cells.size() < size ){
+			double[] cell = cells.remove( random.nextInt( cells.size() ) );
+			double factor = 0.25 + random.nextDouble() * 0.5;
+			if( cell[2] > cell[3] ){
+				double w = cell[2] * factor;
+				cells.add( new double[]{ cell[0], cell[1], w, cell[3] } );
+				cells.add( new double[]{ cell[0] + w, cell[1], cell[2] - w, cell[3] } );
+			}
+			else{
+				double h = cell[3] * factor;
+				cells.add( new double[]{ cell[0], cell[1], cell[2], h } );
+				cells.add( new double[]{ cell[0], cell[1] + h, cell[2], cell[3] - h } );
+			}
+		}
+		
+		Grid grid = new Grid();
+		int count = 0;
+		for( double[] cell : cells ){
+			grid.addDockable( cell[0], cell[1], cell[2], cell[3], "c" + count++ );
+		}
+		return grid;
+	}
+	
+	/**
+	 * Lays out the tree in the given rectangle and returns the largest difference between
+	 * the bounds a cell gets and the bounds the cell had in the grid.
+	 */
+	private static double error( TreeNode node, double x, double y, double w, double h ){
+		if( node.childA == null ){
+			double error = Math.abs( node.x - x );
+			error = Math.max( error, Math.abs( node.y - y ) );
+			error = Math.max( error, Math.abs( node.width - w ) );
+			error = Math.max( error, Math.abs( node.height - h ) );
+			return error;
+		}
+		if( node.horizontal ){
+			double split = w * node.divider;
+			return Math.max( error( node.childA, x, y, split, h ), error( node.childB, x + split, y, w - split, h ));
+		}
+		else{
+			double split = h * node.divider;
+			return Math.max( error( node.childA, x, y, w, split ), error( node.childB, x, y + split, w, h - split ));
+		}
+	}
+	
+	private static class TreeNode{
+		public double x, y, width, height, divider;
+		public boolean horizontal;
+		public TreeNode childA, childB;
+	}
+	
+	private static class Grid extends AbstractSplitDockGrid<String>{
+		@Override
+		protected String[] array( int size ){
+			return new String[ size ];
+		}
+		
+		public TreeNode sweep(){
+			return copy( tree() );
+		}
+		
+		public TreeNode merge(){
+			return copy( merge( new ArrayList<Node<String>>( getNodes() ) ) );
+		}
+		
+		private TreeNode copy( Node<String> node ){
+			TreeNode result = new TreeNode();
+			result.x = node.x;
+			result.y = node.y;
+			result.width = node.width;
+			result.height = node.height;
+			result.divider = node.divider;
+			result.horizontal = node.horizontal;
+			if( node.childA != null ){
+				result.childA = copy( node.childA );
+				result.childB = copy( node.childB );
+			}
+			return result;
+		}
+	}
+}
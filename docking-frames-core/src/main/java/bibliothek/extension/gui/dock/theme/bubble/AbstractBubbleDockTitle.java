@@ -43,6 +43,7 @@
 import bibliothek.gui.dock.themes.color.TitleColor;
 import bibliothek.gui.dock.title.AbstractDockTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.gui.dock.util.Transparency;
 import bibliothek.util.Path;
 
@@ -146,6 +147,7 @@ private void initAnimation(){
     	setTransparency( Transparency.DEFAULT );
     	
         animation = new BubbleColorAnimation();
+        animation.setAnimatedComponent( this );
 
         updateAnimation();
 
@@ -161,9 +163,24 @@ public void run() {
     @Override
     public void bind() {
         super.bind();
+        animation.setClock( AnimationClock.get( getDockable().getController() ) );
         animation.kick();
     }
 
+    @Override
+    public void unbind() {
+        super.unbind();
+        animation.setClock( null );
+    }
+
+    /**
+     * Sets whether the colors of this title change smoothly or instantly.
+     * @param animated <code>true</code> if changes should be animated
+     */
+    protected void setAnimated( boolean animated ){
+        animation.setAnimated( animated );
+    }
+
     @Override
     public void setActive( boolean active ) {
         if( isActive() != active ){
@@ -174,6 +174,8 @@ protected void propertyChanged(){
 		};
     	
         init( dockable, origin, false );
+        // minimized elements are not animated
+        setAnimated( false );
         allActionsSource.setSeparateSources( true );
         updateContent();
     }
@@ -27,14 +27,14 @@
 package bibliothek.extension.gui.dock.theme.bubble;
 
 import java.awt.Color;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.Component;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.ClockedAnimation;
 
 /**
  * A <code>BubbleColorAnimation</code> has the ability to convert one or many color-pairs smoothly from source
@@ -42,17 +42,23 @@
  * Clients have to call {@link #putColor(String, Color)} to start an animation. They
  * can call {@link #getColor(String)} any time to get the current intermediate color. Adding a {@link #addTask(Runnable) task}
  * will allow a client to be informed whenever the colors change.<br>
- * The animation itself takes {@link #setDuration(int) duration} milliseconds.  
+ * The animation itself takes {@link #setDuration(int) duration} milliseconds, it is driven by an {@link AnimationClock}.  
  * @author Benjamin Sigg
  */
-public class BubbleColorAnimation {
+public class BubbleColorAnimation implements ClockedAnimation {
 	/** How long a transformation takes */
     private int duration = 1000;
     
     /** The color pairs that can be animated */
     private Map<String, Entry> colors = new HashMap<String, Entry>();
-    /** The timer that triggers steps of the animation */
-    private Timer timer;
+    /** The clock that triggers steps of the animation, <code>null</code> if the default clock is used */
+    private AnimationClock clock;
+    /** Whether the animation is currently running */
+    private boolean running = false;
+    /** Whether color changes are animated at all */
+    private boolean animated = true;
+    /** The component showing this animation */
+    private Component component;
     /** The current time in milliseconds*/
     private long time = 0;
     
@@ -63,14 +69,68 @@ public class BubbleColorAnimation {
      * Creates a new animation.
      */
     public BubbleColorAnimation(){
-    	timer = new Timer( 25, new ActionListener(){
-            public void actionPerformed( ActionEvent e ) {
-                pulse();
-            }
-        });
-    	timer.setCoalesce( true );
+    	// nothing to do
+    }
+    
+    /**
+     * Sets the clock which pulses this animation.
+     * @param clock the new clock, <code>null</code> to use the {@link AnimationClock#getDefault() default clock}
+     */
+    public void setClock( AnimationClock clock ){
+    	if( this.clock != clock ){
+    		if( running ){
+    			getClock().stop( this );
+    		}
+    		this.clock = clock;
+    		if( running ){
+    			getClock().start( this );
+    		}
+    	}
+    }
+    
+    /**
+     * Gets the clock which pulses this animation.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getClock(){
+    	if( clock == null ){
+    		return AnimationClock.getDefault();
+    	}
+    	return clock;
+    }
+    
+    /**
+     * Sets the component which shows this animation. The animation is not played while
+     * <code>component</code> is invisible.
+     * @param component the animated component, can be <code>null</code>
+     */
+    public void setAnimatedComponent( Component component ){
+		this.component = component;
+	}
+    
+    public Component getAnimatedComponent(){
+    	return component;
     }
     
+    /**
+     * Sets whether color changes are animated. If not, then all colors change immediately.
+     * @param animated whether to animate the colors
+     */
+    public void setAnimated( boolean animated ){
+		this.animated = animated;
+		if( !animated ){
+			kick();
+		}
+	}
+    
+    /**
+     * Tells whether color changes are animated.
+     * @return whether the colors are animated
+     */
+    public boolean isAnimated(){
+		return animated;
+	}
+    
     /**
      * Sets a color-pair. The color <code>destination</code> is shown
      * after maximal {@link #getDuration() duration} milliseconds. This method
@@ -162,14 +222,17 @@ public int getDuration(){
      *
      */
     public void stop(){
-        timer.stop();
+    	if( running ){
+    		running = false;
+    		getClock().stop( this );
+    	}
     }
     
     /**
      * Immediately puts all colors to their final state and stops the animation.
      */
     public void kick(){
-        if( timer.isRunning() ){
+        if( running ){
             stop();
             for( Entry entry : colors.values() )
                 entry.kick();
@@ -183,9 +246,15 @@ public void kick(){
      * Starts the animation if it is not yet running.
      */
     protected void start(){
-        if( !timer.isRunning() ){
+        if( !running ){
             time = System.currentTimeMillis();
-            timer.start();
+            running = true;
+            if( animated ){
+            	getClock().start( this );
+            }
+            else{
+            	kick();
+            }
         }
     }
     
@@ -202,12 +271,21 @@ protected void pulse(){
             run = entry.step( delta ) | run;
         
         if( !run )
-            timer.stop();
+            stop();
         
         for( Runnable task : tasks )
             task.run();
     }
     
+    public boolean pulse( int delta ){
+    	pulse();
+    	return running;
+    }
+    
+    public void finish(){
+    	kick();
+    }
+    
     /**
      * One pair of colors.
      * @author Benjamin Sigg
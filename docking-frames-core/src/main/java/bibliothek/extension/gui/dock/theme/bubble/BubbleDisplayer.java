@@ -51,6 +51,7 @@
 import bibliothek.gui.dock.themes.basic.TabDecorator;
 import bibliothek.gui.dock.themes.color.DisplayerColor;
 import bibliothek.gui.dock.title.DockTitle;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.gui.dock.util.PropertyValue;
 import bibliothek.gui.dock.util.color.ColorCodes;
 
@@ -142,6 +143,7 @@ public BubbleDisplayer( DockStation station, Dockable dockable, DockTitle title
         this.dockable.setOpaque( false );
         openBorder = new DisplayerBorder( this.dockable, "bubble" );
         animation = new BubbleColorAnimation();
+        animation.setAnimatedComponent( this.dockable );
         animation.addTask( new Runnable(){
             public void run() {
                 pulse();
@@ -231,6 +233,7 @@ public void setController( DockController controller ) {
         }
         
         disablingStrategy.setProperties( controller );
+        animation.setClock( AnimationClock.get( controller ) );
         
         openBorder.setController( controller );
         borderHighActive.connect( controller );
@@ -36,6 +36,7 @@
 import bibliothek.extension.gui.dock.theme.BubbleTheme;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.dock.station.StationPaint;
+import bibliothek.gui.dock.themes.InsertionSprites;
 import bibliothek.gui.dock.themes.color.StationPaintColor;
 import bibliothek.gui.dock.util.color.ColorCodes;
 
@@ -71,21 +72,12 @@ public void drawInsertion( Graphics g, DockStation station, Rectangle stationBou
         color.setId( "paint.insertion" );
         color.connect( station.getController() );
         
-        Graphics2D g2 = (Graphics2D)g.create();
-        g2.setColor( color.value() );
-        g2.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
-        g2.setStroke( new BasicStroke( 3f ));
-        
         int x = dockableBounds.x-1;
         int y = dockableBounds.y-1;
         int w = dockableBounds.width-2;
         int h = dockableBounds.height-2;
         
-        g2.setComposite( AlphaComposite.getInstance( AlphaComposite.SRC_ATOP, 0.4f ) );
-        g2.drawRoundRect( x, y, w, h, 50, 50 );
-        g2.fillRoundRect( x, y, w, h, 50, 50 );
-        
-        g2.dispose();
+        InsertionSprites.paintRoundRect( (Graphics2D)g, color.value(), 0.4f, 3f, 50, x, y, w, h );
         
         color.connect( null );
     }
@@ -69,6 +69,7 @@
 import bibliothek.gui.dock.themes.basic.action.buttons.ButtonPanel;
 import bibliothek.gui.dock.themes.color.TabColor;
 import bibliothek.gui.dock.themes.font.TabFont;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.gui.dock.util.BackgroundAlgorithm;
 import bibliothek.gui.dock.util.ConfiguredBackgroundPanel;
 import bibliothek.gui.dock.util.Transparency;
@@ -221,6 +222,7 @@ public BubbleTab( BubbleStackDockComponent parent, Dockable dockable ){
 		setBackground( background );
 
 		animation = new BubbleColorAnimation();
+		animation.setAnimatedComponent( this );
 		animation.addTask( this );
 
 		topMouse     = new BubbleTabColor( STATE_MOUSE, "stack.tab.background.top.mouse", "top", animation, dockable, Color.RED.brighter() );
@@ -394,6 +396,7 @@ public void setController( DockController controller ){
 		background.setController( controller );
 
 		actions.setController( controller );
+		animation.setClock( AnimationClock.get( controller ) );
 		this.controller = controller;
 		
 		if( controller == null ){
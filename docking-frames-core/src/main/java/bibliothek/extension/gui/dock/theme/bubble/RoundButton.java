@@ -119,6 +119,7 @@ protected void pulse(){
 				content.setLabelForeground( animation.getColor( "text" ) );
 			}
 		};
+		animation.setAnimatedComponent( this );
 		
 		colors = createColors( dockable, action );
 		
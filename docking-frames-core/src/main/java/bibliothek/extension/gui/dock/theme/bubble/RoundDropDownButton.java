@@ -131,6 +131,7 @@ protected void pulse(){
 				content.setLabelForeground( animation.getColor( "text" ) );
 			}
 		};
+		animation.setAnimatedComponent( this );
         
         colors = new RoundActionColor[]{
                 new RoundActionColor( "action.dropdown", dockable, action, Color.WHITE ),
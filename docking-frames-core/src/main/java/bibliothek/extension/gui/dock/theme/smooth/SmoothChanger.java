@@ -26,21 +26,24 @@
 
 package bibliothek.extension.gui.dock.theme.smooth;
 
+import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import javax.swing.Timer;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.ClockedAnimation;
 
 /**
  * A class which counts milliseconds from 0 to {@link #setDuration(int) duration}
  * or in the other direction. This class contains an array of states: one state is
  * counted upwards (the {@link #destination()}), all the other states are counted
  * downwards. Clients can use this class to smoothly switch between different states.<br>
- * This class works on the EDT, no new threads are created.
+ * This class works on the EDT, no new threads are created. The pulses are provided by an
+ * {@link AnimationClock} which is shared with other animations.
  * @author Benjamin Sigg
  *
  */
-public abstract class SmoothChanger implements ActionListener{
+public abstract class SmoothChanger implements ActionListener, ClockedAnimation{
     /** the time at the last pulse */
     private long last;
     
@@ -50,8 +53,14 @@ public abstract class SmoothChanger implements ActionListener{
     /** the duration of the change */
     private int duration;
     
-    /** a timer which pulses this changer */
-    private Timer timer;
+    /** the clock which pulses this changer, <code>null</code> if the default clock is used */
+    private AnimationClock clock;
+    
+    /** whether this changer is currently running */
+    private boolean running = false;
+    
+    /** whether transitions are animated or applied immediately */
+    private boolean animated = true;
     
     /**
      * Constructor, sets {@link #setDuration(int) duration} to 250 milliseconds.
@@ -69,7 +78,6 @@ public SmoothChanger( int states ){
      */
     public SmoothChanger( int duration, int states ){
         this.duration = duration;
-        timer = new Timer( 15, this );
         current = new int[ states ];
     }
     
@@ -111,7 +119,65 @@ public void setDuration( int duration ) {
      * @return <code>true</code> if active, <code>false</code> if not
      */
     public boolean isRunning(){
-    	return timer.isRunning();
+    	return running;
+    }
+    
+    /**
+     * Sets the clock which pulses this changer.
+     * @param clock the new clock, <code>null</code> to use the {@link AnimationClock#getDefault() default clock}
+     */
+    public void setClock( AnimationClock clock ){
+    	if( this.clock != clock ){
+    		if( running ){
+    			getClock().stop( this );
+    		}
+    		this.clock = clock;
+    		if( running ){
+    			getClock().start( this );
+    		}
+    	}
+    }
+    
+    /**
+     * Gets the clock which pulses this changer.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getClock(){
+    	if( clock == null ){
+    		return AnimationClock.getDefault();
+    	}
+		return clock;
+	}
+    
+    /**
+     * Sets whether transitions are animated. If not, then each transition is finished immediately.
+     * @param animated whether to animate transitions
+     */
+    public void setAnimated( boolean animated ){
+		this.animated = animated;
+		if( !animated && running ){
+			getClock().stop( this );
+			finish();
+		}
+	}
+    
+    /**
+     * Tells whether transitions are animated.
+     * @return whether transitions are animated
+     * @see #setAnimated(boolean)
+     */
+    public boolean isAnimated(){
+		return animated;
+	}
+    
+    /**
+     * Gets the component which shows the transitions of this changer. The default implementation
+     * returns <code>null</code>, subclasses should override this method to allow the {@link AnimationClock}
+     * to skip transitions of invisible components.
+     * @return the component or <code>null</code>
+     */
+    public Component getAnimatedComponent(){
+    	return null;
     }
     
     /**
@@ -127,15 +193,27 @@ public int getDuration() {
      * Starts a transition
      */
     public void trigger(){
-        timer.start();
-        last = System.currentTimeMillis();
+    	if( !animated ){
+    		finish();
+    	}
+    	else if( !running ){
+    		running = true;
+    		last = System.currentTimeMillis();
+    		getClock().start( this );
+    	}
     }
     
     public void actionPerformed( ActionEvent e ){
         long time = System.currentTimeMillis();
         int delta = (int)( time - last );
-        last = time;
         
+        if( !pulse( delta )){
+        	getClock().stop( this );
+        }
+    }
+    
+    public boolean pulse( int delta ){
+    	last = System.currentTimeMillis();
         int destination = destination();
         boolean incomplete = false;
         
@@ -150,10 +228,17 @@ public void actionPerformed( ActionEvent e ){
         	}
         }
         
-        if( !incomplete ){
-        	timer.stop();
-        }
-                
+        running = incomplete;
         repaint( current );
+        return incomplete;
+    }
+    
+    public void finish(){
+    	running = false;
+    	int destination = destination();
+    	for( int i = 0; i < current.length; i++ ){
+    		current[i] = i == destination ? duration : 0;
+    	}
+    	repaint( current );
     }
 }
\ No newline at end of file
@@ -26,6 +26,7 @@
 package bibliothek.extension.gui.dock.theme.smooth;
 
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Container;
 
 import bibliothek.gui.Dockable;
@@ -64,6 +65,11 @@ protected void repaint( int[] current ) {
             SmoothDefaultButtonTitle.this.current = current.clone();
             updateColors();
         }
+        
+        @Override
+        public Component getAnimatedComponent(){
+        	return SmoothDefaultButtonTitle.this;
+        }
     };
     
 	/**
@@ -73,6 +79,8 @@ protected void repaint( int[] current ) {
 	 */
 	public SmoothDefaultButtonTitle( Dockable dockable, DockTitleVersion origin ){
 		super( dockable, origin );
+		// minimized elements are not animated
+		changer.setAnimated( false );
 	}
 	
 
@@ -27,10 +27,12 @@
 package bibliothek.extension.gui.dock.theme.smooth;
 
 import java.awt.Color;
+import java.awt.Component;
 
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.basic.BasicStationTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.util.Colors;
 
 /**
@@ -66,8 +68,25 @@ protected void repaint( int[] current ) {
             SmoothDefaultStationTitle.this.current = current;
             SmoothDefaultStationTitle.this.updateColors();
         }
+        
+        @Override
+        public Component getAnimatedComponent(){
+        	return SmoothDefaultStationTitle.this;
+        }
     };
     
+    @Override
+    public void bind(){
+    	changer.setClock( AnimationClock.get( getDockable().getController() ));
+    	super.bind();
+    }
+    
+    @Override
+    public void unbind(){
+    	super.unbind();
+    	changer.setClock( null );
+    }
+    
     @Override
     public void setActive( boolean active ) {
         super.setActive(active);
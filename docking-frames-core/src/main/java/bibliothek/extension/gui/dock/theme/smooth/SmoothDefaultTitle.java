@@ -27,6 +27,7 @@
 package bibliothek.extension.gui.dock.theme.smooth;
 
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.GradientPaint;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -36,6 +37,7 @@
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.themes.basic.BasicDockTitle;
 import bibliothek.gui.dock.title.DockTitleVersion;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.util.Colors;
 
 /**
@@ -71,6 +73,11 @@ protected void repaint( int[] current ) {
             updateForegroundColor();
             SmoothDefaultTitle.this.repaint();
         }
+        
+        @Override
+        public Component getAnimatedComponent(){
+        	return SmoothDefaultTitle.this;
+        }
     };
     
     /**
@@ -99,6 +106,18 @@ public void setDuration( int duration ) {
         changer.setDuration( duration );
     }
     
+    @Override
+    public void bind(){
+    	changer.setClock( AnimationClock.get( getDockable().getController() ));
+    	super.bind();
+    }
+    
+    @Override
+    public void unbind(){
+    	super.unbind();
+    	changer.setClock( null );
+    }
+    
     @Override
     public void setActive( boolean active ) {
         super.setActive(active);
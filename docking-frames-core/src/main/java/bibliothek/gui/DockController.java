@@ -42,6 +42,7 @@
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.swing.Icon;
 import javax.swing.KeyStroke;
@@ -62,6 +63,7 @@
 import bibliothek.gui.dock.action.view.ActionViewConverter;
 import bibliothek.gui.dock.control.ComponentHierarchyObserver;
 import bibliothek.gui.dock.control.ControllerSetupCollection;
+import bibliothek.gui.dock.control.DeferredRevalidator;
 import bibliothek.gui.dock.control.DefaultDockControllerFactory;
 import bibliothek.gui.dock.control.DockControllerFactory;
 import bibliothek.gui.dock.control.DockRegister;
@@ -76,6 +78,9 @@
 import bibliothek.gui.dock.control.focus.FocusController;
 import bibliothek.gui.dock.control.focus.FocusHistory;
 import bibliothek.gui.dock.control.focus.MouseFocusObserver;
+import bibliothek.gui.dock.control.instrumentation.DefaultDockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
@@ -93,6 +98,7 @@
 import bibliothek.gui.dock.title.ActivityDockTitleEvent;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.title.DockTitleManager;
+import bibliothek.gui.dock.util.AnimationClock;
 import bibliothek.gui.dock.util.DirectWindowProvider;
 import bibliothek.gui.dock.util.DockProperties;
 import bibliothek.gui.dock.util.DockUtilities;
@@ -148,6 +154,12 @@ public class DockController {
 	private DockRegister register;
 	/** the known {@link Component}s in the realm of this controller */
 	private ComponentHierarchyObserver componentHierarchyObserver;
+	/** the source of pulses for all animations in the realm of this controller */
+	private AnimationClock animationClock;
+	/** records the duration of time critical operations */
+	private DockInstrumentation instrumentation = new DefaultDockInstrumentation();
+	/** collects revalidation requests while the {@link #register} is stalled */
+	private DeferredRevalidator revalidator;
 	
 	/** a manager handling drag and drop */
 	private DockRelocator relocator;
@@ -202,6 +214,8 @@ public class DockController {
     private List<ActionGuard> guards = new ArrayList<ActionGuard>();
     /** The default source for a {@link DockActionSource} */
     private ActionOffer defaultActionOffer;
+    /** The {@link ActionOffer}s that were found by {@link #getActionOffer(Dockable)}, cleared whenever an offer or a {@link Dockable} changes */
+    private Map<Dockable, ActionOffer> actionOfferCache = new WeakHashMap<Dockable, ActionOffer>();
     /** A converter used to transform {@link DockAction actions} into views */
     private ActionViewConverter actionViewConverter;
     
@@ -332,6 +346,7 @@ public void add( ControllerSetupListener listener ) {
 		register.addDockRegisterListener( dockTitleObserver );
 		addDockTitleBindingListener( dockTitleObserver );
 		register.addDockRegisterListener( new DockableSelectionObserver() );
+		register.addDockRegisterListener( new ActionOfferCacheObserver() );
 		
         relocator = factory.createRelocator( this, setup );
         
@@ -409,6 +424,9 @@ public void kill(){
 	    theme.kill();
 	    extensions.kill();
 	    mouseDispatcher.kill();
+	    if( animationClock != null ){
+	    	animationClock.kill();
+	    }
 	    setRootWindowProvider( null );
     }
     
@@ -488,6 +506,52 @@ public ComponentHierarchyObserver getComponentHierarchyObserver() {
         return componentHierarchyObserver;
     }
     
+    /**
+     * Gets the clock that drives all the animations of the themes in the realm of this controller.
+     * @return the clock, not <code>null</code>
+     */
+    public AnimationClock getAnimationClock(){
+    	if( animationClock == null ){
+    		animationClock = new AnimationClock();
+    	}
+		return animationClock;
+	}
+    
+    /**
+     * Gets the {@link DeferredRevalidator} which collects requests for validating {@link Component}s
+     * while a bulk operation like {@link #freezeLayout()} is running. {@link DockStation}s should use this
+     * revalidator instead of calling {@link javax.swing.JComponent#revalidate()} directly.
+     * @return the revalidator, not <code>null</code>
+     */
+    public DeferredRevalidator getRevalidator(){
+    	if( revalidator == null ){
+    		revalidator = new DeferredRevalidator( this );
+    	}
+    	return revalidator;
+    }
+    
+    /**
+     * Sets the {@link DockInstrumentation} which records how much time the {@link DockOperation}s
+     * in the realm of this controller need.
+     * @param instrumentation the new instrumentation, <code>null</code> disables instrumentation completely
+     */
+    public void setInstrumentation( DockInstrumentation instrumentation ){
+    	if( instrumentation == null ){
+    		instrumentation = DockInstrumentation.NULL;
+    	}
+		this.instrumentation = instrumentation;
+	}
+    
+    /**
+     * Gets the {@link DockInstrumentation} which records how much time the {@link DockOperation}s in the
+     * realm of this controller need. By default this is a {@link DefaultDockInstrumentation} which
+     * does not record anything until it is {@link DefaultDockInstrumentation#setEnabled(boolean) enabled}.
+     * @return the instrumentation, not <code>null</code>
+     */
+    public DockInstrumentation getInstrumentation(){
+		return instrumentation;
+	}
+    
     /**
      * Gets the manager for handling drag and drop operations.
      * @return the manager
@@ -700,6 +764,7 @@ public void setDefaultActionOffer( ActionOffer defaultActionOffer ) {
             throw new IllegalArgumentException();
                 
         this.defaultActionOffer = defaultActionOffer;
+        actionOfferCache.clear();
     }
     
     /**
@@ -712,6 +777,7 @@ public void addActionOffer( ActionOffer offer ){
         if( offer == null )
             throw new IllegalArgumentException();
         actionOffers.add( offer );
+        actionOfferCache.clear();
     }
     
     /**
@@ -720,19 +786,47 @@ public void addActionOffer( ActionOffer offer ){
      */
     public void removeActionOffer( ActionOffer offer ){
         actionOffers.remove( offer );
+        actionOfferCache.clear();
     }
     
     /**
-     * Searches the {@link ActionOffer} for <code>dockable</code>.
+     * Searches the {@link ActionOffer} for <code>dockable</code>. The result is remembered until
+     * the set of {@link ActionOffer}s changes, or until <code>dockable</code> is registered, unregistered
+     * or moved.
      * @param dockable the element whose offer is searched
      * @return the offer
+     * @see #resetActionOffer(Dockable)
      */
     public ActionOffer getActionOffer( Dockable dockable ){
-    	for( ActionOffer offer : actionOffers ){
-    		if( offer.interested( dockable ))
-    			return offer;
+    	ActionOffer result = actionOfferCache.get( dockable );
+    	if( result == null ){
+    		for( ActionOffer offer : actionOffers ){
+	    		if( offer.interested( dockable )){
+	    			result = offer;
+	    			break;
+	    		}
+	    	}
+    		if( result == null ){
+    			result = getDefaultActionOffer();
+    		}
+    		actionOfferCache.put( dockable, result );
+    	}
+    	return result;
+    }
+    
+    /**
+     * Forgets which {@link ActionOffer} was found for <code>dockable</code>. Clients need to call this method
+     * if the result of {@link ActionOffer#interested(Dockable)} changes while the set of {@link ActionOffer}s and
+     * the location of <code>dockable</code> remain the same.
+     * @param dockable the element whose offer has to be searched again, <code>null</code> to reset all elements
+     */
+    public void resetActionOffer( Dockable dockable ){
+    	if( dockable == null ){
+    		actionOfferCache.clear();
+    	}
+    	else{
+    		actionOfferCache.remove( dockable );
     	}
-    	return getDefaultActionOffer();
     }
     
     /**
@@ -978,7 +1072,14 @@ public void setFocusedDockable( Dockable focusedDockable, Component component, b
      * is the focus owner. This parameter is stronger that <code>ensureFocusSet</code>
      */
     public void setFocusedDockable( Dockable focusedDockable, Component component, boolean force, boolean ensureFocusSet, boolean ensureDockableFocused ) {
-    	focusController.setFocusedDockable( focusedDockable, component, force, ensureFocusSet, ensureDockableFocused );
+    	DockInstrumentation instrumentation = this.instrumentation;
+    	long begin = instrumentation.begin( DockOperation.FOCUS_TRANSFER );
+    	try{
+    		focusController.setFocusedDockable( focusedDockable, component, force, ensureFocusSet, ensureDockableFocused );
+    	}
+    	finally{
+    		instrumentation.end( DockOperation.FOCUS_TRANSFER, begin );
+    	}
     }
     
     /**
@@ -1389,6 +1490,28 @@ public void dockStationUnregistered( DockController controller, DockStation stat
         }
     }
     
+    /**
+     * An observer of the register, resets the cached {@link ActionOffer} of
+     * any {@link Dockable} that changes its location.
+     * @author Benjamin Sigg
+     */
+    private class ActionOfferCacheObserver extends DockRegisterAdapter{
+    	@Override
+    	public void dockableRegistered( DockController controller, Dockable dockable ){
+    		actionOfferCache.remove( dockable );
+    	}
+    	
+    	@Override
+    	public void dockableUnregistered( DockController controller, Dockable dockable ){
+    		actionOfferCache.remove( dockable );
+    	}
+    	
+    	@Override
+    	public void dockableCycledRegister( DockController controller, Dockable dockable ){
+    		actionOfferCache.remove( dockable );
+    	}
+    }
+    
     /**
      * Added to the current {@link FocusController} to track the active titles.
      */
@@ -40,6 +40,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import javax.swing.Icon;
 import javax.swing.KeyStroke;
@@ -59,6 +60,7 @@
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
 import bibliothek.gui.dock.event.DockFrontendListener;
+import bibliothek.gui.dock.event.DockFrontendSettingsListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.event.VetoableDockFrontendListener;
 import bibliothek.gui.dock.frontend.DefaultFrontendPerspectiveCache;
@@ -71,7 +73,9 @@
 import bibliothek.gui.dock.frontend.LayoutChangeStrategy;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
 import bibliothek.gui.dock.frontend.Setting;
+import bibliothek.gui.dock.frontend.SettingSource;
 import bibliothek.gui.dock.frontend.SettingsBlop;
+import bibliothek.gui.dock.frontend.SettingsBlopWriter;
 import bibliothek.gui.dock.frontend.VetoManager;
 import bibliothek.gui.dock.layout.AdjacentDockFactory;
 import bibliothek.gui.dock.layout.DockLayoutComposition;
@@ -81,6 +85,7 @@
 import bibliothek.gui.dock.layout.DockableProperty;
 import bibliothek.gui.dock.layout.DockablePropertyFactory;
 import bibliothek.gui.dock.layout.PredefinedDockSituation;
+import bibliothek.gui.dock.layout.PreparableDockFactory;
 import bibliothek.gui.dock.layout.PropertyTransformer;
 import bibliothek.gui.dock.perspective.Perspective;
 import bibliothek.gui.dock.perspective.PerspectiveElement;
@@ -190,10 +195,15 @@ public class DockFrontend {
     private String currentSetting;
     /** A map of all known settings */
     private Map<String, Setting> settings = new HashMap<String, Setting>();
+    /** Settings which are known by name, but whose content was not yet read */
+    private Map<String, SettingSource> lazySettings = new HashMap<String, SettingSource>();
     
     /** A list of observers */
     private List<DockFrontendListener> listeners = new ArrayList<DockFrontendListener>();
     
+    /** observers of the {@link #settings} */
+    private List<DockFrontendSettingsListener> settingsListeners = new ArrayList<DockFrontendSettingsListener>();
+    
     /** handles all the events regarding {@link VetoableDockFrontendListener} */
     private VetoManager veto;
     
@@ -208,6 +218,9 @@ public class DockFrontend {
     /** tells what to do with the location information of missing {@link Dockable}s */
     private MissingDockableStrategy missingDockable = MissingDockableStrategy.DISCARD_ALL;
     
+    /** executes the first phase of restoring a layout, see {@link PreparableDockFactory} */
+    private Executor layoutPreparationExecutor;
+    
     /** algorithm for changing the layout of this frontend */
     private LayoutChangeStrategy layoutChangeStrategy = new DefaultLayoutChangeStrategy();
     
@@ -406,6 +419,23 @@ public void removeFrontendListener( DockFrontendListener listener ){
         listeners.remove( listener );
     }
     
+    /**
+     * Adds a listener to this frontend. The listener will receive a notification whenever
+     * one of the {@link #getSettings() settings} is added, replaced or removed.
+     * @param listener the new observer
+     */
+    public void addSettingsListener( DockFrontendSettingsListener listener ){
+    	settingsListeners.add( listener );
+    }
+    
+    /**
+     * Removes an earlier added listener from this frontend.
+     * @param listener the observer which will be removed
+     */
+    public void removeSettingsListener( DockFrontendSettingsListener listener ){
+    	settingsListeners.remove( listener );
+    }
+    
     /**
      * Adds <code>listener</code> to this frontend. The listener will be notified
      * when a {@link Dockable} will be or is closed.<br>
@@ -614,6 +644,28 @@ public MissingDockableStrategy getMissingDockable() {
         return missingDockable;
     }
     
+    /**
+     * Sets the {@link Executor} that calls {@link PreparableDockFactory#prepare(Object)} while a
+     * {@link Setting} is applied. Factories implementing {@link PreparableDockFactory} can load
+     * their models in parallel on the threads of <code>executor</code>, while the {@link Dockable}s
+     * themselves are still created on the thread which applies the setting.
+     * @param executor the executor, for example a thread pool, or <code>null</code> to run all
+     * preparations on the thread which applies the setting
+     * @see DockSituation#setPreparationExecutor(Executor)
+     */
+    public void setLayoutPreparationExecutor( Executor executor ){
+        this.layoutPreparationExecutor = executor;
+    }
+    
+    /**
+     * Gets the {@link Executor} that is used to prepare layouts.
+     * @return the executor, can be <code>null</code>
+     * @see #setLayoutPreparationExecutor(Executor)
+     */
+    public Executor getLayoutPreparationExecutor(){
+        return layoutPreparationExecutor;
+    }
+    
     /**
      * Sets the strategy this {@link DockFrontend} should use to read {@link Setting}s.<br>
      * <b>WARNING: </b> strategies may leave a trail of data, some even stored persistently. This
@@ -1030,16 +1082,36 @@ public Setting getLastAppliedEntrySetting() {
      */
     public Set<String> getSettings(){
         Set<String> keys = settings.keySet();
+        if( !lazySettings.isEmpty() ){
+        	keys = new HashSet<String>( keys );
+        	keys.addAll( lazySettings.keySet() );
+        }
         return Collections.unmodifiableSet( keys );
     }
     
     /**
      * Gets the {@link Setting} which stores locations and other information under the key <code>name</code>.
+     * If the setting was {@link #setLazySetting(String, SettingSource) registered lazily}, then it is read now.
      * @param name a key that was used for calling {@link #save(String)}
      * @return the setting or <code>null</code> if not found
+     * @throws IllegalArgumentException if the setting had to be read, but could not be read
      */
     public Setting getSetting( String name ){
-    	return settings.get( name );
+    	Setting setting = settings.get( name );
+    	if( setting == null ){
+    		SettingSource source = lazySettings.get( name );
+    		if( source != null ){
+    			try{
+    				setting = read( source );
+    			}
+    			catch( IOException e ){
+    				throw new IllegalArgumentException( "Cannot read setting \"" + name + "\"", e );
+    			}
+    			lazySettings.remove( name );
+    			settings.put( name, setting );
+    		}
+    	}
+    	return setting;
     }
     
     /**
@@ -1060,7 +1132,7 @@ public void setCurrentSetting( String setting ){
     	if( setting == null )
     		throw new IllegalArgumentException( "the name of a setting must not be null" );
     	
-    	if( settings.containsKey( setting ))
+    	if( settings.containsKey( setting ) || lazySettings.containsKey( setting ))
     		load( setting );
     	else
     		save( setting );
@@ -1085,7 +1157,28 @@ public void setSetting( String name, Setting setting ){
     	if( setting == null ){
     		throw new IllegalArgumentException( "setting is null" );
     	}
+    	lazySettings.remove( name );
     	settings.put( name, setting );
+    	fireSettingChanged( name );
+    }
+    
+    /**
+     * Stores a setting with the given name, but does not read the setting yet. The setting is read
+     * the first time it is needed, e.g. when it is {@link #load(String) loaded}. An application storing
+     * many settings can use this method to avoid reading settings that are never used.
+     * @param name the name of the setting
+     * @param source the stored form of the setting, not <code>null</code>
+     */
+    public void setLazySetting( String name, SettingSource source ){
+    	if( name == null ){
+    		throw new IllegalArgumentException( "name must not be null" );
+    	}
+    	if( source == null ){
+    		throw new IllegalArgumentException( "source is null" );
+    	}
+    	settings.remove( name );
+    	lazySettings.put( name, source );
+    	fireSettingChanged( name );
     }
     
     /**
@@ -1421,8 +1514,10 @@ public void save( String name ){
     		throw new IllegalArgumentException( "name must not be null" );
     	
     	Setting setting = getSetting( true );
-    	setSetting( name, setting );
+    	lazySettings.remove( name );
+    	settings.put( name, setting );
         currentSetting = name;
+        fireSettingChanged( name );
         fireSaved( name );
     }
     
@@ -1435,7 +1530,7 @@ public void load( String name ){
         if( name == null )
     		throw new IllegalArgumentException( "name must not be null" );
     	
-    	Setting setting = settings.get( name );
+    	Setting setting = getSetting( name );
         if( setting == null )
             throw new IllegalArgumentException( "Unknown setting \""+ name +"\"");
         
@@ -1813,10 +1908,12 @@ public boolean delete( String name ){
     		throw new IllegalArgumentException( "name must not be null" );
     	
         boolean deleted = settings.remove( name ) != null;
+        deleted = lazySettings.remove( name ) != null || deleted;
         if( deleted ){
         	if( name.equals( currentSetting ))
         		currentSetting = null;
         	
+        	fireSettingChanged( name );
             fireDeleted( name );
         }
         return deleted;
@@ -1839,6 +1936,8 @@ public void write( DataOutputStream out ) throws IOException{
      * @throws IOException if there are any problems
      */
     public void writeBlop( SettingsBlop blop, DataOutputStream out ) throws IOException{
+    	Version.write( out, Version.VERSION_1_0_4 );
+    	
     	String currentSetting = blop.getCurrentName();
     	
         if( currentSetting == null )
@@ -1852,12 +1951,119 @@ public void writeBlop( SettingsBlop blop, DataOutputStream out ) throws IOExcept
         out.writeInt( names.length );
         for( String name : names ){
             out.writeUTF( name );
-            write( blop.getSetting( name ), true, out );
+            Setting setting = blop.getSetting( name );
+            if( setting == null ){
+            	write( blop.getSource( name ), out );
+            }
+            else{
+            	write( setting, true, out );
+            }
         }
         
         write( blop.getCurrentSetting(), false, out );
     }
     
+    /**
+     * Copies a setting that was not yet read into <code>out</code>.
+     * @param source the stored form of the setting
+     * @param out the stream to write into
+     * @throws IOException if there are any problems
+     */
+    protected void write( SettingSource source, DataOutputStream out ) throws IOException{
+    	SettingsBlopWriter.copy( source, out );
+    }
+    
+    /**
+     * Reads a setting that was stored by {@link #writeSetting(String, DataOutputStream)}.
+     * @param source the stored form of the setting
+     * @return the new setting
+     * @throws IOException if there are any problems
+     */
+    protected Setting read( SettingSource source ) throws IOException{
+    	DataInputStream in = source.open();
+    	try{
+    		return read( true, in );
+    	}
+    	finally{
+    		in.close();
+    	}
+    }
+    
+    /**
+     * Creates a {@link SettingsBlopWriter} which writes <code>blop</code> in the same format as
+     * {@link #writeBlop(SettingsBlop, DataOutputStream)}. Everything the writer needs from this frontend
+     * is collected immediately, the writer itself can then be used by any thread. Together with
+     * {@link #writeBlop()} this allows to capture the layout on the EventDispatchThread and to
+     * serialize it on another thread.
+     * @param blop the settings to write
+     * @return the new writer
+     */
+    public SettingsBlopWriter createBlopWriter( SettingsBlop blop ){
+    	Internals internals = new Internals();
+    	return new SettingsBlopWriter( blop,
+    			layoutChangeStrategy.createSituation( internals, true ), layoutChangeStrategy.createTransformer( internals ),
+    			layoutChangeStrategy.createSituation( internals, false ), layoutChangeStrategy.createTransformer( internals ));
+    }
+    
+    /**
+     * Writes the setting <code>name</code> into <code>out</code>. The data can be given back to this
+     * frontend with {@link #setLazySetting(String, SettingSource)}. Together with {@link #writeCurrent(DataOutputStream)}
+     * this allows an application to store each setting separately.
+     * @param name the name of the setting to write
+     * @param out the stream to write into
+     * @throws IOException if there are any problems
+     * @throws IllegalArgumentException if there is no setting <code>name</code>
+     */
+    public void writeSetting( String name, DataOutputStream out ) throws IOException{
+    	SettingSource source = lazySettings.get( name );
+    	if( source != null ){
+    		write( source, out );
+    		return;
+    	}
+    	
+    	Setting setting = settings.get( name );
+    	if( setting == null )
+    		throw new IllegalArgumentException( "Unknown setting \""+ name +"\"");
+    	
+    	write( setting, true, out );
+    }
+    
+    /**
+     * Writes the name of the {@link #getCurrentSetting() current setting} and the current layout
+     * into <code>out</code>. Unlike {@link #write(DataOutputStream)} this method does not write
+     * any of the other settings.
+     * @param out the stream to write into
+     * @throws IOException if there are any problems
+     * @see #readCurrent(DataInputStream, SettingsBlop)
+     */
+    public void writeCurrent( DataOutputStream out ) throws IOException{
+    	if( currentSetting == null )
+            out.writeBoolean( false );
+        else{
+            out.writeBoolean( true );
+            out.writeUTF( currentSetting );
+        }
+    	
+    	write( getSetting( false ), false, out );
+    }
+    
+    /**
+     * Reads the name of the current setting and the current layout, which were written by
+     * {@link #writeCurrent(DataOutputStream)}, and stores them as current setting of <code>blop</code>. 
+     * This method does not change any properties of the frontend, the blop can be applied with
+     * {@link #readBlop(SettingsBlop, boolean)}.
+     * @param in the stream to read from
+     * @param blop the blop to fill
+     * @throws IOException if there are any problems
+     */
+    public void readCurrent( DataInputStream in, SettingsBlop blop ) throws IOException{
+    	String name = null;
+    	if( in.readBoolean() )
+    		name = in.readUTF();
+    	
+    	blop.setCurrent( name, read( false, in ) );
+    }
+    
     /**
      * Calls {@link Setting#write(DockSituation, PropertyTransformer, boolean, DataOutputStream)}
      * @param setting the setting which will be written
@@ -1969,7 +2175,16 @@ public void writeBlopXML( SettingsBlop blop, XElement element ){
             for( String name : names ){
             	XElement xsetting = xsettings.addElement( "setting" );
                 xsetting.addString( "name", name );
-                writeXML( blop.getSetting( name ), true, xsetting );
+                Setting setting = blop.getSetting( name );
+                if( setting == null ){
+                	try{
+                		setting = read( blop.getSource( name ) );
+                	}
+                	catch( IOException e ){
+                		throw new IllegalArgumentException( "Cannot read setting \"" + name + "\"", e );
+                	}
+                }
+                writeXML( setting, true, xsetting );
             }
         }
         
@@ -2073,6 +2288,10 @@ public SettingsBlop writeBlop(){
     	for( Map.Entry<String, Setting> entry : settings.entrySet() ){
     		blop.put( entry.getKey(), entry.getValue() );
     	}
+    	// settings that were never read are passed on in their stored form
+    	for( Map.Entry<String, SettingSource> entry : lazySettings.entrySet() ){
+    		blop.put( entry.getKey(), entry.getValue() );
+    	}
     	blop.setCurrent( currentSetting, getSetting( false ) );
     	return blop;
     }
@@ -2089,7 +2308,16 @@ public void readBlop( SettingsBlop blop, boolean keepExistingSettings ){
     		deleteAll();
     	}
     	for( String name : blop.getNames() ){
-    		settings.put( name, blop.getSetting( name ) );
+    		Setting setting = blop.getSetting( name );
+    		if( setting == null ){
+    			settings.remove( name );
+    			lazySettings.put( name, blop.getSource( name ) );
+    		}
+    		else{
+    			lazySettings.remove( name );
+    			settings.put( name, setting );
+    		}
+    		fireSettingChanged( name );
     		fireRead( name );
     	}
     	currentSetting = blop.getCurrentName();
@@ -2324,6 +2552,16 @@ protected void fireRead( String name ){
             listener.read( this, name );
     }
     
+    /**
+     * Invokes the method {@link DockFrontendSettingsListener#settingChanged(DockFrontend, String)}
+     * on all listeners.
+     * @param name the name of the setting that changed
+     */
+    protected void fireSettingChanged( String name ){
+    	for( DockFrontendSettingsListener listener : settingsListeners.toArray( new DockFrontendSettingsListener[ settingsListeners.size() ] ))
+    		listener.settingChanged( this, name );
+    }
+    
     
     /**
      * Invokes the method {@link DockFrontendListener#deleted(DockFrontend, String)}
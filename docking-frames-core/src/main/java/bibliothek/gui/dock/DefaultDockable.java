@@ -32,16 +32,22 @@
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.LayoutManager;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.lang.ref.WeakReference;
 
 import javax.swing.Icon;
 import javax.swing.LayoutFocusTraversalPolicy;
+import javax.swing.Timer;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.dockable.AbstractDockable;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.dockable.DockableContentSupplier;
 import bibliothek.gui.dock.dockable.DockableBackgroundComponent;
 import bibliothek.gui.dock.dockable.DockableIcon;
 import bibliothek.gui.dock.dockable.IconHandling;
@@ -56,7 +62,10 @@
 /**
  * A {@link Dockable} which consists only of one {@link Component} called
  * "content pane". It's possible to add or remove components from the
- * content pane at any time.
+ * content pane at any time.<br>
+ * Alternatively a {@link DockableContentSupplier} can be set, in this case the content is created 
+ * only once this dockable is shown for the first time, and may be dropped if this dockable remains
+ * hidden for some time.
  * @author Benjamin Sigg
  */
 public class DefaultDockable extends AbstractDockable {
@@ -72,6 +81,18 @@ public class DefaultDockable extends AbstractDockable {
     /** the component that was set by the client */
     private WeakReference<Component> clientComponent;
     
+    /** creates the content of this dockable lazily, can be <code>null</code> */
+    private DockableContentSupplier contentSupplier;
+    
+    /** the content that was created by {@link #contentSupplier} */
+    private Component suppliedContent;
+    
+    /** how many milliseconds the supplied content remains while this dockable is hidden, a value below 1 means forever */
+    private int contentIdleTime = 0;
+    
+    /** drops the supplied content once this dockable was hidden long enough */
+    private Timer contentIdleTimer;
+    
     /**
      * Constructs a new DefaultDockable
      */
@@ -150,6 +171,13 @@ public DefaultDockable( Component component, String title, Icon icon, IconHandli
     	pane.setFocusTraversalPolicyProvider( true );
     	pane.setFocusTraversalPolicy( new LayoutFocusTraversalPolicy() );
     	pane.setBackground( background );
+    	pane.addHierarchyListener( new HierarchyListener(){
+			public void hierarchyChanged( HierarchyEvent e ){
+				if( (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 ){
+					checkContent();
+				}
+			}
+		});
     	
         if( component != null ){
         	clientComponent = new WeakReference<Component>( component );
@@ -286,6 +314,128 @@ public void setLayout( LayoutManager layout ){
         getContentPane().setLayout( layout );
     }
     
+    /**
+     * Sets a supplier that creates the content of this dockable lazily. The content is created
+     * and added to the {@link #getContentPane() content pane} once this dockable is shown
+     * for the first time. The content pane should not be modified by other means while a supplier is set.
+     * @param supplier the new supplier, can be <code>null</code>
+     * @see #setContentIdleTime(int)
+     */
+    public void setContentSupplier( DockableContentSupplier supplier ){
+    	if( contentSupplier != supplier ){
+    		releaseContent();
+    		contentSupplier = supplier;
+    		checkContent();
+    	}
+    }
+    
+    /**
+     * Gets the supplier which creates the content of this dockable lazily.
+     * @return the supplier, can be <code>null</code>
+     */
+    public DockableContentSupplier getContentSupplier(){
+		return contentSupplier;
+	}
+    
+    /**
+     * Sets how long the content created by the {@link #setContentSupplier(DockableContentSupplier) supplier}
+     * remains on this dockable while this dockable is not shown. After that time the content is removed
+     * and the supplier has to create it again if this dockable is shown again.
+     * @param milliseconds the idle time in milliseconds, a value smaller than <code>1</code> indicates
+     * that the content is never removed
+     */
+    public void setContentIdleTime( int milliseconds ){
+		this.contentIdleTime = milliseconds;
+		if( contentIdleTimer != null ){
+			contentIdleTimer.stop();
+			contentIdleTimer = null;
+		}
+		checkContent();
+	}
+    
+    /**
+     * Tells how long the content of the {@link #setContentSupplier(DockableContentSupplier) supplier}
+     * remains on this dockable while this dockable is not shown.
+     * @return the idle time in milliseconds
+     */
+    public int getContentIdleTime(){
+		return contentIdleTime;
+	}
+    
+    /**
+     * Tells whether the content of the {@link #setContentSupplier(DockableContentSupplier) supplier}
+     * is currently present.
+     * @return <code>true</code> if the supplier created some content that is shown on this dockable, 
+     * <code>false</code> if the content is missing or if there is no supplier
+     */
+    public boolean isContentRealized(){
+    	return suppliedContent != null;
+    }
+    
+    /**
+     * Ensures that the content of the {@link #setContentSupplier(DockableContentSupplier) supplier}
+     * is present, regardless of the visibility of this dockable. Does nothing if there is no supplier.
+     */
+    public void realizeContent(){
+    	if( contentSupplier != null && suppliedContent == null ){
+    		suppliedContent = contentSupplier.createContent( this );
+    		if( suppliedContent == null ){
+    			throw new IllegalStateException( "supplier did not create any content" );
+    		}
+    		clientComponent = new WeakReference<Component>( suppliedContent );
+    		pane.setLayout( new GridLayout( 1, 1 ) );
+    		pane.add( suppliedContent );
+    		pane.revalidate();
+    	}
+    }
+    
+    /**
+     * Removes the content of the {@link #setContentSupplier(DockableContentSupplier) supplier} from this
+     * dockable and informs the supplier that the content is no longer used.
+     */
+    public void releaseContent(){
+    	if( contentIdleTimer != null ){
+    		contentIdleTimer.stop();
+    	}
+    	if( suppliedContent != null ){
+    		Component content = suppliedContent;
+    		suppliedContent = null;
+    		clientComponent = null;
+    		pane.remove( content );
+    		pane.revalidate();
+    		contentSupplier.releaseContent( this, content );
+    	}
+    }
+    
+    /**
+     * Creates or schedules the removal of the supplied content depending on whether this
+     * dockable is showing or not.
+     */
+    private void checkContent(){
+    	if( contentSupplier == null ){
+    		return;
+    	}
+    	if( pane.isShowing() ){
+    		if( contentIdleTimer != null ){
+    			contentIdleTimer.stop();
+    		}
+    		realizeContent();
+    	}
+    	else if( suppliedContent != null && contentIdleTime > 0 ){
+    		if( contentIdleTimer == null ){
+    			contentIdleTimer = new Timer( contentIdleTime, new ActionListener(){
+					public void actionPerformed( ActionEvent e ){
+						if( !pane.isShowing() ){
+							releaseContent();
+						}
+					}
+				});
+    			contentIdleTimer.setRepeats( false );
+    		}
+    		contentIdleTimer.restart();
+    	}
+    }
+    
     @Override
     public void setController( DockController controller ){
     	super.setController( controller );
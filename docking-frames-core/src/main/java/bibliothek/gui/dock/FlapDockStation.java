@@ -41,6 +41,8 @@
 import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -203,6 +205,15 @@ public FlapLayoutManager getDefault(
     public static final PropertyKey<FlapWindowFactory> WINDOW_FACTORY = new PropertyKey<FlapWindowFactory>("flap dock station window factory",
     		new ConstantPropertyFactory<FlapWindowFactory>( new DefaultFlapWindowFactory() ), true );
     
+    /**
+     * Key for the number of {@link FlapWindow}s a station keeps alive after their {@link Dockable} was
+     * closed. These windows remain hidden but realized, and the {@link DockableDisplayer} stays attached
+     * to them. Opening such a {@link Dockable} again only requires to make its window visible. A value 
+     * of <code>0</code> disables the cache, and only one window is used.
+     */
+    public static final PropertyKey<Integer> WINDOW_CACHE_SIZE = new PropertyKey<Integer>( "flap dock station window cache size",
+    		new ConstantPropertyFactory<Integer>( 0 ), true );
+    
 
     /**
      * A listener that is added to the current {@link #layoutManager}
@@ -276,6 +287,13 @@ protected void valueChanged( FlapWindowFactory oldValue, FlapWindowFactory newVa
 		}
 	};
 	
+	/** the number of hidden windows this station keeps alive */
+	private PropertyValue<Integer> windowCacheSize = new PropertyValue<Integer>( WINDOW_CACHE_SIZE ){
+		protected void valueChanged( Integer oldValue, Integer newValue ){
+			trimWindowCache( getWindowCacheSize() );
+		}
+	};
+	
 	/** Access to the current {@link DisablingStrategy} */
 	private PropertyValue<DisablingStrategy> disablingStrategy = new PropertyValue<DisablingStrategy>( DisablingStrategy.STRATEGY ){
 		@Override
@@ -313,6 +331,11 @@ public void changed( DockElement item ){
     
     /** The popup-window */
     private FlapWindow window;
+    /** 
+     * Hidden windows which still show a {@link Dockable}, ordered by the time they were last 
+     * used, the oldest window is the first entry.
+     */
+    private LinkedHashMap<Dockable, FlapWindow> cachedWindows = new LinkedHashMap<Dockable, FlapWindow>();
     /** The size of the border, which can be grabbed by ther user, of the popup-window */
     private int windowBorder = 3;
     /** The minimal size of the popup-window */
@@ -508,6 +531,7 @@ public void setController( DockController controller ) {
                 
                 oldFrontDockable = getFrontDockable();
                 setFrontDockable( null );
+                trimWindowCache( 0 );
                 
                 for( DockableHandle dockable : handles.dockables() ){
                 	if( dockable != null ){
@@ -581,6 +605,7 @@ public void setController( DockController controller ) {
             }
             
             windowFactory.setProperties( controller );
+            windowCacheSize.setProperties( controller );
             buttonPane.setProperties( controller );
             buttonPane.resetTitles();
             
@@ -830,16 +855,54 @@ public void setFrontDockable( Dockable dockable ) {
      * @param forceReplace whether the window should be replaced anyway
      */
     private void updateWindow( Dockable dockable, boolean forceReplace ){
+    	int cacheSize = forceReplace ? 0 : getWindowCacheSize();
+    	if( forceReplace ){
+    		trimWindowCache( 0 );
+    	}
+    	
     	if( dockable == null ){
     		if( window != null ){
-    			window.setDockable( null );
-    			if( forceReplace ){
-    				setFlapWindow( null );
+    			if( cacheSize > 0 && window.getDockable() != null ){
+    				cacheWindow( cacheSize );
+    			}
+    			else{
+	    			window.setDockable( null );
+	    			if( forceReplace ){
+	    				setFlapWindow( null );
+	    			}
     			}
     		}
     	}
     	else{
 	    	Window owner = SwingUtilities.getWindowAncestor( getComponent() );
+	    	if( cacheSize > 0 ){
+	    		FlapWindow cached = cachedWindows.remove( dockable );
+	    		if( cached != null && !windowFactory.getValue().isValid( cached, this )){
+	    			cached.setController( null );
+	    			cached.destroy();
+	    			cached = null;
+	    		}
+	    		
+	    		if( cached != null ){
+	    			if( window != null && window.getDockable() != null ){
+	    				cacheWindow( cacheSize );
+	    			}
+	    			setFlapWindow( cached );
+	    		}
+	    		else if( window != null && window.getDockable() != null ){
+	    			// reuse the oldest cached window, the current window goes into the cache
+	    			FlapWindow spare = null;
+	    			if( cachedWindows.size() >= cacheSize ){
+	    				Iterator<FlapWindow> eldest = cachedWindows.values().iterator();
+	    				spare = eldest.next();
+	    				eldest.remove();
+	    				spare.setDockable( null );
+	    			}
+	    			cacheWindow( cacheSize );
+	    			setFlapWindow( spare );
+	    		}
+	    	}
+	    	
 	        if( window == null || forceReplace || !windowFactory.getValue().isValid(window, this) ){
 	            if( window != null ){
 	                window.setDockable( null );
@@ -851,7 +914,9 @@ private void updateWindow( Dockable dockable, boolean forceReplace ){
 	        }
 	        
 	        if( window != null && owner != null ){
-	            window.setDockable( dockable );
+	        	if( window.getDockable() != dockable ){
+	        		window.setDockable( dockable );
+	        	}
 	            if( owner.isVisible() )
 	                window.setWindowVisible( true );
 	        
@@ -860,6 +925,68 @@ private void updateWindow( Dockable dockable, boolean forceReplace ){
     	}
     }
     
+    /**
+     * Gets the maximum number of hidden windows this station keeps alive.
+     * @return the size of the cache, <code>0</code> if windows are not cached
+     * @see #WINDOW_CACHE_SIZE
+     */
+    public int getWindowCacheSize(){
+    	Integer size = windowCacheSize.getValue();
+    	if( size == null ){
+    		return 0;
+    	}
+    	return Math.max( 0, size.intValue() );
+    }
+    
+    /**
+     * Hides the current window and stores it in the cache of windows, the {@link Dockable} of 
+     * the current window remains attached. Afterwards there is no current window.
+     * @param cacheSize the maximum number of cached windows
+     */
+    private void cacheWindow( int cacheSize ){
+    	FlapWindow window = this.window;
+    	this.window = null;
+    	
+    	window.setDropInfo( null );
+    	window.setRemoval( false );
+    	window.setWindowVisible( false );
+    	cachedWindows.put( window.getDockable(), window );
+    	trimWindowCache( cacheSize );
+    }
+    
+    /**
+     * Destroys the oldest cached windows until there are no more than <code>size</code> cached windows left.
+     * @param size the maximum number of cached windows
+     */
+    private void trimWindowCache( int size ){
+    	Iterator<FlapWindow> windows = cachedWindows.values().iterator();
+    	while( cachedWindows.size() > size ){
+    		FlapWindow window = windows.next();
+    		windows.remove();
+    		window.setController( null );
+    		window.destroy();
+    	}
+    }
+    
+    /**
+     * Removes <code>dockable</code> from its cached window. The window either becomes the
+     * current window of this station, or is destroyed.
+     * @param dockable the element whose window is no longer needed
+     */
+    private void discardCachedWindow( Dockable dockable ){
+    	FlapWindow window = cachedWindows.remove( dockable );
+    	if( window != null ){
+    		window.setDockable( null );
+    		if( this.window == null ){
+    			setFlapWindow( window );
+    		}
+    		else{
+    			window.setController( null );
+    			window.destroy();
+    		}
+    	}
+    }
+    
     /**
      * Creates a window for this station.
      * @param buttonPane the panel needed to calculate the size of the window
@@ -1792,6 +1919,7 @@ public void remove( int index ){
         Dockable dockable = getDockable( index );
         if( getFrontDockable() == dockable )
             setFrontDockable( null );
+        discardCachedWindow( dockable );
         
         if( oldFrontDockable == dockable )
             oldFrontDockable = null;
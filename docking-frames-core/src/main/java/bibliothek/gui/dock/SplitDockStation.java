@@ -61,6 +61,7 @@
 import bibliothek.gui.dock.action.HierarchyDockActionSource;
 import bibliothek.gui.dock.action.ListeningDockAction;
 import bibliothek.gui.dock.action.LocationHint;
+import bibliothek.gui.dock.control.DeferredRevalidator;
 import bibliothek.gui.dock.control.relocator.Merger;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.disable.DisablingStrategyListener;
@@ -404,6 +405,12 @@ public void changed( DockElement item ){
 	/** Information about the {@link Dockable} which is currently draged onto this station. */
 	private PutInfo putInfo;
 	
+	/** The area of the overlay that was covered by the last painted insertion marker, can be <code>null</code> */
+	private Rectangle insertionRegion;
+	
+	/** Additional space around an insertion marker that gets repainted, reserved for borders that are painted around the marker */
+	private static final int INSERTION_REGION_MARGIN = 4;
+	
 	/** Information about the current {@link Span}s */
 	private SplitSpanStrategy spanStrategy;
 	
@@ -1467,7 +1474,7 @@ public void setFullScreen( Dockable dockable ){
 				}
 				
 				// doLayout();
-				revalidate();
+				revalidateLayout( false );
 				fireFullScreenChanged(oldFullScreen, getFullScreen());
 				visibility.fire();
 			}
@@ -1783,7 +1790,7 @@ else if( put == PutInfo.Put.LEFT ) {
 				DockableProperty successor = property.getSuccessor();
 				if( station != null && successor != null ) {
 					if( station.drop(dockable, successor) ) {
-						validate();
+						validateLayout();
 						return true;
 					}
 				}
@@ -1791,12 +1798,12 @@ else if( put == PutInfo.Put.LEFT ) {
 				if( info.bestLeafIntersection > 0.75 ) {
 					if( station != null && DockUtilities.acceptable( station, dockable ) ) {
 						station.drop(dockable);
-						validate();
+						validateLayout();
 						return true;
 					}
 					else {
 						boolean result = dropOver(info.bestLeaf, dockable, property.getSuccessor(), null, null);
-						validate();
+						validateLayout();
 						return result;
 					}
 				}
@@ -1877,7 +1884,7 @@ public boolean drop( Dockable dockable, SplitDockPathProperty property ){
 			updateBounds();
 			boolean done = start.insert(property, index, dockable);
 			if( done )
-				revalidate();
+				revalidateLayout( false );
 			return done;
 		}
 		finally{
@@ -2040,8 +2047,7 @@ protected boolean dropOver( Leaf leaf, Dockable dockable, DockableProperty prope
 			finally{
 				token.release();
 			}
-			revalidate();
-			repaint();
+			revalidateLayout( true );
 			return true;
 		}
 		finally{
@@ -2130,8 +2136,7 @@ else if( put == PutInfo.Put.LEFT ) {
 				if( fire ) {
 					dockStationListeners.fireDockableAdded(dockable);
 				}
-				revalidate();
-				repaint();
+				revalidateLayout( true );
 			}
 			finally{
 				if( fire ){
@@ -2332,8 +2337,53 @@ public StationCombinerValue getCombiner(){
 		return combiner;
 	}
 
+	/**
+	 * Calculates the area of the overlay that is covered by the insertion marker for <code>info</code>.
+	 * The area includes a small margin for borders that are painted around the marker.
+	 * @param info the location where a {@link Dockable} is about to be dropped, can be <code>null</code>
+	 * @return the covered area or <code>null</code> if nothing is painted
+	 */
+	private Rectangle getInsertionRegion( PutInfo info ){
+		if( info == null || info.willHaveNoEffect() ){
+			return null;
+		}
+		SplitNode node = info.getNode();
+		Rectangle bounds;
+		if( node == null ){
+			bounds = new Rectangle( 0, 0, getWidth(), getHeight() );
+		}
+		else{
+			if( info.getCombinerTarget() == null && node.getParent() == getRoot() ){
+				node = getRoot();
+			}
+			bounds = node.getBounds();
+		}
+		bounds.grow( INSERTION_REGION_MARGIN, INSERTION_REGION_MARGIN );
+		return bounds;
+	}
+	
+	/**
+	 * Repaints the part of the overlay that was covered by the old insertion marker and the part
+	 * that is going to be covered by the marker of <code>info</code>.
+	 * @param info the new location of the dropped {@link Dockable}, can be <code>null</code>
+	 */
+	private void repaintInsertion( PutInfo info ){
+		Rectangle next = getInsertionRegion( info );
+		Rectangle dirty = insertionRegion;
+		if( dirty == null ){
+			dirty = next;
+		}
+		else if( next != null ){
+			dirty = dirty.union( next );
+		}
+		if( dirty != null ){
+			repaintOverlay( dirty );
+		}
+	}
+
 	@Override
 	protected void paintOverlay( Graphics g ){
+		insertionRegion = getInsertionRegion( putInfo );
 		if( putInfo != null && !putInfo.willHaveNoEffect() ) {
 			DefaultStationPaintValue paint = getPaint();
 			if( putInfo.getNode() == null ) {
@@ -2441,7 +2491,7 @@ private void addDockable( Dockable dockable, DockHierarchyLock.Token token ){
 				if( fire ) {
 					dockStationListeners.fireDockableAdded(dockable);
 				}
-				revalidate();
+				revalidateLayout( false );
 			}
 			finally{
 				if( fire ){
@@ -2489,8 +2539,7 @@ private void replace( Dockable previous, Dockable next, boolean station ){
 				if( wasFullScreen )
 					setFullScreen(next);
 	
-				revalidate();
-				repaint();
+				revalidateLayout( true );
 			}
 		}
 		finally{
@@ -2561,7 +2610,7 @@ protected void discard( DockableDisplayer displayer ){
 		getContentPane().add(displayer.getComponent());
 		displayer.getComponent().setVisible(visible);
 
-		revalidate();
+		revalidateLayout( false );
 	}
 
 	/**
@@ -2809,6 +2858,41 @@ public String getFactoryID(){
 		return SplitDockStationFactory.ID;
 	}
 
+	/**
+	 * Marks the layout of this station as invalid. If the {@link DockController} currently runs
+	 * a bulk operation, e.g. because of {@link DockController#freezeLayout()}, then the validation
+	 * is postponed until the operation is finished. Otherwise this method is the same as
+	 * calling {@link #revalidate()}.
+	 * @param repaint whether this station needs to be repainted as well
+	 * @see DeferredRevalidator
+	 */
+	public void revalidateLayout( boolean repaint ){
+		DockController controller = getController();
+		if( controller == null ){
+			revalidate();
+			if( repaint ){
+				repaint();
+			}
+		}
+		else{
+			controller.getRevalidator().revalidate( this, repaint );
+		}
+	}
+	
+	/**
+	 * Validates this station now, or after the current bulk operation of the {@link DockController}
+	 * is finished.
+	 */
+	private void validateLayout(){
+		DockController controller = getController();
+		if( controller == null ){
+			validate();
+		}
+		else{
+			controller.getRevalidator().validate( this );
+		}
+	}
+
 	/**
 	 * Updates all locations and sizes of the {@link Component Components}
 	 * which are in the structure of this tree.
@@ -2826,6 +2910,11 @@ public void updateBounds(){
 		else {
 			manager.updateBounds(root(), insets.left / factorW, insets.top / factorH, factorW, factorH);
 		}
+		
+		if( putInfo != null ){
+			// the insertion marker moves together with the nodes
+			repaintOverlay( null );
+		}
 	}
 	
 	/**
@@ -2998,7 +3087,7 @@ public boolean isMove(){
 		public void draw(){
 			SplitDockStation.this.putInfo = putInfo;
 			setPut( putInfo );
-			repaint();
+			repaintInsertion( putInfo );
 		}
 
 		public void destroy( StationDropOperation next ){
@@ -3007,7 +3096,7 @@ public void destroy( StationDropOperation next ){
 				if( next == null || !(next instanceof SplitDropOperation) || next.getTarget() != getTarget() ){
 					setPut( null );
 				}
-				repaint();
+				repaintInsertion( null );
 			}
 		}
 		
@@ -3156,7 +3245,7 @@ private void drop( DockHierarchyLock.Token token ){
 					}
 				}
 		
-				revalidate();
+				revalidateLayout( false );
 			}
 			finally{
 				access.fire();
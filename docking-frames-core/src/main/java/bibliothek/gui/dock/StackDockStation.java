@@ -192,6 +192,18 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
     /** Information about the dockable that is going to be removed */
     private ComponentDragOperation dragOperation;
     
+    /** the area covered by the insertion line when the overlay was painted the last time, can be <code>null</code> */
+    private Rectangle paintedInsertionLine;
+    
+    /** the area covered by the insertion or removal marker when the overlay was painted the last time, can be <code>null</code> */
+    private Rectangle paintedMarker;
+    
+    /** whether {@link #paintedMarker} was an insertion marker or a removal marker */
+    private boolean paintedInsertionMarker;
+    
+    /** how many pixels the markers of a {@link StationPaint} may paint outside the bounds they are given */
+    private static final int INSERTION_REGION_MARGIN = 4;
+    
      /** The graphical representation of this station */
     private Background background;
     
@@ -1348,8 +1360,25 @@ protected void addToPanel( StationChildHandle handle, int index, int size ){
             	stackComponent.setSelectedIndex( selectionIndex );
             }
         }
-        panel.revalidate();
-        panel.repaint();
+        revalidatePanel( true );
+    }
+    
+    /**
+     * Marks the layout of this station as invalid, the validation is postponed if the
+     * {@link DockController} currently runs a bulk operation.
+     * @param repaint whether the station needs to be repainted as well
+     */
+    private void revalidatePanel( boolean repaint ){
+    	DockController controller = getController();
+    	if( controller == null ){
+    		panel.revalidate();
+    		if( repaint ){
+    			panel.repaint();
+    		}
+    	}
+    	else{
+    		controller.getRevalidator().revalidate( panel, repaint );
+    	}
     }
     
     private boolean isImmutableSelectedIndex(){
@@ -1453,7 +1482,7 @@ else if( dockables.dockables().size() == 2 && !singleTabStackDockComponent() ){
 	        handle.destroy();
 	        
 	        dockable.removeDockableListener( listener );
-	        panel.revalidate();
+	        revalidatePanel( false );
 	        
 	        dockable.setDockParent( null );
 	       	listeners.fireDockableRemoved( dockable );
@@ -1648,53 +1677,142 @@ public Dimension getMinimumSize(){
         protected void paintOverlay( Graphics g ) {
             DefaultStationPaintValue paint = getPaint();
             
-            if( insert != null && dockables.dockables().size() > 1 ){
-                Rectangle bounds = null;
-                
-                if( insert.tab >= 0 && insert.tab < stackComponent.getTabCount() )
-                    bounds = stackComponent.getBoundsAt( insert.tab );
-                
-                if( bounds != null ){
-                    Point a = new Point();
-                    Point b = new Point();
-
-                    if( insert.right ){
-                   		insertionLine( bounds, insert.tab+1 < stackComponent.getTabCount() ? stackComponent.getBoundsAt( insert.tab+1 ) : null, a, b, true );
-                    }
-                    else{
-                   		insertionLine( insert.tab > 0 ? stackComponent.getBoundsAt( insert.tab-1 ) : null, bounds, a, b, false );
-                    }
-                    
-                    paint.drawInsertionLine( g, a.x, a.y, b.x, b.y );
-                }
+            paintedInsertionLine = getInsertionLineRegion();
+            paintedMarker = getMarkerRegion();
+            paintedInsertionMarker = insert != null;
+            
+            Point a = new Point();
+            Point b = new Point();
+            if( getInsertionLine( a, b )){
+                paint.drawInsertionLine( g, a.x, a.y, b.x, b.y );
             }
             
-            if( insert != null || (dragOperation != null && dragOperation.getDockable() != null )){
+            Rectangle frontBounds = getMarkerBounds();
+            if( frontBounds != null ){
                 Rectangle bounds = new Rectangle( 0, 0, getWidth(), getHeight() );
-                Rectangle frontBounds = null;
-                if( getDockableCount() < 2 )
-                    frontBounds = bounds;
-                else{
-                	int index = stackComponent.getSelectedIndex();
-                	if( index >= 0 ){
-	                    Component front = dockables.dockables().get( index ).getDisplayer().getComponent();
-	                    Point location = new Point( 0, 0 );
-	                    location = SwingUtilities.convertPoint( front, location, this );
-	                    frontBounds = new Rectangle( location.x, location.y, front.getWidth(), front.getHeight() );
-                	}
-                }
-                if( frontBounds != null ){
-                	if( insert != null ){
-                		paint.drawInsertion( g, bounds, frontBounds );
-                	}
-                	else if( dragOperation != null && dragOperation.getDockable() != null ){
-                		paint.drawRemoval( g, bounds, frontBounds );
-                	}
-                }
+            	if( insert != null ){
+            		paint.drawInsertion( g, bounds, frontBounds );
+            	}
+            	else{
+            		paint.drawRemoval( g, bounds, frontBounds );
+            	}
             }
         }
     }
     
+    /**
+     * Calculates the line between two tabs that shows where a dropped {@link Dockable} would be inserted.
+     * @param a the first point of the line, used as output
+     * @param b the second point of the line, used as output
+     * @return whether there is a line at all
+     */
+    private boolean getInsertionLine( Point a, Point b ){
+        if( insert == null || dockables.dockables().size() <= 1 ){
+        	return false;
+        }
+        
+        if( insert.tab < 0 || insert.tab >= stackComponent.getTabCount() ){
+        	return false;
+        }
+        
+        Rectangle bounds = stackComponent.getBoundsAt( insert.tab );
+        if( bounds == null ){
+        	return false;
+        }
+        
+        if( insert.right ){
+       		insertionLine( bounds, insert.tab+1 < stackComponent.getTabCount() ? stackComponent.getBoundsAt( insert.tab+1 ) : null, a, b, true );
+        }
+        else{
+       		insertionLine( insert.tab > 0 ? stackComponent.getBoundsAt( insert.tab-1 ) : null, bounds, a, b, false );
+        }
+        return true;
+    }
+    
+    /**
+     * Calculates the area that is covered by the line of {@link #getInsertionLine(Point, Point)}.
+     * @return the area in the coordinate system of the {@link #background}, or <code>null</code>
+     */
+    private Rectangle getInsertionLineRegion(){
+    	Point a = new Point();
+    	Point b = new Point();
+    	if( !getInsertionLine( a, b )){
+    		return null;
+    	}
+    	Rectangle region = new Rectangle( Math.min( a.x, b.x ), Math.min( a.y, b.y ), Math.abs( a.x - b.x ), Math.abs( a.y - b.y ));
+    	region.grow( INSERTION_REGION_MARGIN, INSERTION_REGION_MARGIN );
+    	return region;
+    }
+    
+    /**
+     * Calculates the bounds of the insertion or removal marker that is painted over the selected {@link Dockable}.
+     * @return the bounds in the coordinate system of the {@link #background}, or <code>null</code> if there is no marker
+     */
+    private Rectangle getMarkerBounds(){
+    	if( insert == null && (dragOperation == null || dragOperation.getDockable() == null )){
+    		return null;
+    	}
+    	if( getDockableCount() < 2 ){
+    		return new Rectangle( 0, 0, background.getWidth(), background.getHeight() );
+    	}
+    	int index = stackComponent.getSelectedIndex();
+    	if( index < 0 ){
+    		return null;
+    	}
+        Component front = dockables.dockables().get( index ).getDisplayer().getComponent();
+        Point location = SwingUtilities.convertPoint( front, new Point( 0, 0 ), background );
+        return new Rectangle( location.x, location.y, front.getWidth(), front.getHeight() );
+    }
+    
+    /**
+     * Calculates the area that is covered by the marker of {@link #getMarkerBounds()}.
+     * @return the area in the coordinate system of the {@link #background}, or <code>null</code>
+     */
+    private Rectangle getMarkerRegion(){
+    	Rectangle region = getMarkerBounds();
+    	if( region != null ){
+    		region.grow( INSERTION_REGION_MARGIN, INSERTION_REGION_MARGIN );
+    	}
+    	return region;
+    }
+    
+    /**
+     * Repaints those parts of the overlay that changed since it was painted the last time. If the user
+     * only moves the mouse from one tab to another, then only the old and the new insertion line need
+     * to be painted again, the marker over the selected {@link Dockable} remains the same.
+     */
+    private void repaintInsertion(){
+    	Rectangle line = getInsertionLineRegion();
+    	Rectangle dirty = union( paintedInsertionLine, line );
+    	
+    	Rectangle marker = getMarkerRegion();
+    	boolean insertionMarker = insert != null;
+    	boolean markerChanged;
+    	if( marker == null ){
+    		markerChanged = paintedMarker != null;
+    	}
+    	else{
+    		markerChanged = !marker.equals( paintedMarker ) || insertionMarker != paintedInsertionMarker;
+    	}
+    	if( markerChanged ){
+    		dirty = union( dirty, union( paintedMarker, marker ));
+    	}
+    	
+    	if( dirty != null ){
+    		background.repaintOverlay( dirty );
+    	}
+    }
+    
+    private Rectangle union( Rectangle a, Rectangle b ){
+    	if( a == null ){
+    		return b;
+    	}
+    	if( b == null ){
+    		return a;
+    	}
+    	return a.union( b );
+    }
+    
     /**
      * When dropping or moving a {@link Dockable}, a line has to be painted
      * between two tabs. This method determines the exact location of that line.
@@ -1843,13 +1961,16 @@ public boolean isMove(){
     	
         public void draw() {
         	StackDockStation.this.insert = insert;
-            panel.repaint();
+            repaintInsertion();
         }
 
         public void destroy( StationDropOperation next ){
         	if( StackDockStation.this.insert == insert ){
         		StackDockStation.this.insert = null;
-        		panel.repaint();
+        		// if the next operation targets this station too, then it repaints the changes in its draw method
+        		if( next == null || next.getTarget() != StackDockStation.this ){
+        			repaintInsertion();
+        		}
         	}
             insert = null;
             dropping = null;
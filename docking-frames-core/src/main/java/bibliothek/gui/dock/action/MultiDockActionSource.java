@@ -35,7 +35,10 @@
 
 /**
  * A {@link DockActionSource} that combines various sources in one source.
- * This source behaves like a list of {@link DockActionSource DockActionSources}.
+ * This source behaves like a list of {@link DockActionSource DockActionSources}.<br>
+ * While this source has listeners, it observes its children and keeps a flattened 
+ * copy of all their actions. Hence {@link #getDockAction(int)} and {@link #getDockActionCount()}
+ * do not have to visit the children.
  * @author Benjamin Sigg
  */
 public class MultiDockActionSource extends AbstractDockActionSource {
@@ -46,6 +49,11 @@ public class MultiDockActionSource extends AbstractDockActionSource {
     private boolean separateSources = false;
     private LocationHint hint;
     
+    /** all the actions of all the children, <code>null</code> if not yet collected or invalid */
+    private DockAction[] cache;
+    /** for each child the index of its first action in {@link #cache} */
+    private int[] cacheOffsets;
+    
     /**
      * Constructs a new source. The <code>sources</code> are added as children
      * of this source.
@@ -116,6 +124,7 @@ public void addDockActionSourceListener( DockActionSourceListener listener ){
     		for( DockActionSource source : sources )
     			source.addDockActionSourceListener( this.listener );
     		updateSeparators();
+    		invalidate();
     	}
     }
     
@@ -126,6 +135,7 @@ public void removeDockActionSourceListener( DockActionSourceListener listener ){
     	if( !empty && listeners.isEmpty() ){
     		for( DockActionSource source : sources )
     			source.removeDockActionSourceListener( this.listener );
+    		invalidate();
     	}
     }
     
@@ -185,6 +195,7 @@ public void add( DockActionSource source ){
         sources.add( source );
         sources.add( separator );
         separators.add( separator );
+        invalidate();
         
         if( !listeners.isEmpty() ){
         	source.addDockActionSourceListener( listener );
@@ -211,11 +222,12 @@ public void remove( DockActionSource source ){
     	SeparatorSource separator = (SeparatorSource)sources.get( index+1 );
     	
     	int actionIndex = getDockActionCountUntil( index, false );
-    	int length = source.getDockActionCount();
+    	int length = source.getDockActionCount() + separator.getDockActionCount();
     	
     	sources.remove( index+1 );
     	sources.remove( index );
     	separators.remove( separator );
+    	invalidate();
     	
     	if( !listeners.isEmpty() ){
     		source.removeDockActionSourceListener( listener );
@@ -223,7 +235,7 @@ public void remove( DockActionSource source ){
     	}
     	
     	if( length > 0 ){
-    		fireRemoved( actionIndex, index+length-1 );
+    		fireRemoved( actionIndex, actionIndex+length-1 );
     	}
     	
     	updateSeparators();
@@ -244,6 +256,7 @@ public void removeAll(){
     	}
     	separators.clear();
     	sources.clear();
+    	invalidate();
     	
     	if( length > 0 ){
     		fireRemoved( 0, length-1 );
@@ -259,6 +272,9 @@ public void add( DockAction... actions ){
     }
     
     public int getDockActionCount(){
+    	if( validate() ){
+    		return cache.length;
+    	}
         return getDockActionCountUntil( sources.size(), true );
     }
     
@@ -292,6 +308,10 @@ protected int getDockActionCountUntil( int index, boolean allowUpdate ){
     	if( allowUpdate && listeners.isEmpty() )
     		updateSeparators();
     	
+    	if( cache != null ){
+    		return cacheOffsets[ index ];
+    	}
+    	
         int sum = 0;
         
         for( int i = 0; i < index; i++ )
@@ -301,6 +321,10 @@ protected int getDockActionCountUntil( int index, boolean allowUpdate ){
     }
 
     public DockAction getDockAction( int index ) {
+    	if( validate() ){
+    		return cache[ index ];
+    	}
+    	
     	if( listeners.isEmpty() )
     		updateSeparators();
     	
@@ -316,6 +340,48 @@ public DockAction getDockAction( int index ) {
         throw new ArrayIndexOutOfBoundsException();
     }
     
+    /**
+     * Ensures that {@link #cache} contains all the actions of the children, if possible. The
+     * cache can only be used while this source has listeners, otherwise the children cannot be
+     * observed.
+     * @return whether {@link #cache} is valid
+     */
+    private boolean validate(){
+    	if( listeners.isEmpty() ){
+    		return false;
+    	}
+    	if( cache == null ){
+    		int size = sources.size();
+    		int[] offsets = new int[ size+1 ];
+    		int sum = 0;
+    		for( int i = 0; i < size; i++ ){
+    			offsets[i] = sum;
+    			sum += sources.get( i ).getDockActionCount();
+    		}
+    		offsets[ size ] = sum;
+    		
+    		DockAction[] actions = new DockAction[ sum ];
+    		for( int i = 0; i < size; i++ ){
+    			DockActionSource source = sources.get( i );
+    			for( int j = 0, n = offsets[i+1] - offsets[i]; j < n; j++ ){
+    				actions[ offsets[i] + j ] = source.getDockAction( j );
+    			}
+    		}
+    		
+    		cacheOffsets = offsets;
+    		cache = actions;
+    	}
+    	return true;
+    }
+    
+    /**
+     * Deletes the flattened list of actions, it will be collected again when needed.
+     */
+    private void invalidate(){
+    	cache = null;
+    	cacheOffsets = null;
+    }
+    
     /**
      * Ensures that all separators which must be visible are really visible.
      */
@@ -334,12 +400,14 @@ private void updateSeparators(){
      */
     private class Listener implements DockActionSourceListener{
         public void actionsAdded( DockActionSource source, int firstIndex, int lastIndex ) {
+        	invalidate();
             int index = getDockActionCountUntil( sources.indexOf( source ), false );
             fireAdded( firstIndex + index, lastIndex + index );
             updateSeparators();
         }
 
         public void actionsRemoved( DockActionSource source, int firstIndex, int lastIndex ) {
+        	invalidate();
             int index = getDockActionCountUntil( sources.indexOf( source ), false );
             fireRemoved( firstIndex + index, lastIndex + index );
             updateSeparators();
@@ -27,7 +27,6 @@
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
 import java.util.List;
 
 import bibliothek.gui.DockController;
@@ -35,6 +34,7 @@
 import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.event.KeyboardListener;
 import bibliothek.gui.dock.event.LocatedListenerList;
+import bibliothek.util.ListenerList;
 
 /**
  * Abstract implementation of {@link KeyboardController} offering methods to store and call
@@ -47,7 +47,7 @@ public abstract class AbstractKeyboardController implements KeyboardController{
 		new LocatedListenerList<KeyboardListener>();
 	
 	/** the listeners which will be informed about any events */
-	private List<KeyListener> globalListeners = new ArrayList<KeyListener>();
+	private ListenerList<KeyListener> globalListeners = new ListenerList<KeyListener>( KeyListener.class );
 	
 	/** the controller in whose realm this {@link KeyboardController} works */
 	private DockController controller;
@@ -108,7 +108,7 @@ protected void fireKeyPressed( KeyEvent event ){
     		}
 		}
 		
-		for( KeyListener listener : globalListeners.toArray( new KeyListener[ globalListeners.size() ] )){
+		for( KeyListener listener : globalListeners.get()){
 		    listener.keyPressed( event );
 		}
 	}
@@ -135,7 +135,7 @@ protected void fireKeyReleased( KeyEvent event ){
     		}
 		}
 
-		for( KeyListener listener : globalListeners.toArray( new KeyListener[ globalListeners.size() ] )){
+		for( KeyListener listener : globalListeners.get()){
 		    listener.keyReleased( event );
 		}
 	}
@@ -161,7 +161,7 @@ protected void fireKeyTyped( KeyEvent event ){
     		}
 		}
 
-		for( KeyListener listener : globalListeners.toArray( new KeyListener[ globalListeners.size() ] )){
+		for( KeyListener listener : globalListeners.get()){
 		    listener.keyTyped( event );
 		}
 	}
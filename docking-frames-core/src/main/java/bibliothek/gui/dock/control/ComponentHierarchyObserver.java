@@ -27,11 +27,13 @@
 
 import java.awt.Component;
 import java.awt.Container;
+import java.awt.EventQueue;
 import java.awt.event.ContainerEvent;
 import java.awt.event.ContainerListener;
 import java.util.*;
 
 import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.event.ComponentHierarchyObserverEvent;
@@ -44,7 +46,10 @@
  * A global instance of {@link ComponentHierarchyObserver} can be obtained
  * through {@link DockController#getComponentHierarchyObserver()}.<br>
  * Note that a hierarchy observer may also know {@link Component}s which are
- * not directly associated with {@link Dockable}s.
+ * not directly associated with {@link Dockable}s.<br>
+ * Applications with large {@link Dockable}s can reduce the work of this observer
+ * by {@link #setBatched(boolean) batching} the events and by {@link #setTrackingContent(boolean) ignoring}
+ * the content of the {@link Dockable}s.
  * @author Benjamin Sigg
  */
 public class ComponentHierarchyObserver {
@@ -54,6 +59,9 @@ public class ComponentHierarchyObserver {
      */
     private Set<Component> roots = new HashSet<Component>();
     
+    /** the components of {@link Dockable}s which are not {@link DockStation}s, the children of these components are content */
+    private Set<Component> boundaries = new HashSet<Component>();
+    
     /** the currently known components */
     private Set<Component> components = new HashSet<Component>();
     
@@ -67,6 +75,18 @@ public class ComponentHierarchyObserver {
     private List<ComponentHierarchyObserverListener> listeners =
         new ArrayList<ComponentHierarchyObserverListener>();
     
+    /** whether the children of {@link Dockable}s are observed */
+    private boolean trackingContent = true;
+    
+    /** whether changes reported by {@link Container}s are collected and handled later */
+    private boolean batched = false;
+    
+    /** the components that were added or removed from some {@link Container} and that still need to be handled */
+    private Set<Component> pending = new LinkedHashSet<Component>();
+    
+    /** whether {@link #flush()} is already scheduled */
+    private boolean flushScheduled = false;
+    
     /**
      * Creates a new observer.
      * @param controller the controller whose {@link Dockable}s will be observed.
@@ -76,10 +96,16 @@ public ComponentHierarchyObserver( DockController controller ){
         
         controller.addRepresentativeListener( new DockControllerRepresentativeListener(){
             public void representativeAdded( DockController controller, DockElementRepresentative representative ) {
+                if( isContentBoundary( representative )){
+                    boundaries.add( representative.getComponent() );
+                }
                 add( representative.getComponent() );
             }
             public void representativeRemoved( DockController controller, DockElementRepresentative representative ) {
                 remove( representative.getComponent() );
+                if( representative instanceof Dockable ){
+                    boundaries.remove( representative.getComponent() );
+                }
             }
         });
     }
@@ -103,6 +129,59 @@ public DockController getController() {
         return controller;
     }
     
+    /**
+     * Sets whether the children of the {@link Dockable#getComponent() components} of {@link Dockable}s
+     * are observed. If not, then only the components which are relevant for the framework - like the 
+     * {@link Dockable}s themselves, their titles, tabs or displayers - are known to this observer, and a {@link Dockable}
+     * may change its content without affecting this observer. {@link DockStation}s are not considered to have
+     * content, all their children remain observed. Components that need to be known regardless
+     * of this setting can be {@link #add(Component) added} explicitly.<br>
+     * Note that {@link KeyboardController}s use the components of this observer to catch {@link java.awt.event.KeyEvent}s
+     * if they are not allowed to observe the global event queue.
+     * @param trackingContent whether the content of {@link Dockable}s is observed, the default value is <code>true</code>
+     */
+    public void setTrackingContent( boolean trackingContent ){
+        if( this.trackingContent != trackingContent ){
+            flush();
+            this.trackingContent = trackingContent;
+            rebuild();
+        }
+    }
+    
+    /**
+     * Tells whether the children of {@link Dockable}s are observed.
+     * @return whether the content is observed
+     * @see #setTrackingContent(boolean)
+     */
+    public boolean isTrackingContent(){
+        return trackingContent;
+    }
+    
+    /**
+     * Sets whether {@link Component}s that are added or removed from some observed {@link Container}
+     * are collected and handled together later on the EDT. If many components are added and removed
+     * in a short time, then components that remain or which are removed again are handled only once, and
+     * the listeners of this observer receive only one event.
+     * @param batched whether changes are batched, the default value is <code>false</code>
+     */
+    public void setBatched( boolean batched ){
+        if( this.batched != batched ){
+            this.batched = batched;
+            if( !batched ){
+                flush();
+            }
+        }
+    }
+    
+    /**
+     * Tells whether changes of the {@link Container}s are collected and handled together.
+     * @return whether changes are batched
+     * @see #setBatched(boolean)
+     */
+    public boolean isBatched(){
+        return batched;
+    }
+    
     /**
      * Adds a listener to this observer.
      * @param listener the new listener, not <code>null</code>
@@ -155,11 +234,11 @@ public void add( Component component ){
     private void add( Component component, List<Component> list ){
         boolean fire = list == null;
         if( fire )
-            list = new LinkedList<Component>();
+            list = new ArrayList<Component>();
         
         if( components.add( component )){
             list.add( component );
-            if( component instanceof Container ){
+            if( component instanceof Container && isObservingChildren( component )){
                 Container container = (Container)component;
                 container.addContainerListener( listener );
                 for( int i = 0, n = container.getComponentCount(); i<n; i++ ){
@@ -168,11 +247,8 @@ private void add( Component component, List<Component> list ){
             }
         }
         
-        if( fire && !list.isEmpty() ){
-            list = Collections.unmodifiableList( list );
-            ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
-            for( ComponentHierarchyObserverListener listener : listeners() )
-                listener.added( event );
+        if( fire ){
+            fireAdded( list );
         }
     }
     
@@ -199,7 +275,7 @@ private void remove( Component component, List<Component> list ){
         if( !roots.contains( component )){
             boolean fire = list == null;
             if( fire )
-                list = new LinkedList<Component>();
+                list = new ArrayList<Component>();
             
             if( components.remove( component )){
                 list.add( component );
@@ -212,13 +288,149 @@ private void remove( Component component, List<Component> list ){
                 }
             }
             
-            if( fire && !list.isEmpty() ){
-                list = Collections.unmodifiableList( list );
-                ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
-                for( ComponentHierarchyObserverListener listener : listeners() )
-                    listener.removed( event );
+            if( fire ){
+                fireRemoved( list );
+            }
+        }
+    }
+    
+    /**
+     * Tells whether the {@link DockElementRepresentative#getComponent() component} of <code>representative</code>
+     * is the border between the framework and the content of a {@link Dockable}. The components of
+     * {@link DockStation}s are no boundaries, their children are displayers, titles and other {@link Dockable}s.
+     * @param representative some new representative
+     * @return whether the children of the component of <code>representative</code> are content
+     */
+    private boolean isContentBoundary( DockElementRepresentative representative ){
+    	if( representative instanceof Dockable ){
+    		return ((Dockable)representative).asDockStation() == null;
+    	}
+    	return false;
+    }
+    
+    /**
+     * Tells whether the children of <code>component</code> have to be observed.
+     * @param component some known component
+     * @return whether the children are observed as well
+     */
+    private boolean isObservingChildren( Component component ){
+        return trackingContent || !boundaries.contains( component );
+    }
+    
+    /**
+     * Handles all the changes that were collected while this observer was {@link #setBatched(boolean) batched}.
+     * Each component is handled only once, depending on whether it is still a child of an observed
+     * {@link Container} or not. Listeners are informed first about the removed, then about the added components.
+     */
+    public void flush(){
+        flushScheduled = false;
+        if( pending.isEmpty() ){
+            return;
+        }
+        
+        Component[] changed = pending.toArray( new Component[ pending.size() ] );
+        pending.clear();
+        
+        List<Component> added = new ArrayList<Component>();
+        List<Component> removed = new ArrayList<Component>();
+        
+        // first remove all the components that are no longer child of an observed container,
+        // then add the remaining components, if their parent is still observed
+        for( Component component : changed ){
+            if( !isObservedChild( component )){
+                remove( component, removed );
             }
         }
+        for( Component component : changed ){
+            if( isObservedChild( component )){
+                add( component, added );
+            }
+        }
+        
+        fireRemoved( removed );
+        fireAdded( added );
+    }
+    
+    /**
+     * Tells whether the parent of <code>component</code> is known and whether its children are observed.
+     * @param component some component
+     * @return whether <code>component</code> should be known to this observer
+     */
+    private boolean isObservedChild( Component component ){
+        Container parent = component.getParent();
+        return parent != null && components.contains( parent ) && isObservingChildren( parent );
+    }
+    
+    /**
+     * Removes all the components but the roots and then searches all children again. Used
+     * when {@link #setTrackingContent(boolean)} changed.
+     */
+    private void rebuild(){
+        List<Component> removed = new ArrayList<Component>();
+        for( Component component : components ){
+            if( component instanceof Container ){
+                ((Container)component).removeContainerListener( listener );
+            }
+            if( !roots.contains( component )){
+                removed.add( component );
+            }
+        }
+        components.removeAll( removed );
+        fireRemoved( removed );
+        
+        List<Component> added = new ArrayList<Component>();
+        components.removeAll( roots );
+        for( Component root : roots ){
+            add( root, added );
+        }
+        added.removeAll( roots );
+        fireAdded( added );
+    }
+    
+    /**
+     * Informs all listeners that <code>list</code> was added, does nothing if <code>list</code> is empty.
+     * @param list the new components
+     */
+    private void fireAdded( List<Component> list ){
+        if( !list.isEmpty() ){
+            list = Collections.unmodifiableList( list );
+            ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
+            for( ComponentHierarchyObserverListener listener : listeners() )
+                listener.added( event );
+        }
+    }
+    
+    /**
+     * Informs all listeners that <code>list</code> was removed, does nothing if <code>list</code> is empty.
+     * @param list the removed components
+     */
+    private void fireRemoved( List<Component> list ){
+        if( !list.isEmpty() ){
+            list = Collections.unmodifiableList( list );
+            ComponentHierarchyObserverEvent event = new ComponentHierarchyObserverEvent( controller, list );
+            for( ComponentHierarchyObserverListener listener : listeners() )
+                listener.removed( event );
+        }
+    }
+    
+    /**
+     * Stores <code>component</code> as changed and makes sure that {@link #flush()} is called
+     * in the near future.
+     * @param component the added or removed component
+     */
+    private void schedule( Component component ){
+        pending.remove( component );
+        pending.add( component );
+        if( !flushScheduled ){
+            flushScheduled = true;
+            EventQueue.invokeLater( new Runnable(){
+                public void run(){
+                    if( flushScheduled ){
+                        flush();
+                    }
+                }
+            });
+        }
     }
     
     /**
@@ -228,20 +440,21 @@ private void remove( Component component, List<Component> list ){
      */
     private class Listener implements ContainerListener{
         public void componentAdded( ContainerEvent e ) {
-            add( e.getChild(), null );
+            if( batched ){
+                schedule( e.getChild() );
+            }
+            else{
+                add( e.getChild(), null );
+            }
         }
 
         public void componentRemoved( ContainerEvent e ) {
-            remove( e.getChild(), null );
+            if( batched ){
+                schedule( e.getChild() );
+            }
+            else{
+                remove( e.getChild(), null );
+            }
         }
     }
 }
-
-
-
-
-
-
-
-
-
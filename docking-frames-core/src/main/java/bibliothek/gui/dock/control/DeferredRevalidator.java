@@ -0,0 +1,173 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+
+/**
+ * Collects requests to revalidate or repaint {@link Component}s while the {@link DockRegister} of a
+ * {@link DockController} is {@link DockRegister#isStalled() stalled}. Bulk operations like
+ * {@link DockController#freezeLayout()}, transactions of a mode manager or the application of a
+ * layout stall the register. During such an operation the {@link DockStation}s only record that
+ * their {@link Component}s are no longer valid, and once the register is no longer stalled all the
+ * affected roots are validated exactly once.<br>
+ * If the register is not stalled, then all requests are executed immediately. A global instance
+ * can be obtained through {@link DockController#getRevalidator()}.
+ * @author Benjamin Sigg
+ */
+public class DeferredRevalidator {
+	/** the components that need to be validated */
+	private Set<Component> invalid = new LinkedHashSet<Component>();
+	
+	/** the components that need to be repainted */
+	private Set<Component> dirty = new LinkedHashSet<Component>();
+	
+	/** whether requests are currently collected */
+	private boolean deferring = false;
+	
+	/**
+	 * Creates a new revalidator.
+	 * @param controller the controller whose {@link DockRegister} tells when requests are to be collected
+	 */
+	public DeferredRevalidator( DockController controller ){
+		DockRegister register = controller.getRegister();
+		deferring = register.isStalled();
+		register.addDockRegisterListener( new DockRegisterAdapter(){
+			@Override
+			public void registerStalled( DockController controller ){
+				deferring = true;
+			}
+			
+			@Override
+			public void registerUnstalled( DockController controller ){
+				deferring = false;
+				flush();
+			}
+		});
+	}
+	
+	/**
+	 * Tells whether requests are currently collected rather than executed.
+	 * @return <code>true</code> if a bulk operation is currently running
+	 */
+	public boolean isDeferring(){
+		return deferring;
+	}
+	
+	/**
+	 * Marks <code>component</code> and its parents as invalid and ensures they are validated soon. If
+	 * no bulk operation is running this method just calls {@link JComponent#revalidate()} and
+	 * {@link Component#repaint()}.
+	 * @param component the component whose layout is no longer valid
+	 * @param repaint whether <code>component</code> needs to be repainted as well
+	 */
+	public void revalidate( JComponent component, boolean repaint ){
+		if( deferring ){
+			invalid.add( component );
+			if( repaint ){
+				dirty.add( component );
+			}
+		}
+		else{
+			component.revalidate();
+			if( repaint ){
+				component.repaint();
+			}
+		}
+	}
+	
+	/**
+	 * Ensures that <code>container</code> is validated. If no bulk operation is running this
+	 * method just calls {@link Container#validate()}, otherwise <code>container</code> is validated
+	 * once the operation is finished.
+	 * @param container the container to validate
+	 */
+	public void validate( Container container ){
+		if( deferring ){
+			invalid.add( container );
+		}
+		else{
+			container.validate();
+		}
+	}
+	
+	/**
+	 * Executes all the requests that were collected so far. Every component is invalidated, then
+	 * each distinct root is validated once, and finally the components are repainted.
+	 */
+	public void flush(){
+		if( invalid.isEmpty() && dirty.isEmpty() ){
+			return;
+		}
+		
+		Component[] components = invalid.toArray( new Component[ invalid.size() ] );
+		Component[] repaints = dirty.toArray( new Component[ dirty.size() ] );
+		invalid.clear();
+		dirty.clear();
+		
+		Set<Component> roots = new LinkedHashSet<Component>();
+		for( Component component : components ){
+			component.invalidate();
+			roots.add( validateRoot( component ) );
+		}
+		
+		for( Component root : roots ){
+			root.validate();
+		}
+		
+		for( Component component : repaints ){
+			component.repaint();
+		}
+	}
+	
+	/**
+	 * Searches the topmost parent of <code>component</code> that needs to be validated.
+	 * @param component some invalid component
+	 * @return the root whose validation includes <code>component</code>, the topmost parent
+	 * of <code>component</code> if it is not shown in any window
+	 */
+	private Component validateRoot( Component component ){
+		Component root = SwingUtilities.getRoot( component );
+		if( root == null ){
+			Component parent = component;
+			while( parent.getParent() != null ){
+				parent = parent.getParent();
+			}
+			root = parent;
+		}
+		return root;
+	}
+}
@@ -35,6 +35,7 @@
 import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.station.LayoutLocked;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.util.ListenerList;
 
 /**
  * A set of all {@link bibliothek.gui.Dockable Dockables} and
@@ -55,7 +56,7 @@ public class DockRegister {
     private DockController controller;
     
     /** a list of registerListeners which are informed whenever the registered dockables and stations change */
-    private List<DockRegisterListener> registerListeners = new ArrayList<DockRegisterListener>();
+    private ListenerList<DockRegisterListener> registerListeners = new ListenerList<DockRegisterListener>( DockRegisterListener.class );
     
     /** an observer of the stations */
     private StationListener stationListener = new StationListener();
@@ -407,10 +408,10 @@ protected void unregister( DockStation station ){
 
     /**
      * Gets a list of all registerListeners which are registered.
-     * @return the list of registerListeners
+     * @return the list of registerListeners, a new array that may be modified
      */
     protected DockRegisterListener[] listDockRegisterListeners(){
-    	return registerListeners.toArray( new DockRegisterListener[ registerListeners.size() ] );
+    	return registerListeners.get().clone();
     }
     
     /**
@@ -418,7 +419,7 @@ protected DockRegisterListener[] listDockRegisterListeners(){
      * @param dockable the Dockable which will be registered
      */
     protected void fireDockableRegistering( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockableRegistering( controller, dockable );
     }
     
@@ -427,7 +428,7 @@ protected void fireDockableRegistering( Dockable dockable ){
      * @param dockable the registered Dockable
      */
     protected void fireDockableRegistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockableRegistered( controller, dockable );
     }
 
@@ -437,7 +438,7 @@ protected void fireDockableRegistered( Dockable dockable ){
      * @param dockable the unregistered Dockable
      */
     protected void fireDockableUnregistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockableUnregistered( controller, dockable );
     }
 
@@ -446,7 +447,7 @@ protected void fireDockableUnregistered( Dockable dockable ){
      * @param station the new station
      */
     protected void fireDockStationRegistering( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockStationRegistering( controller, station );
     }
     
@@ -455,7 +456,7 @@ protected void fireDockStationRegistering( DockStation station ){
      * @param station the new station
      */
     protected void fireDockStationRegistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockStationRegistered( controller, station );
     }
     
@@ -464,7 +465,7 @@ protected void fireDockStationRegistered( DockStation station ){
      * @param station the unregistered station
      */
     protected void fireDockStationUnregistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockStationUnregistered( controller, station );
     }
     
@@ -474,7 +475,7 @@ protected void fireDockStationUnregistered( DockStation station ){
      * @param dockable the cycling element
      */
     protected void fireStalledChange( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
+        for( DockRegisterListener listener : registerListeners.get() )
             listener.dockableCycledRegister( controller, dockable );
     }
     
@@ -483,7 +484,7 @@ protected void fireStalledChange( Dockable dockable ){
      * stalled.
      */
     protected void fireStalled(){
-    	for( DockRegisterListener listener : listDockRegisterListeners() ){
+    	for( DockRegisterListener listener : registerListeners.get() ){
     		listener.registerStalled( controller );
     	}
     }
@@ -493,7 +494,7 @@ protected void fireStalled(){
      * no longer stalled.
      */
     protected void fireUnstalled(){
-    	for( DockRegisterListener listener : listDockRegisterListeners() ){
+    	for( DockRegisterListener listener : registerListeners.get() ){
     		listener.registerUnstalled( controller );
     	}
     }
@@ -25,8 +25,10 @@
  */
 package bibliothek.gui.dock.control.focus;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -35,19 +37,57 @@
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 
 /**
  * The default implementation of {@link FocusHistory} adds listeners to a 
  * {@link DockController} to keep the history up to date. Only {@link Dockable}s that
- * are actually registered at the controller are reported in the history
+ * are actually registered at the controller are reported in the history.<br>
+ * The history only remembers the {@link #LIMIT} newest {@link Dockable}s. The result of 
+ * {@link #getNewestOn(DockStation...)} is cached for each {@link DockStation}, the cache is updated when a
+ * {@link Dockable} gains the focus, and cleared when a {@link Dockable} is registered or unregistered.
  * @author Benjamin Sigg
  */
 public class DefaultFocusHistory implements FocusHistory{
+	/** the maximum number of {@link Dockable}s this history remembers */
+	public static final PropertyKey<Integer> LIMIT =
+		new PropertyKey<Integer>( "DefaultFocusHistory.limit", new ConstantPropertyFactory<Integer>( 100 ), true );
+	
 	/** the controller which is observed */
 	private DockController controller;
 	
-	/** the actual history */
-	private List<Dockable> history = new LinkedList<Dockable>();
+	/** the actual history, maps each {@link Dockable} to the time when it was focused, the oldest element is first */
+	private Map<Dockable, Long> history = new LinkedHashMap<Dockable, Long>(){
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<Dockable, Long> eldest ){
+			Integer max = limit.getValue();
+			return max != null && size() > max.intValue();
+		}
+	};
+	
+	/** for some stations the child that got the focus lately, missing stations have to be searched */
+	private Map<DockStation, Dockable> newestOn = new HashMap<DockStation, Dockable>();
+	
+	/** the time of the last focus change */
+	private long time = 0;
+	
+	/** the maximum number of entries in {@link #history} */
+	private PropertyValue<Integer> limit = new PropertyValue<Integer>( LIMIT ){
+		@Override
+		protected void valueChanged( Integer oldValue, Integer newValue ){
+			if( newValue == null ){
+				return;
+			}
+			int max = newValue.intValue();
+			Iterator<Dockable> iterator = history.keySet().iterator();
+			while( history.size() > max && iterator.hasNext() ){
+				iterator.next();
+				iterator.remove();
+			}
+		}
+	};
 	
 	/** the listeners that are added to {@link #controller} */
 	private Listener listener = new Listener();
@@ -58,7 +98,9 @@ public void setController( DockController controller ){
 			this.controller.getFocusController().removeDockableFocusListener( listener );
 		}
 		history.clear();
+		newestOn.clear();
 		this.controller = controller;
+		limit.setProperties( controller );
 		if( this.controller != null ){
 			this.controller.getRegister().addDockRegisterListener( listener );
 			this.controller.getFocusController().addDockableFocusListener( listener );
@@ -66,23 +108,80 @@ public void setController( DockController controller ){
 	}
 	
 	public Dockable[] getHistory(){
-		Dockable[] result = new Dockable[ history.size() ];
-		int index = result.length-1;
-		for( Dockable item : history ){
-			result[ index-- ] = item;
-		}
-		return result;
+		return history.keySet().toArray( new Dockable[ history.size() ] );
 	}
 	
 	public Dockable getNewestOn( DockStation... parents ){
-		for( Dockable item : history ){
-			for( DockStation station : parents ){
-				if( DockUtilities.isAncestor( station, item )){
-					return item;
+		Dockable result = null;
+		long resultTime = -1;
+		
+		for( DockStation station : parents ){
+			Dockable item = getNewestOn( station );
+			if( item != null ){
+				long itemTime = history.get( item );
+				if( itemTime > resultTime ){
+					result = item;
+					resultTime = itemTime;
 				}
 			}
 		}
-		return null;
+		
+		return result;
+	}
+	
+	/**
+	 * Searches the newest {@link Dockable} which is a child of <code>station</code>. First the
+	 * cache of <code>station</code> is checked, and only if the cache is missing or no longer valid the whole
+	 * history is searched.
+	 * @param station the station whose child is searched
+	 * @return the newest child of <code>station</code> or <code>null</code>
+	 */
+	private Dockable getNewestOn( DockStation station ){
+		Dockable item = newestOn.get( station );
+		if( item != null && history.containsKey( item ) && DockUtilities.isAncestor( station, item )){
+			return item;
+		}
+		
+		item = null;
+		for( Dockable next : history.keySet() ){
+			if( DockUtilities.isAncestor( station, next )){
+				item = next;
+			}
+		}
+		
+		if( item == null ){
+			newestOn.remove( station );
+		}
+		else{
+			newestOn.put( station, item );
+		}
+		return item;
+	}
+	
+	/**
+	 * Marks <code>dockable</code> as the newest element of this history.
+	 * @param dockable the element that got the focus
+	 */
+	private void touch( Dockable dockable ){
+		history.remove( dockable );
+		history.put( dockable, ++time );
+		
+		if( dockable.getDockParent() == null ){
+			// the element may not yet be attached to its parent, the cache cannot be updated
+			newestOn.clear();
+			return;
+		}
+		
+		// the newest element is also the newest element of all its parents
+		DockStation station = dockable.asDockStation();
+		if( station == null ){
+			station = dockable.getDockParent();
+		}
+		while( station != null ){
+			newestOn.put( station, dockable );
+			Dockable parent = station.asDockable();
+			station = parent == null ? null : parent.getDockParent();
+		}
 	}
 	
 	/**
@@ -93,13 +192,23 @@ public Dockable getNewestOn( DockStation... parents ){
 	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
 			history.remove( dockable );
+			newestOn.clear();
+		}
+		
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			newestOn.clear();
+		}
+		
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			newestOn.clear();
 		}
 		
 		public void dockableFocused( DockableFocusEvent event ){
 			Dockable owner = event.getNewFocusOwner();
 			if( owner != null ){
-				history.remove( owner );
-				history.add( 0, owner );
+				touch( owner );
 			}
 		}
 	}
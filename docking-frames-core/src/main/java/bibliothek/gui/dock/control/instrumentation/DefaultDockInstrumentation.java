@@ -0,0 +1,184 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import bibliothek.gui.DockController;
+
+/**
+ * The default {@link DockInstrumentation} of a {@link DockController}. This instrumentation collects
+ * {@link DockOperationStatistics} for each {@link DockOperation}, but only while it is 
+ * {@link #setEnabled(boolean) enabled}. Recording is disabled by default, in which case the overhead
+ * of this instrumentation is a single read of a volatile field per operation.<br>
+ * The statistics can be read directly, as text by calling {@link #dump()}, or through JMX after
+ * {@link #registerMBeans(MBeanServer, String) registering} this instrumentation on an {@link MBeanServer}.
+ * @author Benjamin Sigg
+ */
+public class DefaultDockInstrumentation implements DockInstrumentation, DefaultDockInstrumentationMBean{
+	/** the domain of the {@link ObjectName}s used when registering the MBeans */
+	public static final String JMX_DOMAIN = "bibliothek.gui.dock";
+	
+	/** whether operations are recorded */
+	private volatile boolean enabled = false;
+	
+	/** the statistics of all the operations */
+	private final Map<DockOperation, DockOperationStatistics> statistics = new EnumMap<DockOperation, DockOperationStatistics>( DockOperation.class );
+	
+	/** the server on which the MBeans are registered, can be <code>null</code> */
+	private MBeanServer server;
+	
+	/** the names of the registered MBeans */
+	private List<ObjectName> names = new ArrayList<ObjectName>();
+	
+	/**
+	 * Creates a new instrumentation, recording is disabled.
+	 */
+	public DefaultDockInstrumentation(){
+		for( DockOperation operation : DockOperation.values() ){
+			statistics.put( operation, new DockOperationStatistics( operation ) );
+		}
+	}
+	
+	public long begin( DockOperation operation ){
+		if( enabled ){
+			return System.nanoTime();
+		}
+		return NOT_RECORDING;
+	}
+	
+	public void end( DockOperation operation, long begin ){
+		if( begin != NOT_RECORDING ){
+			statistics.get( operation ).record( System.nanoTime() - begin );
+		}
+	}
+	
+	public boolean isEnabled(){
+		return enabled;
+	}
+	
+	public void setEnabled( boolean enabled ){
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * Gets the statistics that are collected for <code>operation</code>.
+	 * @param operation the operation whose statistics are searched
+	 * @return the statistics, not <code>null</code>
+	 */
+	public DockOperationStatistics getStatistics( DockOperation operation ){
+		return statistics.get( operation );
+	}
+	
+	public void reset(){
+		for( DockOperationStatistics item : statistics.values() ){
+			item.reset();
+		}
+	}
+	
+	public String dump(){
+		StringBuilder builder = new StringBuilder();
+		try{
+			dump( builder );
+		}
+		catch( IOException e ){
+			// cannot happen with a StringBuilder
+			throw new IllegalStateException( e );
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Writes the statistics of all the operations into <code>out</code>, one line per operation.
+	 * @param out the destination of the text
+	 * @throws IOException if <code>out</code> throws an exception
+	 */
+	public void dump( Appendable out ) throws IOException{
+		for( DockOperationStatistics item : statistics.values() ){
+			out.append( item.toString() ).append( '\n' );
+		}
+	}
+	
+	/**
+	 * Registers this instrumentation and the statistics of all operations as MBeans on <code>server</code>. The
+	 * {@link ObjectName}s of the beans are in the domain {@link #JMX_DOMAIN}, their key property <code>name</code> is
+	 * set to <code>name</code>. Clients should call {@link #unregisterMBeans()} when the {@link DockController} is
+	 * no longer used.
+	 * @param server the server to register on, e.g. {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}
+	 * @param name a name that distinguishes this instrumentation from the instrumentation of other {@link DockController}s
+	 * @throws JMException if the beans cannot be registered
+	 * @throws IllegalStateException if the beans are already registered
+	 */
+	public void registerMBeans( MBeanServer server, String name ) throws JMException{
+		if( this.server != null ){
+			throw new IllegalStateException( "the MBeans are already registered" );
+		}
+		this.server = server;
+		try{
+			String base = JMX_DOMAIN + ":type=DockInstrumentation,name=" + ObjectName.quote( name );
+			register( this, new ObjectName( base ) );
+			for( DockOperationStatistics item : statistics.values() ){
+				register( item, new ObjectName( base + ",operation=" + item.getOperation() ));
+			}
+		}
+		catch( JMException e ){
+			unregisterMBeans();
+			throw e;
+		}
+	}
+	
+	private void register( Object bean, ObjectName name ) throws JMException{
+		server.registerMBean( bean, name );
+		names.add( name );
+	}
+	
+	/**
+	 * Removes all the beans that were registered by {@link #registerMBeans(MBeanServer, String)}. Does
+	 * nothing if no beans are registered.
+	 */
+	public void unregisterMBeans(){
+		if( server != null ){
+			for( ObjectName name : names ){
+				try{
+					server.unregisterMBean( name );
+				}
+				catch( JMException e ){
+					// already gone
+				}
+			}
+			names.clear();
+			server = null;
+		}
+	}
+}
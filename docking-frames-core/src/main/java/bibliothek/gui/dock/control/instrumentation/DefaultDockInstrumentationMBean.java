@@ -0,0 +1,56 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+/**
+ * The management interface of {@link DefaultDockInstrumentation}, allows to turn recording on and
+ * off through JMX.
+ * @author Benjamin Sigg
+ */
+public interface DefaultDockInstrumentationMBean {
+	/**
+	 * Tells whether operations are currently recorded.
+	 * @return whether recording is enabled
+	 */
+	public boolean isEnabled();
+	
+	/**
+	 * Starts or stops recording operations.
+	 * @param enabled whether to record operations
+	 */
+	public void setEnabled( boolean enabled );
+	
+	/**
+	 * Deletes all the recorded values.
+	 */
+	public void reset();
+	
+	/**
+	 * Creates a human readable table with the statistics of all the operations.
+	 * @return the table
+	 */
+	public String dump();
+}
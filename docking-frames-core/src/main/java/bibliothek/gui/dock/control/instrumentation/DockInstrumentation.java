@@ -0,0 +1,80 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+import bibliothek.gui.DockController;
+
+/**
+ * A {@link DockInstrumentation} measures how much time the {@link DockOperation}s of a {@link DockController}
+ * need. An instrumentation is installed by calling {@link DockController#setInstrumentation(DockInstrumentation)}.<br>
+ * The methods of this interface are called very often, e.g. for each movement of the mouse while the user
+ * drags a {@link bibliothek.gui.Dockable}. Implementations must be fast, especially while they are not recording.<br>
+ * Callers use this interface like this:
+ * <pre>
+ * long begin = instrumentation.begin( DockOperation.DROP );
+ * try{
+ *     ...
+ * }
+ * finally{
+ *     instrumentation.end( DockOperation.DROP, begin );
+ * }
+ * </pre>
+ * @author Benjamin Sigg
+ * @see DefaultDockInstrumentation
+ */
+public interface DockInstrumentation {
+	/** 
+	 * The value {@link #begin(DockOperation)} returns if an operation is not recorded. Note that
+	 * {@link System#nanoTime()} may return negative values, hence any other value is a valid time. 
+	 */
+	public static final long NOT_RECORDING = Long.MIN_VALUE;
+	
+	/** An instrumentation that does not record anything */
+	public static final DockInstrumentation NULL = new DockInstrumentation(){
+		public long begin( DockOperation operation ){
+			return NOT_RECORDING;
+		}
+		
+		public void end( DockOperation operation, long begin ){
+			// ignore
+		}
+	};
+	
+	/**
+	 * Called when <code>operation</code> starts.
+	 * @param operation the operation that starts
+	 * @return a value that must be forwarded to {@link #end(DockOperation, long)}, usually the 
+	 * current time in nanoseconds or {@link #NOT_RECORDING} if <code>operation</code> is not recorded
+	 */
+	public long begin( DockOperation operation );
+	
+	/**
+	 * Called when <code>operation</code> has finished, successfully or not.
+	 * @param operation the operation that finished
+	 * @param begin the value that was returned by {@link #begin(DockOperation)}
+	 */
+	public void end( DockOperation operation, long begin );
+}
@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+/**
+ * The operations of a {@link bibliothek.gui.DockController} whose duration is recorded by
+ * a {@link DockInstrumentation}.
+ * @author Benjamin Sigg
+ */
+public enum DockOperation {
+	/** searching the new parent of a dragged {@link bibliothek.gui.Dockable}, happens for each movement of the mouse */
+	DRAG_SEARCH,
+	/** dropping a {@link bibliothek.gui.Dockable} at the end of a drag and drop operation */
+	DROP,
+	/** creating the {@link bibliothek.gui.dock.DockElement}s of a layout, done by a {@link bibliothek.gui.dock.layout.DockSituation} */
+	LAYOUT_CREATE,
+	/** collecting the layout of existing {@link bibliothek.gui.dock.DockElement}s, done by a {@link bibliothek.gui.dock.layout.DockSituation} */
+	LAYOUT_COLLECT,
+	/** reading a whole set of layouts, e.g. from a file */
+	LAYOUT_READ,
+	/** writing a whole set of layouts, e.g. into a file */
+	LAYOUT_WRITE,
+	/** a transaction that changes the modes of some {@link bibliothek.gui.Dockable}s */
+	MODE_TRANSACTION,
+	/** exchanging the {@link bibliothek.gui.DockTheme} */
+	THEME_SWITCH,
+	/** transferring the focus to another {@link bibliothek.gui.Dockable} */
+	FOCUS_TRANSFER
+}
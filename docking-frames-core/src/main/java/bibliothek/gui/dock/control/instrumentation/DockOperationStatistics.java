@@ -0,0 +1,213 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how often a {@link DockOperation} was executed and how much time it needed. The durations are
+ * stored in a histogram with logarithmic buckets: each power of two is divided into four buckets, hence
+ * percentiles are reported with an error of at most 25%. Recording a value needs no locks and does not
+ * allocate any memory.
+ * @author Benjamin Sigg
+ */
+public class DockOperationStatistics implements DockOperationStatisticsMBean{
+	/** the number of buckets of the histogram */
+	private static final int BUCKETS = 256;
+	
+	/** the operation whose durations are recorded */
+	private final DockOperation operation;
+	
+	/** the number of recorded values */
+	private final AtomicLong count = new AtomicLong();
+	
+	/** the sum of all recorded values, in nanoseconds */
+	private final AtomicLong total = new AtomicLong();
+	
+	/** the biggest recorded value, in nanoseconds */
+	private final AtomicLong max = new AtomicLong();
+	
+	/** how many values were recorded in each bucket */
+	private final AtomicLongArray histogram = new AtomicLongArray( BUCKETS );
+	
+	/**
+	 * Creates new statistics.
+	 * @param operation the operation whose durations are recorded
+	 */
+	public DockOperationStatistics( DockOperation operation ){
+		if( operation == null ){
+			throw new IllegalArgumentException( "operation must not be null" );
+		}
+		this.operation = operation;
+	}
+	
+	/**
+	 * Records one execution of the operation.
+	 * @param nanos how long the operation took
+	 */
+	public void record( long nanos ){
+		if( nanos < 0 ){
+			nanos = 0;
+		}
+		count.incrementAndGet();
+		total.addAndGet( nanos );
+		histogram.incrementAndGet( bucket( nanos ) );
+		
+		long current = max.get();
+		while( nanos > current && !max.compareAndSet( current, nanos )){
+			current = max.get();
+		}
+	}
+	
+	private static int bucket( long nanos ){
+		if( nanos < 8 ){
+			return (int)nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros( nanos );
+		return exponent * 4 + (int)((nanos >>> (exponent - 2)) & 3);
+	}
+	
+	private static long upperBound( int bucket ){
+		if( bucket < 8 ){
+			return bucket;
+		}
+		int exponent = bucket >>> 2;
+		long sub = bucket & 3;
+		return ((5 + sub) << (exponent - 2)) - 1;
+	}
+	
+	/**
+	 * Gets the operation whose statistics are collected.
+	 * @return the operation
+	 */
+	public DockOperation getDockOperation(){
+		return operation;
+	}
+	
+	public String getOperation(){
+		return operation.name();
+	}
+	
+	public long getCount(){
+		return count.get();
+	}
+	
+	/**
+	 * Gets the total time spent in the operation.
+	 * @return the total time in nanoseconds
+	 */
+	public long getTotalNanos(){
+		return total.get();
+	}
+	
+	public double getTotalMillis(){
+		return toMillis( total.get() );
+	}
+	
+	public double getMeanMillis(){
+		long count = this.count.get();
+		if( count == 0 ){
+			return 0;
+		}
+		return toMillis( total.get() ) / count;
+	}
+	
+	public double getMaxMillis(){
+		return toMillis( max.get() );
+	}
+	
+	public double getPercentile50Millis(){
+		return getPercentileMillis( 0.5 );
+	}
+	
+	public double getPercentile90Millis(){
+		return getPercentileMillis( 0.9 );
+	}
+	
+	public double getPercentile99Millis(){
+		return getPercentileMillis( 0.99 );
+	}
+	
+	/**
+	 * Gets an estimate of the <code>percentile</code>'th percentile of the recorded durations.
+	 * @param percentile a value between 0 and 1, e.g. 0.99 for the 99th percentile
+	 * @return the estimated duration in milliseconds, 0 if nothing was recorded
+	 */
+	public double getPercentileMillis( double percentile ){
+		return toMillis( getPercentileNanos( percentile ) );
+	}
+	
+	/**
+	 * Gets an estimate of the <code>percentile</code>'th percentile of the recorded durations.
+	 * @param percentile a value between 0 and 1, e.g. 0.99 for the 99th percentile
+	 * @return the estimated duration in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getPercentileNanos( double percentile ){
+		long[] buckets = new long[ BUCKETS ];
+		long sum = 0;
+		for( int i = 0; i < BUCKETS; i++ ){
+			buckets[i] = histogram.get( i );
+			sum += buckets[i];
+		}
+		if( sum == 0 ){
+			return 0;
+		}
+		
+		long rank = (long)Math.ceil( Math.max( 0, Math.min( 1, percentile ) ) * sum );
+		if( rank < 1 ){
+			rank = 1;
+		}
+		long seen = 0;
+		for( int i = 0; i < BUCKETS; i++ ){
+			seen += buckets[i];
+			if( seen >= rank ){
+				return Math.min( upperBound( i ), max.get() );
+			}
+		}
+		return max.get();
+	}
+	
+	public void reset(){
+		count.set( 0 );
+		total.set( 0 );
+		max.set( 0 );
+		for( int i = 0; i < BUCKETS; i++ ){
+			histogram.set( i, 0 );
+		}
+	}
+	
+	private static double toMillis( long nanos ){
+		return nanos / 1000000.0;
+	}
+	
+	@Override
+	public String toString(){
+		return String.format( "%-18s count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms total=%.3fms",
+				operation.name(), getCount(), getMeanMillis(), getPercentile50Millis(), getPercentile90Millis(),
+				getPercentile99Millis(), getMaxMillis(), getTotalMillis() );
+	}
+}
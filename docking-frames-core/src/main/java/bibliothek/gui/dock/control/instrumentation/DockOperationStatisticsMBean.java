@@ -0,0 +1,86 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.instrumentation;
+
+/**
+ * The management interface of {@link DockOperationStatistics}, allows to read the statistics of one
+ * {@link DockOperation} through JMX.
+ * @author Benjamin Sigg
+ */
+public interface DockOperationStatisticsMBean {
+	/**
+	 * Gets the name of the operation whose statistics are collected.
+	 * @return the name of the operation
+	 */
+	public String getOperation();
+	
+	/**
+	 * Gets the number of times the operation was executed.
+	 * @return the number of executions
+	 */
+	public long getCount();
+	
+	/**
+	 * Gets the total time spent in the operation.
+	 * @return the total time in milliseconds
+	 */
+	public double getTotalMillis();
+	
+	/**
+	 * Gets the average time the operation needed.
+	 * @return the average time in milliseconds, 0 if the operation was never executed
+	 */
+	public double getMeanMillis();
+	
+	/**
+	 * Gets the longest time the operation needed.
+	 * @return the longest time in milliseconds
+	 */
+	public double getMaxMillis();
+	
+	/**
+	 * Gets the median of the time the operation needed.
+	 * @return the median in milliseconds
+	 */
+	public double getPercentile50Millis();
+	
+	/**
+	 * Gets the 90th percentile of the time the operation needed.
+	 * @return the 90th percentile in milliseconds
+	 */
+	public double getPercentile90Millis();
+	
+	/**
+	 * Gets the 99th percentile of the time the operation needed.
+	 * @return the 99th percentile in milliseconds
+	 */
+	public double getPercentile99Millis();
+	
+	/**
+	 * Deletes all the recorded values.
+	 */
+	public void reset();
+}
@@ -0,0 +1,6 @@
+/**
+ * Instrumentation of the {@link bibliothek.gui.DockController}: records how often time critical
+ * operations like searching a drop location or applying a layout are executed, and how much time they need.
+ * The statistics can be read as text or through JMX.
+ */
+package bibliothek.gui.dock.control.instrumentation;
@@ -36,6 +36,7 @@
 import bibliothek.gui.dock.DockElementRepresentative;
 import bibliothek.gui.dock.control.DockRelocator;
 import bibliothek.gui.dock.control.DockRelocatorMode;
+import bibliothek.util.ListenerList;
 
 /**
  * A manager adding {@link java.awt.event.MouseListener} and
@@ -49,7 +50,7 @@
  */
 public abstract class AbstractDockRelocator implements DockRelocator{
 	/** a set of listeners that are informed when a drag and drop operation happens */
-	private List<VetoableDockRelocatorListener> vetoableListeners = new ArrayList<VetoableDockRelocatorListener>();
+	private ListenerList<VetoableDockRelocatorListener> vetoableListeners = new ListenerList<VetoableDockRelocatorListener>( VetoableDockRelocatorListener.class );
 	
 	/** the controller whose dockables are moved */
 	private DockController controller;
@@ -102,10 +103,10 @@ public void removeVetoableDockRelocatorListener( VetoableDockRelocatorListener l
 	
 	/**
 	 * Gets all the {@link VetoableDockRelocatorListener} that are currently registered.
-	 * @return all the listeners
+	 * @return all the listeners, a new array that may be modified
 	 */
 	protected VetoableDockRelocatorListener[] vetoableListeners(){
-		return vetoableListeners.toArray( new VetoableDockRelocatorListener[ vetoableListeners.size() ] );
+		return vetoableListeners.get().clone();
 	}
 	
 	/**
@@ -114,7 +115,7 @@ protected VetoableDockRelocatorListener[] vetoableListeners(){
 	 * @param event the event to forward
 	 */
 	protected void fireGrabbing( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.grabbing( event );
 		}
 	}
@@ -125,7 +126,7 @@ protected void fireGrabbing( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireGrabbed( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.grabbed( event );
 		}
 	}
@@ -137,7 +138,7 @@ protected void fireGrabbed( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireSearched( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.searched( event );
 		}
 	}
@@ -149,7 +150,7 @@ protected void fireSearched( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireDragged( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.dragged( event );
 		}
 	}
@@ -161,7 +162,7 @@ protected void fireDragged( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireDragging( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.dragging( event );
 		}
 	}
@@ -173,7 +174,7 @@ protected void fireDragging( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireDropping( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.dropping( event );
 		}
 	}
@@ -184,7 +185,7 @@ protected void fireDropping( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireDropped( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.dropped( event );
 		}
 	}
@@ -195,7 +196,7 @@ protected void fireDropped( DockRelocatorEvent event ){
 	 * @param event the event to forward
 	 */
 	protected void fireCanceled( DockRelocatorEvent event ){
-		for( VetoableDockRelocatorListener listener : vetoableListeners() ){
+		for( VetoableDockRelocatorListener listener : vetoableListeners.get() ){
 			listener.canceled( event );
 		}
 	}
@@ -27,10 +27,13 @@
  */
 package bibliothek.gui.dock.control.relocator;
 
+import java.awt.Component;
 import java.awt.Container;
+import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.GridLayout;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Window;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
@@ -40,7 +43,9 @@
 import java.util.List;
 import java.util.Map;
 
+import javax.swing.JLayeredPane;
 import javax.swing.JWindow;
+import javax.swing.RootPaneContainer;
 import javax.swing.SwingUtilities;
 import javax.swing.event.MouseInputAdapter;
 
@@ -54,6 +59,8 @@
 import bibliothek.gui.dock.control.DirectRemoteRelocator;
 import bibliothek.gui.dock.control.RemoteRelocator;
 import bibliothek.gui.dock.control.RemoteRelocator.Reaction;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
 import bibliothek.gui.dock.dockable.MovingImage;
@@ -65,6 +72,8 @@
 import bibliothek.gui.dock.station.layer.OrderedLayerCollection;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.util.DockUtilities;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.extension.ExtensionName;
 import bibliothek.util.ClientOnly;
 import bibliothek.util.Path;
@@ -85,6 +94,21 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	/** Name of a parameter of an {@link ExtensionName} pointing to <code>this</code> */
 	public static final String EXTENSION_PARAM = "relocator";
 	
+	/** The maximum number of times per second the feedback of a drag and drop operation, e.g. the location of the
+	 * {@link MovingImage} or the drop indicator of a {@link DockStation}, is updated. Mouse events arriving faster are
+	 * coalesced, only the latest location of the mouse is processed. A value of <code>null</code> or smaller than
+	 * <code>1</code> disables the limit. */
+	public static final PropertyKey<Integer> DRAG_FEEDBACK_FRAME_RATE =
+		new PropertyKey<Integer>( "DefaultDockRelocator.drag_feedback_frame_rate", new ConstantPropertyFactory<Integer>( 60 ), true );
+	
+	/** If <code>true</code>, then the {@link MovingImage} is painted onto the {@link JLayeredPane} of the window 
+	 * in which the drag and drop operation started, as long as the mouse remains within that window. Moving a 
+	 * lightweight component only requires a partial repaint of the window. Only if the mouse leaves the window 
+	 * the image is shown on a translucent native window. If <code>false</code>, then the image is always 
+	 * shown on a native window. */
+	public static final PropertyKey<Boolean> DRAG_IMAGE_OVERLAY =
+		new PropertyKey<Boolean>( "DefaultDockRelocator.drag_image_overlay", new ConstantPropertyFactory<Boolean>( false ), true );
+	
 	/** <code>true</code> as long as the user drags a title or a Dockable */
     private boolean onMove = false;
     /** <code>true</code> while a drag and drop-operation is performed */
@@ -96,8 +120,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** the current parent of a dragged dockable */
     private StationDragOperation dragOperation;
     
-    /** a window painting a title onto the screen */
-    private ImageWindow movingImageWindow;
+    /** shows an image of the dragged element on the screen */
+    private ImageDisplay movingImageWindow;
     /** the point where the mouse was pressed on the currently dragged title */
     private Point pressPointScreen;
     /** the point where the mouse was pressed on the currently dragged title */
@@ -108,6 +132,13 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** information about the last dragged dockable */
     private StationDropItem lastItem;
     
+    /** limits the number of times the feedback of a drag and drop operation is updated */
+    private DragFeedbackScheduler feedbackScheduler = new DragFeedbackScheduler();
+    
+    /** the reaction of a {@link FeedbackFrame} that was executed after its mouse event was handled, 
+     * applied to the next mouse event */
+    private Reaction delayedReaction;
+    
 	/**
 	 * Creates a new manager.
 	 * @param controller the controller whose dockables are moved
@@ -187,6 +218,9 @@ protected boolean executeOperation( Dockable dockable, RelocateOperation operati
         controller.getRegister().setStalled( true );
         disableAllModes();
         
+        DockInstrumentation instrumentation = controller.getInstrumentation();
+        long begin = instrumentation.begin( DockOperation.DROP );
+        
         try{
         	boolean success = operation.execute( dockable, new VetoableDockRelocatorListener(){
 				public void searched( DockRelocatorEvent event ){
@@ -237,6 +271,7 @@ public void canceled( DockRelocatorEvent event ){
         	operation = null;
             onPut = false;
             controller.getRegister().setStalled( false );
+            instrumentation.end( DockOperation.DROP, begin );
         }
     }    
     
@@ -261,6 +296,17 @@ private StationDropItem createStationDropItem( int mouseX, int mouseY, int title
      * @return the new parent of <code>dockable</code> or <code>null</code>
      */
     protected RelocateOperation preparePut( int mouseX, int mouseY, int titleX, int titleY, Dockable dockable ){
+    	DockInstrumentation instrumentation = getController().getInstrumentation();
+    	long begin = instrumentation.begin( DockOperation.DRAG_SEARCH );
+    	try{
+    		return searchPut( mouseX, mouseY, titleX, titleY, dockable );
+    	}
+    	finally{
+    		instrumentation.end( DockOperation.DRAG_SEARCH, begin );
+    	}
+    }
+    
+    private RelocateOperation searchPut( int mouseX, int mouseY, int titleX, int titleY, Dockable dockable ){
         List<DockStation> list = listStationsOrdered( mouseX, mouseY, dockable );
 
         Inserter inserter = getInserter();
@@ -486,6 +532,7 @@ protected Reaction dragMousePressed( int x, int y, int dx, int dy, int modifiers
             // (should not be necessary, but there is no guarantee that no event gets lost)
             titleDragCancel();
             onMove = false;
+            delayedReaction = null;
             
             // initiate new operation
             pressPointScreen = new Point( x, y );
@@ -559,6 +606,10 @@ protected Reaction dragMouseDragged( int x, int y, int modifiers, DockTitle titl
      * @return how this relocator reacts on the event
      */
     protected Reaction dragMouseDragged( int x, int y, int modifiers, DockTitle title, Dockable dockable, boolean always, boolean forceDrag, boolean showMovingImage ){
+        Reaction delayed = takeDelayedReaction();
+        if( delayed != null )
+            return delayed;
+        
         if( pressPointScreen == null )
             return Reaction.BREAK;
         
@@ -592,15 +643,76 @@ protected Reaction dragMouseDragged( int x, int y, int modifiers, DockTitle titl
             }
         }
         if( onMove ){
-            Reaction result = selectNextTarget( dockable, title, mouse );
-            if( result != null ){
-            	return result;
-            }
+        	FeedbackFrame frame = new FeedbackFrame( dockable, title, mouse );
+        	if( feedbackScheduler.schedule( frame ) ){
+        		if( frame.result != null ){
+        			return frame.result;
+        		}
+        	}
+        	else{
+        		frame.delayed = true;
+        	}
         }
         
         return Reaction.CONTINUE_CONSUMED;
     }
     
+    /**
+     * Gets the {@link DragFeedbackScheduler} which limits the number of times the feedback of a drag and drop
+     * operation is updated. The scheduler also offers statistics about the time required for updating the feedback.
+     * The frame rate of the scheduler is reset to {@link #DRAG_FEEDBACK_FRAME_RATE} each time a new operation starts.
+     * @return the scheduler, not <code>null</code>
+     */
+    public DragFeedbackScheduler getFeedbackScheduler(){
+		return feedbackScheduler;
+	}
+    
+    /**
+     * One update of the feedback of a drag and drop operation, executed by the {@link #feedbackScheduler}.
+     * @author Benjamin Sigg
+     */
+    private class FeedbackFrame implements Runnable{
+    	private Dockable dockable;
+    	private DockTitle title;
+    	private Point mouse;
+    	
+    	/** the reaction to the mouse event */
+    	private Reaction result;
+    	
+    	/** whether this frame is executed after its mouse event was already handled */
+    	private boolean delayed = false;
+    	
+    	public FeedbackFrame( Dockable dockable, DockTitle title, Point mouse ){
+    		this.dockable = dockable;
+    		this.title = title;
+    		this.mouse = mouse;
+    	}
+    	
+    	public void run(){
+    		if( onMove && pressPointScreen != null ){
+    			result = selectNextTarget( dockable, title, mouse );
+    			if( delayed ){
+    				delayedReaction = result;
+    			}
+    		}
+    	}
+    }
+    
+    /**
+     * Gets and clears the reaction of a {@link FeedbackFrame} that was executed after its mouse event
+     * was handled. Only reactions that end the operation are of interest, as they have to be reported
+     * by the next mouse event.
+     * @return the reaction to report or <code>null</code>
+     */
+    private Reaction takeDelayedReaction(){
+    	Reaction reaction = delayedReaction;
+    	delayedReaction = null;
+    	if( reaction == Reaction.BREAK || reaction == Reaction.BREAK_CONSUMED ){
+    		return reaction;
+    	}
+    	return null;
+    }
+    
     private Reaction initiateOperation( Dockable dockable, DockTitle title, Point mouse, boolean showMovingImage ){
     	if( movingImageWindow != null ){
             // That means, that an old window was not closed correctly
@@ -608,6 +720,9 @@ private Reaction initiateOperation( Dockable dockable, DockTitle title, Point mo
             movingImageWindow = null;
         }
     	lastItem = null;
+    	feedbackScheduler.reset();
+    	Integer frameRate = getController().getProperties().get( DRAG_FEEDBACK_FRAME_RATE );
+    	feedbackScheduler.setFrameRate( frameRate == null ? 0 : frameRate.intValue() );
     	
     	Dockable[] implicit = new Dockable[]{};
     	DefaultDockRelocatorEvent event = new DefaultDockRelocatorEvent( getController(), dockable, implicit, null, mouse );
@@ -748,6 +863,26 @@ protected void dragMouseReleased( MouseEvent e, DockTitle title, Dockable dockab
      * @return how this relocator reacts on the event
      */
     protected Reaction dragMouseReleased( int x, int y, int modifiers, Dockable dockable ){
+        Reaction delayed = takeDelayedReaction();
+        Reaction reaction = releaseOperation( x, y, modifiers, dockable );
+        if( delayed == null )
+            return reaction;
+        
+        // a delayed frame already ended the operation
+        if( delayed == Reaction.BREAK_CONSUMED || reaction == Reaction.BREAK_CONSUMED || reaction == Reaction.CONTINUE_CONSUMED )
+            return Reaction.BREAK_CONSUMED;
+        return Reaction.BREAK;
+    }
+    
+    /**
+     * Handles a mouse-released event, called by {@link #dragMouseReleased(int, int, int, Dockable)}.
+     * @param x the x-coordinate of the mouse
+     * @param y the y-coordinate of the mouse
+     * @param modifiers the state of the mouse, see {@link MouseEvent#getModifiersEx()}
+     * @param dockable the dockable which is moved around
+     * @return how this relocator reacts on the event
+     */
+    private Reaction releaseOperation( int x, int y, int modifiers, Dockable dockable ){
         checkModes( modifiers );
         int offmask = InputEvent.BUTTON1_DOWN_MASK |
             InputEvent.BUTTON2_DOWN_MASK |
@@ -792,7 +927,11 @@ public void run() {
                 // after the put has finished
                 RelocateOperation operation = this.operation;
                 
-                if( x != lastPoint.x || y != lastPoint.y ){
+                // the feedback for the latest location may not yet have been calculated
+                boolean outdated = feedbackScheduler.isPending();
+                feedbackScheduler.reset();
+                
+                if( outdated || x != lastPoint.x || y != lastPoint.y ){
                 	RelocateOperation next = preparePut( x, y, x - pressPointLocal.x, y - pressPointLocal.y, dockable );
                 	
                     if( next != null ){
@@ -893,6 +1032,8 @@ private void cancel(Dockable dockable){
     private void titleDragCancel(){
     	if( !isOnPut() ){
     		// if it is on put, than it is too late to stop
+    		feedbackScheduler.reset();
+    		
 	        if( operation != null ){
 	            operation.destroy( null );
 	            operation = null;
@@ -920,7 +1061,7 @@ private void titleDragCancel(){
      * @param title a title which is grabbed by the mouse, can be <code>null</code>
      * @return a window or <code>null</code>
      */
-    private ImageWindow getTitleWindow( Dockable dockable, DockTitle title ){
+    private ImageDisplay getTitleWindow( Dockable dockable, DockTitle title ){
     	DockController controller = getController();
         DockableMovingImageFactory factory = controller.getProperties().get( DockTheme.DOCKABLE_MOVING_IMAGE_FACTORY );
         MovingImage image;
@@ -939,9 +1080,8 @@ private ImageWindow getTitleWindow( Dockable dockable, DockTitle title ){
         else
             parent = SwingUtilities.getWindowAncestor( title.getComponent() );
         
-        ImageWindow window = new ImageWindow( parent, image );
-        window.pack();
-        return window;
+        Boolean overlay = controller.getProperties().get( DRAG_IMAGE_OVERLAY );
+        return new ImageDisplay( parent, image, overlay != null && overlay.booleanValue() );
     }
     
     /**
@@ -1096,6 +1236,212 @@ public void mouseDragged( MouseEvent e ) {
         }
     }
     
+    /**
+     * Shows a {@link MovingImage} either on the {@link JLayeredPane} of a window, or on
+     * an {@link ImageWindow}.
+     * @author Benjamin Sigg
+     */
+    private class ImageDisplay{
+    	/** the image to display */
+    	private MovingImage image;
+    	/** the window in which the operation started */
+    	private Window parent;
+    	/** the layer onto which {@link #image} can be painted, <code>null</code> if the overlay is not used */
+    	private JLayeredPane layer;
+    	/** the native window showing {@link #image}, created lazily */
+    	private ImageWindow window;
+    	/** whether {@link #image} is currently shown on {@link #layer} */
+    	private boolean onLayer = false;
+    	/** whether this display is visible */
+    	private boolean visible = false;
+    	/** the last location of {@link #image} in screen coordinates */
+    	private Point location = new Point();
+    	
+    	/**
+    	 * Creates a new display.
+    	 * @param parent the window in which the operation started, can be <code>null</code>
+    	 * @param image the image to show
+    	 * @param overlay whether {@link #image} may be painted on the {@link JLayeredPane} of <code>parent</code>
+    	 */
+    	public ImageDisplay( Window parent, MovingImage image, boolean overlay ){
+    		this.parent = parent;
+    		this.image = image;
+    		if( overlay && parent instanceof RootPaneContainer ){
+    			layer = ((RootPaneContainer)parent).getLayeredPane();
+    		}
+    	}
+    	
+    	/**
+    	 * Gets the image that is shown on this display.
+    	 * @return the image, may be <code>null</code>
+    	 */
+    	public MovingImage getImage(){
+    		return image;
+    	}
+    	
+    	/**
+    	 * Gets the width of the image.
+    	 * @return the width
+    	 */
+    	public int getWidth(){
+    		return getSize().width;
+    	}
+    	
+    	/**
+    	 * Gets the height of the image.
+    	 * @return the height
+    	 */
+    	public int getHeight(){
+    		return getSize().height;
+    	}
+    	
+    	/**
+    	 * Gets the current size of the image. The image is bound to its host first, an unbound
+    	 * {@link MovingImage} may not yet know its size.
+    	 * @return the size of the image
+    	 */
+    	private Dimension getSize(){
+    		if( image == null ){
+    			return new Dimension( 0, 0 );
+    		}
+    		attach();
+    		if( onLayer ){
+    			return image.getComponent().getPreferredSize();
+    		}
+    		return window.getSize();
+    	}
+    	
+    	/**
+    	 * Moves the image to a new location.
+    	 * @param x the new x coordinate on the screen
+    	 * @param y the new y coordinate on the screen
+    	 */
+    	public void setLocation( int x, int y ){
+    		location.setLocation( x, y );
+    		if( visible ){
+    			update();
+    		}
+    	}
+    	
+    	/**
+    	 * Shows or hides the image.
+    	 * @param visible whether the image is visible
+    	 */
+    	public void setVisible( boolean visible ){
+    		this.visible = visible;
+    		if( visible ){
+    			update();
+    		}
+    		else{
+    			detach();
+    		}
+    	}
+    	
+    	/**
+    	 * Shows the image at {@link #location}, either on {@link #layer} or on {@link #window}.
+    	 */
+    	private void update(){
+    		if( image == null ){
+    			return;
+    		}
+    		
+    		attach();
+    		if( onLayer ){
+    			Component component = image.getComponent();
+    			Dimension size = component.getPreferredSize();
+    			Point point = new Point( location );
+    			SwingUtilities.convertPointFromScreen( point, layer );
+    			component.setBounds( point.x, point.y, size.width, size.height );
+    			component.validate();
+    		}
+    		else{
+    			if( !window.getSize().equals( window.getPreferredSize() )){
+    				// the image changed, e.g. because the title got a new text
+    				window.pack();
+    			}
+    			window.setLocation( location.x, location.y );
+    			if( !window.isVisible() ){
+    				window.setVisible( true );
+    			}
+    		}
+    	}
+    	
+    	/**
+    	 * Ensures that {@link #image} is bound to the host it should currently be shown on, either
+    	 * {@link #layer} or {@link #window}.
+    	 */
+    	private void attach(){
+    		if( useLayer() ){
+    			if( !onLayer ){
+    				detach();
+    				image.bind( true );
+    				layer.add( image.getComponent(), JLayeredPane.DRAG_LAYER );
+    				onLayer = true;
+    			}
+    		}
+    		else if( window == null || onLayer ){
+    			detach();
+    			window = new ImageWindow( parent, image );
+    			window.pack();
+    		}
+    	}
+    	
+    	/**
+    	 * Tells whether {@link #image} should be painted onto {@link #layer}.
+    	 * @return whether the mouse is still over the window in which the operation started
+    	 */
+    	private boolean useLayer(){
+    		if( layer == null || !layer.isShowing() ){
+    			return false;
+    		}
+    		if( lastPoint == null ){
+    			return onLayer;
+    		}
+    		Point mouse = new Point( lastPoint );
+    		SwingUtilities.convertPointFromScreen( mouse, layer );
+    		return new Rectangle( 0, 0, layer.getWidth(), layer.getHeight() ).contains( mouse );
+    	}
+    	
+    	/**
+    	 * Removes {@link #image} from the component that currently shows it.
+    	 */
+    	private void detach(){
+    		if( onLayer ){
+    			Component component = image.getComponent();
+    			Rectangle bounds = component.getBounds();
+    			layer.remove( component );
+    			layer.repaint( bounds.x, bounds.y, bounds.width, bounds.height );
+    			image.unbind();
+    			onLayer = false;
+    		}
+    		if( window != null ){
+    			window.close();
+    			window = null;
+    		}
+    	}
+    	
+    	/**
+    	 * Hides the image and ensures that it has the same binding-state as it had 
+    	 * at the time when this display was constructed.
+    	 */
+    	public void close(){
+    		visible = false;
+    		if( image != null ){
+    			detach();
+    			image = null;
+    		}
+    	}
+    	
+    	/**
+    	 * Tells whether <code>window</code> is used by this display.
+    	 * @param window the window to search
+    	 * @return <code>true</code> if <code>window</code> is currently used
+    	 */
+    	public boolean isWindow( ImageWindow window ){
+    		return this.window == window;
+    	}
+    }
+    
     /**
      * A window which shows a single {@link DockTitle}.
      * @author Benjamin Sigg
@@ -1126,7 +1472,7 @@ public void componentResized( ComponentEvent e ){
 				}
 
 				public void componentShown( ComponentEvent e ){
-            		if( ImageWindow.this != movingImageWindow ){
+            		if( movingImageWindow == null || !movingImageWindow.isWindow( ImageWindow.this )){
             			// that should really not be possible...
             			SwingUtilities.invokeLater( new Runnable(){
             				public void run(){
@@ -1156,14 +1502,6 @@ public void run(){
             this.image = image;
         }
         
-        /**
-         * Gets the image that is shown on this window.
-         * @return the image, may be <code>null</code>
-         */
-        public MovingImage getImage(){
-			return image;
-		}
-        
         /**
          * Closes this window and ensures that the title has the same
          * binding-state as it had at the time when this window was
@@ -0,0 +1,235 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.control.relocator;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+/**
+ * The {@link DragFeedbackScheduler} is used by the {@link DefaultDockRelocator} to limit the
+ * number of times per second the feedback of a drag and drop operation is updated. Mouse events
+ * can arrive at a much higher rate than the screen can show, and calculating the new target
+ * and repainting the indicators for each event is wasted time. The scheduler coalesces such
+ * updates: if an update arrives too early, it is stored and executed when the next frame
+ * is due. Only the latest update is ever executed, older pending updates are just dropped.<br>
+ * The scheduler also collects some statistics about the time spent for each frame.<br>
+ * This class is not thread safe, it must only be used from the EDT.
+ * @author Benjamin Sigg
+ */
+public class DragFeedbackScheduler {
+	/** the maximum number of frames per second, a value smaller than 1 disables the limit */
+	private int frameRate = 60;
+	
+	/** the update that has to be executed with the next frame */
+	private Runnable pending;
+	
+	/** the time in nanoseconds when the last frame started */
+	private long lastFrame;
+	
+	/** whether at least one frame was executed since the last {@link #reset()} */
+	private boolean started = false;
+	
+	/** the timer executing {@link #pending} */
+	private Timer timer;
+	
+	/** how many frames have been executed */
+	private long frameCount = 0;
+	
+	/** how many updates have been replaced by a newer update */
+	private long coalescedCount = 0;
+	
+	/** the sum of the time all frames required, in nanoseconds */
+	private long frameTimeSum = 0;
+	
+	/** the time the longest frame required, in nanoseconds */
+	private long frameTimeMax = 0;
+	
+	/**
+	 * Creates a new scheduler.
+	 */
+	public DragFeedbackScheduler(){
+		timer = new Timer( 0, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				flush();
+			}
+		});
+		timer.setRepeats( false );
+	}
+	
+	/**
+	 * Sets the maximum number of frames that are executed per second.
+	 * @param frameRate the number of frames per second, a value smaller than 1 disables
+	 * the limit and every update is executed immediately
+	 */
+	public void setFrameRate( int frameRate ){
+		this.frameRate = frameRate;
+	}
+	
+	/**
+	 * Gets the maximum number of frames that are executed per second.
+	 * @return the number of frames, a value smaller than 1 indicates that there is no limit
+	 * @see #setFrameRate(int)
+	 */
+	public int getFrameRate(){
+		return frameRate;
+	}
+	
+	/**
+	 * Schedules <code>update</code> to be executed. If a frame is due, then <code>update</code> is
+	 * executed immediately. Otherwise <code>update</code> replaces any pending update and is executed
+	 * once the next frame is due.
+	 * @param update the update to execute
+	 * @return <code>true</code> if <code>update</code> was executed immediately, <code>false</code>
+	 * if it was delayed
+	 */
+	public boolean schedule( Runnable update ){
+		if( pending != null ){
+			coalescedCount++;
+		}
+		pending = update;
+		
+		long now = System.nanoTime();
+		long delay = getDelay( now );
+		if( delay <= 0 ){
+			timer.stop();
+			flush();
+			return true;
+		}
+		else if( !timer.isRunning() ){
+			timer.setInitialDelay( (int)Math.max( 1, delay / 1000000 ) );
+			timer.start();
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the time in nanoseconds until the next frame is due.
+	 * @param now the current time
+	 * @return the time until the next frame, a value smaller than 1 if the next frame is already due
+	 */
+	private long getDelay( long now ){
+		if( frameRate < 1 || !started ){
+			return 0;
+		}
+		return lastFrame + 1000000000L / frameRate - now;
+	}
+	
+	/**
+	 * Tells whether there is an update waiting for its frame.
+	 * @return whether there is a pending update
+	 */
+	public boolean isPending(){
+		return pending != null;
+	}
+	
+	/**
+	 * Executes the pending update, if there is one, regardless of whether its frame is due. This method
+	 * should be called before some action is executed that relies on the feedback being up to date, e.g.
+	 * the dockable being dropped.
+	 */
+	public void flush(){
+		timer.stop();
+		Runnable update = pending;
+		pending = null;
+		if( update != null ){
+			long start = System.nanoTime();
+			lastFrame = start;
+			started = true;
+			try{
+				update.run();
+			}
+			finally{
+				long time = System.nanoTime() - start;
+				frameCount++;
+				frameTimeSum += time;
+				frameTimeMax = Math.max( frameTimeMax, time );
+			}
+		}
+	}
+	
+	/**
+	 * Drops the pending update, if there is one, and forgets the time of the last frame. This method should
+	 * be called whenever a drag and drop operation ends.
+	 */
+	public void reset(){
+		timer.stop();
+		pending = null;
+		started = false;
+	}
+	
+	/**
+	 * Gets the number of frames that were executed.
+	 * @return the number of frames
+	 */
+	public long getFrameCount(){
+		return frameCount;
+	}
+	
+	/**
+	 * Gets the number of updates that were never executed because a newer update replaced them.
+	 * @return the number of dropped updates
+	 */
+	public long getCoalescedCount(){
+		return coalescedCount;
+	}
+	
+	/**
+	 * Gets the average time a frame required.
+	 * @return the average time in nanoseconds, 0 if no frame was executed yet
+	 */
+	public long getAverageFrameTime(){
+		if( frameCount == 0 ){
+			return 0;
+		}
+		return frameTimeSum / frameCount;
+	}
+	
+	/**
+	 * Gets the time the longest frame required.
+	 * @return the maximum time in nanoseconds
+	 */
+	public long getMaxFrameTime(){
+		return frameTimeMax;
+	}
+	
+	/**
+	 * Sets all the statistics, like {@link #getFrameCount()}, back to 0.
+	 */
+	public void resetMetrics(){
+		frameCount = 0;
+		coalescedCount = 0;
+		frameTimeSum = 0;
+		frameTimeMax = 0;
+	}
+	
+	@Override
+	public String toString(){
+		return getClass().getSimpleName() + "[frameRate=" + frameRate + ", frames=" + frameCount + ", coalesced=" + coalescedCount + 
+			", averageFrameTime=" + (getAverageFrameTime() / 1000) + "us, maxFrameTime=" + (frameTimeMax / 1000) + "us]";
+	}
+}
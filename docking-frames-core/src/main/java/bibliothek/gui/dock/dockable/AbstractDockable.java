@@ -55,6 +55,7 @@
 import bibliothek.gui.dock.util.PropertyKey;
 import bibliothek.gui.dock.util.PropertyValue;
 import bibliothek.gui.dock.util.icon.DockIcon;
+import bibliothek.util.ListenerList;
 import bibliothek.util.Todo;
 import bibliothek.util.Todo.Compatibility;
 import bibliothek.util.Todo.Priority;
@@ -78,7 +79,7 @@ public abstract class AbstractDockable implements Dockable {
     private DockController controller;
     
     /** a list of dockableListeners which will be informed when some properties changes */
-    private List<DockableListener> dockableListeners = new ArrayList<DockableListener>();
+    private ListenerList<DockableListener> dockableListeners = new ListenerList<DockableListener>( DockableListener.class );
     /** a listener to the hierarchy of the parent */
     private DockHierarchyObserver hierarchyObserver;
     /** a listener for monitoring the location of this dockable */
@@ -518,7 +519,7 @@ public void setActionOffers( DockActionSource source ){
      * @param newTitle the new title
      */
     protected void fireTitleTextChanged( String oldTitle, String newTitle ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleTextChanged( this, oldTitle, newTitle );
     }
     
@@ -529,7 +530,7 @@ protected void fireTitleTextChanged( String oldTitle, String newTitle ){
      * @param newTooltip the new value
      */
     protected void fireTitleTooltipChanged( String oldTooltip, String newTooltip ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleToolTipChanged( this, oldTooltip, newTooltip );
     }
 
@@ -541,7 +542,7 @@ protected void fireTitleTooltipChanged( String oldTooltip, String newTooltip ){
      */
     protected void fireTitleIconChanged( Icon oldIcon, Icon newIcon ){
     	currentTitleIcon = newIcon;
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleIconChanged( this, oldIcon, newIcon );
     }
     
@@ -550,7 +551,7 @@ protected void fireTitleIconChanged( Icon oldIcon, Icon newIcon ){
      * @param title the title which was bound
      */
     protected void fireTitleBound( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleBound( this, title );
     }
     
@@ -559,7 +560,7 @@ protected void fireTitleBound( DockTitle title ){
      * @param title the title which was unbound
      */
     protected void fireTitleUnbound( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleUnbound( this, title );
     }
     
@@ -569,7 +570,7 @@ protected void fireTitleUnbound( DockTitle title ){
      * @param title a title, can be <code>null</code>
      */
     protected void fireTitleExchanged( DockTitle title ){
-        for( DockableListener listener : dockableListeners.toArray( new DockableListener[ dockableListeners.size()] ))
+        for( DockableListener listener : dockableListeners.get())
             listener.titleExchanged( this, title );
     }
     
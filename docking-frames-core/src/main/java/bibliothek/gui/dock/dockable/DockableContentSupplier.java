@@ -0,0 +1,60 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.dockable;
+
+import java.awt.Component;
+
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+
+/**
+ * A {@link DockableContentSupplier} creates the content of a {@link Dockable} lazily. The content
+ * is created the first time the {@link Dockable} is shown to the user, e.g. when it is selected
+ * on a stack of {@link Dockable}s or when a minimized {@link Dockable} pops up. Until then the
+ * {@link Dockable} is represented by an empty panel. If the {@link Dockable} remains invisible for a
+ * while, the content may be dropped again and recreated once the {@link Dockable} is shown again.
+ * @author Benjamin Sigg
+ * @see DefaultDockable#setContentSupplier(DockableContentSupplier)
+ */
+public interface DockableContentSupplier {
+	/**
+	 * Creates the content of <code>dockable</code>. This method is called on the EDT, the 
+	 * {@link Dockable} is already known to its {@link DockStation} when this method is called.
+	 * @param dockable the element whose content is required
+	 * @return the new content, not <code>null</code>
+	 */
+	public Component createContent( Dockable dockable );
+	
+	/**
+	 * Informs this supplier that <code>content</code>, which was created by {@link #createContent(Dockable)}, 
+	 * is no longer shown on <code>dockable</code>. This supplier may free any resources that
+	 * were used by <code>content</code>.
+	 * @param dockable the element which no longer shows <code>content</code>
+	 * @param content the content that is no longer used
+	 */
+	public void releaseContent( Dockable dockable, Component content );
+}
@@ -26,8 +26,6 @@
 package bibliothek.gui.dock.dockable;
 
 import java.awt.EventQueue;
-import java.util.ArrayList;
-import java.util.List;
 
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
@@ -35,6 +33,7 @@
 import bibliothek.gui.dock.event.DockHierarchyListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
+import bibliothek.util.ListenerList;
 
 /**
  * A handler for invoking {@link DockableStateListener}s. Can be used by {@link Dockable}s.<br>
@@ -49,7 +48,7 @@
  */
 public class DockableStateListenerManager {
 	/** all the listeners that are currently registered */
-	private List<DockableStateListener> listeners = new ArrayList<DockableStateListener>();
+	private ListenerList<DockableStateListener> listeners = new ListenerList<DockableStateListener>( DockableStateListener.class );
 
 	/** the currently pending events */
 	private int current = 0;
@@ -227,7 +226,7 @@ private void fireNow(){
 			if( listeners.size() > 0 ) {
 				DockableStateEvent event = new DockableStateEvent( dockable, current );
 				current = 0;
-				for( DockableStateListener listener : listeners.toArray( new DockableStateListener[listeners.size()] ) ) {
+				for( DockableStateListener listener : listeners.get() ) {
 					listener.changed( event );
 				}
 			}
@@ -0,0 +1,44 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.dock.frontend.Setting;
+
+/**
+ * A listener added to a {@link DockFrontend}, gets informed whenever one of the {@link Setting}s 
+ * that are stored by name changes. Unlike the {@link DockFrontendListener} this listener is called
+ * for every kind of change: settings that are saved, set, read or deleted.
+ * @author Benjamin Sigg
+ */
+public interface DockFrontendSettingsListener {
+	/**
+	 * Called if the setting <code>name</code> was added, replaced or removed.
+	 * @param frontend the source of the event
+	 * @param name the name of the setting
+	 */
+	public void settingChanged( DockFrontend frontend, String name );
+}
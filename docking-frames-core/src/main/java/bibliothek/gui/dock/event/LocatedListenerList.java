@@ -29,7 +29,6 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 
 import bibliothek.gui.dock.DockElement;
@@ -42,15 +41,40 @@
  * @author Benjamin Sigg
  */
 public class LocatedListenerList<L extends LocatedListener> {
-	/** the listener of listeners known to this list */
-	private List<L> listeners = new ArrayList<L>();
+	/** the listener of listeners known to this list, this list is replaced whenever a listener is added or removed */
+	private List<L> listeners = Collections.emptyList();
+	
+	/** orders listeners by the distance of their location to the source of an event */
+	private final Comparator<L> distanceOrder = new Comparator<L>(){
+        public int compare( L o1, L o2 ) {
+            DockElement a = o1.getTreeLocation();
+            DockElement b = o2.getTreeLocation();
+            
+            if( a == b )
+                return 0;
+            
+            if( a == null )
+                return 1;
+            
+            if( b == null )
+                return -1;
+            
+            if( DockUtilities.isAncestor( a, b ))
+                return 1;
+            
+            return -1;
+        }
+    };
 
 	/**
 	 * Adds a listener to the list of listeners.
 	 * @param listener the new listener
 	 */
 	public void addListener( L listener ){
-		listeners.add( listener );
+		List<L> copy = new ArrayList<L>( listeners.size()+1 );
+		copy.addAll( listeners );
+		copy.add( listener );
+		listeners = copy;
 	}
 	
 	/**
@@ -58,7 +82,11 @@ public void addListener( L listener ){
 	 * @param listener the listener to remove
 	 */
 	public void removeListener( L listener ){
-		listeners.remove( listener );
+		if( listeners.contains( listener )){
+			List<L> copy = new ArrayList<L>( listeners );
+			copy.remove( listener );
+			listeners = copy;
+		}
 	}
 	
 	/**
@@ -74,11 +102,17 @@ public int size(){
      * by an event which occurs on <code>element</code>. The list is ordered
      * by the distance of the listeners to <code>element</code>.
      * @param element the element which is the source of an event
-     * @return the ordered list of observers
+     * @return the ordered list of observers, a new list that may be modified
      */
     public List<L> affected( DockElement element ){
-        List<L> list = new LinkedList<L>();
-        for( L listener : listeners ){
+        List<L> listeners = this.listeners;
+        if( listeners.isEmpty() ){
+            return new ArrayList<L>( 0 );
+        }
+        
+        List<L> list = new ArrayList<L>( listeners.size() );
+        for( int i = 0, n = listeners.size(); i < n; i++ ){
+            L listener = listeners.get( i );
             DockElement location = listener.getTreeLocation();
             if( location == null )
                 list.add( listener );
@@ -86,26 +120,9 @@ else if( element != null && DockUtilities.isAncestor( location, element ))
                 list.add( listener );
         }
         
-        Collections.sort( list, new Comparator<L>(){
-            public int compare( L o1, L o2 ) {
-                DockElement a = o1.getTreeLocation();
-                DockElement b = o2.getTreeLocation();
-                
-                if( a == b )
-                    return 0;
-                
-                if( a == null )
-                    return 1;
-                
-                if( b == null )
-                    return -1;
-                
-                if( DockUtilities.isAncestor( a, b ))
-                    return 1;
-                
-                return -1;
-            }
-        });
+        if( list.size() > 1 ){
+            Collections.sort( list, distanceOrder );
+        }
         
         return list;
     }
@@ -185,6 +185,8 @@ protected boolean shouldLayout( PerspectiveElement element, PredefinedPerspectiv
             situation.addAdjacent( factory );
         }
         
+        situation.setPreparationExecutor( frontend.getFrontend().getLayoutPreparationExecutor() );
+        
         if( entry )
         	situation.setIgnore( frontend.getFrontend().getIgnoreForEntry() );
         else
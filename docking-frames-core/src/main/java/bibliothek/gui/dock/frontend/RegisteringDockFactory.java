@@ -35,6 +35,7 @@
 import bibliothek.gui.dock.DockFactory;
 import bibliothek.gui.dock.layout.BackupFactoryData;
 import bibliothek.gui.dock.layout.LocationEstimationMap;
+import bibliothek.gui.dock.layout.PreparableDockFactory;
 import bibliothek.gui.dock.perspective.PerspectiveDockable;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.util.xml.XElement;
@@ -48,7 +49,7 @@
  * @param <P> the kind of perspective read by this factory
  * @param <L> the kind of data the wrapped factory needs
  */
-public class RegisteringDockFactory<D extends Dockable, P extends PerspectiveDockable, L> implements DockFactory<D, P, BackupFactoryData<L>> {
+public class RegisteringDockFactory<D extends Dockable, P extends PerspectiveDockable, L> implements PreparableDockFactory<D, P, BackupFactoryData<L>> {
     /** the {@link DockFrontend} to which this factory will add new elements */
     private DockFrontend frontend;
     /** delegate used to read new elements */
@@ -76,6 +77,12 @@ public BackupFactoryData<L> getLayout( D element, Map<Dockable, Integer> childre
         return new BackupFactoryData<L>( null, factory.getLayout( element, children ));
     }
 
+    public void prepare( BackupFactoryData<L> layout ){
+    	if( factory instanceof PreparableDockFactory<?,?,?> ){
+    		((PreparableDockFactory<D, P, L>)factory).prepare( layout.getData() );
+    	}
+    }
+
     public D layout( BackupFactoryData<L> layout, Map<Integer, Dockable> children, PlaceholderStrategy placeholders ) {
         D element = factory.layout( layout.getData(), placeholders );
         if( element != null ){
@@ -0,0 +1,47 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import bibliothek.gui.DockFrontend;
+
+/**
+ * The stored form of a {@link Setting} whose content is read only once the {@link DockFrontend}
+ * needs it, e.g. because the setting is {@link DockFrontend#load(String) loaded}. 
+ * @author Benjamin Sigg
+ * @see DockFrontend#setLazySetting(String, SettingSource)
+ */
+public interface SettingSource {
+	/**
+	 * Opens a stream containing the setting in the format written by {@link DockFrontend#writeSetting(String, java.io.DataOutputStream)}.
+	 * The {@link DockFrontend} closes the stream after reading.
+	 * @return the new stream, not <code>null</code>
+	 * @throws IOException if the stream cannot be opened
+	 */
+	public DataInputStream open() throws IOException;
+}
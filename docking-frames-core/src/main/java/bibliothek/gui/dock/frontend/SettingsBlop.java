@@ -26,7 +26,9 @@
 package bibliothek.gui.dock.frontend;
 
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import bibliothek.gui.DockFrontend;
 import bibliothek.gui.dock.DockElement;
@@ -42,6 +44,9 @@ public class SettingsBlop {
 	/** all the settings that are known */
 	private Map<String, Setting> settings = new HashMap<String, Setting>();
 	
+	/** settings that were not yet read, in their stored form */
+	private Map<String, SettingSource> sources = new HashMap<String, SettingSource>();
+	
 	/** The name of {@link #currentSetting}, can be <code>null</code> */
 	private String currentName;
 	
@@ -60,15 +65,34 @@ public void put( String name, Setting setting ){
 		if( setting == null ){
 			throw new IllegalArgumentException( "setting must not be null" );
 		}
+		sources.remove( name );
 		settings.put( name, setting );
 	}
 	
+	/**
+	 * Stores a {@link Setting} that was not yet read, using <code>name</code> as key.
+	 * @param name the key of the setting
+	 * @param source the stored form of the setting
+	 * @see DockFrontend#setLazySetting(String, SettingSource)
+	 */
+	public void put( String name, SettingSource source ){
+		if( name == null ){
+			throw new IllegalArgumentException( "name must not be null" );
+		}
+		if( source == null ){
+			throw new IllegalArgumentException( "source must not be null" );
+		}
+		settings.remove( name );
+		sources.put( name, source );
+	}
+	
 	/**
 	 * Removes the {@link Setting} <code>name</code> from this blop.
 	 * @param name the name of the setting to remove
 	 */
 	public void remove( String name ){
 		settings.remove( name );
+		sources.remove( name );
 	}
 	
 	/**
@@ -76,19 +100,36 @@ public void remove( String name ){
 	 * @return all the names
 	 */
 	public String[] getNames(){
-		return settings.keySet().toArray( new String[ settings.size() ] );
+		if( sources.isEmpty() ){
+			return settings.keySet().toArray( new String[ settings.size() ] );
+		}
+		Set<String> names = new LinkedHashSet<String>( settings.keySet() );
+		names.addAll( sources.keySet() );
+		return names.toArray( new String[ names.size() ] );
 	}
 	
 	/**
 	 * Gets the {@link Setting} which was {@link #put(String, Setting) stored} using the
 	 * key <code>name</code>.
 	 * @param name the name of a setting
-	 * @return the setting or <code>null</code> if <code>name</code> is not known
+	 * @return the setting or <code>null</code> if <code>name</code> is not known or was
+	 * {@link #put(String, SettingSource) stored} in its unread form
+	 * @see #getSource(String)
 	 */
 	public Setting getSetting( String name ){
 		return settings.get( name );
 	}
 	
+	/**
+	 * Gets the stored form of the {@link Setting} <code>name</code>, if the setting was not yet read.
+	 * @param name the name of a setting
+	 * @return the stored form or <code>null</code> if <code>name</code> is not known or was already read
+	 * @see #getSetting(String)
+	 */
+	public SettingSource getSource( String name ){
+		return sources.get( name );
+	}
+	
 	/**
 	 * Sets name and setting of the current layout. The current layout is the layout
 	 * that is shown on the application (or would be shown if this {@link SettingsBlop}
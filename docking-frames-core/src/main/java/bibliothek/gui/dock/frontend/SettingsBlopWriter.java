@@ -0,0 +1,140 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.gui.dock.layout.PropertyTransformer;
+import bibliothek.util.Version;
+
+/**
+ * Writes a {@link SettingsBlop} in the same format as {@link DockFrontend#writeBlop(SettingsBlop, DataOutputStream)}.
+ * All the objects that depend on the state of the {@link DockFrontend}, like the {@link DockSituation}s, are
+ * collected when the writer is created. Afterwards the writer does no longer access the frontend, and
+ * {@link #write(DataOutputStream)} may be called by any thread.
+ * @author Benjamin Sigg
+ * @see DockFrontend#createBlopWriter(SettingsBlop)
+ */
+public class SettingsBlopWriter {
+	/** the settings to write */
+	private SettingsBlop blop;
+	
+	/** the situation used to write ordinary entries */
+	private DockSituation entrySituation;
+	/** the transformer used to write ordinary entries */
+	private PropertyTransformer entryTransformer;
+	
+	/** the situation used to write the current setting */
+	private DockSituation fullSituation;
+	/** the transformer used to write the current setting */
+	private PropertyTransformer fullTransformer;
+	
+	/**
+	 * Creates a new writer.
+	 * @param blop the settings to write
+	 * @param entrySituation the situation used to write ordinary entries
+	 * @param entryTransformer the transformer used to write ordinary entries
+	 * @param fullSituation the situation used to write the current setting
+	 * @param fullTransformer the transformer used to write the current setting
+	 */
+	public SettingsBlopWriter( SettingsBlop blop, DockSituation entrySituation, PropertyTransformer entryTransformer,
+			DockSituation fullSituation, PropertyTransformer fullTransformer ){
+		if( blop == null ){
+			throw new IllegalArgumentException( "blop must not be null" );
+		}
+		this.blop = blop;
+		this.entrySituation = entrySituation;
+		this.entryTransformer = entryTransformer;
+		this.fullSituation = fullSituation;
+		this.fullTransformer = fullTransformer;
+	}
+	
+	/**
+	 * Gets the settings that are written by this writer.
+	 * @return the settings, not <code>null</code>
+	 */
+	public SettingsBlop getBlop(){
+		return blop;
+	}
+	
+	/**
+	 * Writes the {@link #getBlop() settings} into <code>out</code>.
+	 * @param out the stream to write into
+	 * @throws IOException if <code>out</code> cannot be written
+	 */
+	public void write( DataOutputStream out ) throws IOException{
+		Version.write( out, Version.VERSION_1_0_4 );
+		
+		String currentSetting = blop.getCurrentName();
+		
+		if( currentSetting == null )
+			out.writeBoolean( false );
+		else{
+			out.writeBoolean( true );
+			out.writeUTF( currentSetting );
+		}
+		
+		String[] names = blop.getNames();
+		out.writeInt( names.length );
+		for( String name : names ){
+			out.writeUTF( name );
+			Setting setting = blop.getSetting( name );
+			if( setting == null ){
+				copy( blop.getSource( name ), out );
+			}
+			else{
+				setting.write( entrySituation, entryTransformer, true, out );
+			}
+		}
+		
+		blop.getCurrentSetting().write( fullSituation, fullTransformer, false, out );
+	}
+	
+	/**
+	 * Copies the content of <code>source</code> into <code>out</code> without interpreting it. The
+	 * source contains a {@link Setting} in the same format as an ordinary entry of the blop.
+	 * @param source the setting that was not yet read
+	 * @param out the stream to write into
+	 * @throws IOException if <code>source</code> cannot be read or <code>out</code> cannot be written
+	 */
+	public static void copy( SettingSource source, DataOutputStream out ) throws IOException{
+		DataInputStream in = source.open();
+		try{
+			byte[] buffer = new byte[ 4096 ];
+			int read;
+			while( (read = in.read( buffer )) >= 0 ){
+				out.write( buffer, 0, read );
+			}
+		}
+		finally{
+			in.close();
+		}
+	}
+}
@@ -37,6 +37,8 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -47,6 +49,8 @@
 import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
 import bibliothek.gui.dock.perspective.Perspective;
 import bibliothek.gui.dock.perspective.PerspectiveElement;
@@ -103,6 +107,18 @@ public class DockSituation {
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
     private PlaceholderStrategy placeholders;
+    
+    /** executes the calls to {@link PreparableDockFactory#prepare(Object)}, can be <code>null</code> */
+    private Executor preparationExecutor;
+    
+    /** the controller whose {@link DockInstrumentation} is informed about conversions, can be <code>null</code> */
+    private DockController controller;
+    
+    /** how many calls to {@link #convert(DockElement)} are currently running */
+    private int collecting = 0;
+    
+    /** how many calls to {@link #convert(DockLayoutComposition)} are currently running */
+    private int creating = 0;
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -129,6 +145,8 @@ public DockSituation( DockController controller ){
                 new StackDockStationFactory(),
                 new FlapDockStationFactory());
         
+        this.controller = controller;
+        
         @SuppressWarnings("rawtypes")
 		List<DockFactory> factories = controller.getExtensions().load( new ExtensionName<DockFactory>( DOCK_FACTORY_EXTENSION, DockFactory.class, EXTENSION_PARAM, this ) );
         for( DockFactory<?,?,?> factory : factories ){
@@ -181,6 +199,27 @@ public DockSituationIgnore getIgnore() {
         return ignore;
     }
     
+    /**
+     * Sets the {@link Executor} which calls {@link PreparableDockFactory#prepare(Object)} when
+     * {@link #convert(DockLayoutComposition) converting} a layout. All the preparations of one
+     * layout are handed over to <code>executor</code> at the same time, and {@link #convert(DockLayoutComposition)}
+     * waits until they are all finished. If no executor is set, then the preparations are executed
+     * one after the other by the thread that calls {@link #convert(DockLayoutComposition)}.
+     * @param executor the executor, for example a thread pool, can be <code>null</code>
+     */
+    public void setPreparationExecutor( Executor executor ){
+        this.preparationExecutor = executor;
+    }
+    
+    /**
+     * Gets the {@link Executor} which is used to prepare layouts.
+     * @return the executor, can be <code>null</code>
+     * @see #setPreparationExecutor(Executor)
+     */
+    public Executor getPreparationExecutor(){
+        return preparationExecutor;
+    }
+    
     /**
      * Sets a strategy for deleting invalid placeholders.
      * @param placeholders the strategy, <code>null</code> for keeping all placeholders
@@ -293,7 +332,8 @@ public MissingDockFactory getMissingAdjacentFactory() {
 
     /**
      * Converts the layout of <code>element</code> and all its children into a 
-     * {@link DockLayoutComposition}.
+     * {@link DockLayoutComposition}. The children are converted by calling this method
+     * recursively, subclasses may override this method to intercept them.
      * @param element the element to convert
      * @return the composition or <code>null</code> if the element is ignored
      * @throws IllegalArgumentException if one element has an unknown id of
@@ -301,8 +341,36 @@ public MissingDockFactory getMissingAdjacentFactory() {
      * @throws ClassCastException if an element does not specify the correct
      * {@link DockFactory}.
      */
-    @SuppressWarnings("unchecked")
     public DockLayoutComposition convert( DockElement element ){
+    	if( collecting > 0 ){
+    		return collect( element );
+    	}
+    	
+    	DockInstrumentation instrumentation = getInstrumentation();
+    	long begin = instrumentation.begin( DockOperation.LAYOUT_COLLECT );
+    	collecting++;
+    	try{
+    		return collect( element );
+    	}
+    	finally{
+    		collecting--;
+    		instrumentation.end( DockOperation.LAYOUT_COLLECT, begin );
+    	}
+    }
+    
+    /**
+     * Gets the {@link DockInstrumentation} of the {@link DockController} that was used to create this situation.
+     * @return the instrumentation, not <code>null</code>
+     */
+    private DockInstrumentation getInstrumentation(){
+    	if( controller == null ){
+    		return DockInstrumentation.NULL;
+    	}
+    	return controller.getInstrumentation();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private DockLayoutComposition collect( DockElement element ){
         if( ignoreElement( element ))
             return null;
 
@@ -353,13 +421,87 @@ public DockLayoutComposition convert( DockElement element ){
 
     /**
      * Reads the contents of <code>composition</code> and tries to create a
-     * {@link DockElement} that matches the composition.
+     * {@link DockElement} that matches the composition. The outermost call of this method first 
+     * {@link #prepare(DockLayoutComposition) prepares} <code>composition</code>, then
+     * calls the {@link DockFactory}s to create the new elements. The children are created by
+     * calling this method recursively, subclasses may override this method to intercept them.
      * @param composition the composition to analyze
      * @return the new element, can be something else then a {@link DockElement}
      * if the factory for <code>composition</code> was not found
      */
-    @SuppressWarnings("unchecked")
     public DockElement convert( DockLayoutComposition composition ){
+    	if( creating > 0 ){
+    		return convertPrepared( composition );
+    	}
+    	
+    	DockInstrumentation instrumentation = getInstrumentation();
+    	long begin = instrumentation.begin( DockOperation.LAYOUT_CREATE );
+    	creating++;
+    	try{
+    		prepare( composition );
+    		return convertPrepared( composition );
+    	}
+    	finally{
+    		creating--;
+    		instrumentation.end( DockOperation.LAYOUT_CREATE, begin );
+    	}
+    }
+    
+    /**
+     * Calls {@link PreparableDockFactory#prepare(Object)} for all the layouts of <code>composition</code> whose
+     * factory is a {@link PreparableDockFactory}. The calls are executed by the {@link #getPreparationExecutor() executor}
+     * if there is one. This method returns once all the preparations are finished.
+     * @param composition the composition whose elements are going to be created
+     * @throws RuntimeException if one of the preparations threw an exception
+     */
+    public void prepare( DockLayoutComposition composition ){
+    	List<Runnable> preparations = new ArrayList<Runnable>();
+    	collectPreparations( composition, preparations );
+    	
+    	Executor executor = getPreparationExecutor();
+    	if( executor == null || preparations.size() < 2 ){
+    		for( Runnable preparation : preparations ){
+    			preparation.run();
+    		}
+    	}
+    	else{
+    		Preparations running = new Preparations( preparations.size() );
+    		for( Runnable preparation : preparations ){
+    			running.execute( executor, preparation );
+    		}
+    		running.await();
+    	}
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void collectPreparations( DockLayoutComposition composition, List<Runnable> preparations ){
+    	DockLayoutInfo info = composition.getLayout();
+    	if( info != null ){
+    		final DockLayout<?> layout = info.getDataLayout();
+    		if( layout != null ){
+    			DockFactory<?,?,?> factory = getFactory( layout.getFactoryID() );
+    			if( factory instanceof PreparableDockFactory<?,?,?> ){
+    				final PreparableDockFactory<?,?,Object> preparable = (PreparableDockFactory<?,?,Object>)factory;
+    				preparations.add( new Runnable(){
+    					public void run(){
+    						preparable.prepare( layout.getData() );
+    					}
+    				});
+    			}
+    		}
+    	}
+    	for( DockLayoutComposition child : composition.getChildren() ){
+    		collectPreparations( child, preparations );
+    	}
+    }
+    
+    /**
+     * Creates the {@link DockElement}s of an already {@link #prepare(DockLayoutComposition) prepared} <code>composition</code>.
+     * @param composition the composition to analyze
+     * @return the new element
+     */
+    @SuppressWarnings("unchecked")
+    private DockElement convertPrepared( DockLayoutComposition composition ){
         DockLayoutInfo info = composition.getLayout();
         if( info == null )
             return null;
@@ -1433,4 +1575,77 @@ public Map<String, AdjacentDockFactory<?>> getAdjacentFactorys(){
     public String getIdentifier( DockLayoutComposition composition ){
     	return null;
     }
+    
+    /**
+     * A set of preparations that are executed by an {@link Executor}.
+     * @author Benjamin Sigg
+     */
+    private static class Preparations{
+    	/** counts the preparations that are not yet finished */
+    	private final CountDownLatch pending;
+    	/** the first exception that was thrown by a preparation */
+    	private volatile Throwable failure;
+    	
+    	/**
+    	 * Creates a new set of preparations
+    	 * @param count the number of preparations that are going to be executed
+    	 */
+    	public Preparations( int count ){
+    		pending = new CountDownLatch( count );
+    	}
+    	
+    	/**
+    	 * Lets <code>executor</code> run <code>preparation</code>.
+    	 * @param executor the executor to use
+    	 * @param preparation the preparation to run
+    	 */
+    	public void execute( Executor executor, final Runnable preparation ){
+    		executor.execute( new Runnable(){
+    			public void run(){
+    				try{
+    					preparation.run();
+    				}
+    				catch( Throwable t ){
+    					if( failure == null ){
+    						failure = t;
+    					}
+    				}
+    				finally{
+    					pending.countDown();
+    				}
+    			}
+    		});
+    	}
+    	
+    	/**
+    	 * Waits until all preparations are finished, and rethrows the first exception that
+    	 * was thrown by a preparation.
+    	 */
+    	public void await(){
+    		boolean interrupted = false;
+    		while( true ){
+    			try{
+    				pending.await();
+    				break;
+    			}
+    			catch( InterruptedException e ){
+    				interrupted = true;
+    			}
+    		}
+    		if( interrupted ){
+    			Thread.currentThread().interrupt();
+    		}
+    		
+    		Throwable failure = this.failure;
+    		if( failure instanceof RuntimeException ){
+    			throw (RuntimeException)failure;
+    		}
+    		if( failure instanceof Error ){
+    			throw (Error)failure;
+    		}
+    		if( failure != null ){
+    			throw new IllegalStateException( failure );
+    		}
+    	}
+    }
 }
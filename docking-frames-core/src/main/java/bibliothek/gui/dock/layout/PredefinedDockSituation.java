@@ -562,7 +562,7 @@ public String getIdentifier( DockLayoutComposition composition ){
      * which was predefined in {@link PredefinedDockSituation}.
      * @author Benjamin Sigg
      */
-    private class PreloadFactory implements DockFactory<DockElement,PerspectiveElement,PredefinedLayout>{
+    private class PreloadFactory implements PreparableDockFactory<DockElement,PerspectiveElement,PredefinedLayout>{
     	private PredefinedPerspective perspective;
     	
     	/**
@@ -596,6 +596,28 @@ public void estimateLocations( PredefinedLayout layout, LocationEstimationMap ch
             }
         }
 
+        @SuppressWarnings("unchecked")
+        public void prepare( PredefinedLayout layout ){
+        	DockLayoutInfo delegate = layout.getDelegate();
+        	if( delegate.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
+        		String factoryId = delegate.getDataLayout().getFactoryID();
+        		Object data = delegate.getDataLayout().getData();
+        		
+        		if( stringToElement.get( layout.getPredefined() ) == null ){
+        			DockFactory<?,?,?> factory = getBackup( factoryId );
+        			if( factory instanceof PreparableDockFactory<?,?,?> ){
+        				((PreparableDockFactory<?,?,BackupFactoryData<Object>>)factory).prepare( new BackupFactoryData<Object>( layout.getPredefined(), data ) );
+        			}
+        		}
+        		else{
+        			DockFactory<?,?,?> factory = getFactory( factoryId );
+        			if( factory instanceof PreparableDockFactory<?,?,?> ){
+        				((PreparableDockFactory<?,?,Object>)factory).prepare( data );
+        			}
+        		}
+        	}
+        }
+
         @SuppressWarnings("unchecked")
         public PredefinedLayout getLayout( DockElement element, Map<Dockable, Integer> children ) {
             if( shouldLayout( element )){
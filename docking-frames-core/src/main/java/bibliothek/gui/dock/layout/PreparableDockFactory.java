@@ -0,0 +1,60 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.util.concurrent.Executor;
+
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.DockFactory;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+
+/**
+ * A {@link DockFactory} which splits the creation of new {@link DockElement}s into two phases. When
+ * a {@link DockSituation} converts a {@link DockLayoutComposition}, it first calls {@link #prepare(Object)} for
+ * all the layouts that are handled by {@link PreparableDockFactory}s. These calls can happen in parallel on the threads
+ * of an {@link DockSituation#setPreparationExecutor(Executor) executor}. Afterwards the normal 
+ * {@link #layout(Object, bibliothek.gui.dock.station.support.PlaceholderStrategy) layout} methods
+ * are called on the thread which called {@link DockSituation#convert(DockLayoutComposition)}, usually the
+ * EventDispatchThread.<br>
+ * The first phase is the right place to do expensive work that does not require Swing, like loading models
+ * from files or caches. The second phase should only create and wire the {@link java.awt.Component}s.
+ * @author Benjamin Sigg
+ * @param <D> the type of element which represents the layout
+ * @param <P> the type of perspective element which represents the layout
+ * @param <L> the type of object that stores the layout
+ */
+public interface PreparableDockFactory<D extends DockElement, P extends PerspectiveElement, L> extends DockFactory<D, P, L>{
+	/**
+	 * Prepares <code>layout</code> for a later call to one of the <code>layout</code> or <code>setLayout</code>
+	 * methods. This method may be called on any thread, including threads that are not the EventDispatchThread,
+	 * and it may be called concurrently for different layouts. Hence this method must not access any
+	 * Swing {@link java.awt.Component}s. The results of the preparation should be stored in <code>layout</code> itself.<br>
+	 * There is no guarantee that this method is called at all, the <code>layout</code> methods must work
+	 * with an unprepared <code>layout</code> as well. 
+	 * @param layout the layout that is going to be applied
+	 */
+	public void prepare( L layout );
+}
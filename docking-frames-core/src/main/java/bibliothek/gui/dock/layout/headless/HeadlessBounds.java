@@ -0,0 +1,208 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout.headless;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+import bibliothek.util.Path;
+import bibliothek.util.xml.XElement;
+
+/**
+ * The result of {@link HeadlessLayoutEngine#layout(Map, Rectangle)}: the boundaries of all the
+ * {@link PerspectiveElement}s of a layout, as they would be shown on a screen of a certain size.
+ * @author Benjamin Sigg
+ */
+public class HeadlessBounds implements Iterable<HeadlessBounds.Item>{
+	/** all the items in the order in which they were found */
+	private List<Item> items = new ArrayList<Item>();
+
+	/** fast access to the items */
+	private Map<PerspectiveElement, Item> elements = new IdentityHashMap<PerspectiveElement, Item>();
+
+	/**
+	 * Adds a new item to this result.
+	 * @param path a unique name of <code>element</code>, describing its location in the tree of elements
+	 * @param element the element whose boundaries were calculated
+	 * @param bounds the boundaries of <code>element</code>, will be copied
+	 * @param visible whether <code>element</code> would be visible to the user
+	 * @return the new item
+	 */
+	public Item add( String path, PerspectiveElement element, Rectangle bounds, boolean visible ){
+		Item item = new Item( path, element, new Rectangle( bounds ), visible );
+		items.add( item );
+		elements.put( element, item );
+		return item;
+	}
+
+	/**
+	 * Gets the number of items of this result.
+	 * @return the number of items
+	 */
+	public int size(){
+		return items.size();
+	}
+
+	/**
+	 * Gets the <code>index</code>'th item of this result.
+	 * @param index the index of the item
+	 * @return the item
+	 */
+	public Item get( int index ){
+		return items.get( index );
+	}
+
+	/**
+	 * Searches the item that describes <code>element</code>.
+	 * @param element the element to search
+	 * @return the item or <code>null</code> if <code>element</code> was not part of the layout
+	 */
+	public Item get( PerspectiveElement element ){
+		return elements.get( element );
+	}
+
+	/**
+	 * Gets an unmodifiable view of all the items of this result.
+	 * @return all the items
+	 */
+	public List<Item> getItems(){
+		return Collections.unmodifiableList( items );
+	}
+
+	public Iterator<Item> iterator(){
+		return getItems().iterator();
+	}
+
+	/**
+	 * Writes the content of this result into <code>element</code>.
+	 * @param element the element to write into
+	 */
+	public void writeXML( XElement element ){
+		for( Item item : items ){
+			XElement xitem = element.addElement( "item" );
+			xitem.addString( "path", item.getPath() );
+			xitem.addString( "factory", item.getElement().getFactoryID() );
+			Path placeholder = item.getPlaceholder();
+			if( placeholder != null ){
+				xitem.addString( "placeholder", placeholder.toString() );
+			}
+			xitem.addBoolean( "visible", item.isVisible() );
+			Rectangle bounds = item.getBounds();
+			xitem.addInt( "x", bounds.x );
+			xitem.addInt( "y", bounds.y );
+			xitem.addInt( "width", bounds.width );
+			xitem.addInt( "height", bounds.height );
+		}
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		for( Item item : items ){
+			Rectangle bounds = item.getBounds();
+			builder.append( item.getPath() ).append( " " );
+			builder.append( item.getElement().getFactoryID() ).append( " " );
+			builder.append( item.getPlaceholder() ).append( " " );
+			builder.append( bounds.x ).append( " " ).append( bounds.y ).append( " " );
+			builder.append( bounds.width ).append( " " ).append( bounds.height ).append( " " );
+			builder.append( item.isVisible() ? "visible" : "hidden" ).append( "\n" );
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Describes the boundaries of one {@link PerspectiveElement}.
+	 * @author Benjamin Sigg
+	 */
+	public static class Item{
+		private String path;
+		private PerspectiveElement element;
+		private Rectangle bounds;
+		private boolean visible;
+
+		private Item( String path, PerspectiveElement element, Rectangle bounds, boolean visible ){
+			this.path = path;
+			this.element = element;
+			this.bounds = bounds;
+			this.visible = visible;
+		}
+
+		/**
+		 * Gets a name that describes the location of the element in the tree of elements,
+		 * e.g. <code>"center/0/1"</code> is the second child of the first child of the root station
+		 * <code>"center"</code>.
+		 * @return the path, not <code>null</code>
+		 */
+		public String getPath(){
+			return path;
+		}
+
+		/**
+		 * Gets the element whose boundaries are described by this item.
+		 * @return the element, not <code>null</code>
+		 */
+		public PerspectiveElement getElement(){
+			return element;
+		}
+
+		/**
+		 * Gets the placeholder of {@link #getElement() the element}, if there is one.
+		 * @return the placeholder or <code>null</code>
+		 */
+		public Path getPlaceholder(){
+			PerspectiveDockable dockable = element.asDockable();
+			if( dockable == null ){
+				return null;
+			}
+			return dockable.getPlaceholder();
+		}
+
+		/**
+		 * Gets the boundaries of the element in screen coordinates.
+		 * @return the boundaries, a copy
+		 */
+		public Rectangle getBounds(){
+			return new Rectangle( bounds );
+		}
+
+		/**
+		 * Tells whether the element would be visible to the user. Elements that are hidden behind
+		 * other elements, e.g. the unselected children of a stack, or which are minimized, are
+		 * not visible.
+		 * @return whether the element is visible
+		 */
+		public boolean isVisible(){
+			return visible;
+		}
+	}
+}
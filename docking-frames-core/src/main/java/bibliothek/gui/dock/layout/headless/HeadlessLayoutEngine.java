@@ -0,0 +1,450 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout.headless;
+
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockFactory;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.SplitDockStation.Orientation;
+import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.layout.AdjacentDockFactory;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.gui.dock.perspective.Perspective;
+import bibliothek.gui.dock.perspective.PerspectiveDockable;
+import bibliothek.gui.dock.perspective.PerspectiveElement;
+import bibliothek.gui.dock.perspective.PerspectiveStation;
+import bibliothek.gui.dock.station.flap.FlapDockPerspective;
+import bibliothek.gui.dock.station.flap.FlapDockStationFactory;
+import bibliothek.gui.dock.station.screen.ScreenDockPerspective;
+import bibliothek.gui.dock.station.screen.ScreenDockPerspective.ScreenPerspectiveWindow;
+import bibliothek.gui.dock.station.screen.ScreenDockStationFactory;
+import bibliothek.gui.dock.station.split.SplitDockPerspective;
+import bibliothek.gui.dock.station.split.SplitDockStationFactory;
+import bibliothek.gui.dock.station.stack.StackDockPerspective;
+import bibliothek.gui.dock.station.stack.StackDockStationFactory;
+import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.util.NullWindowProvider;
+import bibliothek.util.xml.XElement;
+
+/**
+ * A {@link HeadlessLayoutEngine} reads layouts that were written by a {@link DockSituation} or by
+ * a {@link Perspective}, converts them into {@link PerspectiveElement}s and calculates the boundaries
+ * which each element would have on a screen of a given size. The engine neither requires a
+ * {@link DockController} nor any {@link DockStation} or {@link Dockable}, it does not create any
+ * Swing component and can be used if the system property <code>java.awt.headless</code> is <code>true</code>.<br>
+ * The calculated boundaries follow the rules of the default {@link SplitDockStation}, but do not
+ * take into account minimum sizes or decorations like titles and borders.<br>
+ * Once configured, an engine can be used by many threads at the same time: each call to one of the
+ * <code>read</code> methods works with its own {@link DockSituation}. The {@link DockFactory}s used by the
+ * engine must be stateless, which is true for the default factories.
+ * @author Benjamin Sigg
+ */
+public class HeadlessLayoutEngine {
+	/** the factories used to read the layouts */
+	private List<DockFactory<?,?,?>> factories = new ArrayList<DockFactory<?,?,?>>();
+
+	/** the adjacent factories used to read the layouts */
+	private List<AdjacentDockFactory<?>> adjacentFactories = new ArrayList<AdjacentDockFactory<?>>();
+
+	/** filter for placeholders */
+	private PlaceholderStrategy placeholderStrategy;
+
+	/** the size of the gap between the children of a {@link SplitDockPerspective} */
+	private int dividerSize = 4;
+
+	/**
+	 * Creates a new engine using factories for {@link SplitDockPerspective}, {@link StackDockPerspective},
+	 * {@link FlapDockPerspective}, {@link ScreenDockPerspective} and for the default {@link Dockable}.
+	 */
+	public HeadlessLayoutEngine(){
+		this(
+				new DefaultDockableFactory(),
+				new SplitDockStationFactory(),
+				new StackDockStationFactory(),
+				new FlapDockStationFactory(),
+				new ScreenDockStationFactory( new NullWindowProvider() ));
+	}
+
+	/**
+	 * Creates a new engine using only <code>factories</code>.
+	 * @param factories the factories used to read layouts
+	 */
+	public HeadlessLayoutEngine( DockFactory<?,?,?>... factories ){
+		for( DockFactory<?,?,?> factory : factories ){
+			add( factory );
+		}
+	}
+
+	/**
+	 * Adds an additional factory to this engine.
+	 * @param factory the new factory, not <code>null</code>
+	 */
+	public synchronized void add( DockFactory<?,?,?> factory ){
+		if( factory == null ){
+			throw new IllegalArgumentException( "factory must not be null" );
+		}
+		factories.add( factory );
+	}
+
+	/**
+	 * Adds an additional adjacent factory to this engine.
+	 * @param factory the new factory, not <code>null</code>
+	 */
+	public synchronized void addAdjacent( AdjacentDockFactory<?> factory ){
+		if( factory == null ){
+			throw new IllegalArgumentException( "factory must not be null" );
+		}
+		adjacentFactories.add( factory );
+	}
+
+	/**
+	 * Sets the strategy which is used to filter placeholders while reading a layout.
+	 * @param placeholderStrategy the strategy, can be <code>null</code>
+	 */
+	public synchronized void setPlaceholderStrategy( PlaceholderStrategy placeholderStrategy ){
+		this.placeholderStrategy = placeholderStrategy;
+	}
+
+	/**
+	 * Gets the strategy which is used to filter placeholders.
+	 * @return the strategy, can be <code>null</code>
+	 */
+	public synchronized PlaceholderStrategy getPlaceholderStrategy(){
+		return placeholderStrategy;
+	}
+
+	/**
+	 * Sets the size of the gap between the children of a {@link SplitDockPerspective}, this
+	 * is the same property as {@link SplitDockStation#setDividerSize(int)}.
+	 * @param dividerSize the size of the gap, at least 0
+	 */
+	public synchronized void setDividerSize( int dividerSize ){
+		if( dividerSize < 0 ){
+			throw new IllegalArgumentException( "dividerSize must not be negative: " + dividerSize );
+		}
+		this.dividerSize = dividerSize;
+	}
+
+	/**
+	 * Gets the size of the gap between the children of a {@link SplitDockPerspective}.
+	 * @return the size of the gap
+	 */
+	public synchronized int getDividerSize(){
+		return dividerSize;
+	}
+
+	/**
+	 * Creates a new {@link DockSituation} which knows all the factories of this engine. Each call
+	 * returns a new object, hence the result can be used without synchronization.
+	 * @return the new situation
+	 */
+	public synchronized DockSituation createSituation(){
+		DockSituation situation = new DockSituation( factories.toArray( new DockFactory<?,?,?>[ factories.size() ] ) );
+		for( AdjacentDockFactory<?> factory : adjacentFactories ){
+			situation.addAdjacent( factory );
+		}
+		situation.setPlaceholderStrategy( placeholderStrategy );
+		return situation;
+	}
+
+	/**
+	 * Reads a layout that was written by {@link DockSituation#write(Map)}.
+	 * @param data the layout
+	 * @return the root stations of the layout
+	 * @throws IOException if <code>data</code> is not readable
+	 */
+	public Map<String, PerspectiveStation> read( byte[] data ) throws IOException{
+		return read( new DataInputStream( new ByteArrayInputStream( data ) ) );
+	}
+
+	/**
+	 * Reads a layout that was written by {@link DockSituation#write(Map, java.io.DataOutputStream)}.
+	 * @param in the stream to read from
+	 * @return the root stations of the layout
+	 * @throws IOException if <code>in</code> is not readable
+	 */
+	public Map<String, PerspectiveStation> read( DataInputStream in ) throws IOException{
+		return createSituation().createPerspective().read( in );
+	}
+
+	/**
+	 * Reads a layout that was written by {@link DockSituation#writeXML(Map, XElement)}.
+	 * @param element the layout
+	 * @return the root stations of the layout
+	 */
+	public Map<String, PerspectiveStation> readXML( XElement element ){
+		return createSituation().createPerspective().readXML( element );
+	}
+
+	/**
+	 * Calculates the boundaries of all the elements of <code>stations</code>, each root station
+	 * is assumed to cover the entire <code>screen</code>.
+	 * @param stations the root stations
+	 * @param screen the size of the screen
+	 * @return the boundaries of all the elements
+	 */
+	public HeadlessBounds layout( Map<String, PerspectiveStation> stations, Rectangle screen ){
+		HeadlessBounds result = new HeadlessBounds();
+		int dividerSize = getDividerSize();
+		for( Map.Entry<String, PerspectiveStation> entry : new TreeMap<String, PerspectiveStation>( stations ).entrySet() ){
+			layout( entry.getKey(), entry.getValue(), screen, true, dividerSize, result );
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the boundaries of all the elements of <code>stations</code>, each root station
+	 * has its own boundaries. Stations without boundaries are ignored.
+	 * @param stations the root stations
+	 * @param bounds the boundaries of the root stations
+	 * @return the boundaries of all the elements
+	 */
+	public HeadlessBounds layout( Map<String, PerspectiveStation> stations, Map<String, Rectangle> bounds ){
+		HeadlessBounds result = new HeadlessBounds();
+		int dividerSize = getDividerSize();
+		for( Map.Entry<String, PerspectiveStation> entry : new TreeMap<String, PerspectiveStation>( stations ).entrySet() ){
+			Rectangle rootBounds = bounds.get( entry.getKey() );
+			if( rootBounds != null ){
+				layout( entry.getKey(), entry.getValue(), rootBounds, true, dividerSize, result );
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads all the <code>layouts</code> and calculates their boundaries. The work is distributed
+	 * onto <code>executor</code>.
+	 * @param layouts the layouts to read, each layout was written by {@link DockSituation#write(Map)}
+	 * @param screen the size of the screen
+	 * @param executor the executor that runs the jobs
+	 * @return the boundaries of the layouts, in the same order as <code>layouts</code>
+	 * @throws InterruptedException if the current thread was interrupted while waiting for the results
+	 * @throws ExecutionException if one of the layouts could not be read, the original exception is
+	 * the {@link ExecutionException#getCause() cause} of this exception
+	 */
+	public List<HeadlessBounds> layoutAll( List<byte[]> layouts, final Rectangle screen, ExecutorService executor ) throws InterruptedException, ExecutionException{
+		List<Future<HeadlessBounds>> futures = new ArrayList<Future<HeadlessBounds>>( layouts.size() );
+		for( final byte[] layout : layouts ){
+			futures.add( executor.submit( new Callable<HeadlessBounds>(){
+				public HeadlessBounds call() throws Exception{
+					return layout( read( layout ), screen );
+				}
+			}));
+		}
+
+		List<HeadlessBounds> result = new ArrayList<HeadlessBounds>( futures.size() );
+		for( Future<HeadlessBounds> future : futures ){
+			result.add( future.get() );
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the boundaries of <code>element</code> and of all its children.
+	 * @param path the unique name of <code>element</code>
+	 * @param element the element to lay out
+	 * @param bounds the boundaries of <code>element</code>
+	 * @param visible whether <code>element</code> is visible
+	 * @param dividerSize the size of the gap between children of a {@link SplitDockPerspective}
+	 * @param result collects the boundaries
+	 */
+	protected void layout( String path, PerspectiveElement element, Rectangle bounds, boolean visible, int dividerSize, HeadlessBounds result ){
+		result.add( path, element, bounds, visible );
+
+		PerspectiveStation station = element.asStation();
+		if( station == null ){
+			return;
+		}
+
+		if( station instanceof SplitDockPerspective ){
+			SplitDockPerspective split = (SplitDockPerspective)station;
+			PerspectiveDockable fullscreen = split.getFullscreen();
+			if( fullscreen != null ){
+				layoutChildren( path, station, bounds, visible, fullscreen, dividerSize, result );
+			}
+			else{
+				Map<PerspectiveDockable, Integer> indices = new IdentityHashMap<PerspectiveDockable, Integer>();
+				for( int i = 0, n = split.getDockableCount(); i < n; i++ ){
+					indices.put( split.getDockable( i ), i );
+				}
+				layoutSplit( path, indices, split.getRoot().getChild(), bounds, 0, 0, bounds.width, bounds.height, visible, dividerSize, result );
+			}
+		}
+		else if( station instanceof StackDockPerspective ){
+			layoutChildren( path, station, bounds, visible, ((StackDockPerspective)station).getSelection(), dividerSize, result );
+		}
+		else if( station instanceof FlapDockPerspective ){
+			layoutChildren( path, station, bounds, false, null, dividerSize, result );
+		}
+		else if( station instanceof ScreenDockPerspective ){
+			ScreenDockPerspective screen = (ScreenDockPerspective)station;
+			for( int i = 0, n = screen.getDockableCount(); i < n; i++ ){
+				PerspectiveDockable child = screen.getDockable( i );
+				ScreenPerspectiveWindow window = screen.getWindow( child );
+				Rectangle windowBounds = new Rectangle( window.getX(), window.getY(), window.getWidth(), window.getHeight() );
+				layout( path + "/" + i, child, windowBounds, visible, dividerSize, result );
+			}
+		}
+		else{
+			layoutUnknown( path, station, bounds, visible, dividerSize, result );
+		}
+	}
+
+	/**
+	 * Calculates the boundaries of the children of a station whose type is not known to this engine. The
+	 * default implementation assumes that the children are stacked, and that only the first child
+	 * is visible.
+	 * @param path the unique name of <code>station</code>
+	 * @param station the station whose children are to be laid out
+	 * @param bounds the boundaries of <code>station</code>
+	 * @param visible whether <code>station</code> is visible
+	 * @param dividerSize the size of the gap between children of a {@link SplitDockPerspective}
+	 * @param result collects the boundaries
+	 */
+	protected void layoutUnknown( String path, PerspectiveStation station, Rectangle bounds, boolean visible, int dividerSize, HeadlessBounds result ){
+		PerspectiveDockable first = station.getDockableCount() == 0 ? null : station.getDockable( 0 );
+		layoutChildren( path, station, bounds, visible, first, dividerSize, result );
+	}
+
+	/**
+	 * Gives all the children of <code>station</code> the boundaries <code>bounds</code>.
+	 * @param path the unique name of <code>station</code>
+	 * @param station the station whose children are to be laid out
+	 * @param bounds the boundaries of <code>station</code>
+	 * @param visible whether <code>station</code> is visible
+	 * @param shown the only child which is visible, can be <code>null</code>
+	 * @param dividerSize the size of the gap between children of a {@link SplitDockPerspective}
+	 * @param result collects the boundaries
+	 */
+	private void layoutChildren( String path, PerspectiveStation station, Rectangle bounds, boolean visible, PerspectiveDockable shown, int dividerSize, HeadlessBounds result ){
+		for( int i = 0, n = station.getDockableCount(); i < n; i++ ){
+			PerspectiveDockable child = station.getDockable( i );
+			layout( path + "/" + i, child, bounds, visible && child == shown, dividerSize, result );
+		}
+	}
+
+	/**
+	 * Recursively calculates the boundaries of the children of a {@link SplitDockPerspective}, this method
+	 * uses the same algorithm as {@link bibliothek.gui.dock.station.split.Node#updateBounds(double, double, double, double, double, double, boolean)}
+	 * and as {@link bibliothek.gui.dock.station.split.SplitNode#getBounds()}.
+	 * @param path the unique name of the station
+	 * @param indices the index of each child of the station
+	 * @param entry the current node
+	 * @param base the boundaries of the station
+	 * @param x the boundaries of <code>entry</code>, relative to <code>base</code>
+	 * @param y the boundaries of <code>entry</code>, relative to <code>base</code>
+	 * @param width the boundaries of <code>entry</code>
+	 * @param height the boundaries of <code>entry</code>
+	 * @param visible whether the station is visible
+	 * @param dividerSize the size of the gap between the children of <code>entry</code>
+	 * @param result collects the boundaries
+	 */
+	private void layoutSplit( String path, Map<PerspectiveDockable, Integer> indices, SplitDockPerspective.Entry entry, Rectangle base, double x, double y, double width, double height, boolean visible, int dividerSize, HeadlessBounds result ){
+		if( entry == null ){
+			return;
+		}
+		SplitDockPerspective.Leaf leaf = entry.asLeaf();
+		if( leaf != null ){
+			PerspectiveDockable dockable = leaf.getDockable();
+			if( dockable != null ){
+				Integer index = indices.get( dockable );
+				Rectangle bounds = new Rectangle( (int)(x + 0.5), (int)(y + 0.5), (int)(width + 0.5), (int)(height + 0.5) );
+				bounds.x = Math.min( base.width, Math.max( 0, bounds.x ));
+				bounds.y = Math.min( base.height, Math.max( 0, bounds.y ));
+				bounds.width = Math.min( base.width - bounds.x, Math.max( 0, bounds.width ));
+				bounds.height = Math.min( base.height - bounds.y, Math.max( 0, bounds.height ));
+				bounds.x += base.x;
+				bounds.y += base.y;
+				layout( path + "/" + index, dockable, bounds, visible, dividerSize, result );
+			}
+			return;
+		}
+
+		SplitDockPerspective.Node node = entry.asNode();
+		if( node != null ){
+			SplitDockPerspective.Entry left = node.getChildA();
+			SplitDockPerspective.Entry right = node.getChildB();
+			boolean leftVisible = isVisible( left );
+			boolean rightVisible = isVisible( right );
+
+			if( leftVisible && !rightVisible ){
+				layoutSplit( path, indices, left, base, x, y, width, height, visible, dividerSize, result );
+			}
+			else if( !leftVisible && rightVisible ){
+				layoutSplit( path, indices, right, base, x, y, width, height, visible, dividerSize, result );
+			}
+			else if( leftVisible && rightVisible ){
+				double divider = Math.min( 1.0, Math.max( 0.0, node.getDivider() ) );
+				if( node.getOrientation() == Orientation.HORIZONTAL ){
+					double dividerLocation = width * divider;
+					layoutSplit( path, indices, left, base, x, y, dividerLocation - dividerSize / 2.0, height, visible, dividerSize, result );
+					layoutSplit( path, indices, right, base, x + dividerLocation + dividerSize / 2.0, y, width - dividerLocation - dividerSize / 2.0, height, visible, dividerSize, result );
+				}
+				else{
+					double dividerLocation = height * divider;
+					layoutSplit( path, indices, left, base, x, y, width, dividerLocation - dividerSize / 2.0, visible, dividerSize, result );
+					layoutSplit( path, indices, right, base, x, y + dividerLocation + dividerSize / 2.0, width, height - dividerLocation - dividerSize / 2.0, visible, dividerSize, result );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells whether <code>entry</code> or one of its children shows a {@link PerspectiveDockable}.
+	 * @param entry the entry to check, can be <code>null</code>
+	 * @return whether <code>entry</code> is visible
+	 */
+	private boolean isVisible( SplitDockPerspective.Entry entry ){
+		if( entry == null ){
+			return false;
+		}
+		SplitDockPerspective.Leaf leaf = entry.asLeaf();
+		if( leaf != null ){
+			return leaf.getDockable() != null;
+		}
+		SplitDockPerspective.Node node = entry.asNode();
+		if( node != null ){
+			return isVisible( node.getChildA() ) || isVisible( node.getChildB() );
+		}
+		return false;
+	}
+}
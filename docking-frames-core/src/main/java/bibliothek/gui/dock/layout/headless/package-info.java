@@ -0,0 +1,6 @@
+/**
+ * A layout engine that reads layouts and calculates the boundaries of {@link bibliothek.gui.dock.perspective.PerspectiveElement}s 
+ * without the need for a {@link bibliothek.gui.DockController} or for any Swing component. The engine can be used in
+ * environments where no display is available.
+ */
+package bibliothek.gui.dock.layout.headless;
@@ -27,16 +27,24 @@
 package bibliothek.gui.dock.security;
 
 import java.awt.Component;
+import java.awt.Container;
 import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
+import java.util.ArrayList;
 import java.util.EventListener;
+import java.util.List;
 
 import javax.swing.JComponent;
 import javax.swing.JPanel;
@@ -77,7 +85,7 @@ public class GlassedPane extends JPanel{
     /** An arbitrary component */
     private JComponent contentPane = new JPanel();
     /** A component lying over all other components. Catches every MouseEvent */
-    private JComponent glassPane = new GlassPane();
+    private GlassPane glassPane = new GlassPane();
     /** A controller which will be informed about every click of the mouse */
     private DockController controller;
     
@@ -155,6 +163,7 @@ public Dimension getMinimumSize() {
      */
     public void setContentPane( JComponent contentPane ) {
         this.contentPane = contentPane;
+        glassPane.hits.clear();
 
         removeAll();
 
@@ -192,6 +201,8 @@ public class GlassPane extends JPanel implements MouseListener, MouseMotionListe
         private Component over;
         /** the number of pressed buttons */
         private int downCount = 0;
+        /** remembers the component that was found by the last hit test */
+        private HitTestCache hits = new HitTestCache();
 
         /** callback forwarded to the current {@link TooltipStrategy} of {@link GlassedPane#tooltips} */
         private TooltipStrategyCallback callback = new TooltipStrategyCallback(){
@@ -291,7 +302,7 @@ private void send( MouseEvent e, int id ){
         	}
 
             Point mouse = e.getPoint();
-            Component component = SwingUtilities.getDeepestComponentAt( contentPane, mouse.x, mouse.y );
+            Component component = getDeepestComponentAt( mouse.x, mouse.y, id == MouseEvent.MOUSE_MOVED || id == MouseEvent.MOUSE_DRAGGED );
             if( component != null && !component.isEnabled() ){
             	component = null;
             }
@@ -378,6 +389,26 @@ else if( downCount == 0 )
             }
         }
         
+        /**
+         * Searches the deepest {@link Component} of the content pane at <code>x/y</code>. 
+         * @param x the x coordinate in the content pane
+         * @param y the y coordinate in the content pane
+         * @param cached if <code>true</code>, then the result of the last search may be reused if
+         * the point <code>x/y</code> is still within the boundaries of the same component
+         * @return the deepest component, can be <code>null</code>
+         */
+        private Component getDeepestComponentAt( int x, int y, boolean cached ){
+        	if( cached ){
+        		Component component = hits.get( x, y );
+        		if( component != null ){
+        			return component;
+        		}
+        	}
+        	Component component = SwingUtilities.getDeepestComponentAt( contentPane, x, y );
+        	hits.put( component, x, y );
+        	return component;
+        }
+        
         /**
          * Assuming this {@link GlassedPane} wants to forward <code>event</code> to <code>component</code>,
          * this method can decide that <code>component</code> should not receive the event. Instead some
@@ -441,5 +472,175 @@ private void send( MouseWheelEvent e ){
                 component.dispatchEvent( forward );
             }
         }
+    
+        
+        /**
+         * Remembers the leaf {@link Component} that was found by the last hit test, and the area
+         * of the content pane in which this leaf would be found again. The cache is cleared whenever
+         * the leaf or one of its parents is moved, resized, shown, hidden or gets new children, or
+         * when a component that lies above the leaf or one of its parents is moved, resized, shown or hidden.
+         * @author Benjamin Sigg
+         */
+        private class HitTestCache implements ComponentListener, ContainerListener{
+        	/** the last component that was found */
+        	private Component leaf;
+        	/** the area in which <code>leaf</code> would be found, in the coordinate system of the content pane */
+        	private Rectangle bounds;
+        	/** the location of <code>leaf</code> in the coordinate system of the content pane */
+        	private Point origin;
+        	/** all the components to which this cache added itself as listener */
+        	private List<Component> observed = new ArrayList<Component>();
+        	/** the siblings that are painted above the leaf or one of its parents, this cache is a {@link ComponentListener} of them */
+        	private List<Component> siblings = new ArrayList<Component>();
+        	
+        	/**
+        	 * Gets the component that is at <code>x/y</code>, if that is known.
+        	 * @param x the x coordinate in the content pane
+        	 * @param y the y coordinate in the content pane
+        	 * @return the component at <code>x/y</code> or <code>null</code> if not known
+        	 */
+        	public Component get( int x, int y ){
+        		if( leaf == null || !bounds.contains( x, y ) || !leaf.isShowing() ){
+        			return null;
+        		}
+        		int lx = x - origin.x;
+        		int ly = y - origin.y;
+        		if( !leaf.contains( lx, ly )){
+        			return null;
+        		}
+        		if( leaf instanceof Container ){
+        			// a child of the leaf could be hit
+        			Container container = (Container)leaf;
+        			for( int i = 0, n = container.getComponentCount(); i < n; i++ ){
+        				Component child = container.getComponent( i );
+        				if( child.isVisible() && child.contains( lx - child.getX(), ly - child.getY() )){
+        					return null;
+        				}
+        			}
+        		}
+        		return leaf;
+        	}
+        	
+        	/**
+        	 * Stores the result of a hit test.
+        	 * @param leaf the component that was found, can be <code>null</code>
+        	 * @param x the x coordinate where <code>leaf</code> was found
+        	 * @param y the y coordinate where <code>leaf</code> was found
+        	 */
+        	public void put( Component leaf, int x, int y ){
+        		if( leaf == this.leaf && leaf != null ){
+        			return;
+        		}
+        		clear();
+        		if( leaf == null || contentPane == null ){
+        			return;
+        		}
+        		
+        		Rectangle area = new Rectangle( 0, 0, leaf.getWidth(), leaf.getHeight() );
+        		Point location = new Point( 0, 0 );
+        		Component child = leaf;
+        		Container parent = leaf.getParent();
+        		List<Component> above = new ArrayList<Component>();
+        		
+        		while( child != contentPane ){
+        			if( parent == null ){
+        				return;
+        			}
+        			
+        			// if another child lies on top of the path, the area is not well defined. Siblings
+        			// that do not yet cover the path are observed, they may be shown or moved later.
+        			Rectangle childBounds = child.getBounds();
+        			for( int i = 0, n = parent.getComponentCount(); i < n; i++ ){
+        				Component sibling = parent.getComponent( i );
+        				if( sibling == child ){
+        					break;
+        				}
+        				if( sibling.isVisible() && sibling.getBounds().intersects( childBounds )){
+        					return;
+        				}
+        				above.add( sibling );
+        			}
+        			
+        			area.x += child.getX();
+        			area.y += child.getY();
+        			location.x += child.getX();
+        			location.y += child.getY();
+        			area = area.intersection( new Rectangle( 0, 0, parent.getWidth(), parent.getHeight() ) );
+        			
+        			child = parent;
+        			parent = parent.getParent();
+        		}
+        		
+        		if( !area.contains( x, y )){
+        			return;
+        		}
+        		
+        		this.leaf = leaf;
+        		this.bounds = area;
+        		this.origin = location;
+        		
+        		Component observe = leaf;
+        		while( observe != null ){
+        			observed.add( observe );
+        			observe.addComponentListener( this );
+        			if( observe instanceof Container ){
+        				((Container)observe).addContainerListener( this );
+        			}
+        			if( observe == contentPane ){
+        				break;
+        			}
+        			observe = observe.getParent();
+        		}
+        		
+        		for( Component sibling : above ){
+        			siblings.add( sibling );
+        			sibling.addComponentListener( this );
+        		}
+        	}
+        	
+        	/**
+        	 * Forgets the result of the last hit test.
+        	 */
+        	public void clear(){
+        		for( Component component : observed ){
+        			component.removeComponentListener( this );
+        			if( component instanceof Container ){
+        				((Container)component).removeContainerListener( this );
+        			}
+        		}
+        		observed.clear();
+        		for( Component sibling : siblings ){
+        			sibling.removeComponentListener( this );
+        		}
+        		siblings.clear();
+        		leaf = null;
+        		bounds = null;
+        		origin = null;
+        	}
+        	
+        	public void componentResized( ComponentEvent e ){
+        		clear();
+        	}
+        	
+        	public void componentMoved( ComponentEvent e ){
+        		clear();
+        	}
+        	
+        	public void componentShown( ComponentEvent e ){
+        		clear();
+        	}
+        	
+        	public void componentHidden( ComponentEvent e ){
+        		clear();
+        	}
+        	
+        	public void componentAdded( ContainerEvent e ){
+        		clear();
+        	}
+        	
+        	public void componentRemoved( ContainerEvent e ){
+        		clear();
+        	}
+        }
     }
 }
@@ -30,6 +30,7 @@
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Insets;
+import java.awt.Rectangle;
 
 import javax.swing.JComponent;
 import javax.swing.JLayeredPane;
@@ -162,6 +163,23 @@ protected void paintOverlay( Graphics g ){
         // do nothing
     }
     
+    /**
+     * Repaints a part of the overlay. Only the area <code>region</code> and the children of the base
+     * pane lying below <code>region</code> are painted again, which is much cheaper than calling
+     * {@link #repaint()} if the overlay shows only a small marker.
+     * @param region the area to repaint, in the same coordinate system as the {@link Graphics}
+     * that is given to {@link #paintOverlay(Graphics)}. If <code>null</code>, then the whole overlay
+     * is repainted
+     */
+    public void repaintOverlay( Rectangle region ){
+    	if( region == null ){
+    		overlay.repaint();
+    	}
+    	else{
+    		overlay.repaint( region.x, region.y, region.width, region.height );
+    	}
+    }
+    
     @Override
     public Dimension getMinimumSize(){
     	if( isMinimumSizeSet() ){
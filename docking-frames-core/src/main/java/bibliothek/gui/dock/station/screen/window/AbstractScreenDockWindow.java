@@ -377,12 +377,17 @@ public Rectangle getWindowBounds() {
 
     public void setPaintCombining( CombinerTarget target ){
         this.combination = target; 
+        // Unlike the insertion markers of a SplitDockStation, the combination is painted over the
+        // entire window and a CombinerTarget does not tell which area it covers. Repainting only
+        // a dirty region would therefore not save any work, the whole window has to be painted.
         window.repaint();
     }
     
     public void setPaintRemoval( boolean removal ){
-    	this.removal = removal;
-    	window.repaint();
+    	if( this.removal != removal ){
+	    	this.removal = removal;
+	    	window.repaint();
+    	}
     }
 
     public void setVisible( boolean visible ) {
@@ -28,6 +28,8 @@
 import java.awt.Dialog;
 import java.awt.Frame;
 import java.awt.Window;
+import java.util.Iterator;
+import java.util.LinkedList;
 
 import javax.swing.Icon;
 import javax.swing.JDialog;
@@ -40,7 +42,11 @@
 import bibliothek.gui.dock.title.DockTitle;
 
 /**
- * A default implementation of {@link ScreenDockWindowFactory}.
+ * A default implementation of {@link ScreenDockWindowFactory}. This factory can keep a pool of
+ * windows which were {@link ScreenDockWindow#destroy() destroyed} by their station: these windows
+ * are only hidden and reused later for the same station and an equal {@link WindowConfiguration}, 
+ * saving the costs of creating and disposing native windows. Pooling is disabled by default, 
+ * see {@link #setPoolSize(int)}.
  * @author Benjamin Sigg
  */
 public class DefaultScreenDockWindowFactory implements ScreenDockWindowFactory {
@@ -67,6 +73,18 @@ public class DefaultScreenDockWindowFactory implements ScreenDockWindowFactory {
     /** text for the title */
     private String titleText = null;
     
+    /** the maximum number of idle windows that are kept in {@link #pool} */
+    private int poolSize = 0;
+    
+    /** idle windows that can be reused, the oldest window is the first entry */
+    private LinkedList<Pooled> pool = new LinkedList<Pooled>();
+    
+    /** how many windows were taken from {@link #pool} */
+    private int poolHits = 0;
+    
+    /** how many windows had to be created while pooling was enabled */
+    private int poolMisses = 0;
+    
     /**
      * Sets the kind of window that this factory will create
      * @param kind the kind of window
@@ -75,7 +93,10 @@ public void setKind( Kind kind ) {
         if( kind == null )
             kind = Kind.DIALOG;
         
-        this.kind = kind;
+        if( this.kind != kind ){
+        	this.kind = kind;
+        	clearPool();
+        }
     }
     
     /**
@@ -93,7 +114,10 @@ public Kind getKind() {
      * <code>false</code> otherwise
      */
     public void setUndecorated( boolean undecorated ) {
-        this.undecorated = undecorated;
+    	if( this.undecorated != undecorated ){
+    		this.undecorated = undecorated;
+    		clearPool();
+    	}
     }
     
     /**
@@ -155,6 +179,109 @@ public String getTitleText() {
         return titleText;
     }
     
+    /**
+     * Sets the maximum number of idle windows this factory keeps for later use. Idle windows
+     * are hidden but not disposed, hence they still use native resources. Note that idle frames, or
+     * dialogs without owner, may prevent the application from shutting down, clients should call 
+     * {@link #clearPool()} before exiting.
+     * @param poolSize the maximum number of idle windows, <code>0</code> disables pooling
+     */
+    public void setPoolSize( int poolSize ){
+    	if( poolSize < 0 ){
+    		throw new IllegalArgumentException( "poolSize must be at least 0: " + poolSize );
+    	}
+    	this.poolSize = poolSize;
+    	trimPool( poolSize );
+    }
+    
+    /**
+     * Gets the maximum number of idle windows this factory keeps for later use.
+     * @return the maximum number of idle windows
+     * @see #setPoolSize(int)
+     */
+    public int getPoolSize(){
+    	return poolSize;
+    }
+    
+    /**
+     * Gets the number of idle windows that are currently stored in the pool.
+     * @return the number of idle windows
+     */
+    public int getPooledWindowCount(){
+    	return pool.size();
+    }
+    
+    /**
+     * Gets how many times a window was taken from the pool instead of creating a new window.
+     * @return the number of pool hits
+     */
+    public int getPoolHits(){
+    	return poolHits;
+    }
+    
+    /**
+     * Gets how many times a new window had to be created while pooling was enabled.
+     * @return the number of pool misses
+     */
+    public int getPoolMisses(){
+    	return poolMisses;
+    }
+    
+    /**
+     * Disposes all the idle windows of the pool.
+     */
+    public void clearPool(){
+    	trimPool( 0 );
+    }
+    
+    private void trimPool( int size ){
+    	while( pool.size() > size ){
+    		pool.removeFirst().dispose();
+    	}
+    }
+    
+    /**
+     * Searches an idle window which can be shown by <code>station</code>.
+     * @param station the station which is going to show the window
+     * @param configuration the configuration the window must have
+     * @return the window or <code>null</code> if the pool does not contain a matching window
+     */
+    private AbstractScreenDockWindow acquire( ScreenDockStation station, WindowConfiguration configuration ){
+    	Window owner = kind == Kind.FRAME ? null : station.getOwner();
+    	Iterator<Pooled> iterator = pool.iterator();
+    	while( iterator.hasNext() ){
+    		Pooled next = iterator.next();
+    		if( next.getStation() == station && next.getOwner() == owner && next.getConfiguration().equals( configuration )){
+    			iterator.remove();
+    			next.setPooled( false );
+    			return next.asWindow();
+    		}
+    	}
+    	return null;
+    }
+    
+    /**
+     * Puts <code>window</code> into the pool, if possible.
+     * @param window a window that is no longer used
+     * @return <code>true</code> if <code>window</code> was stored in the pool, <code>false</code>
+     * if it has to be disposed
+     */
+    private boolean release( Pooled window ){
+    	if( poolSize == 0 || window.getKind() != kind || window.isUndecorated() != undecorated ){
+    		return false;
+    	}
+    	AbstractScreenDockWindow screenWindow = window.asWindow();
+    	if( screenWindow.getDockable() != null || screenWindow.getNormalBounds() != null ){
+    		return false;
+    	}
+    	
+    	screenWindow.setVisible( false );
+    	window.setPooled( true );
+    	pool.addLast( window );
+    	trimPool( poolSize );
+    	return true;
+    }
+    
     
     public ScreenDockWindow updateWindow( ScreenDockWindow window, WindowConfiguration configuration, ScreenDockStation station ){
     	return createWindow( station, configuration );
@@ -162,19 +289,31 @@ public ScreenDockWindow updateWindow( ScreenDockWindow window, WindowConfigurati
     
     
     public ScreenDockWindow createWindow( ScreenDockStation station, WindowConfiguration configuration ){
-        AbstractScreenDockWindow window;
+        AbstractScreenDockWindow window = null;
         
-        if( kind == Kind.FRAME ){
-            window = new ScreenDockFrame( station, configuration, undecorated );
+        if( poolSize > 0 ){
+        	window = acquire( station, configuration );
+        	if( window == null ){
+        		poolMisses++;
+        	}
+        	else{
+        		poolHits++;
+        	}
         }
-        else{
-            Window owner = station.getOwner();
-            if( owner instanceof Frame )
-                window = new ScreenDockDialog( station, configuration, (Frame)owner, undecorated );
-            else if( owner instanceof Dialog )
-                window = new ScreenDockDialog( station, configuration, (Dialog)owner, undecorated );
-            else
-                window = new ScreenDockDialog( station, configuration, undecorated );
+        
+        if( window == null ){
+	        if( kind == Kind.FRAME ){
+	            window = new PooledFrame( station, configuration, undecorated );
+	        }
+	        else{
+	            Window owner = station.getOwner();
+	            if( owner instanceof Frame )
+	                window = new PooledDialog( station, configuration, (Frame)owner, undecorated );
+	            else if( owner instanceof Dialog )
+	                window = new PooledDialog( station, configuration, (Dialog)owner, undecorated );
+	            else
+	                window = new PooledDialog( station, configuration, undecorated );
+	        }
         }
         
         window.setShowTitle( showDockTitle );
@@ -182,4 +321,165 @@ else if( owner instanceof Dialog )
         window.setTitleText( titleText );
         return window;
     }
+    
+    /**
+     * A window that can be stored in the pool of a {@link DefaultScreenDockWindowFactory}.
+     * @author Benjamin Sigg
+     */
+    private interface Pooled{
+    	/**
+    	 * Gets the station for which this window was created.
+    	 * @return the station
+    	 */
+    	public ScreenDockStation getStation();
+    	
+    	/**
+    	 * Gets the configuration which was used to create this window.
+    	 * @return the configuration
+    	 */
+    	public WindowConfiguration getConfiguration();
+    	
+    	/**
+    	 * Gets the owner that was used to create this window.
+    	 * @return the owner, can be <code>null</code>
+    	 */
+    	public Window getOwner();
+    	
+    	/**
+    	 * Gets the kind of this window.
+    	 * @return the kind
+    	 */
+    	public Kind getKind();
+    	
+    	/**
+    	 * Tells whether this window was created without decorations.
+    	 * @return whether this window is undecorated
+    	 */
+    	public boolean isUndecorated();
+    	
+    	/**
+    	 * Tells this window whether it is currently stored in the pool.
+    	 * @param pooled whether this window is idle
+    	 */
+    	public void setPooled( boolean pooled );
+    	
+    	/**
+    	 * Gets this window.
+    	 * @return <code>this</code>
+    	 */
+    	public AbstractScreenDockWindow asWindow();
+    	
+    	/**
+    	 * Releases all resources of this window.
+    	 */
+    	public void dispose();
+    }
+    
+    /**
+     * A {@link ScreenDockDialog} which is put into the pool instead of being disposed.
+     * @author Benjamin Sigg
+     */
+    private class PooledDialog extends ScreenDockDialog implements Pooled{
+    	private Window owner;
+    	private boolean undecorated;
+    	private boolean pooled = false;
+    	
+    	public PooledDialog( ScreenDockStation station, WindowConfiguration configuration, boolean undecorated ){
+    		super( station, configuration, undecorated );
+    		init( null, undecorated );
+    	}
+    	
+    	public PooledDialog( ScreenDockStation station, WindowConfiguration configuration, Frame owner, boolean undecorated ){
+    		super( station, configuration, owner, undecorated );
+    		init( owner, undecorated );
+    	}
+    	
+    	public PooledDialog( ScreenDockStation station, WindowConfiguration configuration, Dialog owner, boolean undecorated ){
+    		super( station, configuration, owner, undecorated );
+    		init( owner, undecorated );
+    	}
+    	
+    	private void init( Window owner, boolean undecorated ){
+    		this.owner = owner;
+    		this.undecorated = undecorated;
+    	}
+    	
+    	public Window getOwner(){
+    		return owner;
+    	}
+    	
+    	public Kind getKind(){
+    		return Kind.DIALOG;
+    	}
+    	
+    	public boolean isUndecorated(){
+    		return undecorated;
+    	}
+    	
+    	public void setPooled( boolean pooled ){
+    		this.pooled = pooled;
+    	}
+    	
+    	public AbstractScreenDockWindow asWindow(){
+    		return this;
+    	}
+    	
+    	@Override
+    	public void destroy(){
+    		if( !pooled && !release( this )){
+    			super.destroy();
+    		}
+    	}
+    	
+    	public void dispose(){
+    		pooled = false;
+    		super.destroy();
+    	}
+    }
+    
+    /**
+     * A {@link ScreenDockFrame} which is put into the pool instead of being disposed.
+     * @author Benjamin Sigg
+     */
+    private class PooledFrame extends ScreenDockFrame implements Pooled{
+    	private boolean undecorated;
+    	private boolean pooled = false;
+    	
+    	public PooledFrame( ScreenDockStation station, WindowConfiguration configuration, boolean undecorated ){
+    		super( station, configuration, undecorated );
+    		this.undecorated = undecorated;
+    	}
+    	
+    	public Window getOwner(){
+    		return null;
+    	}
+    	
+    	public Kind getKind(){
+    		return Kind.FRAME;
+    	}
+    	
+    	public boolean isUndecorated(){
+    		return undecorated;
+    	}
+    	
+    	public void setPooled( boolean pooled ){
+    		this.pooled = pooled;
+    	}
+    	
+    	public AbstractScreenDockWindow asWindow(){
+    		return this;
+    	}
+    	
+    	@Override
+    	public void destroy(){
+    		if( !pooled && !release( this )){
+    			super.destroy();
+    		}
+    	}
+    	
+    	public void dispose(){
+    		pooled = false;
+    		super.destroy();
+    	}
+    }
 }
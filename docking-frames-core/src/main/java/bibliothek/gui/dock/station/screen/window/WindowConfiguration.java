@@ -183,4 +183,47 @@ public void setBorderFactory( ScreenDockWindowBorderFactory borderFactory ){
 	public ScreenDockWindowBorderFactory getBorderFactory(){
 		return borderFactory;
 	}
+	
+	@Override
+	public int hashCode(){
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + (allowDragAndDropOnTitle ? 1231 : 1237);
+		result = prime * result + ((borderFactory == null) ? 0 : borderFactory.hashCode());
+		result = prime * result + (moveOnBorder ? 1231 : 1237);
+		result = prime * result + (moveOnTitleGrab ? 1231 : 1237);
+		result = prime * result + (resetOnDropable ? 1231 : 1237);
+		result = prime * result + (resizeable ? 1231 : 1237);
+		result = prime * result + (transparent ? 1231 : 1237);
+		return result;
+	}
+	
+	@Override
+	public boolean equals( Object obj ){
+		if( this == obj )
+			return true;
+		if( obj == null )
+			return false;
+		if( getClass() != obj.getClass() )
+			return false;
+		WindowConfiguration other = (WindowConfiguration) obj;
+		if( allowDragAndDropOnTitle != other.allowDragAndDropOnTitle )
+			return false;
+		if( borderFactory == null ) {
+			if( other.borderFactory != null )
+				return false;
+		} else if( !borderFactory.equals( other.borderFactory ) )
+			return false;
+		if( moveOnBorder != other.moveOnBorder )
+			return false;
+		if( moveOnTitleGrab != other.moveOnTitleGrab )
+			return false;
+		if( resetOnDropable != other.resetOnDropable )
+			return false;
+		if( resizeable != other.resizeable )
+			return false;
+		if( transparent != other.transparent )
+			return false;
+		return true;
+	}
 }
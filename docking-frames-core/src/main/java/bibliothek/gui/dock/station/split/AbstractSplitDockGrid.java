@@ -26,6 +26,7 @@
 package bibliothek.gui.dock.station.split;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +45,10 @@
  * layout the components as they are in the grid. The algorithms used in this
  * class can handle overlapping elements and holes, however results are much better
  * if there are no disturbances in the grid.<br>
+ * Grids whose cells can be divided by straight cuts, like the grids created by most applications, are
+ * transformed in <code>O(n log n + n d)</code> time, where <code>d</code> is the depth of the resulting tree. For
+ * balanced grids this is <code>O(n log n)</code>, for degenerated grids like a staircase it is <code>O(n^2)</code>.
+ * Even grids with hundreds of cells can be used.<br>
  * There is also a possibility to tell the tree, where dividers should be made. 
  * @author Benjamin Sigg
  * @param <D> the kind of object that represents a {@link Dockable}
@@ -52,6 +57,8 @@
 public abstract class AbstractSplitDockGrid<D> {
 	/** The Dockables known to this grid */
 	private List<Node<D>> nodes = new ArrayList<Node<D>>();
+	/** Fast access to the {@link #nodes} by their location and size */
+	private Map<Cell, Node<D>> cells = new HashMap<Cell, Node<D>>();
 	/** The dividing lines which should appear */
 	private List<Line> lines = new ArrayList<Line>();
 	
@@ -211,29 +218,29 @@ public void addPlaceholders( double x, double y, double width, double height, Pa
 	 * @throws IllegalArgumentException if there is no node at <code>x/y/width/height</code>
 	 */
 	public void setPlaceholderMap( double x, double y, double width, double height, PlaceholderMap map ){
-		for( Node<D> node : nodes ){
-            if( node.x == x && node.y == y && node.width == width && node.height == height ){
-                node.placeholderMap = map;
-                return;
-            }
-        } 
+		Node<D> node = cells.get( new Cell( x, y, width, height ) );
+		if( node != null ){
+			node.placeholderMap = map;
+			return;
+		}
         
         throw new IllegalArgumentException( "there are no dockables registered with the given coordinates" );
 	}
 	
 	private Node<D> nodeAt( double x, double y, double width, double height ){
-		for( Node<D> existingNode : nodes ){
-            if( existingNode.x == x && existingNode.y == y &&  existingNode.width == width && existingNode.height == height){
-                return existingNode;
-            }
-        } 
+		Cell cell = new Cell( x, y, width, height );
+		Node<D> node = cells.get( cell );
+		if( node != null ){
+			return node;
+		}
         
-        Node<D> node = new Node<D>();
+        node = new Node<D>();
         node.x = x;
         node.y = y;
         node.width = width;
         node.height = height;
         nodes.add( node );
+        cells.put( cell, node );
 		return node;
 	}
 	
@@ -262,22 +269,19 @@ public void setSelected( double x, double y, double width, double height, D dock
         if( height < 0 )
             throw new IllegalArgumentException( "height < 0" );
 
-        for( Node<D> node : nodes ){
-            if( node.x == x && 
-                    node.y == y && 
-                    node.width == width && 
-                    node.height == height){
-                
-            	for( D check : node.dockables ){
-            		if( check == dockable ){
-            			node.selected = dockable;
-            			return;
-            		}
-            	}
-            	
-            	throw new IllegalArgumentException( "dockable is not in the described stack" );
-            }
-        } 
+        Node<D> node = cells.get( new Cell( x, y, width, height ) );
+        if( node != null ){
+        	if( node.dockables != null ){
+	        	for( D check : node.dockables ){
+	        		if( check == dockable ){
+	        			node.selected = dockable;
+	        			return;
+	        		}
+	        	}
+        	}
+        	
+        	throw new IllegalArgumentException( "dockable is not in the described stack" );
+        }
         
         throw new IllegalArgumentException( "there are no dockables registered with the given coordinates" );
 	}
@@ -341,15 +345,27 @@ protected List<Node<D>> getNodes(){
 	}
 		
 	/**
-	 * Transforms the grid into a tree and returns the root.
+	 * Transforms the grid into a tree and returns the root. The nodes are recursively divided by
+	 * guillotine cuts, straight lines that separate the nodes into two groups without crossing
+	 * any node. Only groups that cannot be divided this way, e.g. because some nodes overlap, are
+	 * handed over to {@link #merge(List)}.
 	 * @return the root, can be <code>null</code>
 	 */
 	protected Node<D> tree(){
-		List<Node<D>> nodes = new ArrayList<Node<D>>( this.nodes );
-		
 		if( nodes.isEmpty() )
 			return null;
 		
+		return new Sweep().build();
+	}
+	
+	/**
+	 * Transforms <code>nodes</code> into a tree by repeatedly combining the two nodes whose
+	 * combination has the smallest {@link #diff(Node, Node) difference}. This algorithm handles
+	 * any kind of grid, but needs <code>O(n^3)</code> time.
+	 * @param nodes the nodes to combine, not empty, this list will be modified
+	 * @return the root of the new tree
+	 */
+	protected Node<D> merge( List<Node<D>> nodes ){
 		while( nodes.size() > 1 ){
 			int size = nodes.size();
 			
@@ -394,20 +410,43 @@ protected Node<D> combine( Node<D> a, Node<D> b ){
 		double dmx = (max - mbx) * h;
 		double dmy = (may - mby) * w;
 		
-		Node<D> node = new Node<D>();
-		
-	
 		if( Math.abs( dmx ) > Math.abs( dmy )){
-			node.horizontal = true;
 			if( dmx > 0 ){
-				node.childA = b;
-				node.childB = a;
+				return combine( b, a, true );
 			}
 			else{
-				node.childA = a;
-				node.childB = b;
+				return combine( a, b, true );
 			}
-			
+		}
+		else{
+			if( dmy > 0 ){
+				return combine( b, a, false );
+			}
+			else{
+				return combine( a, b, false );
+			}
+		}
+	}
+	
+	/**
+	 * Creates a combination of <code>childA</code> and <code>childB</code>.
+	 * @param childA the left or top node
+	 * @param childB the right or bottom node
+	 * @param horizontal whether the children are laid out horizontally or vertically
+	 * @return a node which has <code>childA</code> and <code>childB</code> as children
+	 */
+	protected Node<D> combine( Node<D> childA, Node<D> childB, boolean horizontal ){
+		double x = Math.min( childA.x, childB.x );
+		double y = Math.min( childA.y, childB.y );
+		double w = Math.max( childA.x + childA.width, childB.x + childB.width ) - x;
+		double h = Math.max( childA.y + childA.height, childB.y + childB.height ) - y;
+		
+		Node<D> node = new Node<D>();
+		node.childA = childA;
+		node.childB = childB;
+		node.horizontal = horizontal;
+	
+		if( horizontal ){
 			double split = ((node.childA.x + node.childA.width + node.childB.x) / 2.0 - x ) / w;
 			Line line = bestFittingLine( x, y, w, h, false, split );
 			if( line == null )
@@ -416,16 +455,6 @@ protected Node<D> combine( Node<D> a, Node<D> b ){
 				node.divider = (line.alpha - x) / w;
 		}
 		else{
-			node.horizontal = false;
-			if( dmy > 0 ){
-				node.childA = b;
-				node.childB = a;
-			}
-			else{
-				node.childA = a;
-				node.childB = b;
-			}
-			
 			double split = ((node.childA.y + node.childA.height + node.childB.y ) / 2.0 - y ) / h;
 			Line line = bestFittingLine( x, y, w, h, true, split);
 			if( line == null )
@@ -563,6 +592,298 @@ protected double penalty( double x, double y, double w, double h, Line line ){
 		return diff / (max - min);
 	}
 	
+	/**
+	 * Searches guillotine cuts in the {@link AbstractSplitDockGrid#nodes nodes} of the enclosing grid. The bounds
+	 * of the nodes are copied into primitive arrays, and the nodes themselves are only referenced through their
+	 * index. The nodes are sorted once along each axis, each cut splits these orders into two stable partitions,
+	 * hence finding a cut requires only a single sweep over the affected nodes.
+	 * @author Benjamin Sigg
+	 */
+	private class Sweep{
+		/** the left end of each node */
+		private final double[] minX;
+		/** the top end of each node */
+		private final double[] minY;
+		/** the right end of each node */
+		private final double[] maxX;
+		/** the bottom end of each node */
+		private final double[] maxY;
+		
+		/** the indices of the nodes ordered by {@link #minX}, each call to {@link #build(int, int)} works on one range of this array */
+		private final int[] orderX;
+		/** the indices of the nodes ordered by {@link #minY}, the ranges contain the same nodes as the ranges of {@link #orderX} */
+		private final int[] orderY;
+		/** temporary memory used while sorting and partitioning */
+		private final int[] buffer;
+		/** temporary flags telling which nodes are in the first part of a cut */
+		private final boolean[] first;
+		
+		/**
+		 * Creates a new sweep copying the bounds of all the nodes of the grid.
+		 */
+		public Sweep(){
+			int count = nodes.size();
+			minX = new double[ count ];
+			minY = new double[ count ];
+			maxX = new double[ count ];
+			maxY = new double[ count ];
+			orderX = new int[ count ];
+			orderY = new int[ count ];
+			buffer = new int[ count ];
+			first = new boolean[ count ];
+			
+			for( int i = 0; i < count; i++ ){
+				Node<D> node = nodes.get( i );
+				minX[i] = node.x;
+				minY[i] = node.y;
+				maxX[i] = node.x + node.width;
+				maxY[i] = node.y + node.height;
+				orderX[i] = i;
+				orderY[i] = i;
+			}
+			
+			sort( orderX, 0, count, minX );
+			sort( orderY, 0, count, minY );
+		}
+		
+		/**
+		 * Builds the tree containing all the nodes.
+		 * @return the root of the tree
+		 */
+		public Node<D> build(){
+			return build( 0, orderX.length );
+		}
+		
+		/**
+		 * Builds a tree containing the nodes whose indices are in the range <code>from</code> to <code>to</code>
+		 * of {@link #orderX} and {@link #orderY}.
+		 * @param from the first index in the orders
+		 * @param to the first index in the orders that is not included
+		 * @return the root of the new tree
+		 */
+		private Node<D> build( int from, int to ){
+			if( to - from == 1 ){
+				return nodes.get( orderX[from] );
+			}
+			
+			double boxMinX = minX[ orderX[from] ];
+			double boxMinY = minY[ orderY[from] ];
+			double boxMaxX = Double.NEGATIVE_INFINITY, boxMaxY = Double.NEGATIVE_INFINITY;
+			for( int i = from; i < to; i++ ){
+				int index = orderX[i];
+				boxMaxX = Math.max( boxMaxX, maxX[index] );
+				boxMaxY = Math.max( boxMaxY, maxY[index] );
+			}
+			
+			double[] score = new double[1];
+			
+			int cutX = cut( orderX, from, to, minX, maxX, boxMinX, boxMaxX, boxMinY, boxMaxY, false, score );
+			double scoreX = score[0];
+			
+			int cutY = cut( orderY, from, to, minY, maxY, boxMinY, boxMaxY, boxMinX, boxMaxX, true, score );
+			double scoreY = score[0];
+			
+			if( cutX != -1 && (cutY == -1 || scoreX <= scoreY )){
+				partition( orderY, orderX, from, cutX, to );
+				Node<D> left = build( from, cutX );
+				Node<D> right = build( cutX, to );
+				return combine( left, right, true );
+			}
+			if( cutY != -1 ){
+				partition( orderX, orderY, from, cutY, to );
+				Node<D> top = build( from, cutY );
+				Node<D> bottom = build( cutY, to );
+				return combine( top, bottom, false );
+			}
+			
+			List<Node<D>> group = new ArrayList<Node<D>>( to - from );
+			for( int i = from; i < to; i++ ){
+				group.add( nodes.get( orderX[i] ) );
+			}
+			return merge( group );
+		}
+		
+		/**
+		 * Searches the best cut along one axis.
+		 * @param order the nodes sorted by <code>min</code>
+		 * @param from the first index in <code>order</code>
+		 * @param to the first index in <code>order</code> that is not included
+		 * @param min the start of the nodes along the axis
+		 * @param max the end of the nodes along the axis
+		 * @param boxMin the start of all the nodes together
+		 * @param boxMax the end of all the nodes together
+		 * @param betaMin the start of all the nodes along the other axis
+		 * @param betaMax the end of all the nodes along the other axis
+		 * @param horizontal whether the cut is a horizontal line
+		 * @param score will be filled with the score of the result, smaller is better
+		 * @return the index in <code>order</code> of the first node behind the cut, or -1 if there is no cut
+		 */
+		private int cut( int[] order, int from, int to, double[] min, double[] max, double boxMin, double boxMax, double betaMin, double betaMax, boolean horizontal, double[] score ){
+			int best = -1;
+			double bestScore = Double.MAX_VALUE;
+			double reach = max[ order[from] ];
+			double length = boxMax - boxMin;
+			// rounding errors may let neighboring nodes overlap by a tiny amount
+			double epsilon = length * 1E-9;
+			
+			for( int i = from+1; i < to; i++ ){
+				int previous = order[i-1];
+				int next = order[i];
+				reach = Math.max( reach, max[ previous ] );
+				
+				if( reach <= min[ next ] + epsilon && min[ next ] - min[ previous ] > epsilon ){
+					double split = ( (reach + min[ next ]) / 2 - boxMin ) / length;
+					double value = Math.abs( split - 0.5 );
+					if( hasLine( horizontal, reach, min[ next ], betaMin, betaMax )){
+						value -= 1;
+					}
+					if( value < bestScore ){
+						bestScore = value;
+						best = i;
+					}
+				}
+			}
+			
+			score[0] = bestScore;
+			return best;
+		}
+		
+		/**
+		 * Reorders the range <code>from</code> to <code>to</code> of <code>order</code> such that the nodes
+		 * that are in the range <code>from</code> to <code>cut</code> of <code>reference</code> come first. The
+		 * relative order of the nodes does not change.
+		 * @param order the order to modify
+		 * @param reference the order in which the cut was found
+		 * @param from the first index of the range
+		 * @param cut the first index of the second part
+		 * @param to the first index that is not in the range
+		 */
+		private void partition( int[] order, int[] reference, int from, int cut, int to ){
+			for( int i = from; i < cut; i++ ){
+				first[ reference[i] ] = true;
+			}
+			
+			int target = from;
+			int rest = 0;
+			for( int i = from; i < to; i++ ){
+				int index = order[i];
+				if( first[ index ] ){
+					order[ target++ ] = index;
+				}
+				else{
+					buffer[ rest++ ] = index;
+				}
+			}
+			System.arraycopy( buffer, 0, order, target, rest );
+			
+			for( int i = from; i < cut; i++ ){
+				first[ reference[i] ] = false;
+			}
+		}
+		
+		/**
+		 * Tells whether one of the dividing {@link AbstractSplitDockGrid#lines lines} is inside a gap.
+		 * @param horizontal the orientation of the line
+		 * @param alphaMin the start of the gap
+		 * @param alphaMax the end of the gap
+		 * @param betaMin the start of the area the line has to touch
+		 * @param betaMax the end of the area the line has to touch
+		 * @return whether there is a line in the gap
+		 */
+		private boolean hasLine( boolean horizontal, double alphaMin, double alphaMax, double betaMin, double betaMax ){
+			for( Line line : lines ){
+				if( line.horizontal == horizontal && line.alpha >= alphaMin && line.alpha <= alphaMax ){
+					if( line.betaMin < betaMax && line.betaMax > betaMin ){
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * Sorts the range <code>from</code> to <code>to</code> of <code>order</code> by the values in <code>key</code>.
+		 * This is a stable merge sort.
+		 * @param order the indices to sort
+		 * @param from the first index to sort
+		 * @param to the first index that is not sorted
+		 * @param key the values to compare
+		 */
+		private void sort( int[] order, int from, int to, double[] key ){
+			if( to - from <= 12 ){
+				for( int i = from+1; i < to; i++ ){
+					int index = order[i];
+					double value = key[ index ];
+					int j = i-1;
+					while( j >= from && key[ order[j] ] > value ){
+						order[j+1] = order[j];
+						j--;
+					}
+					order[j+1] = index;
+				}
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			sort( order, from, middle, key );
+			sort( order, middle, to, key );
+			if( key[ order[middle-1] ] <= key[ order[middle] ] ){
+				return;
+			}
+			
+			System.arraycopy( order, from, buffer, from, middle - from );
+			int a = from, b = middle, target = from;
+			while( a < middle && b < to ){
+				if( key[ order[b] ] < key[ buffer[a] ] ){
+					order[target++] = order[b++];
+				}
+				else{
+					order[target++] = buffer[a++];
+				}
+			}
+			while( a < middle ){
+				order[target++] = buffer[a++];
+			}
+		}
+	}
+	
+	/**
+	 * The location and size of a {@link Node}, used as key to find existing nodes.
+	 * @author Benjamin Sigg
+	 */
+	private static class Cell{
+		private final double x;
+		private final double y;
+		private final double width;
+		private final double height;
+		
+		public Cell( double x, double y, double width, double height ){
+			// adding 0.0 ensures that -0.0 and 0.0 are the same value
+			this.x = x + 0.0;
+			this.y = y + 0.0;
+			this.width = width + 0.0;
+			this.height = height + 0.0;
+		}
+		
+		@Override
+		public int hashCode(){
+			long bits = Double.doubleToLongBits( x );
+			bits = 31 * bits + Double.doubleToLongBits( y );
+			bits = 31 * bits + Double.doubleToLongBits( width );
+			bits = 31 * bits + Double.doubleToLongBits( height );
+			return (int)(bits ^ (bits >>> 32));
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			if( !(obj instanceof Cell) ){
+				return false;
+			}
+			Cell other = (Cell)obj;
+			return x == other.x && y == other.y && width == other.width && height == other.height;
+		}
+	}
+	
 	/**
 	 * Represents a dividing line in the grid.
 	 * @author Benjamin Sigg
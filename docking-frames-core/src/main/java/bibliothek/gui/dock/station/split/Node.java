@@ -148,8 +148,7 @@ public void setLeft( SplitNode left ){
         	ensureIdUniqueAsync();
         }
         
-        getAccess().getOwner().revalidate();
-        getAccess().getOwner().repaint();
+        getAccess().getOwner().revalidateLayout( true );
         getAccess().repositioned( this );
     }
     
@@ -185,8 +184,7 @@ public void setRight( SplitNode right ){
         	ensureIdUniqueAsync();
         }
         
-        getAccess().getOwner().revalidate();
-        getAccess().getOwner().repaint();
+        getAccess().getOwner().revalidateLayout( true );
         getAccess().repositioned( this );
     }
 
@@ -244,8 +242,11 @@ public Orientation getOrientation() {
     public void setOrientation( Orientation orientation ) {
         if( orientation == null )
             throw new NullPointerException( "orientation must not be null" );
-        this.orientation = orientation;
-        getAccess().getOwner().revalidate();
+        if( this.orientation != orientation ){
+        	this.orientation = orientation;
+        	treeChanged();
+        }
+        getAccess().getOwner().revalidateLayout( false );
     }
     
     @Override
@@ -305,8 +306,7 @@ else if( right != null ){
     public void setDivider( double divider ){
     	if( this.divider != divider ){
 	        this.divider = divider;
-	        getAccess().getOwner().revalidate();
-	        getAccess().getOwner().repaint();
+	        getAccess().getOwner().revalidateLayout( true );
 	        getAccess().repositioned( this );
     	}
     }
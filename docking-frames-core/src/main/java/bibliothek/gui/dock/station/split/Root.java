@@ -74,6 +74,7 @@ public Root( SplitDockAccess access, long id ){
     @Override
     protected void treeChanged(){
 	    treeChanged = true;
+	    super.treeChanged();
     }
     
     /**
@@ -108,8 +109,7 @@ public void setChild( SplitNode child ){
 	        	ensureIdUniqueAsync();
 	        }
 	        
-	        getAccess().getOwner().revalidate();
-	        getAccess().getOwner().repaint();
+	        getAccess().getOwner().revalidateLayout( true );
 	        
 	        getAccess().repositioned( this );
     	}
@@ -71,6 +71,9 @@
     /** whether {@link #ensureIdUnique()} was invoked since the last call of {@link #ensureIdUniqueAsync()} */
     private boolean idChecked = true;
     
+    /** counts how often the subtree of this node changed, see {@link #getTreeRevision()} */
+    private long treeRevision = 0;
+    
     /**
      * Creates a new SplitNode.
      * @param access the access to the owner of this node. Must not be <code>null</code>
@@ -90,11 +93,22 @@ protected SplitNode( SplitDockAccess access, long id ){
      * Called if a child of this node changed.
      */
     protected void treeChanged(){
+    	treeRevision++;
     	if( parent != null ){
     		parent.treeChanged();
     	}
     }
     
+    /**
+     * Gets a number that changes every time when the subtree of this node changes, e.g. because a child
+     * was added or removed. Clients can use this number to find out whether some information they
+     * collected about this subtree is still valid.
+     * @return the current revision of the subtree of this node
+     */
+    public long getTreeRevision(){
+    	return treeRevision;
+    }
+    
     /**
      * Gets the station this node belongs to.
      * @return the station
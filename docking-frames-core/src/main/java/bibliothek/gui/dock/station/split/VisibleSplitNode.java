@@ -49,7 +49,7 @@ protected VisibleSplitNode( SplitDockAccess access, long id ){
     @Override
     public void updateBounds( double x, double y, double width,  double height, double factorW, double factorH, boolean updateComponentBounds ){
         super.updateBounds( x, y, width, height, factorW, factorH, updateComponentBounds );
-        getAccess().getOwner().revalidate();
+        getAccess().getOwner().revalidateLayout( false );
         currentBounds = getBounds();
     }
     
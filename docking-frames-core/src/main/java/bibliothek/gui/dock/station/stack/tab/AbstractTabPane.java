@@ -27,6 +27,8 @@
 
 import java.awt.Dimension;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +63,17 @@ protected void valueChanged( TabLayoutManager oldValue, TabLayoutManager newValu
 			}
 		};
 	
+	/** the minimal number of tabs that are measured while searching a layout */
+	private PropertyValue<Integer> tabWindow = new PropertyValue<Integer>( TabPane.TAB_WINDOW ){
+		@Override
+		protected void valueChanged( Integer oldValue, Integer newValue ){
+			tabWindowSize = -1;
+			revalidate();
+		}
+	};
+	
+	/** the current number of tabs that are measured, grows if there is enough space to show more tabs */
+	private int tabWindowSize = -1;
 		
 	/** the controller in whose realm this pane works */
 	private DockController controller;
@@ -96,6 +109,7 @@ protected void valueChanged( TabLayoutManager oldValue, TabLayoutManager newValu
 	public void setController( DockController controller ){
 		this.controller = controller;
 		layoutManager.setProperties( controller );
+		tabWindow.setProperties( controller );
 		fireControllerChanged();
 	}
 	
@@ -127,6 +141,89 @@ public void doLayout(){
 		
 		if( layout != null ){
 			layout.layout( this );
+			while( growTabWindow() ){
+				layout.layout( this );
+			}
+			reclaimTabs();
+		}
+	}
+	
+	/**
+	 * Gets the number of {@link Tab}s a {@link TabLayoutManager} should measure and show at most. The
+	 * {@link Dockable}s that are not within this window have to be put on a {@link TabMenu}.
+	 * @return the size of the window, a value smaller than <code>1</code> indicates that
+	 * all {@link Dockable}s can have a {@link Tab}
+	 * @see TabPane#TAB_WINDOW
+	 */
+	public int getTabWindowSize(){
+		Integer limit = tabWindow.getValue();
+		if( limit == null || limit.intValue() < 1 ){
+			return -1;
+		}
+		int size = Math.max( limit.intValue(), tabWindowSize );
+		if( size >= dockables.size() ){
+			return -1;
+		}
+		return size;
+	}
+	
+	/**
+	 * Checks whether all the tabs within the {@link #getTabWindowSize() window} are visible. If
+	 * so, then there might be enough space for additional tabs and the window grows.
+	 * @return <code>true</code> if the window did grow and the layout should be updated
+	 */
+	private boolean growTabWindow(){
+		int window = getTabWindowSize();
+		if( window < 1 ){
+			return false;
+		}
+		
+		int visible = getVisibleTabCount();
+		if( visible < window ){
+			tabWindowSize = Math.max( tabWindow.getValue().intValue(), Math.min( window, visible * 2 ) );
+			return false;
+		}
+		
+		tabWindowSize = window * 2;
+		return true;
+	}
+	
+	/**
+	 * Ensures that not more than {@link #getTabWindowSize()} tabs exist. Invisible tabs that are
+	 * far away from the selected {@link Dockable} are destroyed first, their {@link Dockable}s
+	 * remain on their menus.
+	 */
+	private void reclaimTabs(){
+		int window = getTabWindowSize();
+		if( window < 1 || tabs.size() <= window ){
+			return;
+		}
+		
+		final Map<Dockable, Integer> distances = new HashMap<Dockable, Integer>();
+		int center = Math.max( 0, indexOf( selection ) );
+		for( int i = 0, n = dockables.size(); i < n; i++ ){
+			Dockable dockable = dockables.get( i );
+			T tab = tabs.get( dockable );
+			if( tab != null && !tab.isPaneVisible() ){
+				distances.put( dockable, Math.abs( i - center ) );
+			}
+		}
+		
+		List<Dockable> candidates = new ArrayList<Dockable>( distances.keySet() );
+		Collections.sort( candidates, new Comparator<Dockable>(){
+			public int compare( Dockable a, Dockable b ){
+				return distances.get( b ).compareTo( distances.get( a ) );
+			}
+		});
+		
+		for( Dockable dockable : candidates ){
+			if( tabs.size() <= window ){
+				break;
+			}
+			T tab = removeTab( dockable );
+			if( tab != null ){
+				tabRemoved( tab );
+			}
 		}
 	}
 	
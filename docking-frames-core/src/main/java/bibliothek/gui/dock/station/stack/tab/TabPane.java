@@ -34,6 +34,7 @@
 import bibliothek.gui.dock.station.stack.tab.layouting.TabPlacement;
 import bibliothek.gui.dock.util.DockProperties;
 import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 import bibliothek.gui.dock.util.property.DynamicPropertyFactory;
 
 /**
@@ -58,6 +59,17 @@ public TabLayoutManager getDefault( PropertyKey<TabLayoutManager> key, DockPrope
 			}
 		}, true );
 	
+	/**
+	 * The number of {@link Tab}s a {@link TabPane} measures at most while searching a layout. If a pane
+	 * has more children, then only the most important children get a {@link Tab}, all the other children
+	 * are shown in a {@link TabMenu} and do not occupy any resources of a tab. The window grows
+	 * automatically if there is enough space to show all the measured tabs. A value smaller than
+	 * <code>1</code> disables this limit.
+	 */
+	public static final PropertyKey<Integer> TAB_WINDOW = 
+		new PropertyKey<Integer>( "dock.tabpane.tab_window", 
+				new ConstantPropertyFactory<Integer>( 50 ), true );
+	
 	/**
 	 * Adds a listener to this pane, the listener has to be informed when
 	 * elements are added or removed, and when the selection changes.
@@ -33,6 +33,7 @@
 import java.util.ListIterator;
 
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.station.stack.tab.AbstractTabPane;
 import bibliothek.gui.dock.station.stack.tab.Tab;
 import bibliothek.gui.dock.station.stack.tab.TabPane;
 
@@ -230,7 +231,10 @@ public int indexOfTab( Tab tab ){
 	 * the default implementation the fist tab is always {@link #getSelectedTab()},
 	 * then all the currently displayed tabs follow, only after them the invisible
 	 * tabs follow. Tabs whose {@link Dockable} is no longer registered at the
-	 * owning {@link TabPane} are ignored.
+	 * owning {@link TabPane} are ignored.<br>
+	 * If the {@link AbstractTabPane#getTabWindowSize() tab window} of the pane is smaller than
+	 * the number of {@link Dockable}s, then only the most important tabs are returned,
+	 * and no {@link Tab} is created for the remaining {@link Dockable}s.
 	 * @return all tabs, ordered by importance
 	 * @throws IllegalStateException if {@link #getPane()} returns <code>null</code>
 	 */
@@ -239,66 +243,43 @@ public Tab[] getTabsOrderedByImportance(){
 			throw new IllegalStateException( "no TabPane available" );
 		
 		Dockable[] dockables = pane.getDockables();
-		Tab[] allTabs = new Tab[ dockables.length ];
 		int[] visibleToInvisible = getOriginalTabLocations();
-		    
-		for( int i = 0; i < allTabs.length; i++ ){
-			allTabs[i] = pane.getOnTab( dockables[i] );
-		}
 		
-		Tab[] result = new Tab[ allTabs.length ];
-		int resultIndex = 0;
+		// the order is calculated on the indices of the dockables, Tabs are only created for
+		// those dockables that are within the window
+		boolean[] used = new boolean[ dockables.length ];
+		int[] order = new int[ dockables.length ];
+		int orderIndex = 0;
 		
 		// search selected tab
 		Dockable selectedDockable = pane.getSelectedDockable();
-		Tab selected = null;
-		for( Tab tab : allTabs ){
-			if( tab.getDockable() == selectedDockable ){
-				selected = tab;
+		int selectedDockableIndex = -1;
+		for( int i = 0; i < dockables.length; i++ ){
+			if( dockables[i] == selectedDockable ){
+				selectedDockableIndex = i;
 				break;
 			}
 		}
 		
-		for( int i = 0; i < allTabs.length; i++ ){
-			if( selected == allTabs[i] ){
-				allTabs[i] = null;
-				result[ resultIndex++ ] = selected;
-				break;
-			}
+		int selectedIndex = -1;
+		if( selectedDockableIndex != -1 ){
+			used[ selectedDockableIndex ] = true;
+			order[ orderIndex++ ] = selectedDockableIndex;
+			selectedIndex = indexOfTab( pane.getOnTab( selectedDockable ) );
 		}
 		
 		// search visible tabs
-		int selectedIndex = selected == null ? -1 : indexOfTab( selected );
-		
 		if( selectedIndex == -1 ){
 			for( int i = 0; i < visibleToInvisible.length; i++ ){
-				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab; 
-						allTabs[ visibleToInvisible[i] ] = null;
-					}
-				}
+				orderIndex = addOrdered( visibleToInvisible[i], used, order, orderIndex );
 			}
 		}
 		else{
 			for( int i = selectedIndex-1; i >= 0; i-- ){
-				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab; 
-						allTabs[ visibleToInvisible[i] ] = null;
-					}
-				}
+				orderIndex = addOrdered( visibleToInvisible[i], used, order, orderIndex );
 			}
 			for( int i = selectedIndex+1; i < visibleToInvisible.length; i++ ){
-				if( visibleToInvisible[i] != -1 ){
-					Tab tab = allTabs[ visibleToInvisible[ i ]];
-					if( tab != null ){
-						result[ resultIndex++ ] = tab;
-						allTabs[ visibleToInvisible[i] ] = null;
-					}
-				}
+				orderIndex = addOrdered( visibleToInvisible[i], used, order, orderIndex );
 			}
 		}
 		
@@ -308,45 +289,57 @@ public Tab[] getTabsOrderedByImportance(){
 		int leftMostVisible = -1;
 		int rightMostVisible = -1;
 		
-		for( int i = 0; i < allTabs.length; i++ ){
-			if( allTabs[i] == null ){
+		for( int i = 0; i < used.length; i++ ){
+			if( used[i] ){
 				leftMostVisible = i;
 				break;
 			}
 		}
-		for( int i = allTabs.length-1; i >= 0; i-- ){
-			if( allTabs[i] == null ){
+		for( int i = used.length-1; i >= 0; i-- ){
+			if( used[i] ){
 				rightMostVisible = i;
 				break;
 			}
 		}
 		
 		for( int i = leftMostVisible+1; i < rightMostVisible; i++ ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
-			}
+			orderIndex = addOrdered( i, used, order, orderIndex );
 		}
 		
 		// now fill up tabs to the left of the visible tabs
 		for( int i = leftMostVisible-1; i >= 0; i-- ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
-			}
+			orderIndex = addOrdered( i, used, order, orderIndex );
 		}
 		
 		// now fill up tabs to the right of the visible tabs
-		for( int i = Math.max( 0, rightMostVisible ); i < allTabs.length; i++ ){
-			if( allTabs[i] != null ){
-				result[ resultIndex++ ] = allTabs[i];
-				allTabs[i] = null;
-			}
+		for( int i = Math.max( 0, rightMostVisible ); i < used.length; i++ ){
+			orderIndex = addOrdered( i, used, order, orderIndex );
+		}
+		
+		int count = orderIndex;
+		int window = -1;
+		if( pane instanceof AbstractTabPane ){
+			window = ((AbstractTabPane<?, ?, ?>)pane).getTabWindowSize();
+		}
+		if( window > 0 ){
+			count = Math.min( count, window );
 		}
 		
+		Tab[] result = new Tab[ count ];
+		for( int i = 0; i < count; i++ ){
+			result[i] = pane.getOnTab( dockables[ order[i] ] );
+		}
 		return result;
 	}
 	
+	private int addOrdered( int index, boolean[] used, int[] order, int orderIndex ){
+		if( index != -1 && !used[ index ] ){
+			used[ index ] = true;
+			order[ orderIndex++ ] = index;
+		}
+		return orderIndex;
+	}
+	
 	/**
 	 * This method maps each {@link Tab} of this {@link LayoutBlock} to the
 	 * location its {@link Dockable} has in the owning {@link TabPane}.
@@ -102,7 +102,8 @@ protected void checkSelection(){
 
 	public LineSize[] getSizes(){
 		Tab[] tabs = getTabsOrderedByImportance();
-		SizeCollector collector = new SizeCollector( getPane().getDockables() );
+		Dockable[] dockables = getPane().getDockables();
+		SizeCollector collector = new SizeCollector( dockables );
 		
 		LineSize[] result = new LineSize[ tabs.length+1 ];
 		for( int i = 0; i < tabs.length; i++ ){
@@ -112,11 +113,11 @@ public LineSize[] getSizes(){
 			Tab[] selection = new Tab[ i+1 ];
 			System.arraycopy( tabs, 0, selection, 0, i+1 );
 			
-			result[i] = new LineSize( Size.Type.MINIMUM, size, selection, i+1 == tabs.length, i / (double)tabs.length );
+			result[i] = new LineSize( Size.Type.MINIMUM, size, selection, i+1 == dockables.length, i / (double)tabs.length );
 		}
 		
 		Dimension preferred = collector.getPreferredSize();
-		result[tabs.length] = new LineSize( Size.Type.PREFERRED, preferred, tabs, true, 1.0 );
+		result[tabs.length] = new LineSize( Size.Type.PREFERRED, preferred, tabs, tabs.length == dockables.length, 1.0 );
 		return result;
 	}
 		
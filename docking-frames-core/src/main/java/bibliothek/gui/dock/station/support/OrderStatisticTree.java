@@ -0,0 +1,350 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.support;
+
+import java.util.Random;
+
+/**
+ * A balanced binary tree (a treap) representing a list of elements. Each element is either
+ * <i>marked</i> or not. The tree allows to find the index of an element, or the element at
+ * some index, in <code>O(log n)</code>, either counting all elements, or only the marked, or 
+ * only the unmarked elements. The {@link PlaceholderList} uses this tree to convert between the
+ * indices of its various levels.
+ * @author Benjamin Sigg
+ * @param <V> the kind of values stored in this tree
+ */
+class OrderStatisticTree<V> {
+	/** the root of the tree */
+	private Node<V> root;
+	
+	/** generator for the priorities of the nodes */
+	private Random random = new Random();
+	
+	/**
+	 * Removes all nodes from this tree.
+	 */
+	public void clear(){
+		root = null;
+	}
+	
+	/**
+	 * Gets the total number of elements in this tree.
+	 * @return the number of elements
+	 */
+	public int size(){
+		return size( root );
+	}
+	
+	/**
+	 * Gets the number of elements in this tree which are either marked or not marked.
+	 * @param marked whether to count the marked or the unmarked elements
+	 * @return the number of elements
+	 */
+	public int size( boolean marked ){
+		return count( root, marked );
+	}
+	
+	/**
+	 * Inserts a new element directly after <code>predecessor</code>.
+	 * @param predecessor the node after which to insert the element, <code>null</code>
+	 * to insert the element at the beginning
+	 * @param value the new element
+	 * @param marked whether the new element is marked
+	 * @return the node representing <code>value</code>
+	 */
+	public Node<V> insertAfter( Node<V> predecessor, V value, boolean marked ){
+		Node<V> node = new Node<V>( value, marked, random.nextInt() );
+		
+		if( root == null ){
+			root = node;
+			return node;
+		}
+		
+		Node<V> parent;
+		if( predecessor == null ){
+			parent = root;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			parent.left = node;
+		}
+		else if( predecessor.right == null ){
+			parent = predecessor;
+			parent.right = node;
+		}
+		else{
+			parent = predecessor.right;
+			while( parent.left != null ){
+				parent = parent.left;
+			}
+			parent.left = node;
+		}
+		node.parent = parent;
+		
+		for( Node<V> current = parent; current != null; current = current.parent ){
+			current.update();
+		}
+		
+		while( node.parent != null && node.parent.priority < node.priority ){
+			rotateUp( node );
+		}
+		return node;
+	}
+	
+	/**
+	 * Removes <code>node</code> from this tree.
+	 * @param node the node to remove
+	 */
+	public void remove( Node<V> node ){
+		while( node.left != null || node.right != null ){
+			if( node.left == null ){
+				rotateUp( node.right );
+			}
+			else if( node.right == null ){
+				rotateUp( node.left );
+			}
+			else if( node.left.priority > node.right.priority ){
+				rotateUp( node.left );
+			}
+			else{
+				rotateUp( node.right );
+			}
+		}
+		
+		Node<V> parent = node.parent;
+		if( parent == null ){
+			root = null;
+		}
+		else if( parent.left == node ){
+			parent.left = null;
+		}
+		else{
+			parent.right = null;
+		}
+		node.parent = null;
+		
+		for( Node<V> current = parent; current != null; current = current.parent ){
+			current.update();
+		}
+	}
+	
+	/**
+	 * Changes whether <code>node</code> is marked.
+	 * @param node the node to change
+	 * @param marked the new state
+	 */
+	public void setMarked( Node<V> node, boolean marked ){
+		if( node.marked != marked ){
+			node.marked = marked;
+			for( Node<V> current = node; current != null; current = current.parent ){
+				current.update();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of elements that are in front of <code>node</code>.
+	 * @param node some node of this tree
+	 * @return the index of <code>node</code>
+	 */
+	public int index( Node<V> node ){
+		int index = size( node.left );
+		for( Node<V> current = node; current.parent != null; current = current.parent ){
+			if( current.parent.right == current ){
+				index += size( current.parent.left ) + 1;
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Gets the number of marked or unmarked elements that are in front of <code>node</code>.
+	 * @param node some node of this tree
+	 * @param marked whether to count the marked or the unmarked elements
+	 * @return the number of elements
+	 */
+	public int index( Node<V> node, boolean marked ){
+		int index = count( node.left, marked );
+		for( Node<V> current = node; current.parent != null; current = current.parent ){
+			Node<V> parent = current.parent;
+			if( parent.right == current ){
+				index += count( parent.left, marked );
+				if( parent.marked == marked ){
+					index++;
+				}
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Gets the node at location <code>index</code>.
+	 * @param index the index of the node
+	 * @return the node or <code>null</code> if <code>index</code> is out of bounds
+	 */
+	public Node<V> get( int index ){
+		Node<V> current = root;
+		while( current != null ){
+			int left = size( current.left );
+			if( index < left ){
+				current = current.left;
+			}
+			else if( index == left ){
+				return current;
+			}
+			else{
+				index -= left + 1;
+				current = current.right;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the <code>index</code>'th node of all the marked or unmarked nodes.
+	 * @param index the index of the node
+	 * @param marked whether to search only marked or only unmarked nodes
+	 * @return the node or <code>null</code> if <code>index</code> is out of bounds
+	 */
+	public Node<V> get( int index, boolean marked ){
+		Node<V> current = root;
+		while( current != null ){
+			int left = count( current.left, marked );
+			if( index < left ){
+				current = current.left;
+			}
+			else{
+				index -= left;
+				if( current.marked == marked ){
+					if( index == 0 ){
+						return current;
+					}
+					index--;
+				}
+				current = current.right;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Rotates <code>node</code> such that it takes the place of its parent.
+	 * @param node the node to move up
+	 */
+	private void rotateUp( Node<V> node ){
+		Node<V> parent = node.parent;
+		Node<V> grandParent = parent.parent;
+		
+		if( parent.left == node ){
+			parent.left = node.right;
+			if( parent.left != null ){
+				parent.left.parent = parent;
+			}
+			node.right = parent;
+		}
+		else{
+			parent.right = node.left;
+			if( parent.right != null ){
+				parent.right.parent = parent;
+			}
+			node.left = parent;
+		}
+		parent.parent = node;
+		node.parent = grandParent;
+		
+		if( grandParent == null ){
+			root = node;
+		}
+		else if( grandParent.left == parent ){
+			grandParent.left = node;
+		}
+		else{
+			grandParent.right = node;
+		}
+		
+		parent.update();
+		node.update();
+	}
+	
+	private static int size( Node<?> node ){
+		return node == null ? 0 : node.size;
+	}
+	
+	private static int count( Node<?> node, boolean marked ){
+		if( node == null ){
+			return 0;
+		}
+		return marked ? node.markedSize : node.size - node.markedSize;
+	}
+	
+	/**
+	 * A single element of an {@link OrderStatisticTree}.
+	 * @author Benjamin Sigg
+	 * @param <V> the kind of value stored in this node
+	 */
+	public static class Node<V>{
+		private V value;
+		private boolean marked;
+		private int priority;
+		
+		private Node<V> left;
+		private Node<V> right;
+		private Node<V> parent;
+		
+		/** the number of nodes in the subtree starting at this node */
+		private int size = 1;
+		/** the number of marked nodes in the subtree starting at this node */
+		private int markedSize;
+		
+		private Node( V value, boolean marked, int priority ){
+			this.value = value;
+			this.marked = marked;
+			this.priority = priority;
+			this.markedSize = marked ? 1 : 0;
+		}
+		
+		/**
+		 * Gets the value that is represented by this node.
+		 * @return the value
+		 */
+		public V getValue(){
+			return value;
+		}
+		
+		/**
+		 * Tells whether this node is marked.
+		 * @return whether this node is marked
+		 */
+		public boolean isMarked(){
+			return marked;
+		}
+		
+		private void update(){
+			size = 1 + OrderStatisticTree.size( left ) + OrderStatisticTree.size( right );
+			markedSize = (marked ? 1 : 0) + count( left, true ) + count( right, true );
+		}
+	}
+}
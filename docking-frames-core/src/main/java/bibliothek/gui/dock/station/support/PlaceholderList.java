@@ -25,9 +25,14 @@
  */
 package bibliothek.gui.dock.station.support;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -60,6 +65,15 @@
 
 	/** head of the dockables sublist */
 	private Entry headDockable = null;
+	
+	/** the order of all entries, used to find entries by their index. Entries containing a dockable are marked. */
+	private OrderStatisticTree<Entry> order = new OrderStatisticTree<Entry>();
+	
+	/** all the entries whose items contain a specific placeholder */
+	private Map<Path, List<Entry>> placeholderIndex = new HashMap<Path, List<Entry>>();
+	
+	/** all the entries whose items are affected by the removal of any placeholder, see {@link Item#isSwept()} */
+	private Set<Entry> sweptEntries = new HashSet<Entry>();
 
 	/** identifiers for the various sublists this list consists of */
 	public static enum Level {
@@ -553,12 +567,11 @@ public Filter<Set<Path>> listPlaceholders(){
 	 * @param placeholders the placeholders to remove
 	 */
 	public void removeAll( Set<Path> placeholders ){
-		Iterator<Item> iter = list().iterator();
-		while( iter.hasNext() ) {
-			Item item = iter.next();
+		for( Entry entry : search( placeholders ) ){
+			Item item = entry.item;
 			item.removeAll( placeholders );
 			if( item.getPlaceholderSet() == null && item.isPlaceholder() ) {
-				iter.remove();
+				entry.remove();
 			}
 		}
 	}
@@ -570,12 +583,11 @@ public void removeAll( Set<Path> placeholders ){
 	 * @param placeholder the placeholder to remove
 	 */
 	public void removeAll( Path placeholder ){
-		Iterator<Item> iter = list().iterator();
-		while( iter.hasNext() ) {
-			Item item = iter.next();
+		for( Entry entry : search( Collections.singleton( placeholder ) ) ){
+			Item item = entry.item;
 			item.remove( placeholder );
 			if( item.getPlaceholderSet() == null && item.isPlaceholder() ) {
-				iter.remove();
+				entry.remove();
 			}
 		}
 	}
@@ -692,15 +704,12 @@ public int getDockableIndex( Path placeholder ){
 			return -1;
 		}
 
-		while( entry != null && entry.item.isPlaceholder() ) {
-			entry = entry.previous( Level.BASE );
-		}
-
-		if( entry == null ) {
-			return 0;
+		int index = order.index( entry.node, true );
+		if( entry.item.isPlaceholder() ) {
+			return index;
 		}
 		else {
-			return entry.index( Level.DOCKABLE ) + 1;
+			return index + 1;
 		}
 	}
 
@@ -794,23 +803,47 @@ public PlaceholderMap getMap( Path placeholder ){
 	 */
 	public int size( Level level ){
 		switch( level ){
-			case BASE: return list().size();
-			case DOCKABLE: return dockables().size();
-			case PLACEHOLDER: return purePlaceholders().size();
+			case BASE: return order.size();
+			case DOCKABLE: return order.size( true );
+			case PLACEHOLDER: return order.size( false );
 			default: throw new IllegalArgumentException( "unknown level: " + level );
 		}
 	}
 
 	private Entry search( Path placeholder ){
-		Entry entry = this.head;
-		while( entry != null ) {
-			Set<Path> set = entry.item.getPlaceholderSet();
-			if( set != null && set.contains( placeholder ) ) {
-				return entry;
+		List<Entry> entries = placeholderIndex.get( placeholder );
+		if( entries == null ) {
+			return null;
+		}
+		
+		Entry result = null;
+		int resultIndex = 0;
+		for( Entry entry : entries ) {
+			int index = order.index( entry.node );
+			if( result == null || index < resultIndex ) {
+				result = entry;
+				resultIndex = index;
 			}
-			entry = entry.next( Level.BASE );
 		}
-		return null;
+		return result;
+	}
+	
+	/**
+	 * Searches all the entries that may be affected if the placeholders <code>placeholders</code>
+	 * are removed. These are the entries which contain one of the placeholders, and the entries which
+	 * are always {@link Item#isSwept() swept}.
+	 * @param placeholders the placeholders to search
+	 * @return the entries, the list may be modified
+	 */
+	private List<Entry> search( Collection<Path> placeholders ){
+		Set<Entry> result = new HashSet<Entry>( sweptEntries );
+		for( Path placeholder : placeholders ) {
+			List<Entry> entries = placeholderIndex.get( placeholder );
+			if( entries != null ) {
+				result.addAll( entries );
+			}
+		}
+		return new ArrayList<Entry>( result );
 	}
 
 	private Entry search( P dockable ){
@@ -825,13 +858,25 @@ private Entry search( P dockable ){
 	}
 
 	private Entry search( int index, Level level ){
-		Entry entry = head( level );
-
-		while( entry != null && index > 0 ) {
-			entry = entry.next( level );
-			index--;
+		// negative indices always pointed to the first entry
+		index = Math.max( 0, index );
+		
+		OrderStatisticTree.Node<Entry> node;
+		switch( level ){
+			case BASE:
+				node = order.get( index );
+				break;
+			case DOCKABLE:
+				node = order.get( index, true );
+				break;
+			case PLACEHOLDER:
+				node = order.get( index, false );
+				break;
+			default:
+				throw new IllegalArgumentException();
 		}
-		return entry;
+		
+		return node == null ? null : node.getValue();
 	}
 
 	/**
@@ -870,10 +915,15 @@ public int levelToBase( int index, Level level ){
 	 * Clears this list, all entries are removed
 	 */
 	public void clear(){
+		for( Entry entry = head; entry != null; entry = entry.next ){
+			entry.node = null;
+		}
 		head = null;
 		headDockable = null;
 		headPlaceholder = null;
-		invalidate();
+		order.clear();
+		placeholderIndex.clear();
+		sweptEntries.clear();
 	}
 
 	private Entry head( Level level ){
@@ -888,13 +938,6 @@ private Entry head( Level level ){
 		throw new IllegalArgumentException();
 	}
 
-	private void invalidate(){
-		dockables.invalidate();
-		allPlaceholders.invalidate();
-		purePlaceholders.invalidate();
-		allItems.invalidate();
-	}
-
 	@Override
 	public String toString(){
 		return list().toString();
@@ -906,6 +949,9 @@ private class Entry {
 
 		private Entry next, previous;
 		private Entry nextLevel, previousLevel;
+		
+		/** the location of this entry in {@link PlaceholderList#order}, <code>null</code> if this entry is not in the list */
+		private OrderStatisticTree.Node<Entry> node;
 
 		public Entry( Entry predecessor, Item item ){
 			this.item = item;
@@ -913,12 +959,10 @@ public Entry( Entry predecessor, Item item ){
 		}
 
 		public void insertAfter( Entry predecessor ){
-			invalidate();
-
-			item.setOwner( this );
 			itemWasPlaceholder = item.isPlaceholder();
-
-			Entry predecessorLevel = null;
+			node = order.insertAfter( predecessor == null ? null : predecessor.node, this, !itemWasPlaceholder );
+			
+			item.setOwner( this );
 
 			if( predecessor == null ) {
 				next = head;
@@ -927,7 +971,6 @@ public void insertAfter( Entry predecessor ){
 				}
 
 				head = this;
-				predecessorLevel = null;
 			}
 			else {
 				next = predecessor.next;
@@ -937,15 +980,9 @@ public void insertAfter( Entry predecessor ){
 
 				predecessor.next = this;
 				this.previous = predecessor;
-
-				Entry search = predecessor;
-				while( search != null && predecessorLevel == null ) {
-					if( search.item.isPlaceholder() == item.isPlaceholder() ) {
-						predecessorLevel = search;
-					}
-					search = search.previous( Level.BASE );
-				}
 			}
+			
+			Entry predecessorLevel = findLevelPredecessor();
 
 			Entry successorLevel = null;
 			if( predecessorLevel == null ) {
@@ -1025,16 +1062,18 @@ public Entry previous( Level level ){
 		}
 
 		public int index( Level level ){
-			Entry entry = head( level );
-			int index = 0;
-			while( entry != this && entry != null ) {
-				entry = entry.next( level );
-				index++;
-			}
-			if( entry == null ) {
+			if( node == null ) {
 				return -1;
 			}
-			return index;
+			switch( level ){
+				case BASE:
+					return order.index( node );
+				case PLACEHOLDER:
+					return node.isMarked() ? -1 : order.index( node, false );
+				case DOCKABLE:
+					return node.isMarked() ? order.index( node, true ) : -1;
+			}
+			throw new IllegalArgumentException();
 		}
 
 		public void refresh(){
@@ -1048,11 +1087,13 @@ public void set( Item item ){
 			if( itemWasPlaceholder != item.isPlaceholder() ) {
 				itemWasPlaceholder = item.isPlaceholder();
 
-				invalidate();
 				removeLevel();
+				if( node != null ) {
+					order.setMarked( node, !itemWasPlaceholder );
+				}
 
-				Entry levelPredecessor = findLevelPredecessor( item.isPlaceholder() );
-				Entry levelSuccessor = findLevelSuccessor( item.isPlaceholder() );
+				Entry levelPredecessor = findLevelPredecessor();
+				Entry levelSuccessor = findLevelSuccessor();
 
 				if( levelPredecessor == null ) {
 					if( item.isPlaceholder() ) {
@@ -1079,31 +1120,74 @@ public void set( Item item ){
 			this.item = item;
 		}
 
-		private Entry findLevelPredecessor( boolean placeholder ){
-			Entry entry = previous;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
-				}
-				entry = entry.previous;
+		private Entry findLevelPredecessor(){
+			if( node == null ) {
+				return null;
 			}
-			return null;
+			int index = order.index( node, node.isMarked() );
+			if( index == 0 ) {
+				return null;
+			}
+			return order.get( index - 1, node.isMarked() ).getValue();
 		}
 
-		private Entry findLevelSuccessor( boolean placeholder ){
-			Entry entry = next;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
+		private Entry findLevelSuccessor(){
+			if( node == null ) {
+				return null;
+			}
+			int index = order.index( node, node.isMarked() );
+			OrderStatisticTree.Node<Entry> successor = order.get( index + 1, node.isMarked() );
+			if( successor == null ) {
+				return null;
+			}
+			return successor.getValue();
+		}
+		
+		/**
+		 * Remembers that the item of this entry contains <code>placeholder</code>.
+		 * @param placeholder the placeholder that was added to the item
+		 */
+		private void indexPlaceholder( Path placeholder ){
+			if( node != null ) {
+				List<Entry> entries = placeholderIndex.get( placeholder );
+				if( entries == null ) {
+					entries = new ArrayList<Entry>( 1 );
+					placeholderIndex.put( placeholder, entries );
+				}
+				if( !entries.contains( this ) ) {
+					entries.add( this );
 				}
-				entry = entry.next;
 			}
-			return null;
+		}
+		
+		/**
+		 * Forgets that the item of this entry contains <code>placeholder</code>.
+		 * @param placeholder the placeholder that was removed from the item
+		 */
+		private void unindexPlaceholder( Path placeholder ){
+			List<Entry> entries = placeholderIndex.get( placeholder );
+			if( entries != null ) {
+				entries.remove( this );
+				if( entries.isEmpty() ) {
+					placeholderIndex.remove( placeholder );
+				}
+			}
+		}
+		
+		/**
+		 * Tells this entry whether its item has to be checked whenever a placeholder is removed.
+		 * @param swept whether the item is {@link Item#isSwept() swept}
+		 */
+		private void setSwept( boolean swept ){
+			if( swept && node != null ) {
+				sweptEntries.add( this );
+			}
+			else {
+				sweptEntries.remove( this );
+			}
 		}
 
 		public void remove(){
-			invalidate();
-
 			if( next != null ) {
 				next.previous = previous;
 			}
@@ -1121,11 +1205,14 @@ public void remove(){
 			this.item.setOwner( null );
 
 			removeLevel();
+			
+			if( node != null ) {
+				order.remove( node );
+				node = null;
+			}
 		}
 
 		private void removeLevel(){
-			invalidate();
-
 			if( nextLevel != null ) {
 				nextLevel.previousLevel = previousLevel;
 			}
@@ -1214,6 +1301,15 @@ public void setStrategy( PlaceholderStrategy strategy ){
 		 * @param owner the new owner, can be <code>null</code>
 		 */
 		protected void setOwner( PlaceholderList<D, S, P>.Entry owner ){
+			if( this.owner != null ) {
+				if( placeholderSet != null ) {
+					for( Path placeholder : placeholderSet ) {
+						this.owner.unindexPlaceholder( placeholder );
+					}
+				}
+				this.owner.setSwept( false );
+			}
+			
 			if( bound && strategy != null ) {
 				if( placeholderMap != null ) {
 					if( owner == null ) {
@@ -1226,6 +1322,34 @@ protected void setOwner( PlaceholderList<D, S, P>.Entry owner ){
 			}
 
 			this.owner = owner;
+			
+			if( owner != null ) {
+				if( placeholderSet != null ) {
+					for( Path placeholder : placeholderSet ) {
+						owner.indexPlaceholder( placeholder );
+					}
+				}
+				owner.setSwept( isSwept() );
+			}
+		}
+		
+		/**
+		 * Tells whether this item has to be checked whenever any placeholder is removed from the list. That
+		 * is the case if this item has a {@link PlaceholderMap}, which may contain any placeholder, or if
+		 * the set of placeholders is empty and needs to be cleaned up.
+		 * @return whether this item must always be checked
+		 */
+		private boolean isSwept(){
+			return placeholderMap != null || (placeholderSet != null && placeholderSet.isEmpty());
+		}
+		
+		/**
+		 * Informs the owner of this item about a change of {@link #isSwept()}.
+		 */
+		private void updateSwept(){
+			if( owner != null ) {
+				owner.setSwept( isSwept() );
+			}
 		}
 
 		/**
@@ -1248,14 +1372,33 @@ public Set<Path> getPlaceholderSet(){
 		}
 
 		/**
-		 * Sets the set of placeholders that are associated with this entry.
+		 * Sets the set of placeholders that are associated with this entry. The set is copied, later
+		 * changes of <code>placeholderSet</code> are not seen by this item.
 		 * @param placeholderSet the placeholders, can be <code>null</code>
 		 */
 		public void setPlaceholderSet( Set<Path> placeholderSet ){
 			if( placeholderSet != null && placeholderSet.contains( null ) ) {
 				throw new IllegalArgumentException( "placeholderSet contains a null value" );
 			}
-			this.placeholderSet = placeholderSet;
+			if( this.placeholderSet != null && owner != null ) {
+				for( Path placeholder : this.placeholderSet ) {
+					owner.unindexPlaceholder( placeholder );
+				}
+			}
+			if( placeholderSet == null ) {
+				this.placeholderSet = null;
+			}
+			else {
+				ObservedPlaceholderSet copy = new ObservedPlaceholderSet();
+				copy.addAll( placeholderSet );
+				this.placeholderSet = copy;
+				if( owner != null ) {
+					for( Path placeholder : copy ) {
+						owner.indexPlaceholder( placeholder );
+					}
+				}
+			}
+			updateSwept();
 		}
 
 		/**
@@ -1267,6 +1410,7 @@ public void removeAll( Set<Path> placeholders ){
 				placeholderSet.removeAll( placeholders );
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
+					updateSwept();
 				}
 			}
 			if( placeholderMap != null ) {
@@ -1286,6 +1430,7 @@ public void remove( Path placeholder ){
 				placeholderSet.remove( placeholder );
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
+					updateSwept();
 				}
 			}
 			if( placeholderMap != null ) {
@@ -1306,7 +1451,7 @@ public void add( Path placeholder ){
 			}
 
 			if( placeholderSet == null ) {
-				placeholderSet = new HashSet<Path>();
+				placeholderSet = new ObservedPlaceholderSet();
 			}
 			placeholderSet.add( placeholder );
 		}
@@ -1365,6 +1510,7 @@ public void setPlaceholderMap( PlaceholderMap placeholders ){
 			else {
 				this.placeholderMap = placeholders;
 			}
+			updateSwept();
 		}
 
 		/**
@@ -1419,6 +1565,75 @@ public String toString(){
 			builder.append( "})" );
 			return builder.toString();
 		}
+		
+		/**
+		 * The set of placeholders of an {@link Item}, keeps the index of the {@link PlaceholderList} up to date
+		 * when modified.
+		 * @author Benjamin Sigg
+		 */
+		private class ObservedPlaceholderSet extends HashSet<Path> {
+			@Override
+			public boolean add( Path placeholder ){
+				boolean result = super.add( placeholder );
+				if( result && isObserved() ) {
+					owner.indexPlaceholder( placeholder );
+					updateSwept();
+				}
+				return result;
+			}
+			
+			@Override
+			public boolean remove( Object placeholder ){
+				boolean result = super.remove( placeholder );
+				if( result && isObserved() ) {
+					owner.unindexPlaceholder( (Path) placeholder );
+					updateSwept();
+				}
+				return result;
+			}
+			
+			@Override
+			public void clear(){
+				if( isObserved() ) {
+					for( Path placeholder : this ) {
+						owner.unindexPlaceholder( placeholder );
+					}
+				}
+				super.clear();
+				if( isObserved() ) {
+					updateSwept();
+				}
+			}
+			
+			@Override
+			public Iterator<Path> iterator(){
+				final Iterator<Path> iterator = super.iterator();
+				return new Iterator<Path>(){
+					private Path current;
+					
+					public boolean hasNext(){
+						return iterator.hasNext();
+					}
+					
+					public Path next(){
+						current = iterator.next();
+						return current;
+					}
+					
+					public void remove(){
+						iterator.remove();
+						if( isObserved() ) {
+							owner.unindexPlaceholder( current );
+							updateSwept();
+						}
+					}
+				};
+			}
+			
+			private boolean isObserved(){
+				return placeholderSet == this && owner != null;
+			}
+		}
 	}
 
 	/**
@@ -1533,7 +1748,6 @@ public String toString(){
 
 	private abstract class SubList<A> implements Filter<A> {
 		private Level level;
-		private int size = -1;
 
 		protected abstract A unwrap( Item item );
 
@@ -1553,23 +1767,13 @@ public PlaceholderList<D, S, P> getPlaceholderList(){
 			return PlaceholderList.this;
 		}
 		
-		public void invalidate(){
-			size = -1;
-		}
-
 		private Entry getEntry( int index ){
 			if( index < 0 )
 				throw new IndexOutOfBoundsException("index < 0: " + index);
 
-			Entry entry = head( level );
-			int start = index;
-			
-			while( index > 0 ) {
-				entry = entry.next( level );
-				index--;
-				if( entry == null ) {
-					throw new IndexOutOfBoundsException( "index=" + start + ", size=" + size() );
-				}
+			Entry entry = search( index, level );
+			if( entry == null ) {
+				throw new IndexOutOfBoundsException( "index=" + index + ", size=" + size() );
 			}
 
 			return entry;
@@ -1581,11 +1785,9 @@ public void add( A object ){
 
 		public void add( int index, A object ){
 			if( size() == index ) {
-				Entry entry = head;
 				Entry predecessor = null;
-				while( entry != null ) {
-					predecessor = entry;
-					entry = entry.next;
+				if( order.size() > 0 ) {
+					predecessor = order.get( order.size() - 1 ).getValue();
 				}
 				new Entry( predecessor, wrap( object ) );
 			}
@@ -1655,15 +1857,7 @@ public A set( int index, A object ){
 		}
 		
 		public int size(){
-			if( size == -1 ) {
-				size = 0;
-				Entry entry = head( level );
-				while( entry != null ) {
-					size++;
-					entry = entry.next( level );
-				}
-			}
-			return size;
+			return PlaceholderList.this.size( level );
 		}
 
 		public void move( int source, int destination ){
@@ -28,9 +28,11 @@
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -58,8 +60,8 @@ public class PlaceholderMap {
 	/** what kind of data is stored in this map */
 	private Path format;
 	
-	/** all the data that is stored in this map */
-	private Map<Key, Map<String, Object>> data = new LinkedHashMap<Key, Map<String,Object>>();
+	/** all the data that is stored in this map, may be shared with copies of this map */
+	private Content content = new Content();
 	
 	/** strategy observed for automatically removeal of invalid placeholders */
 	private PlaceholderStrategy strategy;
@@ -111,7 +113,7 @@ public PlaceholderMap( DataInputStream in, PlaceholderStrategy strategy ) throws
 			
 			if( key != null ){
 				add(key);
-				Map<String, Object> map = data.get( key );
+				Map<String, Object> map = content.data.get( key ).values;
 				int length = in.readInt();
 				for( int j = 0; j < length; j++ ){
 					String subkey = in.readUTF();
@@ -157,7 +159,7 @@ public PlaceholderMap( XElement in, PlaceholderStrategy strategy ){
 				
 				if( placeholder != null ){
 					add( placeholder );
-					Map<String,Object> map = data.get( placeholder );
+					Map<String,Object> map = content.data.get( placeholder ).values;
 					for( int j = 0, m = xentry.getElementCount(); j<m; j++ ){
 						XElement xitem = xentry.getElement( j );
 						if( xitem.getName().equals( "item" )){
@@ -181,10 +183,10 @@ public void write( DataOutputStream out ) throws IOException{
 		out.writeInt( version );
 		out.writeUTF( format.toString() );
 		
-		out.writeInt( data.size() );
-		for( Map.Entry<Key, Map<String, Object>> entry : data.entrySet() ){
+		out.writeInt( content.data.size() );
+		for( Map.Entry<Key, Values> entry : content.data.entrySet() ){
 			((PlaceholderKey)entry.getKey()).write( out );
-			Map<String, Object> map = entry.getValue();
+			Map<String, Object> map = entry.getValue().values;
 			out.writeInt( map.size() );
 			for( Map.Entry<String, Object> mapEntry : map.entrySet() ){
 				out.writeUTF( mapEntry.getKey() );
@@ -264,10 +266,10 @@ public void write( XElement out ){
 		out.addElement( "version" ).setInt( version );
 		out.addElement( "format" ).setString( format.toString() );
 		
-		for( Map.Entry<Key, Map<String, Object>> entry : data.entrySet() ){
+		for( Map.Entry<Key, Values> entry : content.data.entrySet() ){
 			XElement xplaceholder = out.addElement( "entry" );
 			((PlaceholderKey)entry.getKey()).write( xplaceholder.addElement( "key" ) );
-			Map<String, Object> map = entry.getValue();
+			Map<String, Object> map = entry.getValue().values;
 			for( Map.Entry<String, Object> mapEntry : map.entrySet() ){
 				XElement xitem = xplaceholder.addElement( "item" );
 				xitem.addString( "key", mapEntry.getKey() );
@@ -354,19 +356,36 @@ private Object read( XElement in, PlaceholderStrategy strategy ){
 	}
 	
 	/**
-	 * Creates a deep copy of this map.
+	 * Creates a copy of this map. The copy behaves like a deep copy, but actually shares its data with
+	 * this map until either map is modified. Only the parts of the map that are modified are then
+	 * really copied. The copy and this map also share the {@link Key}s, which are immutable.<br>
+	 * {@link PlaceholderMap}s and arrays that were {@link #put(Key, String, Object) put} into this map or 
+	 * {@link #get(Key, String) read} from this map are known to the client, who may still modify them. Such values
+	 * are always copied immediately, hence the copy never sees modifications of values the client holds.
 	 * @return the copy, not <code>null</code>
 	 */
 	public PlaceholderMap copy(){
 		PlaceholderMap result = new PlaceholderMap( format, version );
 		
-		for( Map.Entry<Key, Map<String, Object>> entry : data.entrySet() ){
-			Key newKey = result.copyKey( entry.getKey() );
-			result.add( newKey );
-			Map<String, Object> map = result.data.get( newKey );
-			for( Map.Entry<String, Object> valueEntry : entry.getValue().entrySet() ){
-				map.put( valueEntry.getKey(), copy( valueEntry.getValue() ) );
+		if( strategy == null && !content.escaped ){
+			content.shared = true;
+			result.content = content;
+		}
+		else{
+			// sub-maps observing the strategy may change at any time, and sub-maps known to the client
+			// may be modified by the client at any time: neither can be shared
+			Content copy = new Content();
+			for( Map.Entry<Key, Values> entry : content.data.entrySet() ){
+				Values values = entry.getValue();
+				if( values.escaped || (strategy != null && values.isMutable()) ){
+					values = values.copy();
+				}
+				else{
+					values.shared = true;
+				}
+				copy.data.put( entry.getKey(), values );
 			}
+			result.content = copy;
 		}
 		
 		return result;
@@ -383,12 +402,12 @@ public PlaceholderMap filter( PlaceholderStrategy strategy ){
 			return this;
 		}
 		PlaceholderMap copy = copy();
-		copy.setPlaceholderStrategy( strategy );
-		copy.setPlaceholderStrategy( null );
+		// only the parts of the copy that contain invalid placeholders are actually copied
+		copy.validate( strategy, true );
 		return copy;
 	}
 	
-	private Object copy( Object value ){
+	private static Object copy( Object value ){
 		if( value instanceof String ){
 			return value;
 		}
@@ -482,13 +501,16 @@ public Key copyKey( Key key ){
 	 * @param strategy the new strategy, can be <code>null</code>
 	 */
 	public void setPlaceholderStrategy( PlaceholderStrategy strategy ){
+		PlaceholderStrategy oldStrategy = this.strategy;
 		if( this.strategy != null ){
 			this.strategy.removeListener( listener );
 		}
 		this.strategy = strategy;
-		for( Map<?, Object> map : data.values() ){
-			for( Object value : map.values() ){
-				setPlaceholderStrategy( value, strategy );
+		if( oldStrategy != null || strategy != null ){
+			for( Key key : getMutableKeys() ){
+				for( Object value : ownValues( key ).values() ){
+					setPlaceholderStrategy( value, strategy );
+				}
 			}
 		}
 		if( this.strategy != null ){
@@ -529,20 +551,22 @@ public void validate( PlaceholderStrategy strategy, boolean recursive ){
 		}
 		
 		if( recursive ){
-			for( Map<?, Object> map : data.values() ){
-				for( Object value : map.values() ){
-					validate( value, strategy );
+			for( Key key : getMutableKeys() ){
+				if( !isValid( content.data.get( key ).values.values(), strategy )){
+					for( Object value : ownValues( key ).values() ){
+						validate( value, strategy );
+					}
 				}
 			}
 		}
 		
-		Key[] keys = data.keySet().toArray( new Key[ data.size() ] );
-		for( Key key : keys ){
+		for( Key key : getPlaceholders() ){
 			Key replacement = ((PlaceholderKey)key).shrink( strategy );
 			if( replacement != key ){
-				Map<String, Object> map = data.remove( key );
+				ownContent();
+				Values values = content.data.remove( key );
 				if( replacement != null ){
-					data.put( replacement, map );
+					content.data.put( replacement, values );
 				}
 			}
 		}
@@ -558,6 +582,34 @@ else if( value instanceof Object[] ){
 			}
 		}
 	}
+	
+	/**
+	 * Tells whether {@link #validate(PlaceholderStrategy, boolean)} would not change anything.
+	 * @param values the values to check recursively
+	 * @param strategy the strategy to apply
+	 * @return <code>true</code> if there is no invalid placeholder in <code>values</code>
+	 */
+	private static boolean isValid( Iterable<Object> values, PlaceholderStrategy strategy ){
+		for( Object value : values ){
+			if( value instanceof PlaceholderMap ){
+				PlaceholderMap map = (PlaceholderMap)value;
+				for( Map.Entry<Key, Values> entry : map.content.data.entrySet() ){
+					if( ((PlaceholderKey)entry.getKey()).shrink( strategy ) != entry.getKey() ){
+						return false;
+					}
+					if( !isValid( entry.getValue().values.values(), strategy )){
+						return false;
+					}
+				}
+			}
+			else if( value instanceof Object[] ){
+				if( !isValid( Arrays.asList( (Object[])value ), strategy )){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
 
 	/**
 	 * Removes all occurrences of <code>placeholders</code>.
@@ -583,20 +635,22 @@ public void removeAll( Set<Path> placeholders, boolean recursive ){
 		}
 		
 		if( recursive ){
-			for( Map<?, Object> map : data.values() ){
-				for( Object value : map.values() ){
-					removeAll( value, placeholders );
+			for( Key key : getMutableKeys() ){
+				if( containsAny( content.data.get( key ).values.values(), placeholders )){
+					for( Object value : ownValues( key ).values() ){
+						removeAll( value, placeholders );
+					}
 				}
 			}
 		}
 		
-		Key[] keys = data.keySet().toArray( new Key[ data.size() ] );
-		for( Key key : keys ){
+		for( Key key : getPlaceholders() ){
 			Key replacement = ((PlaceholderKey)key).shrink( placeholders );
 			if( replacement != key ){
-				Map<String, Object> map = data.remove( key );
+				ownContent();
+				Values values = content.data.remove( key );
 				if( replacement != null ){
-					data.put( replacement, map );
+					content.data.put( replacement, values );
 				}
 			}
 		}
@@ -613,6 +667,76 @@ else if( value instanceof Object[] ){
 		}
 	}
 	
+	/**
+	 * Tells whether {@link #removeAll(Set, boolean)} would change anything.
+	 * @param values the values to check recursively
+	 * @param placeholders the placeholders to search
+	 * @return <code>true</code> if at least one key in <code>values</code> uses one of <code>placeholders</code>
+	 */
+	private static boolean containsAny( Iterable<Object> values, Set<Path> placeholders ){
+		for( Object value : values ){
+			if( value instanceof PlaceholderMap ){
+				PlaceholderMap map = (PlaceholderMap)value;
+				for( Map.Entry<Key, Values> entry : map.content.data.entrySet() ){
+					if( ((PlaceholderKey)entry.getKey()).shrink( placeholders ) != entry.getKey() ){
+						return true;
+					}
+					if( containsAny( entry.getValue().values.values(), placeholders )){
+						return true;
+					}
+				}
+			}
+			else if( value instanceof Object[] ){
+				if( containsAny( Arrays.asList( (Object[])value ), placeholders )){
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets all the keys whose values contain at least one {@link PlaceholderMap} or array.
+	 * @return the keys with mutable values
+	 */
+	private Key[] getMutableKeys(){
+		List<Key> keys = new ArrayList<Key>();
+		for( Map.Entry<Key, Values> entry : content.data.entrySet() ){
+			if( entry.getValue().isMutable() ){
+				keys.add( entry.getKey() );
+			}
+		}
+		return keys.toArray( new Key[ keys.size() ] );
+	}
+	
+	/**
+	 * Ensures that {@link #content} is not shared with any other map.
+	 */
+	private void ownContent(){
+		if( content.shared ){
+			content = content.copy();
+		}
+	}
+	
+	/**
+	 * Ensures that neither {@link #content} nor the values of <code>placeholder</code> are shared
+	 * with any other map.
+	 * @param placeholder the key whose values are going to be modified
+	 * @return the values that can be modified, <code>null</code> if <code>placeholder</code> is unknown
+	 */
+	private Map<String, Object> ownValues( Key placeholder ){
+		ownContent();
+		Values values = content.data.get( placeholder );
+		if( values == null ){
+			return null;
+		}
+		if( values.shared ){
+			values = values.copy();
+			content.data.put( placeholder, values );
+		}
+		return values.values;
+	}
+	
 	/**
 	 * Gets the version of the format used in this map.
 	 * @return the version, its meaning depends on {@link #getFormat() the format}
@@ -638,10 +762,9 @@ public void add( Key placeholder ){
 		if( placeholder == null ){
 			throw new IllegalArgumentException( "placeholder must not be null" );
 		}
-		Map<String, Object> map = data.get( placeholder );
-		if( map == null ){
-			map = new LinkedHashMap<String, Object>();
-			data.put( placeholder, map );
+		if( !content.data.containsKey( placeholder )){
+			ownContent();
+			content.data.put( placeholder, new Values() );
 		}
 	}
 	
@@ -650,8 +773,11 @@ public void add( Key placeholder ){
 	 * <code>placeholder</code> from this map.
 	 * @param placeholder the placeholder to clear
 	 */
-	public void remove( Key placeholder ){                                                
-		data.remove( placeholder );
+	public void remove( Key placeholder ){
+		if( content.data.containsKey( placeholder )){
+			ownContent();
+			content.data.remove( placeholder );
+		}
 	}
 	
 	/**
@@ -660,7 +786,7 @@ public void remove( Key placeholder ){
 	 * @return all placeholders
 	 */
 	public Key[] getPlaceholders(){
-		Set<Key> set = data.keySet();
+		Set<Key> set = content.data.keySet();
 		return set.toArray( new Key[ set.size() ] );
 	}
 	
@@ -672,11 +798,11 @@ public Key[] getPlaceholders(){
 	 * known to this map
 	 */
 	public String[] getKeys( Key placeholder ){
-		Map<String,Object> map = data.get( placeholder );
-		if( map == null ){
+		Values values = content.data.get( placeholder );
+		if( values == null ){
 			return null;
 		}
-		Set<String> set = map.keySet();
+		Set<String> set = values.values.keySet();
 		return set.toArray( new String[ set.size() ] );
 	}
 	
@@ -685,7 +811,7 @@ public String[] getKeys( Key placeholder ){
 	 * @return <code>true</code> if there are no data stored in this map
 	 */
 	public boolean isEmpty(){
-		return data.isEmpty();
+		return content.data.isEmpty();
 	}
 	
 	/**
@@ -802,7 +928,10 @@ public void put( Key placeholder, String key, Object value ){
 		
 		if( invalid == null ){
 			add( placeholder );
-			data.get( placeholder ).put( key, value );
+			ownValues( placeholder ).put( key, value );
+			if( value instanceof PlaceholderMap || value instanceof Object[] ){
+				escaped( placeholder );
+			}
 		}
 		else{
 			throw new IllegalArgumentException( "value of illegal type: " + (invalid instanceof String ? invalid : invalid.getClass() ));
@@ -842,11 +971,11 @@ private Object invalidType( Object value ){
 	 * @return the data that was removed, may be <code>null</code>
 	 */
 	public Object remove( Key placeholder, String key ){
-		Map<String, Object> map = data.get( placeholder );
-		if( map == null ){
+		Values values = content.data.get( placeholder );
+		if( values == null || !values.values.containsKey( key )){
 			return null;
 		}
-		return map.remove( key );
+		return ownValues( placeholder ).remove( key );
 	}
 	
 	/**
@@ -856,7 +985,8 @@ public Object remove( Key placeholder, String key ){
 	 * @return <code>true</code> if there is some data stored
 	 */
 	public boolean contains( Key placeholder, String key ){
-		return get( placeholder, key ) != null;
+		Values values = content.data.get( placeholder );
+		return values != null && values.values.get( key ) != null;
 	}
 	
 	/**
@@ -1002,16 +1132,105 @@ public Object[] getArray( Key placeholder, String key ){
 	 * @return the data, may be <code>null</code>
 	 */
 	public Object get( Key placeholder, String key ){
-		Map<String, Object> map = data.get( placeholder );
-		if( map == null ){
+		Values values = content.data.get( placeholder );
+		if( values == null ){
 			return null;
 		}
-		return map.get( key );
+		Object value = values.values.get( key );
+		if( value instanceof PlaceholderMap || value instanceof Object[] ){
+			// the client may modify the value, so it must not be shared
+			if( content.shared || values.shared ){
+				value = ownValues( placeholder ).get( key );
+			}
+			escaped( placeholder );
+		}
+		return value;
+	}
+	
+	/**
+	 * Marks the values of <code>placeholder</code> as known to the client. The values must be owned by this map.
+	 * @param placeholder the key whose values contain a {@link PlaceholderMap} or an array the client knows about
+	 */
+	private void escaped( Key placeholder ){
+		content.data.get( placeholder ).escaped = true;
+		content.escaped = true;
 	}
 	
 	@Override
 	public String toString(){
-		return data.toString();
+		return content.data.toString();
+	}
+	
+	/**
+	 * The data of a {@link PlaceholderMap}, may be shared by several maps. A map must call
+	 * {@link PlaceholderMap#ownContent()} before modifying its content.
+	 * @author Benjamin Sigg
+	 */
+	private static class Content{
+		/** all the data that is stored in the map */
+		private Map<Key, Values> data = new LinkedHashMap<Key, Values>();
+		/** whether this object is used by more than one map */
+		private boolean shared = false;
+		/** whether at least one {@link Values} object is {@link Values#escaped escaped} */
+		private boolean escaped = false;
+		
+		/**
+		 * Creates a copy of this content, the copy shares all its {@link Values} with this content.
+		 * @return the copy, not shared
+		 */
+		public Content copy(){
+			Content result = new Content();
+			result.data = new LinkedHashMap<Key, Values>( data );
+			for( Values values : data.values() ){
+				values.shared = true;
+			}
+			result.escaped = escaped;
+			return result;
+		}
+	}
+	
+	/**
+	 * The values that are associated with one {@link Key}, may be shared by several {@link Content}s.
+	 * A map must call {@link PlaceholderMap#ownValues(Key)} before modifying the values.
+	 * @author Benjamin Sigg
+	 */
+	private static class Values{
+		/** the values of one key */
+		private Map<String, Object> values = new LinkedHashMap<String, Object>();
+		/** whether this object is used by more than one {@link Content} */
+		private boolean shared = false;
+		/** whether a {@link PlaceholderMap} or an array of this object was given to the client */
+		private boolean escaped = false;
+		
+		/**
+		 * Tells whether there is at least one value that can be modified, i.e. a {@link PlaceholderMap} or an array.
+		 * @return whether there are mutable values
+		 */
+		public boolean isMutable(){
+			for( Object value : values.values() ){
+				if( value instanceof PlaceholderMap || value instanceof Object[] ){
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * Creates a copy of this object, {@link PlaceholderMap}s and arrays are copied as well.
+		 * @return the copy, not shared
+		 */
+		public Values copy(){
+			Values result = new Values();
+			for( Map.Entry<String, Object> entry : values.entrySet() ){
+				result.values.put( entry.getKey(), PlaceholderMap.copy( entry.getValue() ) );
+			}
+			return result;
+		}
+		
+		@Override
+		public String toString(){
+			return values.toString();
+		}
 	}
 	
 	/**
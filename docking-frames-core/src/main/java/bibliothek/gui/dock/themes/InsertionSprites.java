@@ -0,0 +1,209 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.themes;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import bibliothek.gui.dock.station.StationPaint;
+
+/**
+ * A cache of translucent images that can be shared by the {@link StationPaint}s of the different themes.
+ * While the user drags a {@link bibliothek.gui.Dockable} around, the insertion marker is repainted for
+ * every single movement of the mouse. Anti-aliased shapes like rounded rectangles are expensive to render,
+ * hence this class renders their corners only once into a small image, and then assembles a marker of any
+ * size out of these pieces (nine-slice painting). Markers made of plain rectangles do not need this cache,
+ * filling a rectangle is already as cheap as copying an image.
+ * @author Benjamin Sigg
+ */
+public final class InsertionSprites {
+	/** the maximum number of sprites that are kept in memory */
+	private static final int MAX_SPRITES = 8;
+
+	/** all the sprites that are currently cached, in least recently used order */
+	private static final Map<SpriteKey, BufferedImage> sprites = new LinkedHashMap<SpriteKey, BufferedImage>( 16, 0.75f, true ){
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<SpriteKey, BufferedImage> eldest ){
+			return size() > MAX_SPRITES;
+		}
+	};
+
+	private InsertionSprites(){
+		// nothing
+	}
+
+	/**
+	 * Paints a filled rounded rectangle with a border. The result is the same as calling
+	 * {@link Graphics2D#drawRoundRect(int, int, int, int, int, int) drawRoundRect} and
+	 * {@link Graphics2D#fillRoundRect(int, int, int, int, int, int) fillRoundRect} with
+	 * a stroke of width <code>border</code>, anti-aliasing enabled and a composite of type
+	 * {@link AlphaComposite#SRC_ATOP} with constant alpha <code>alpha</code>.
+	 * @param g the graphics to paint on, its composite and color will not be changed
+	 * @param color the color of the rectangle
+	 * @param alpha the transparency of the fill and of the border
+	 * @param border the width of the border
+	 * @param arc the diameter of the arc in the corners
+	 * @param x the left end of the rectangle
+	 * @param y the top end of the rectangle
+	 * @param width the width of the rectangle
+	 * @param height the height of the rectangle
+	 */
+	public static void paintRoundRect( Graphics2D g, Color color, float alpha, float border, int arc, int x, int y, int width, int height ){
+		int pad = padding( border );
+		int corner = (arc+1) / 2 + pad;
+
+		if( width < 2*arc || height < 2*arc ){
+			// too small, the corners would overlap
+			Graphics2D g2 = (Graphics2D)g.create();
+			paintRoundRectDirect( g2, color, alpha, border, arc, x, y, width, height );
+			g2.dispose();
+			return;
+		}
+
+		BufferedImage sprite = getRoundRectSprite( color, alpha, border, arc );
+		int size = sprite.getWidth();
+		int middle = corner;
+
+		// the area covered by the sprite, the rectangle plus the outer half of the border
+		int x1 = x - pad;
+		int y1 = y - pad;
+		int x2 = x + width + pad;
+		int y2 = y + height + pad;
+
+		Composite oldComposite = g.getComposite();
+		g.setComposite( AlphaComposite.SrcAtop );
+
+		// corners
+		g.drawImage( sprite, x1, y1, x1+corner, y1+corner, 0, 0, corner, corner, null );
+		g.drawImage( sprite, x2-corner, y1, x2, y1+corner, size-corner, 0, size, corner, null );
+		g.drawImage( sprite, x1, y2-corner, x1+corner, y2, 0, size-corner, corner, size, null );
+		g.drawImage( sprite, x2-corner, y2-corner, x2, y2, size-corner, size-corner, size, size, null );
+
+		// edges
+		g.drawImage( sprite, x1+corner, y1, x2-corner, y1+corner, middle, 0, middle+1, corner, null );
+		g.drawImage( sprite, x1+corner, y2-corner, x2-corner, y2, middle, size-corner, middle+1, size, null );
+		g.drawImage( sprite, x1, y1+corner, x1+corner, y2-corner, 0, middle, corner, middle+1, null );
+		g.drawImage( sprite, x2-corner, y1+corner, x2, y2-corner, size-corner, middle, size, middle+1, null );
+
+		// center
+		g.drawImage( sprite, x1+corner, y1+corner, x2-corner, y2-corner, middle, middle, middle+1, middle+1, null );
+
+		g.setComposite( oldComposite );
+	}
+
+	/**
+	 * Gets the number of pixels a border of width <code>border</code> needs outside the shape it surrounds.
+	 * @param border the width of the border
+	 * @return the space outside the shape, including one pixel for anti-aliasing
+	 */
+	private static int padding( float border ){
+		return (int)Math.ceil( border / 2 ) + 1;
+	}
+
+	private static void paintRoundRectDirect( Graphics2D g, Color color, float alpha, float border, int arc, int x, int y, int width, int height ){
+		g.setColor( color );
+		g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+		g.setStroke( new BasicStroke( border ));
+		g.setComposite( AlphaComposite.getInstance( AlphaComposite.SRC_ATOP, alpha ) );
+		g.drawRoundRect( x, y, width, height, arc, arc );
+		g.fillRoundRect( x, y, width, height, arc, arc );
+	}
+
+	private static BufferedImage getRoundRectSprite( Color color, float alpha, float border, int arc ){
+		SpriteKey key = new SpriteKey( color.getRGB(), alpha, border, arc );
+		synchronized( sprites ){
+			BufferedImage sprite = sprites.get( key );
+			if( sprite == null ){
+				// the sprite contains the four corners and a one pixel wide straight line between them
+				int pad = padding( border );
+				int corner = (arc+1) / 2 + pad;
+				int size = 2*corner + 1;
+
+				sprite = new BufferedImage( size, size, BufferedImage.TYPE_INT_ARGB );
+				Graphics2D g = sprite.createGraphics();
+				int length = size - 2*pad;
+				g.setColor( color );
+				g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+				g.setStroke( new BasicStroke( border ));
+				g.setComposite( AlphaComposite.getInstance( AlphaComposite.SRC_OVER, alpha ) );
+				g.drawRoundRect( pad, pad, length, length, arc, arc );
+				g.fillRoundRect( pad, pad, length, length, arc, arc );
+				g.dispose();
+
+				sprites.put( key, sprite );
+			}
+			return sprite;
+		}
+	}
+
+	/**
+	 * Describes the properties of one sprite.
+	 * @author Benjamin Sigg
+	 */
+	private static class SpriteKey{
+		private final int rgb;
+		private final float alpha;
+		private final float border;
+		private final int arc;
+
+		public SpriteKey( int rgb, float alpha, float border, int arc ){
+			this.rgb = rgb;
+			this.alpha = alpha;
+			this.border = border;
+			this.arc = arc;
+		}
+
+		@Override
+		public int hashCode(){
+			int result = rgb;
+			result = 31 * result + Float.floatToIntBits( alpha );
+			result = 31 * result + Float.floatToIntBits( border );
+			result = 31 * result + arc;
+			return result;
+		}
+
+		@Override
+		public boolean equals( Object obj ){
+			if( this == obj ){
+				return true;
+			}
+			if( !(obj instanceof SpriteKey) ){
+				return false;
+			}
+			SpriteKey other = (SpriteKey)obj;
+			return rgb == other.rgb && arc == other.arc &&
+				Float.floatToIntBits( alpha ) == Float.floatToIntBits( other.alpha ) &&
+				Float.floatToIntBits( border ) == Float.floatToIntBits( other.border );
+		}
+	}
+}
@@ -38,6 +38,8 @@
 import bibliothek.gui.DockTheme;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.control.DockRegister;
+import bibliothek.gui.dock.control.instrumentation.DockInstrumentation;
+import bibliothek.gui.dock.control.instrumentation.DockOperation;
 import bibliothek.gui.dock.event.UIListener;
 import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerFactory;
@@ -255,43 +257,50 @@ public void setTheme( DockTheme theme ){
     		throw new IllegalArgumentException( "Theme must not be null" );
     	
     	if( this.theme != theme ){
-    		for( UIListener listener : uiListeners() )
-    			listener.themeWillChange( controller, this.theme, theme );
-    		
-    		DockRegister register = controller.getRegister();
-    		DockTheme oldTheme = this.theme;
-    		Dockable focused = null;
+    		DockInstrumentation instrumentation = controller.getInstrumentation();
+    		long begin = instrumentation.begin( DockOperation.THEME_SWITCH );
     		try{
-    			register.setStalled( true );
-    			focused = controller.getFocusedDockable();
-    			
-	    		if( this.theme != null )
-	    			this.theme.uninstall( controller );
+	    		for( UIListener listener : uiListeners() )
+	    			listener.themeWillChange( controller, this.theme, theme );
 	    		
-	    		this.theme = theme;
-	    		
-	    		ExtensionName<DockThemeExtension> name = new ExtensionName<DockThemeExtension>( 
-	    				DockThemeExtension.DOCK_THEME_EXTENSION, DockThemeExtension.class, DockThemeExtension.THEME_PARAMETER, theme );
-	    		List<DockThemeExtension> extensions = controller.getExtensions().load( name );
-	    		
-	    		theme.install( controller, extensions.toArray( new DockThemeExtension[ extensions.size() ] ) );
-	    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
-	    		
-	    		// update only those station which are registered to this controller
-	    		for( DockStation station : register.listDockStations() ){
-	    			if( station.getController() == controller ){
-	    				station.updateTheme();
-	    			}
+	    		DockRegister register = controller.getRegister();
+	    		DockTheme oldTheme = this.theme;
+	    		Dockable focused = null;
+	    		try{
+	    			register.setStalled( true );
+	    			focused = controller.getFocusedDockable();
+	    			
+		    		if( this.theme != null )
+		    			this.theme.uninstall( controller );
+		    		
+		    		this.theme = theme;
+		    		
+		    		ExtensionName<DockThemeExtension> name = new ExtensionName<DockThemeExtension>( 
+		    				DockThemeExtension.DOCK_THEME_EXTENSION, DockThemeExtension.class, DockThemeExtension.THEME_PARAMETER, theme );
+		    		List<DockThemeExtension> extensions = controller.getExtensions().load( name );
+		    		
+		    		theme.install( controller, extensions.toArray( new DockThemeExtension[ extensions.size() ] ) );
+		    		controller.getDockTitleManager().registerTheme( DockTitleManager.THEME_FACTORY_ID, theme.getTitleFactory( controller ) );
+		    		
+		    		// update only those station which are registered to this controller
+		    		for( DockStation station : register.listDockStations() ){
+		    			if( station.getController() == controller ){
+		    				station.updateTheme();
+		    			}
+		    		}
 	    		}
+	    		finally{
+	    			register.setStalled( false );
+	    		}
+		    		
+	    		controller.setFocusedDockable( focused, null, true );
+	    		
+	    		for( UIListener listener : uiListeners() )
+	    			listener.themeChanged( controller, oldTheme, theme );
     		}
     		finally{
-    			register.setStalled( false );
+    			instrumentation.end( DockOperation.THEME_SWITCH, begin );
     		}
-	    		
-    		controller.setFocusedDockable( focused, null, true );
-    		
-    		for( UIListener listener : uiListeners() )
-    			listener.themeChanged( controller, oldTheme, theme );
     	}
 	}
     
@@ -25,29 +25,27 @@
  */
 package bibliothek.gui.dock.themes.basic;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Collection;
+import java.awt.Component;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 
-import javax.swing.Timer;
-
+import bibliothek.gui.DockStation;
 import bibliothek.gui.dock.station.span.Span;
 import bibliothek.gui.dock.station.span.SpanCallback;
 import bibliothek.gui.dock.station.span.SpanFactory;
 import bibliothek.gui.dock.station.span.SpanMode;
+import bibliothek.gui.dock.util.AnimationClock;
+import bibliothek.gui.dock.util.ClockedAnimation;
 
 /**
- * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s.
+ * The {@link BasicSpanFactory} uses a small animation to expand and to shrink its {@link Span}s. The
+ * animations are driven by the {@link AnimationClock} of the {@link bibliothek.gui.DockController} 
+ * of the station that uses a {@link Span}.
  * @author Benjamin Sigg
  */
 public class BasicSpanFactory implements SpanFactory{
 	private int duration;
 	private int minSpeed;
-	private Timer timer;
-	private Collection<BasicSpan> ticking = new HashSet<BasicSpan>(); 
 	
 	/**
 	 * Creates a new factory
@@ -57,15 +55,6 @@ public class BasicSpanFactory implements SpanFactory{
 	public BasicSpanFactory( int duration, int minSpeed ){
 		setDuration( duration );
 		setMinSpeed( minSpeed );
-		timer = new Timer( 0, new ActionListener(){
-			public void actionPerformed( ActionEvent e ){
-				tick();
-			}
-		} );
-		timer.setRepeats( true );
-		timer.setCoalesce( true );
-		timer.setDelay( 20 );
-		timer.setInitialDelay( 0 );
 	}
 	
 	/**
@@ -102,32 +91,10 @@ public Span create( SpanCallback callback ){
 		return new BasicSpan( callback );
 	}
 	
-	private synchronized void start( BasicSpan span ){
-		if( ticking.isEmpty() ){
-			ticking.add( span );
-			timer.start();
-		}
-		else{
-			ticking.add( span );
-		}
-	}
-	
-	private synchronized void stop( BasicSpan span ){
-		ticking.remove( span );
-		if( ticking.isEmpty() ){
-			timer.stop();
-		}
-	}
-	
-	private synchronized void tick(){
-		long now = System.nanoTime();
-		for( BasicSpan span : ticking.toArray( new BasicSpan[ ticking.size() ] ) ){
-			span.tick( now );
-		}
-	}
-	
-	private class BasicSpan implements Span {
+	private class BasicSpan implements Span, ClockedAnimation {
 		private SpanCallback callback;
+		/** the clock that currently plays this span, <code>null</code> if there is no animation running */
+		private AnimationClock clock;
 		private Map<SpanMode, Integer> sizes = new HashMap<SpanMode, Integer>( 2 );
 		private SpanMode currentMode;
 		
@@ -154,12 +121,12 @@ public void mutate( SpanMode mode ){
 				
 				animationDuration = 0;
 				animationStart = -1;
-				start( this );
+				start();
 			}
 		}
 
 		public void set( SpanMode mode ){
-			stop( this );
+			stop();
 			animationDuration = -1;
 			sizeTarget = getSize( mode );
 			callback.resized();
@@ -182,16 +149,48 @@ public void configureSize( SpanMode mode, int size ){
 			}
 		}
 		
-		public void tick( long now ){
+		private void start(){
+			if( clock == null ){
+				DockStation station = callback.getStation();
+				clock = AnimationClock.get( station == null ? null : station.getController() );
+			}
+			clock.start( this );
+		}
+		
+		private void stop(){
+			if( clock != null ){
+				clock.stop( this );
+				clock = null;
+			}
+		}
+		
+		public Component getAnimatedComponent(){
+			DockStation station = callback.getStation();
+			if( station == null || station.asDockable() == null ){
+				return null;
+			}
+			return station.asDockable().getComponent();
+		}
+		
+		public boolean pulse( int delta ){
+			long now = System.nanoTime();
 			if( animationStart == -1 ){
 				animationStart = now;
 			}
 			animationDuration = (int)((now - animationStart) / 1000000);
-			if( animationDuration >= duration ){
+			boolean running = animationDuration < duration;
+			if( !running ){
 				animationDuration = -1;
-				stop( this );
+				clock = null;
 			}
 			callback.resized();
+			return running;
+		}
+		
+		public void finish(){
+			clock = null;
+			animationDuration = -1;
+			callback.resized();
 		}
 
 		public int getSize(){
@@ -33,8 +33,12 @@
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Insets;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
@@ -66,7 +70,10 @@
  * using this panel should call {@link #getPreferredSizes()} to get a list of 
  * possible sizes of this panel, and then {@link #setVisibleActions(int)}
  * in order to use one size. This panel will {@link #revalidate()} itself 
- * whenever the number of actions changes.  
+ * whenever the number of actions changes.<br>
+ * The graphical representations of the actions are only created once this panel
+ * is {@link #isShowing() showing}. Representations that are no longer used are kept
+ * for a while, and used again if the same action has to be shown for the same {@link Dockable}.
  * @author Benjamin Sigg
  */
 public class ButtonPanel extends JPanel{
@@ -96,6 +103,21 @@ public class ButtonPanel extends JPanel{
     /** the number of actions visible as button, might be -1 to indicate the the value is unknown */
     private int visibleActions = -1;
     
+    /** whether the menu item was already created */
+    private boolean menuCreated = false;
+    
+    /** items that are no longer used, but may be used again for the same action */
+    private LinkedList<ActionItem> recycled = new LinkedList<ActionItem>();
+    
+    /** the controller for which the items in {@link #recycled} were created */
+    private DockController recycledController;
+    
+    /** the maximum number of items stored in {@link #recycled} */
+    private static final int RECYCLE_LIMIT = 16;
+    
+    /** the result of {@link #getPreferredSizes()}, only valid as long as this panel is valid */
+    private Dimension[] preferredSizes;
+    
     /** the currently used order for {@link DockAction}s */
     private PropertyValue<DockActionImportanceOrder> actionOrder = new PropertyValue<DockActionImportanceOrder>( DockActionImportanceOrder.ORDER ){
     	@Override
@@ -125,6 +147,17 @@ protected void changed( Icon oldValue, Icon newValue ){
 		setFocusable( false );
 		setFocusTraversalPolicyProvider( true );
 		setFocusTraversalPolicy( new ContainerOrderFocusTraversalPolicy() );
+		
+		addHierarchyListener( new HierarchyListener(){
+			public void hierarchyChanged( HierarchyEvent e ){
+				if( (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 ){
+					if( createItems() ){
+						resetVisibleActions();
+						revalidate();
+					}
+				}
+			}
+		});
 	}
 	
     /**
@@ -169,6 +202,7 @@ public void setOrientation( Orientation orientation ){
     			if( item.item != null )
     				item.item.setOrientation( orientation );
     		
+    		preferredSizes = null;
     		revalidate();
     	}
 	}
@@ -254,10 +288,7 @@ public void set( Dockable dockable, DockActionSource source, boolean force ){
     			removeAll();
     			
     			for( ActionItem item : actions ){
-    				if( item.item != null ){
-    					item.item.unbind();
-    					item.action.unbind( this.dockable );
-    				}
+    				release( item );
     			}
     			
     			if( menuAction != null ){
@@ -265,6 +296,7 @@ public void set( Dockable dockable, DockActionSource source, boolean force ){
 	    				menuItem.unbind();
 	    				menuItem = null;
 	    			}
+	    			menuCreated = false;
 	    			
 	    			menuAction.unbind( this.dockable );
 	    			menuSource.removeAll();
@@ -274,24 +306,19 @@ public void set( Dockable dockable, DockActionSource source, boolean force ){
     			this.source.removeDockActionSourceListener( listener );
     		}
     		
+    		if( this.dockable != dockable ){
+    			recycled.clear();
+    		}
+    		
     		this.source = source;
     		this.dockable = dockable;
+    		preferredSizes = null;
     		
     		listener.setDockable( dockable );
     		
     		if( source != null ){
     			if( menuAction != null ){
 	    			menuAction.bind( dockable );
-	    			
-	    			if( dockable.getController() != null ){
-		    			menuItem = createItemFor( menuAction, dockable );
-		    			if( menuItem != null ){
-			    			menuItem.setOrientation( orientation );
-			    			menuItem.setForeground( getForeground() );
-			    			menuItem.setBackground( getBackground() );
-			    			menuItem.bind();
-		    			}
-	    			}
     			}
     			
     			source.addDockActionSourceListener( listener );
@@ -299,19 +326,9 @@ public void set( Dockable dockable, DockActionSource source, boolean force ){
     				ActionItem actionItem = new ActionItem();
     				actionItem.action = action;
     				actions.add( actionItem );
-    				if( dockable.getController() != null ){
-	    				BasicTitleViewItem<JComponent> item = createItemFor( action, dockable );
-	    				if( item != null ){
-	    					action.bind( dockable );
-	    					item.bind();
-	    					actionItem.item = item;
-	    					
-	    					item.setOrientation( orientation );
-	    					item.setForeground( getForeground() );
-	    					item.setBackground( getBackground() );
-	    				}
-    				}
     			}
+    			
+    			createItems();
     		}
         	
     		
@@ -426,14 +443,132 @@ private ActionItem[] getItemsOrdered(){
 		return result;
 	}
 	
+	/**
+	 * Creates the graphical representations of all actions which do not yet have
+	 * one. Nothing happens if this panel is not {@link #isShowing() showing}.
+	 * @return <code>true</code> if at least one item was created
+	 */
+	private boolean createItems(){
+		if( dockable == null || !isShowing() ){
+			return false;
+		}
+		DockController controller = dockable.getController();
+		if( controller == null ){
+			return false;
+		}
+		if( recycledController != controller ){
+			recycled.clear();
+			recycledController = controller;
+		}
+		
+		boolean changed = false;
+		
+		if( menuAction != null && !menuCreated ){
+			menuCreated = true;
+			menuItem = createItemFor( menuAction, dockable );
+			if( menuItem != null ){
+    			menuItem.setOrientation( orientation );
+    			menuItem.setForeground( getForeground() );
+    			menuItem.setBackground( getBackground() );
+    			menuItem.bind();
+    			changed = true;
+			}
+		}
+		
+		for( ActionItem entry : actions ){
+			if( !entry.created ){
+				entry.created = true;
+				BasicTitleViewItem<JComponent> item = recycle( entry.action );
+				if( item == null ){
+					item = createItemFor( entry.action, dockable );
+				}
+				if( item != null ){
+					entry.action.bind( dockable );
+					item.bind();
+					entry.item = item;
+					
+					item.setOrientation( orientation );
+					item.setForeground( getForeground() );
+					item.setBackground( getBackground() );
+					changed = true;
+				}
+			}
+		}
+		
+		if( changed ){
+			preferredSizes = null;
+		}
+		return changed;
+	}
+	
+	/**
+	 * Searches an unused item that was created for <code>action</code> and {@link #dockable}.
+	 * @param action the action whose item is searched
+	 * @return the item or <code>null</code> if not found
+	 */
+	private BasicTitleViewItem<JComponent> recycle( DockAction action ){
+		for( Iterator<ActionItem> iterator = recycled.iterator(); iterator.hasNext(); ){
+			ActionItem entry = iterator.next();
+			if( entry.action == action ){
+				iterator.remove();
+				return entry.item;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Unbinds the item of <code>entry</code> and stores the item for later use.
+	 * @param entry the entry that is no longer shown
+	 */
+	private void release( ActionItem entry ){
+		if( entry.item != null ){
+			entry.item.unbind();
+			entry.action.unbind( dockable );
+			
+			recycled.addFirst( entry );
+			if( recycled.size() > RECYCLE_LIMIT ){
+				recycled.removeLast();
+			}
+		}
+	}
+	
+	@Override
+	public void invalidate(){
+		preferredSizes = null;
+		super.invalidate();
+	}
+	
 	/**
 	 * Computes the preferred sizes of this panel. Dimension <code>result[n]</code> 
 	 * would be the size required if <code>n</code> actions are shown. The number
-	 * <code>n</code> should be used for calling {@link #setVisibleActions(int)}.
+	 * <code>n</code> should be used for calling {@link #setVisibleActions(int)}.<br>
+	 * The result is cached as long as this panel is {@link #isValid() valid}.
 	 * @return An array of the size of the number of available actions +1.
 	 * @see #setVisibleActions(int)
 	 */
 	public Dimension[] getPreferredSizes(){
+		Dimension[] cached = preferredSizes;
+		if( cached == null ){
+			cached = computePreferredSizes();
+			if( isValid() ){
+				preferredSizes = cached;
+			}
+		}
+		
+		Dimension[] result = new Dimension[ cached.length ];
+		for( int i = 0; i < result.length; i++ ){
+			result[i] = new Dimension( cached[i] );
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the preferred sizes of this panel.
+	 * @return the preferred sizes
+	 * @see #getPreferredSizes()
+	 */
+	private Dimension[] computePreferredSizes(){
 		if( actions.isEmpty() )
 			return new Dimension[]{ new Dimension( 0, 0 ) };
 		
@@ -565,6 +700,7 @@ public void setVisibleActions( int count ){
 	 * Update the components shown on this panel.
 	 */
 	private void resetVisibleActions(){
+		preferredSizes = null;
 	    removeAll();
 	    if( menuItem == null ){
 	        for( ActionItem entry : actions ){
@@ -701,6 +837,8 @@ public void doLayout(){
 	private static class ActionItem{
 		public DockAction action;
 		public BasicTitleViewItem<JComponent> item;
+		/** whether there was an attempt to create {@link #item} */
+		public boolean created = false;
 	}
 	
 	private class Listener implements DockActionSourceListener, DockHierarchyListener{
@@ -759,34 +897,18 @@ public void actionsAdded( DockActionSource source, int firstIndex, int lastIndex
                 DockAction action = source.getDockAction( i );
                 ActionItem entry = new ActionItem();
                 entry.action = action;
-                if( dockable.getController() != null ){
-	                BasicTitleViewItem<JComponent> item = createItemFor( action, dockable );
-	                entry.item = item;
-	                
-	                if( item != null ){
-	                	action.bind( dockable );
-	                    item.bind();
-	                    item.setOrientation( orientation );
-	                    item.setForeground( getForeground() );
-		                item.setBackground( getBackground() );
-	                }
-                }
-            
                 actions.add( i, entry );
             }
             
+            createItems();
+            
             visibleActions = actions.size();
             resetVisibleActions();
             revalidate();
         }
         public void actionsRemoved( DockActionSource source, int firstIndex, int lastIndex ) {
             for( int i = lastIndex; i >= firstIndex; i-- ){
-            	ActionItem entry = actions.remove( i );
-                
-                if( entry.item != null ){
-                	entry.item.unbind();
-                	entry.action.unbind( dockable );
-                }
+            	release( actions.remove( i ) );
             }
             
             visibleActions = actions.size();
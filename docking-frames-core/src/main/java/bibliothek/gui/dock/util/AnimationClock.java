@@ -0,0 +1,199 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+import bibliothek.gui.DockController;
+import bibliothek.util.ListenerList;
+
+/**
+ * A single source of pulses for all the {@link ClockedAnimation}s of one {@link DockController}. 
+ * Instead of having one {@link Timer} per animation, all the animations advance in the same event
+ * of the EDT, which also means that their repaint requests are collected and handled together. The 
+ * clock caps the frame rate, and animations whose component is not showing are finished immediately
+ * instead of being played.<br>
+ * This class is not thread safe, it must be used only on the EDT.
+ * @author Benjamin Sigg
+ * @see DockController#getAnimationClock()
+ */
+public class AnimationClock {
+	/** the default number of frames per second */
+	public static final int DEFAULT_FRAME_RATE = 50;
+	
+	/** the clock used by animations which are not associated with any {@link DockController} */
+	private static AnimationClock defaultClock;
+	
+	/** all the animations that are currently running */
+	private ListenerList<ClockedAnimation> animations = new ListenerList<ClockedAnimation>( ClockedAnimation.class );
+	
+	/** the only source of pulses */
+	private Timer timer;
+	
+	/** the time of the last pulse in milliseconds */
+	private long last;
+	
+	/** the maximum number of frames per second */
+	private int frameRate;
+	
+	/**
+	 * Creates a new clock with a frame rate of {@link #DEFAULT_FRAME_RATE}.
+	 */
+	public AnimationClock(){
+		timer = new Timer( 1000 / DEFAULT_FRAME_RATE, new ActionListener(){
+			public void actionPerformed( ActionEvent e ){
+				pulse();
+			}
+		});
+		timer.setCoalesce( true );
+		timer.setRepeats( true );
+		frameRate = DEFAULT_FRAME_RATE;
+	}
+	
+	/**
+	 * Gets the clock which is used by animations that are not associated with any {@link DockController}.
+	 * @return the shared clock, not <code>null</code>
+	 */
+	public static AnimationClock getDefault(){
+		if( defaultClock == null ){
+			defaultClock = new AnimationClock();
+		}
+		return defaultClock;
+	}
+	
+	/**
+	 * Gets the clock that should be used for animations shown in the realm of <code>controller</code>.
+	 * @param controller the controller, can be <code>null</code>
+	 * @return the clock of <code>controller</code> or the {@link #getDefault() default clock}
+	 */
+	public static AnimationClock get( DockController controller ){
+		if( controller == null ){
+			return getDefault();
+		}
+		return controller.getAnimationClock();
+	}
+	
+	/**
+	 * Sets the maximum number of frames per second.
+	 * @param frameRate the number of frames, at least 1
+	 */
+	public void setFrameRate( int frameRate ){
+		if( frameRate < 1 ){
+			throw new IllegalArgumentException( "frameRate must be at least 1" );
+		}
+		this.frameRate = frameRate;
+		timer.setDelay( Math.max( 1, 1000 / frameRate ) );
+	}
+	
+	/**
+	 * Gets the maximum number of frames per second.
+	 * @return the frame rate
+	 */
+	public int getFrameRate(){
+		return frameRate;
+	}
+	
+	/**
+	 * Starts playing <code>animation</code>, does nothing if <code>animation</code> is already running.
+	 * @param animation the animation to play
+	 */
+	public void start( ClockedAnimation animation ){
+		if( !animations.contains( animation )){
+			animations.add( animation );
+			if( !timer.isRunning() ){
+				last = System.currentTimeMillis();
+				timer.start();
+			}
+		}
+	}
+	
+	/**
+	 * Stops playing <code>animation</code>, the animation remains in its current state.
+	 * @param animation the animation to stop
+	 */
+	public void stop( ClockedAnimation animation ){
+		animations.remove( animation );
+		if( animations.isEmpty() ){
+			timer.stop();
+		}
+	}
+	
+	/**
+	 * Tells whether <code>animation</code> is currently played by this clock.
+	 * @param animation the animation to search
+	 * @return <code>true</code> if <code>animation</code> is running
+	 */
+	public boolean isRunning( ClockedAnimation animation ){
+		return animations.contains( animation );
+	}
+	
+	/**
+	 * Gets the number of animations that are currently running.
+	 * @return the number of animations
+	 */
+	public int getAnimationCount(){
+		return animations.size();
+	}
+	
+	/**
+	 * Finishes all animations and stops this clock.
+	 */
+	public void kill(){
+		for( ClockedAnimation animation : animations.get() ){
+			animations.remove( animation );
+			animation.finish();
+		}
+		timer.stop();
+	}
+	
+	/**
+	 * Advances all the running animations by one frame.
+	 */
+	private void pulse(){
+		long now = System.currentTimeMillis();
+		int delta = (int)(now - last);
+		last = now;
+		
+		for( ClockedAnimation animation : animations.get() ){
+			Component component = animation.getAnimatedComponent();
+			if( component != null && !component.isShowing() ){
+				animations.remove( animation );
+				animation.finish();
+			}
+			else if( !animation.pulse( delta )){
+				animations.remove( animation );
+			}
+		}
+		
+		if( animations.isEmpty() ){
+			timer.stop();
+		}
+	}
+}
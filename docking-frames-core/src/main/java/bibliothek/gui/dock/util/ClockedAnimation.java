@@ -0,0 +1,56 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.util;
+
+import java.awt.Component;
+
+/**
+ * An animation that is driven by an {@link AnimationClock}. The clock calls {@link #pulse(int)} once per
+ * frame as long as the animation is running.
+ * @author Benjamin Sigg
+ */
+public interface ClockedAnimation {
+	/**
+	 * Gets the component which shows this animation. If the component is not showing, then
+	 * the animation is not played and {@link #finish()} is called instead.
+	 * @return the animated component or <code>null</code> if unknown
+	 */
+	public Component getAnimatedComponent();
+	
+	/**
+	 * Advances this animation.
+	 * @param delta the number of milliseconds since the last call of this method
+	 * @return <code>true</code> if this animation needs more frames, <code>false</code> if the animation 
+	 * is finished and should be removed from the clock
+	 */
+	public boolean pulse( int delta );
+	
+	/**
+	 * Immediately puts this animation into its final state. Called by the {@link AnimationClock} if
+	 * the {@link #getAnimatedComponent() animated component} is not showing. 
+	 */
+	public void finish();
+}
@@ -25,6 +25,7 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -68,6 +69,9 @@
     /** a list of all observers */
     private List<Observer> observers = new LinkedList<Observer>();
     
+    /** all observers grouped by the id of the resource they observe */
+    private Map<String, List<Observer>> observersById = new HashMap<String, List<Observer>>();
+    
     /** whether to stall updates or not */
     private int updateLock = 0;
     
@@ -277,19 +281,11 @@ private void schemeUpdate( Priority priority, UISchemeEvent<V, U, B> event ){
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( resourcesAccess.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
-    	Set<Path> result = new HashSet<Path>();
-    	for( Observer observer : observers ){
-    		result.add( observer.path );
-    	}
-    	return result;
+    	return new HashSet<Path>( bridgesAccess.keySet() );
     }
     
     /**
@@ -480,6 +476,12 @@ public void add( String id, Path path, U value ){
         
         Observer combination = new Observer( id, path, value );
         observers.add( combination );
+        List<Observer> group = observersById.get( id );
+        if( group == null ){
+        	group = new ArrayList<Observer>( 2 );
+        	observersById.put( id, group );
+        }
+        group.add( combination );
         combination.resetAll();
     }
     
@@ -493,6 +495,11 @@ public void remove( U value ){
             Observer next = list.next();
             if( next.getValue() == value ){
                 list.remove();
+                List<Observer> group = observersById.get( next.id );
+                group.remove( next );
+                if( group.isEmpty() ){
+                	observersById.remove( next.id );
+                }
                 next.destroy();
                 return;
             }
@@ -582,10 +589,11 @@ public void put( Priority priority, String id, V resource ){
         	
 	        if( value.set( priority, resource, scheme ) ){
 	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
+	                List<Observer> group = observersById.get( id );
+	                if( group != null ){
+	                	for( int i = 0; i < group.size(); i++ ){
+	                		group.get( i ).update( resource );
+	                	}
 	                }
 	            }
 	        }
@@ -0,0 +1,132 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * A copy-on-write list of listeners. Adding or removing a listener creates a new array, firing an
+ * event just reads the current array. Since most listener lists are modified rarely but read
+ * often, this list does not allocate any memory while an event is fired. The array returned by
+ * {@link #get()} is a snapshot, it is not affected if the list is modified while an event is fired.
+ * @author Benjamin Sigg
+ * @param <L> the type of the listeners
+ */
+public class ListenerList<L> {
+	/** the current listeners, this array must never be modified */
+	private L[] listeners;
+	
+	/**
+	 * Creates a new, empty list.
+	 * @param type the type of the listeners, used to create the arrays
+	 */
+	@SuppressWarnings("unchecked")
+	public ListenerList( Class<L> type ){
+		if( type == null ){
+			throw new IllegalArgumentException( "type must not be null" );
+		}
+		listeners = (L[])Array.newInstance( type, 0 );
+	}
+	
+	/**
+	 * Adds <code>listener</code> at the end of this list.
+	 * @param listener the new listener, not <code>null</code>
+	 */
+	public void add( L listener ){
+		if( listener == null ){
+			throw new IllegalArgumentException( "listener must not be null" );
+		}
+		L[] copy = Arrays.copyOf( listeners, listeners.length+1 );
+		copy[ listeners.length ] = listener;
+		listeners = copy;
+	}
+	
+	/**
+	 * Removes the first occurrence of <code>listener</code> from this list.
+	 * @param listener the listener to remove
+	 * @return <code>true</code> if <code>listener</code> was found
+	 */
+	public boolean remove( L listener ){
+		for( int i = 0; i < listeners.length; i++ ){
+			if( listeners[i] == listener || (listener != null && listener.equals( listeners[i] ))){
+				L[] copy = Arrays.copyOf( listeners, listeners.length-1 );
+				System.arraycopy( listeners, i+1, copy, i, listeners.length-i-1 );
+				listeners = copy;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Removes all listeners from this list.
+	 */
+	public void clear(){
+		if( listeners.length > 0 ){
+			listeners = Arrays.copyOf( listeners, 0 );
+		}
+	}
+	
+	/**
+	 * Tells whether <code>listener</code> is stored in this list.
+	 * @param listener the listener to search
+	 * @return <code>true</code> if <code>listener</code> was found
+	 */
+	public boolean contains( L listener ){
+		for( L check : listeners ){
+			if( check == listener || (listener != null && listener.equals( check ))){
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the number of listeners in this list.
+	 * @return the number of listeners
+	 */
+	public int size(){
+		return listeners.length;
+	}
+	
+	/**
+	 * Tells whether this list is empty.
+	 * @return <code>true</code> if there are no listeners
+	 */
+	public boolean isEmpty(){
+		return listeners.length == 0;
+	}
+	
+	/**
+	 * Gets the current listeners. The array is shared and must not be modified by the caller, 
+	 * it is not changed if this list is modified.
+	 * @return the current listeners
+	 */
+	public L[] get(){
+		return listeners;
+	}
+}
@@ -33,7 +33,8 @@
 
 /**
  * A cell in the grid of a {@link WizardSplitDockStation}, the cell offers information about
- * its current and its preferred size.
+ * its current and its preferred size. Once the cell is added to a {@link PersistentColumn}, the
+ * cell reads and writes its properties directly from the arrays of the column.
  * @author Benjamin Sigg
  */
 @FrameworkOnly
@@ -41,6 +42,11 @@
 	private int size;
 	private int preferred;
 	
+	/** the column which stores the properties of this cell, can be <code>null</code> */
+	private PersistentColumn column;
+	/** the index of this cell in {@link #column} */
+	private int index;
+	
 	public PersistentCell( int size, int preferred ){
 		this.size = size;
 		this.preferred = preferred;
@@ -49,19 +55,40 @@ public PersistentCell( int size, int preferred ){
 		}
 	}
 	
+	/**
+	 * Called by <code>column</code> once this cell was added to it.
+	 * @param column the owner of this cell
+	 * @param index the index of this cell in <code>column</code>
+	 */
+	void bind( PersistentColumn column, int index ){
+		this.column = column;
+		this.index = index;
+	}
+	
 	/**
 	 * Changes the size of this cell.
 	 * @param size the new size of this cell
 	 */
 	public void setSize( int size ){
-		this.size = size;
+		if( column == null ){
+			this.size = size;
+		}
+		else{
+			column.setCellSize( index, size );
+		}
 	}
 	
 	public int getSize(){
-		return size;
+		if( column == null ){
+			return size;
+		}
+		return column.getCellSize( index );
 	}
 	
 	public int getPreferredSize(){
-		return preferred;
+		if( column == null ){
+			return preferred;
+		}
+		return column.getCellPreferredSize( index );
 	}
 }
\ No newline at end of file
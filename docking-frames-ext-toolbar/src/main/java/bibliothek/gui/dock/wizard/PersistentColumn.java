@@ -36,7 +36,9 @@
 
 /**
  * A column in the grid of a {@link WizardSplitDockStation}, the column offers information
- * about its current and preferred size. It also offers a list of all its cells.
+ * about its current and preferred size. It also offers a list of all its cells.<br>
+ * The sizes of the cells are stored in arrays, the {@link PersistentCell}s of this column
+ * only offer a view onto these arrays.
  * @author Benjamin Sigg
  */
 @FrameworkOnly
@@ -45,6 +47,13 @@
 	private int preferred;
 	private Map<Dockable, PersistentCell> cells;
 	
+	/** the {@link Dockable}s of the cells, in the same order as {@link #cellSizes} */
+	private Dockable[] dockables;
+	/** the current size of each cell */
+	private int[] cellSizes;
+	/** the preferred size of each cell */
+	private int[] cellPreferredSizes;
+	
 	public PersistentColumn( int size, int preferred, Map<Dockable, PersistentCell> cells ){
 		this.size = size;
 		this.preferred = preferred;
@@ -52,6 +61,21 @@ public PersistentColumn( int size, int preferred, Map<Dockable, PersistentCell>
 			this.size = preferred;
 		}
 		this.cells = cells;
+		
+		int count = cells.size();
+		dockables = new Dockable[ count ];
+		cellSizes = new int[ count ];
+		cellPreferredSizes = new int[ count ];
+		
+		int index = 0;
+		for( Map.Entry<Dockable, PersistentCell> entry : cells.entrySet() ){
+			PersistentCell cell = entry.getValue();
+			dockables[ index ] = entry.getKey();
+			cellSizes[ index ] = cell.getSize();
+			cellPreferredSizes[ index ] = cell.getPreferredSize();
+			cell.bind( this, index );
+			index++;
+		}
 	}
 	
 	public void setSize( int size ){
@@ -66,7 +90,80 @@ public int getPreferredSize(){
 		return preferred;
 	}
 	
+	/**
+	 * Updates the preferred size of this column.
+	 * @param preferred the new preferred size
+	 */
+	void setPreferredSize( int preferred ){
+		this.preferred = preferred;
+	}
+	
 	public Map<Dockable, PersistentCell> getCells(){
 		return cells;
 	}
+	
+	/**
+	 * Gets the number of cells of this column.
+	 * @return the number of cells
+	 */
+	public int getCellCount(){
+		return dockables.length;
+	}
+	
+	/**
+	 * Gets the {@link Dockable} that is shown in the cell <code>index</code>.
+	 * @param index the index of the cell
+	 * @return the {@link Dockable} of the cell
+	 */
+	public Dockable getCellDockable( int index ){
+		return dockables[ index ];
+	}
+	
+	/**
+	 * Gets the size of the cell <code>index</code>.
+	 * @param index the index of the cell
+	 * @return the size of the cell
+	 */
+	public int getCellSize( int index ){
+		return cellSizes[ index ];
+	}
+	
+	/**
+	 * Changes the size of the cell <code>index</code>.
+	 * @param index the index of the cell
+	 * @param size the new size
+	 */
+	public void setCellSize( int index, int size ){
+		cellSizes[ index ] = size;
+	}
+	
+	/**
+	 * Gets the preferred size of the cell <code>index</code>.
+	 * @param index the index of the cell
+	 * @return the preferred size of the cell
+	 */
+	public int getCellPreferredSize( int index ){
+		return cellPreferredSizes[ index ];
+	}
+	
+	/**
+	 * Updates the preferred size of the cell <code>index</code>.
+	 * @param index the index of the cell
+	 * @param preferred the new preferred size
+	 */
+	void setCellPreferredSize( int index, int preferred ){
+		cellPreferredSizes[ index ] = preferred;
+	}
+	
+	/**
+	 * Gets the sum of the sizes of all cells.
+	 * @return the sum of all sizes
+	 */
+	public int getCellSizeSum(){
+		int sum = 0;
+		for( int size : cellSizes ){
+			sum += size;
+		}
+		return sum;
+	}
 }
\ No newline at end of file
@@ -60,6 +60,9 @@ public class WizardColumnModel {
 	/** Information about columns that needs to persist even when the stations layout changes */
 	private PersistentColumn[] persistentColumns;
 	
+	/** the current map of columns and cells, lazily created */
+	private WizardNodeMap map;
+	
 	public WizardColumnModel( WizardSplitDockStation station ){
 		this( station, -1, -1 );
 	}
@@ -133,16 +136,20 @@ public boolean isHeaderLevel( SplitNode node, boolean recursive ){
 	/**
 	 * Gets a map containing the current columns and cells. This method may decide
 	 * at any time to create a new map. Callers may use the map to ask as many queries as they
-	 * want, they should however never use more than one map at the same time.
+	 * want, they should however never use more than one map at the same time.<br>
+	 * The map is kept alive as long as possible, it updates itself if the tree of the station changes.
 	 * @return the current map of cells and columns
 	 */
 	protected WizardNodeMap getMap(){
-		return new WizardNodeMap( station, persistentColumns ){
-			@Override
-			protected void handlePersistentColumnsAdapted( PersistentColumn[] persistentColumns ){
-				WizardColumnModel.this.persistentColumns = persistentColumns;	
-			}
-		};
+		if( map == null ){
+			map = new WizardNodeMap( station, persistentColumns ){
+				@Override
+				protected void handlePersistentColumnsAdapted( PersistentColumn[] persistentColumns ){
+					WizardColumnModel.this.persistentColumns = persistentColumns;	
+				}
+			};
+		}
+		return map;
 	}
 	
 	/**
@@ -160,11 +167,10 @@ public Dimension getPreferredSize(){
 			size += gap( c );
 			
 			int cellSize = 0;
-			int count = 0;
-			for( PersistentCell cell : column.getCells().values() ){
-				cellSize += cell.getSize();
-				cellSize += gap( c, count );
-				count++;
+			int count = column.getCellCount();
+			for( int i = 0; i < count; i++ ){
+				cellSize += column.getCellSize( i );
+				cellSize += gap( c, i );
 			}
 			cellSize += gap( c, count );
 			cellMax = Math.max( cellMax, cellSize );
@@ -307,10 +313,11 @@ private void setDivider( WizardNodeMap map, Column column, double oldDividier, d
 	 */
 	public void resetToPreferredSizes(){
 		WizardNodeMap map = getMap();
+		map.updatePreferredSizes();
 		for( PersistentColumn column : map.getPersistentColumns() ){
 			column.setSize( column.getPreferredSize() );
-			for( PersistentCell cell : column.getCells().values() ){
-				cell.setSize( cell.getPreferredSize() );
+			for( int i = 0, n = column.getCellCount(); i < n; i++ ){
+				column.setCellSize( i, column.getCellPreferredSize( i ) );
 			}
 		}
 		applyPersistentSizes( map, true );
@@ -408,6 +415,7 @@ public void updateBounds( double x, double y ){
 		double h = 1.0;
 		int gap0 = gap( 0 );
 		WizardNodeMap map = getMap();
+		map.invalidateSizes();
 		int columns = map.getColumns().size();
 		
 		if( side().getHeaderOrientation() == Orientation.HORIZONTAL ){
@@ -480,14 +488,13 @@ protected void updateBounds( SplitNode node, double x, double y, double width, d
 	 * @param map information about the current layout
 	 */
 	protected void updateBounds( double x, double y, double width, double height, Column column, WizardNodeMap map ){
-		int requested = 0;
-		int count = 0;
+		PersistentColumn persistent = column.getPersistentColumn();
+		int requested = persistent.getCellSizeSum();
+		int count = persistent.getCellCount();
 		int gaps = 0;
 		
-		for( PersistentCell cell : column.getPersistentColumn().getCells().values()){
-			requested += cell.getSize();
-			gaps += gap( column.getIndex(), count );
-			count++;
+		for( int i = 0; i < count; i++ ){
+			gaps += gap( column.getIndex(), i );
 		}
 		gaps += gap( column.getIndex(), count );
 		int gap0 = gap( column.getIndex(), 0 );
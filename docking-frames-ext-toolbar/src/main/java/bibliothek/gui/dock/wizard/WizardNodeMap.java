@@ -34,9 +34,9 @@
 import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -55,16 +55,31 @@
 
 /**
  * The node map tells the location of nodes and columns. It does not offer any logic to change these
- * properties.
+ * properties.<br>
+ * The map observes the {@link SplitNode#getTreeRevision() revision} of the tree of its station. If the tree
+ * changes, then only the {@link Column}s whose subtree changed are created anew, all other {@link Column}s
+ * and their {@link PersistentColumn}s are reused.
  * @author Benjamin Sigg
  */
 public abstract class WizardNodeMap {
 	private Map<SplitNode, Column> columns;
 	private WizardSplitDockStation station;
 	
+	/** all the cells of all the columns */
+	private Map<SplitNode, Cell> cells;
+	
+	/** all the columns ordered by their index */
+	private Column[] sortedColumns;
+	
+	/** the revision of the tree of {@link #station} when {@link #columns} was built */
+	private long revision;
+	
 	/** Information about columns that needs to persist even when the stations layout changes */
 	private PersistentColumn[] persistentColumns;
 	
+	/** the revision of the tree when {@link #persistentColumns} was last updated, -1 if never updated */
+	private long persistentRevision = -1;
+	
 	/**
 	 * Creates a new map using the current content of <code>station</code>
 	 * @param station the station whose content is to be analyzed
@@ -75,34 +90,22 @@ public WizardNodeMap( WizardSplitDockStation station, PersistentColumn[] persist
 		this.persistentColumns = persistentColumns;
 	}
 	
+	/**
+	 * Tells whether the tree of the station changed since the columns of this map were built.
+	 * @return whether the columns need to be updated
+	 */
+	private boolean isOutdated(){
+		return columns == null || revision != station.getRoot().getTreeRevision();
+	}
+	
 	private void buildColumns(){
+		Map<SplitNode, Column> oldColumns = columns;
 		columns = new HashMap<SplitNode, Column>();
+		cells = new HashMap<SplitNode, Cell>();
 		
-		station.getRoot().visit( new SplitNodeVisitor(){
-			@Override
-			public void handleRoot( Root root ){
-				// ignore
-			}
-
-			@Override
-			public void handleNode( Node node ){
-				if( isColumnRoot( node ) ) {
-					columns.put( node, new Column( node ) );
-				}
-			}
-
-			@Override
-			public void handleLeaf( Leaf leaf ){
-				if( isColumnRoot( leaf ) ) {
-					columns.put( leaf, new Column( leaf ) );
-				}
-			}
-
-			@Override
-			public void handlePlaceholder( Placeholder placeholder ){
-				// ignore
-			}
-		} );
+		Root root = station.getRoot();
+		revision = root.getTreeRevision();
+		collectColumns( root, oldColumns );
 		
 		Column[] array = columns.values().toArray( new Column[ columns.size() ] );
 		Arrays.sort( array, new Comparator<Column>(){
@@ -135,6 +138,37 @@ private int score( Column c ){
 		for( int i = 0; i < array.length; i++ ){
 			array[i].index = i;
 		}
+		sortedColumns = array;
+	}
+	
+	/**
+	 * Searches all the roots of {@link Column}s in the subtree of <code>node</code>. Columns of 
+	 * <code>oldColumns</code> are reused if their subtree did not change. If columns are nested, then
+	 * the cells are associated with the innermost column.
+	 * @param node the root of the subtree to search
+	 * @param oldColumns the columns that were found the last time, can be <code>null</code>
+	 */
+	private void collectColumns( SplitNode node, Map<SplitNode, Column> oldColumns ){
+		if( node == null ){
+			return;
+		}
+		if( isColumnRoot( node ) ){
+			Column column = null;
+			if( oldColumns != null ){
+				column = oldColumns.get( node );
+				if( column != null && column.revision != node.getTreeRevision() ){
+					column = null;
+				}
+			}
+			if( column == null ){
+				column = new Column( node );
+			}
+			columns.put( node, column );
+			cells.putAll( column.cells );
+		}
+		for( int i = 0, n = node.getMaxChildrenCount(); i < n; i++ ){
+			collectColumns( node.getChild( i ), oldColumns );
+		}
 	}
 	
 	/**
@@ -142,12 +176,43 @@ private int score( Column c ){
 	 * @return all the columns
 	 */
 	public Map<SplitNode, Column> getColumns(){
-		if( columns == null ){
+		if( isOutdated() ){
 			buildColumns();
 		}
 		return columns;
 	}
 	
+	/**
+	 * Gets all the cells of all the columns of this map.
+	 * @return all the cells
+	 */
+	private Map<SplitNode, Cell> getCells(){
+		getColumns();
+		return cells;
+	}
+	
+	/**
+	 * Forgets the cached preferred and minimum sizes of all cells. This method should be called
+	 * whenever the size of some {@link Dockable} may have changed.
+	 */
+	public void invalidateSizes(){
+		for( Cell cell : getCells().values() ){
+			cell.preferredSize = null;
+			cell.minimumSize = null;
+		}
+	}
+	
+	/**
+	 * Updates the preferred size of all {@link PersistentColumn}s and {@link PersistentCell}s.
+	 */
+	public void updatePreferredSizes(){
+		invalidateSizes();
+		getPersistentColumns();
+		for( Column column : sortedColumns ){
+			column.updatePreferredSizes();
+		}
+	}
+	
 	/**
 	 * Gets the number of columns.
 	 * @return the number of columns
@@ -161,15 +226,8 @@ public int getColumnCount(){
 	 * @return the ordered columns
 	 */
 	public Column[] getSortedColumns(){
-		Collection<Column> columns = getColumns().values();
-		Column[] array = columns.toArray( new Column[ columns.size() ] );
-		Arrays.sort( array, new Comparator<Column>(){
-			@Override
-			public int compare( Column o1, Column o2 ){
-				return o1.getIndex() - o2.getIndex();
-			}
-		});
-		return array;
+		getColumns();
+		return sortedColumns.clone();
 	}
 
 	/**
@@ -306,11 +364,13 @@ public PersistentCell getHeadCell( SplitNode node ){
 		while( node != null ){
 			if( node instanceof Leaf ){
 				Dockable dockable = ((Leaf)node).getDockable();
-				for( Column column : getColumns().values() ){
-					if( column.cells.get( node ) != null ){
-						PersistentCell cell = column.getPersistentColumn().getCells().get( dockable );
-						if( cell != null ){
-							return cell;
+				Cell cell = getCells().get( node );
+				if( cell != null ){
+					PersistentColumn column = cell.column.getPersistentColumn();
+					if( column != null ){
+						PersistentCell result = column.getCells().get( dockable );
+						if( result != null ){
+							return result;
 						}
 					}
 				}
@@ -395,22 +455,39 @@ public Leaf[] getLastLeafOfColumns(){
 		return result.toArray( new Leaf[ result.size() ] );
 	}
 	
+	/**
+	 * Gets the {@link PersistentColumn}s of all the {@link Column}s of this map. The persistent columns
+	 * are only updated if the tree of the station changed, and only those columns whose content changed
+	 * are created anew.
+	 * @return the persistent columns, ordered like the {@link #getSortedColumns() columns}
+	 */
 	public PersistentColumn[] getPersistentColumns(){
-		List<PersistentColumn> result = new ArrayList<PersistentColumn>( getColumns().size() );
-		for( Column column : getColumns().values() ){
-			PersistentColumn next = column.toPersistentColumn();
-			if( next != null ){
-				result.add( next );
+		getColumns();
+		if( persistentColumns == null || persistentRevision != revision ){
+			List<PersistentColumn> result = new ArrayList<PersistentColumn>( sortedColumns.length );
+			List<PersistentColumn> created = new ArrayList<PersistentColumn>();
+			
+			for( Column column : sortedColumns ){
+				PersistentColumn next = column.persistent;
+				if( next == null ){
+					next = column.toPersistentColumn();
+					column.persistent = next;
+					if( next != null ){
+						created.add( next );
+					}
+				}
+				if( next != null ){
+					result.add( next );
+				}
+			}
+			
+			if( persistentColumns != null && created.size() > 0 ){
+				adapt( persistentColumns, created.toArray( new PersistentColumn[ created.size() ] ) );
 			}
-		}
-		
-		if( persistentColumns == null ){
 			persistentColumns = result.toArray( new PersistentColumn[ result.size() ] );
+			persistentRevision = revision;
+			handlePersistentColumnsAdapted( persistentColumns );
 		}
-		else {
-			persistentColumns = adapt( persistentColumns, result.toArray( new PersistentColumn[ result.size() ] ) );
-		}
-		handlePersistentColumnsAdapted( persistentColumns );
 		return persistentColumns;
 	}
 	
@@ -476,10 +553,19 @@ else if( sources.size() > 0 ){
 		private SplitNode root;
 		private Map<SplitNode, Cell> cells = new HashMap<SplitNode, Cell>();
 		private List<Cell> leafCells = new ArrayList<WizardNodeMap.Cell>();
+		/** the cells of {@link #leafCells} ordered by their index */
+		private Cell[] sortedLeafCells;
 		private int index;
 		
+		/** the revision of the subtree of {@link #root} when this column was created */
+		private long revision;
+		
+		/** the persistent version of this column, <code>null</code> if not yet created */
+		private PersistentColumn persistent;
+		
 		private Column( SplitNode root ){
 			this.root = root;
+			this.revision = root.getTreeRevision();
 			root.visit( new SplitNodeVisitor(){
 				@Override
 				public void handleRoot( Root root ){
@@ -536,6 +622,7 @@ private int score( Cell c ){
 			for( int i = 0; i < array.length; i++ ){
 				array[i].index = i;
 			}
+			sortedLeafCells = array;
 		}
 
 		/**
@@ -592,55 +679,58 @@ public int getIndex(){
 			return index;
 		}
 		
+		/**
+		 * Gets the {@link PersistentColumn} which stores the sizes of this column.
+		 * @return the persistent column, can be <code>null</code> if this column does not have any leafs
+		 */
 		public PersistentColumn getPersistentColumn(){
-			Map<Dockable, PersistentCell> leafs = getLeafs();
-			
-			for( PersistentColumn column : getPersistentColumns() ){
-				if( column.getCells().keySet().equals( leafs.keySet() )){
-					return column;
-				}
-			}
-			
-			return null;
+			getPersistentColumns();
+			return persistent;
 		}
 		
+		/**
+		 * Creates a new {@link PersistentCell} for each leaf of this column. The order of the
+		 * cells is the same as the order of the leafs.
+		 * @return the new cells
+		 */
 		private Map<Dockable, PersistentCell> getLeafs(){
-			final Map<Dockable, PersistentCell> leafs = new HashMap<Dockable, PersistentCell>();
-			root.visit( new SplitNodeVisitor(){
-				@Override
-				public void handleRoot( Root root ){
-					// ignore	
-				}
-				
-				@Override
-				public void handlePlaceholder( Placeholder placeholder ){
-					// ignore					
-				}
+			Map<Dockable, PersistentCell> leafs = new LinkedHashMap<Dockable, PersistentCell>();
+			for( Cell cell : sortedLeafCells ){
+				Leaf leaf = (Leaf)cell.getNode();
+				int size;
+				int preferred;
 				
-				@Override
-				public void handleNode( Node node ){
-					// ignore
+				if( side().getHeaderOrientation() == Orientation.HORIZONTAL ){
+					size = leaf.getSize().height;
+					preferred = cell.getPreferredSize().height;
 				}
-				
-				@Override
-				public void handleLeaf( Leaf leaf ){
-					int size;
-					int preferred;
-					
-					if( side().getHeaderOrientation() == Orientation.HORIZONTAL ){
-						size = leaf.getSize().height;
-						preferred = getPreferredSize( leaf ).height;
-					}
-					else{
-						size = leaf.getSize().width;
-						preferred = getPreferredSize( leaf ).width;
-					}
-					leafs.put( leaf.getDockable(), new PersistentCell( size, preferred ));
+				else{
+					size = leaf.getSize().width;
+					preferred = cell.getPreferredSize().width;
 				}
-			} );
+				leafs.put( leaf.getDockable(), new PersistentCell( size, preferred ));
+			}
 			return leafs;
 		}
 		
+		/**
+		 * Copies the current preferred sizes of this column and its cells into the {@link PersistentColumn}.
+		 */
+		private void updatePreferredSizes(){
+			if( persistent == null ){
+				return;
+			}
+			boolean horizontal = side().getHeaderOrientation() == Orientation.HORIZONTAL;
+			
+			Dimension preferred = getPreferredSize();
+			persistent.setPreferredSize( horizontal ? preferred.width : preferred.height );
+			
+			for( int i = 0; i < sortedLeafCells.length; i++ ){
+				preferred = sortedLeafCells[i].getPreferredSize();
+				persistent.setCellPreferredSize( i, horizontal ? preferred.height : preferred.width );
+			}
+		}
+		
 		public Cell getRightmostCell( SplitNode node ){
 			while( node != null ){
 				if( node instanceof Node ){